@@ -18,6 +18,7 @@ package de.akra.idocit.common;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import de.akra.idocit.common.metrics.MetricsTest;
 import de.akra.idocit.common.services.RuleServiceTest;
 import de.akra.idocit.common.services.ThematicGridServiceTest;
 import de.akra.idocit.common.structure.DocumentationTest;
@@ -25,7 +26,9 @@ import de.akra.idocit.common.structure.InterfaceArtifactTest;
 import de.akra.idocit.common.structure.InterfaceTest;
 import de.akra.idocit.common.structure.OperationTest;
 import de.akra.idocit.common.structure.ParameterTest;
+import de.akra.idocit.common.utils.ConfigurationSnapshotTest;
 import de.akra.idocit.common.utils.SignaturElementUtilsTest;
+import de.akra.idocit.common.utils.SignatureElementDiffTest;
 import de.akra.idocit.common.utils.StringUtilsTest;
 
 /**
@@ -38,7 +41,8 @@ import de.akra.idocit.common.utils.StringUtilsTest;
 @Suite.SuiteClasses({ DocumentationTest.class, InterfaceArtifactTest.class,
 		InterfaceTest.class, OperationTest.class, ParameterTest.class,
 		RuleServiceTest.class, StringUtilsTest.class, SignaturElementUtilsTest.class,
-		ThematicGridServiceTest.class })
+		ThematicGridServiceTest.class, ConfigurationSnapshotTest.class,
+		MetricsTest.class, SignatureElementDiffTest.class })
 public class AllIDocItCommonTests
 {
 
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link Metrics}, {@link Counter}, {@link Histogram} and {@link Timer}.
+ */
+public class MetricsTest
+{
+	/**
+	 * A metric is created once per name.
+	 */
+	@Test
+	public void testRegistry()
+	{
+		assertSame(Metrics.counter("test.registry.counter"),
+				Metrics.counter("test.registry.counter"));
+		assertSame(Metrics.timer("test.registry.timer"),
+				Metrics.timer("test.registry.timer"));
+
+		try
+		{
+			Metrics.histogram("test.registry.timer");
+			throw new AssertionError("A timer must not be returned as histogram.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			// expected
+		}
+	}
+
+	/**
+	 * The histogram computes count, sum, minimum, maximum, mean and percentiles.
+	 */
+	@Test
+	public void testHistogram()
+	{
+		final Histogram histogram = Metrics.histogram("test.histogram");
+		histogram.reset();
+		for (int i = 1; i <= 100; i++)
+		{
+			histogram.update(i);
+		}
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(1, histogram.getMin());
+		assertEquals(100, histogram.getMax());
+		assertEquals(50.5, histogram.getMean(), 0.001);
+
+		// the percentile is the upper bound of its power-of-two bucket
+		assertEquals(63, histogram.getPercentile(0.5));
+		assertEquals(100, histogram.getPercentile(0.95));
+		assertEquals(1, histogram.getPercentile(0.0));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getPercentile(0.5));
+	}
+
+	/**
+	 * Timers and counters appear in the summary after they have recorded something.
+	 */
+	@Test
+	public void testSummary()
+	{
+		final Counter counter = Metrics.counter("test.summary.counter");
+		counter.reset();
+		final Timer timer = Metrics.timer("test.summary.timer");
+		timer.reset();
+
+		assertTrue(!Metrics.getSummary().contains("test.summary.counter"));
+
+		counter.add(3);
+		final long start = timer.start();
+		assertTrue(timer.stop(start) >= 0);
+
+		final String summary = Metrics.getSummary();
+		assertTrue(summary.contains("test.summary.counter: count=3"));
+		assertTrue(summary.contains("test.summary.timer: count=1"));
+		assertEquals("test.summary.counter: count=3",
+				Metrics.describe("test.summary.counter"));
+	}
+
+	/**
+	 * The MBean is reachable in the platform MBean server.
+	 */
+	@Test
+	public void testMBean() throws Exception
+	{
+		Metrics.counter("test.mbean.counter").increment();
+		Metrics.registerMBean();
+		try
+		{
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(Metrics.MBEAN_NAME);
+			final String[] names = (String[]) server.getAttribute(name, "MetricNames");
+			assertTrue(java.util.Arrays.asList(names).contains("test.mbean.counter"));
+		}
+		finally
+		{
+			Metrics.unregisterMBean();
+		}
+	}
+}
@@ -17,21 +17,26 @@ package de.akra.idocit.common.services;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.Test;
 
 import de.akra.idocit.common.constants.ThematicGridConstants;
 import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.ElementRecommendations;
 import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.Numerus;
 import de.akra.idocit.common.structure.Operation;
 import de.akra.idocit.common.structure.Parameter;
@@ -42,6 +47,7 @@ import de.akra.idocit.common.structure.SignatureElement;
 import de.akra.idocit.common.structure.ThematicGrid;
 import de.akra.idocit.common.structure.ThematicRole;
 import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
 import de.akra.idocit.common.structure.impl.TestOperation;
 import de.akra.idocit.common.structure.impl.TestParameter;
 import de.akra.idocit.common.structure.impl.TestParameters;
@@ -947,4 +953,149 @@ public class RuleServiceTest
 			assertFalse(RuleService.isRuleValid("foo bar baz"));
 		}
 	}
+
+	/**
+	 * Test cases for {@link RuleService#precompileRules(Collection)}.
+	 */
+	@Test
+	public void testPrecompileRules()
+	{
+		// Positive tests
+		// ******************************************************************************
+		{
+			// Test case #1: valid rules are compiled, blank and invalid ones are skipped
+			assertEquals(2, RuleService.precompileRules(Arrays.asList(
+					ThematicGridConstants.DEFAULT_RULE, "!exists(\"PRIMARY_KEY\")", "",
+					null, "foo bar baz")));
+
+			// Test case #2: a precompiled rule evaluates like before
+			final Operation operation = createFindCustomers_PLURAL_ByNameOperation();
+			assertTrue(RuleService.evaluateRule(ThematicGridConstants.DEFAULT_RULE,
+					operation));
+		}
+		{
+			// Test case #3: the contexts of an operation are not visible on interface
+			// level, although the script engine is shared
+			final Operation operation = createFindCustomers_PLURAL_ByNameOperation();
+			final String rule = "typeof thematicRoleContexts == \"undefined\"";
+			assertFalse(RuleService.evaluateRule(rule, operation));
+			assertTrue(RuleService.evaluateRule(rule,
+					(Interface) operation.getParent()));
+		}
+	}
+
+	/**
+	 * Test cases for
+	 * {@link RuleService#deriveRecommendations(InterfaceArtifact, List, List)}.
+	 */
+	@Test
+	public void testDeriveRecommendations()
+	{
+		final Operation operation = createFindCustomer_SINGULAR_ByNameOperation();
+		operation.setIdentifier("findCustomerByName");
+		final Interface anInterface = (Interface) operation.getParent();
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setInterfaces(Arrays.asList(anInterface));
+
+		final List<ThematicGrid> grids = new ArrayList<ThematicGrid>(
+				createMatchingGrids());
+		final List<ThematicRole> definedRoles = createDefinedRoles();
+
+		final Map<Integer, ElementRecommendations> recommendations = RuleService
+				.deriveRecommendations(artifact, grids, definedRoles);
+
+		// Positive tests
+		// ******************************************************************************
+		{
+			// Test case #1: the artifact, the interface, the operation, both parameter
+			// lists and both parameters have recommendations
+			assertEquals(7, recommendations.size());
+
+			// Test case #2: the operation and its parameters share the recommendations
+			final Parameter lastName = operation.getInputParameters().getParameters()
+					.get(0);
+			final ElementRecommendations operationRecommendations = recommendations
+					.get(operation.getId());
+			assertSame(operationRecommendations, recommendations.get(lastName.getId()));
+			assertSame(operationRecommendations,
+					recommendations.get(operation.getOutputParameters().getId()));
+
+			// Test case #3: the recommendations are the same as derived for a single
+			// element
+			assertEquals(RuleService.deriveRolesRecommendation(grids, definedRoles,
+					lastName), operationRecommendations.getRolesRecommendations());
+			assertEquals(RuleService.reduceGrid(grids.get(0), operation),
+					operationRecommendations.getReducedGrids().get("Finding Operations"));
+			assertEquals(grids.get(0), operationRecommendations.getMatchingGrids().get(
+					"Finding Operations"));
+
+			// Test case #4: the PRIMARY_KEY is reduced and the COMPARISON documented
+			final Set<String> missingRoles = new TreeSet<String>();
+			for (final ThematicRole role : operationRecommendations.getMissingRoles())
+			{
+				missingRoles.add(role.getName());
+			}
+			assertEquals(new TreeSet<String>(Arrays.asList("ACTION", "AGENT", "SOURCE")),
+					missingRoles);
+			assertTrue(operationRecommendations.hasMissingRoles());
+
+			// Test case #5: the artifact and the interface share the recommendations of
+			// the interface level
+			final ElementRecommendations interfaceRecommendations = recommendations
+					.get(artifact.getId());
+			assertSame(interfaceRecommendations,
+					recommendations.get(anInterface.getId()));
+			assertEquals(RuleService.deriveRolesRecommendation(
+					new ArrayList<ThematicGrid>(), definedRoles, anInterface),
+					interfaceRecommendations.getRolesRecommendations());
+			assertFalse(interfaceRecommendations.hasMissingRoles());
+			assertEquals(
+					RuleService.deriveRecommendations(anInterface, grids, definedRoles)
+							.getRolesRecommendations(),
+					interfaceRecommendations.getRolesRecommendations());
+		}
+	}
+
+	/**
+	 * {@link RuleService#deriveRecommendations(InterfaceArtifact, List, List)} takes only
+	 * the known attributes of a parameter, so a deferred data type is not reflected.
+	 */
+	@Test
+	public void testDeriveRecommendationsWithoutReflection()
+	{
+		final Operation operation = createFindCustomer_SINGULAR_ByNameOperation();
+		operation.setIdentifier("findCustomerByName");
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setInterfaces(Arrays.asList((Interface) operation.getParent()));
+
+		final Parameters inputs = operation.getInputParameters();
+		final Parameter customer = new TestParameter(inputs, "Parameter",
+				Numerus.SINGULAR, true)
+		{
+			@Override
+			public List<Parameter> getComplexType()
+			{
+				throw new IllegalStateException("The data type must not be reflected.");
+			}
+		};
+		customer.setDataTypeName("Customer");
+		customer.setIdentifier("customer");
+		final Parameter name = new TestParameter(customer, "Attribute",
+				Numerus.SINGULAR, false);
+		name.setDataTypeName("java.lang.String");
+		name.setIdentifier("name");
+		customer.addParameter(name);
+		inputs.addParameter(customer);
+
+		final Map<Integer, ElementRecommendations> recommendations = RuleService
+				.deriveRecommendations(artifact, new ArrayList<ThematicGrid>(
+						createMatchingGrids()), createDefinedRoles());
+
+		// the known attribute shares the recommendations of the operation
+		assertEquals(9, recommendations.size());
+		assertSame(recommendations.get(operation.getId()),
+				recommendations.get(name.getId()));
+	}
 }
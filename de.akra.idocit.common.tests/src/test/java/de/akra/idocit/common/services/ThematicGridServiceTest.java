@@ -17,8 +17,16 @@ package de.akra.idocit.common.services;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 
+import de.akra.idocit.common.structure.ThematicGrid;
+
 public class ThematicGridServiceTest
 {
 
@@ -50,4 +58,119 @@ public class ThematicGridServiceTest
 		}
 	}
 
+	private ThematicGrid createGrid(final String name, final String... verbs)
+	{
+		final ThematicGrid grid = new ThematicGrid();
+		grid.setName(name);
+		grid.setVerbs(new HashSet<String>(Arrays.asList(verbs)));
+		return grid;
+	}
+
+	/**
+	 * Test cases for {@link ThematicGridService#deriveThematicGrid(String, List)}.
+	 */
+	@Test
+	public void testDeriveThematicGrid()
+	{
+		final List<ThematicGrid> grids = new ArrayList<ThematicGrid>();
+		grids.add(createGrid("Checking Operations", "make_out", "test"));
+		grids.add(createGrid("Creating Operations", "make", "create"));
+		grids.add(createGrid("Getting Operations", "get", "Make"));
+
+		// Positive tests
+		// ******************************************************************************
+		{
+			// Test case #1: a single word verb in camel-syntax, case-insensitive
+			Map<String, ThematicGrid> matchingGrids = ThematicGridService
+					.deriveThematicGrid("CreateCustomer", grids);
+			assertEquals(1, matchingGrids.size());
+			assertSame(grids.get(1), matchingGrids.get("Creating Operations"));
+
+			// Test case #2: the longest verb is recognized
+			matchingGrids = ThematicGridService.deriveThematicGrid("makeOutReport", grids);
+			assertEquals(1, matchingGrids.size());
+			assertTrue(matchingGrids.containsKey("Checking Operations"));
+			assertEquals(matchingGrids,
+					ThematicGridService.deriveThematicGrid("make_out_report", grids));
+			assertEquals(matchingGrids,
+					ThematicGridService.deriveThematicGrid("makeOut", grids));
+
+			// Test case #3: a verb matches all grids containing it
+			matchingGrids = ThematicGridService.deriveThematicGrid("makeOrder", grids);
+			assertEquals(2, matchingGrids.size());
+			assertTrue(matchingGrids.containsKey("Creating Operations"));
+			assertTrue(matchingGrids.containsKey("Getting Operations"));
+
+			// Test case #4: the verb must end with a word
+			assertTrue(ThematicGridService.deriveThematicGrid("getter", grids).isEmpty());
+			assertEquals(1, ThematicGridService.deriveThematicGrid("getXML", grids)
+					.size());
+			assertTrue(ThematicGridService.deriveThematicGrid("get2Items", grids)
+					.isEmpty());
+
+			// Test case #5: a recognizer finds the same grids until the verbs change
+			final VerbRecognizer recognizer = new VerbRecognizer(grids);
+			assertEquals(ThematicGridService.deriveThematicGrid("makeOutReport", grids),
+					ThematicGridService.deriveThematicGrid("makeOutReport", recognizer));
+			grids.get(0).getVerbs().add("examine");
+			assertTrue(ThematicGridService.deriveThematicGrid("examineOrder", recognizer)
+					.isEmpty());
+			assertEquals(1, ThematicGridService.deriveThematicGrid("examineOrder", grids)
+					.size());
+		}
+
+		// Negative tests
+		// ******************************************************************************
+		{
+			// Test case #1: no verb in empty identifiers
+			assertTrue(ThematicGridService.deriveThematicGrid(null, grids).isEmpty());
+			assertTrue(ThematicGridService.deriveThematicGrid("", grids).isEmpty());
+			assertTrue(ThematicGridService.deriveThematicGrid(" _ ", grids).isEmpty());
+		}
+	}
+
+	/**
+	 * Test cases for {@link VerbRecognizer#findCandidateGrids(String)}.
+	 */
+	@Test
+	public void testFindCandidateGrids()
+	{
+		final List<ThematicGrid> grids = new ArrayList<ThematicGrid>();
+		grids.add(createGrid("Checking Operations", "make_out", "test"));
+		grids.add(createGrid("Creating Operations", "make", "create"));
+		grids.add(createGrid("Getting Operations", "get", "Make"));
+		final VerbRecognizer recognizer = new VerbRecognizer(grids);
+
+		// Positive tests
+		// ******************************************************************************
+		{
+			// Test case #1: all verbs starting with the prefix, shorter verbs first
+			final List<ThematicGrid> makeGrids = Arrays.asList(grids.get(1),
+					grids.get(2), grids.get(0));
+			assertEquals(makeGrids, recognizer.findCandidateGrids("m"));
+			assertEquals(makeGrids, recognizer.findCandidateGrids("MAK"));
+			assertEquals(makeGrids, recognizer.findCandidateGrids("make"));
+			assertEquals(Arrays.asList(grids.get(0)), recognizer.findCandidateGrids("te"));
+
+			// Test case #2: the recognized verb and the verbs continuing the identifier
+			assertEquals(makeGrids, recognizer.findCandidateGrids("makeO"));
+			assertEquals(makeGrids, recognizer.findCandidateGrids("make_ou"));
+
+			// Test case #3: only the recognized verb if no verb continues the identifier
+			assertEquals(Arrays.asList(grids.get(1), grids.get(2)),
+					recognizer.findCandidateGrids("makeOrder"));
+			assertEquals(Arrays.asList(grids.get(0)),
+					recognizer.findCandidateGrids("makeOutReport"));
+		}
+
+		// Negative tests
+		// ******************************************************************************
+		{
+			// Test case #1: no candidates for unknown prefixes and empty identifiers
+			assertTrue(recognizer.findCandidateGrids("x").isEmpty());
+			assertTrue(recognizer.findCandidateGrids("gem").isEmpty());
+			assertTrue(recognizer.findCandidateGrids(null).isEmpty());
+			assertTrue(recognizer.findCandidateGrids("").isEmpty());
+		}
+	}
 }
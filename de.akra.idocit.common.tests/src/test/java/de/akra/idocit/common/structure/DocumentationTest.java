@@ -1,27 +1,31 @@
-/*******************************************************************************
- * Copyright 2011, 2012 AKRA GmbH
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- *******************************************************************************/
+/*******************************************************************************
+ * Copyright 2011, 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
 package de.akra.idocit.common.structure;
-
+
 import static org.junit.Assert.assertEquals;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-
-import org.junit.Test;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
 
 /**
  * Tests for {@link Documentation}.
@@ -72,6 +76,119 @@ public class DocumentationTest
 		}
 	}
 
+	/**
+	 * Tests that {@link Documentation#copy()} shares the texts until one of both
+	 * Documentations is changed.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCopyOnWrite() throws Exception
+	{
+		/*
+		 * Positive tests
+		 * ******************************************************************************
+		 * Test case #1: Changing the source after copying does not change the copy.
+		 * ******************************************************************************
+		 */
+		{
+			Documentation sourceDoc = createDocumentation();
+			Documentation copiedDoc = sourceDoc.copy();
+			Documentation secondCopy = copiedDoc.copy();
+
+			Addressee tester = new Addressee("TESTER");
+			sourceDoc.getDocumentation().put(tester, "Documentation for testers.");
+			sourceDoc.getAddresseeSequence().add(tester);
+
+			assertEquals(3, sourceDoc.getAddresseeSequence().size());
+			assertEquals(2, copiedDoc.getAddresseeSequence().size());
+			assertEquals(2, copiedDoc.getDocumentation().size());
+			assertEquals(true, copiedDoc.equals(secondCopy));
+			assertEquals(true, copiedDoc.equals(createDocumentation()));
+		}
+
+		/*
+		 * Test case #2: A changed map is not copied again.
+		 * ******************************************************************************
+		 */
+		{
+			Documentation sourceDoc = createDocumentation();
+			Documentation copiedDoc = sourceDoc.copy();
+
+			Map<Addressee, String> docMap = copiedDoc.getDocumentation();
+			assertNotSame(sourceDoc.getDocumentation(), docMap);
+			assertSame(docMap, copiedDoc.getDocumentation());
+			assertEquals(true, sourceDoc.equals(copiedDoc));
+		}
+	}
+
+	/**
+	 * Tests that {@link Documentation#getDocumentationView()} and
+	 * {@link Documentation#getAddresseeSequenceView()} do not copy the texts shared with
+	 * a copy.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testViews() throws Exception
+	{
+		/*
+		 * Positive tests
+		 * ******************************************************************************
+		 * Test case #1: Reading the views keeps the texts shared, so the copy is made on
+		 * the first change.
+		 * ******************************************************************************
+		 */
+		{
+			Documentation sourceDoc = createDocumentation();
+			Documentation copiedDoc = sourceDoc.copy();
+
+			Map<Addressee, String> docView = copiedDoc.getDocumentationView();
+			List<Addressee> sequenceView = copiedDoc.getAddresseeSequenceView();
+			assertEquals(2, docView.size());
+			assertEquals(2, sequenceView.size());
+
+			Addressee tester = new Addressee("TESTER");
+			copiedDoc.getDocumentation().put(tester, "Documentation for testers.");
+			copiedDoc.getAddresseeSequence().add(tester);
+
+			assertEquals(2, docView.size());
+			assertEquals(2, sequenceView.size());
+			assertEquals(3, copiedDoc.getDocumentationView().size());
+			assertEquals(3, copiedDoc.getAddresseeSequenceView().size());
+			assertEquals(true, sourceDoc.equals(createDocumentation()));
+		}
+
+		/*
+		 * Negative tests
+		 * ******************************************************************************
+		 * Test case #1: The views can not be changed.
+		 * ******************************************************************************
+		 */
+		{
+			Documentation doc = createDocumentation();
+			try
+			{
+				doc.getDocumentationView().put(new Addressee("TESTER"), "text");
+				fail("The documentation view must not be changeable.");
+			}
+			catch (UnsupportedOperationException e)
+			{
+				// expected
+			}
+			try
+			{
+				doc.getAddresseeSequenceView().clear();
+				fail("The addressee sequence view must not be changeable.");
+			}
+			catch (UnsupportedOperationException e)
+			{
+				// expected
+			}
+			assertEquals(true, doc.equals(createDocumentation()));
+		}
+	}
+
 	/**
 	 * Create a test Documentation.
 	 * 
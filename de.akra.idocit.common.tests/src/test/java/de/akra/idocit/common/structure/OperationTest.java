@@ -91,6 +91,29 @@ public class OperationTest
 		}
 	}
 
+	/**
+	 * Tests {@link Operation#getChildElements()} and {@link Operation#copy(SignatureElement)}
+	 * without exceptions.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testWithoutExceptions() throws Exception
+	{
+		Operation operation = createOperation(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		operation.setExceptions(null);
+
+		List<SignatureElement> children = operation.getChildElements();
+		assertEquals(2, children.size());
+		assertEquals(operation.getInputParameters(), children.get(0));
+		assertEquals(operation.getOutputParameters(), children.get(1));
+
+		Operation copiedOperation = (Operation) operation
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		assertEquals(2, copiedOperation.getChildElements().size());
+		assertEquals(operation.getContentHash(), copiedOperation.getContentHash());
+	}
+
 	private Operation createOperation(SignatureElement parent)
 	{
 		Operation op = new TestOperation(parent, "Operation", "Searching Operations",
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.RoleScope;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+
+/**
+ * Tests for {@link ConfigurationSnapshot}.
+ */
+public class ConfigurationSnapshotTest
+{
+	@Test
+	public void testAddressees() throws IOException
+	{
+		final Addressee developer = new Addressee("Developer");
+		developer.setDescription("Programmierer \u00e4\u00f6\u00fc");
+		final Addressee manager = new Addressee("Manager");
+		manager.setDescription(null);
+		manager.setDefault(false);
+
+		final List<Addressee> addressees = Arrays.asList(developer, manager);
+		final List<Addressee> decoded = ConfigurationSnapshot
+				.decodeAddressees(ConfigurationSnapshot.encodeAddressees(addressees));
+
+		Assert.assertEquals(addressees, decoded);
+		Assert.assertFalse(decoded.get(1).isDefault());
+		Assert.assertNull(decoded.get(1).getDescription());
+
+		Assert.assertTrue(ConfigurationSnapshot.decodeAddressees(
+				ConfigurationSnapshot.encodeAddressees(new ArrayList<Addressee>()))
+				.isEmpty());
+	}
+
+	@Test
+	public void testThematicRoles() throws IOException
+	{
+		final List<ThematicRole> roles = Arrays.asList(new ThematicRole("AGENT",
+				"Who acts", RoleScope.INTERFACE_LEVEL), new ThematicRole("OBJECT", null,
+				null));
+
+		final List<ThematicRole> decoded = ConfigurationSnapshot
+				.decodeThematicRoles(ConfigurationSnapshot.encodeThematicRoles(roles));
+
+		Assert.assertEquals(roles, decoded);
+		Assert.assertEquals(RoleScope.INTERFACE_LEVEL, decoded.get(0).getRoleScope());
+		Assert.assertNull(decoded.get(1).getRoleScope());
+	}
+
+	@Test
+	public void testThematicGrids() throws IOException
+	{
+		final ThematicGrid grid = new ThematicGrid();
+		grid.setName("Searching Operations");
+		grid.setDescription("Operations which search for something.");
+		grid.setVerbs(new HashSet<String>(Arrays.asList("search", "find", "lookup")));
+		grid.setRefernceVerb("search");
+
+		final Map<ThematicRole, Boolean> roles = new HashMap<ThematicRole, Boolean>();
+		roles.put(new ThematicRole("OBJECT"), Boolean.TRUE);
+		roles.put(new ThematicRole("SOURCE"), Boolean.FALSE);
+		grid.setRoles(roles);
+
+		final Map<String, String> rules = new HashMap<String, String>();
+		rules.put("SOURCE", "def(SOURCE)");
+		grid.setGridBasedRules(rules);
+
+		final ThematicGrid emptyGrid = new ThematicGrid();
+		emptyGrid.setName("Empty");
+
+		final List<ThematicGrid> grids = Arrays.asList(grid, emptyGrid);
+		final List<ThematicGrid> decoded = ConfigurationSnapshot
+				.decodeThematicGrids(ConfigurationSnapshot.encodeThematicGrids(grids));
+
+		Assert.assertEquals(2, decoded.size());
+		Assert.assertEquals(grid.getName(), decoded.get(0).getName());
+		Assert.assertEquals(grid.getDescription(), decoded.get(0).getDescription());
+		Assert.assertEquals(grid.getVerbs(), decoded.get(0).getVerbs());
+		Assert.assertEquals(grid.getRefernceVerb(), decoded.get(0).getRefernceVerb());
+		Assert.assertEquals(grid.getRoles(), decoded.get(0).getRoles());
+		Assert.assertEquals(grid.getGridBasedRules(), decoded.get(0).getGridBasedRules());
+
+		Assert.assertEquals("Empty", decoded.get(1).getName());
+		Assert.assertNull(decoded.get(1).getVerbs());
+		Assert.assertNull(decoded.get(1).getRoles());
+		Assert.assertNull(decoded.get(1).getGridBasedRules());
+	}
+
+	@Test
+	public void testInvalidSnapshots()
+	{
+		final String roles = ConfigurationSnapshot.encodeThematicRoles(Arrays
+				.asList(new ThematicRole("AGENT")));
+
+		assertInvalid(roles.substring(0, roles.length() - 4));
+		assertInvalid("<list><thematicRole/></list>");
+		// a snapshot of roles is not a snapshot of addressees
+		assertInvalid(roles);
+	}
+
+	private static void assertInvalid(final String snapshot)
+	{
+		try
+		{
+			ConfigurationSnapshot.decodeAddressees(snapshot);
+			Assert.fail("IOException expected for " + snapshot);
+		}
+		catch (final IOException e)
+		{
+			// expected
+		}
+	}
+}
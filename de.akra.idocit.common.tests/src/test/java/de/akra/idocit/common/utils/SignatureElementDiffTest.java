@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
+import de.akra.idocit.common.structure.impl.TestOperation;
+import de.akra.idocit.common.structure.impl.TestParameter;
+import de.akra.idocit.common.structure.impl.TestParameters;
+import de.akra.idocit.common.utils.SignatureElementDiff.ChangeType;
+import de.akra.idocit.common.utils.SignatureElementDiff.ElementChange;
+
+/**
+ * Tests for {@link SignatureElementDiff}.
+ */
+public class SignatureElementDiffTest
+{
+	private static final Addressee DEVELOPER = new Addressee("Developer");
+
+	/**
+	 * A changed documentation is reported for its element only, and the hashes of the
+	 * other subtrees stay cached.
+	 */
+	@Test
+	public void testChangedDocumentation()
+	{
+		final InterfaceArtifact oldArtifact = createInterfaceArtifact();
+		final InterfaceArtifact newArtifact = (InterfaceArtifact) oldArtifact
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		assertTrue(SignatureElementDiff.compare(oldArtifact, newArtifact).isEmpty());
+
+		final Operation findCustomer = operation(newArtifact, 0);
+		final Operation deleteCustomer = operation(newArtifact, 1);
+		final String deleteHash = deleteCustomer.getContentHash();
+		final String artifactHash = newArtifact.getContentHash();
+
+		final Parameter id = findCustomer.getInputParameters().getParameters().get(0);
+		id.getDocumentations().get(0).getDocumentation()
+				.put(DEVELOPER, "The unique ID of the customer.");
+		id.setDocumentationChanged(true);
+		assertFalse(artifactHash.equals(newArtifact.getContentHash()));
+		assertEquals(deleteHash, deleteCustomer.getContentHash());
+
+		final List<ElementChange> changes = SignatureElementDiff.compare(oldArtifact,
+				newArtifact);
+		assertEquals(1, changes.size());
+		final ElementChange change = changes.get(0);
+		assertEquals(ChangeType.CHANGED, change.getType());
+		assertEquals("CustomerService.java/CustomerService/findCustomer/Parameters/id",
+				change.getPath());
+		assertSame(id, change.getNewElement());
+		assertEquals(0, change.getAddedDocumentations().size());
+		assertEquals(0, change.getRemovedDocumentations().size());
+		assertEquals(Arrays.asList(id.getDocumentations().get(0)),
+				change.getChangedDocumentations());
+	}
+
+	/**
+	 * Added and removed elements and documentations are reported.
+	 */
+	@Test
+	public void testAddedAndRemoved()
+	{
+		final InterfaceArtifact oldArtifact = createInterfaceArtifact();
+		final InterfaceArtifact newArtifact = (InterfaceArtifact) oldArtifact
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+
+		final Interface iface = newArtifact.getInterfaces().get(0);
+		final Operation deleteCustomer = operation(newArtifact, 1);
+		final Operation updateCustomer = createOperation(iface, "updateCustomer");
+		final List<Operation> operations = new ArrayList<Operation>();
+		operations.add(operation(newArtifact, 0));
+		operations.add(updateCustomer);
+		iface.setOperations(operations);
+
+		final Documentation ifaceDoc = createDocumentation("OBJECT", "The customers.");
+		iface.addDocpart(ifaceDoc);
+
+		final List<ElementChange> changes = SignatureElementDiff.compare(oldArtifact,
+				newArtifact);
+		assertEquals(3, changes.size());
+
+		assertEquals(ChangeType.CHANGED, changes.get(0).getType());
+		assertEquals("CustomerService.java/CustomerService", changes.get(0).getPath());
+		assertEquals(Arrays.asList(ifaceDoc), changes.get(0).getAddedDocumentations());
+
+		assertEquals(ChangeType.ADDED, changes.get(1).getType());
+		assertEquals("CustomerService.java/CustomerService/updateCustomer", changes
+				.get(1).getPath());
+		assertSame(updateCustomer, changes.get(1).getNewElement());
+
+		assertEquals(ChangeType.REMOVED, changes.get(2).getType());
+		assertEquals("CustomerService.java/CustomerService/deleteCustomer", changes
+				.get(2).getPath());
+		assertEquals(deleteCustomer, changes.get(2).getOldElement());
+		assertEquals(deleteCustomer.getDocumentations(), changes.get(2)
+				.getRemovedDocumentations());
+	}
+
+	/**
+	 * Changes whose hash codes are equal to the old ones ("Aa" and "BB" have the same
+	 * hash code) have different content hashes and are reported.
+	 */
+	@Test
+	public void testEqualHashes()
+	{
+		final InterfaceArtifact oldArtifact = createInterfaceArtifact();
+		final Parameter oldId = operation(oldArtifact, 0).getInputParameters()
+				.getParameters().get(0);
+		oldId.setIdentifier("Aa");
+		final Documentation oldDoc = operation(oldArtifact, 1).getDocumentations().get(0);
+		oldDoc.getDocumentation().put(DEVELOPER, "Does Aa.");
+		operation(oldArtifact, 1).setDocumentationChanged(true);
+
+		final InterfaceArtifact newArtifact = (InterfaceArtifact) oldArtifact
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		final Parameter newId = operation(newArtifact, 0).getInputParameters()
+				.getParameters().get(0);
+		newId.setIdentifier("BB");
+		final Operation deleteCustomer = operation(newArtifact, 1);
+		final Documentation newDoc = deleteCustomer.getDocumentations().get(0);
+		newDoc.getDocumentation().put(DEVELOPER, "Does BB.");
+		deleteCustomer.setDocumentationChanged(true);
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		assertFalse(oldArtifact.getContentHash().equals(newArtifact.getContentHash()));
+
+		final List<ElementChange> changes = SignatureElementDiff.compare(oldArtifact,
+				newArtifact);
+		assertEquals(3, changes.size());
+
+		assertEquals(ChangeType.ADDED, changes.get(0).getType());
+		assertEquals("CustomerService.java/CustomerService/findCustomer/Parameters/BB",
+				changes.get(0).getPath());
+		assertEquals(ChangeType.REMOVED, changes.get(1).getType());
+		assertEquals("CustomerService.java/CustomerService/findCustomer/Parameters/Aa",
+				changes.get(1).getPath());
+
+		assertEquals(ChangeType.CHANGED, changes.get(2).getType());
+		assertEquals("CustomerService.java/CustomerService/deleteCustomer", changes
+				.get(2).getPath());
+		assertEquals(Arrays.asList(newDoc), changes.get(2).getChangedDocumentations());
+	}
+
+	private static Operation operation(final InterfaceArtifact artifact,
+			final int index)
+	{
+		return artifact.getInterfaces().get(0).getOperations().get(index);
+	}
+
+	private static InterfaceArtifact createInterfaceArtifact()
+	{
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setIdentifier("CustomerService.java");
+
+		final Interface interf = new TestInterface(artifact, "Class", Numerus.SINGULAR);
+		interf.setIdentifier("CustomerService");
+
+		final List<Operation> operations = new ArrayList<Operation>();
+		operations.add(createOperation(interf, "findCustomer"));
+		operations.add(createOperation(interf, "deleteCustomer"));
+		interf.setOperations(operations);
+
+		final List<Interface> interfaces = new ArrayList<Interface>();
+		interfaces.add(interf);
+		artifact.setInterfaces(interfaces);
+		return artifact;
+	}
+
+	private static Operation createOperation(final Interface parent,
+			final String identifier)
+	{
+		final Operation op = new TestOperation(parent, "Method", "Searching Operations",
+				Numerus.SINGULAR);
+		op.setIdentifier(identifier);
+		op.addDocpart(createDocumentation("ACTION", "Does it."));
+
+		final Parameters inputParameters = new TestParameters(op, "Parameters",
+				Numerus.SINGULAR);
+		final Parameter paramId = new TestParameter(inputParameters, "Parameter",
+				Numerus.SINGULAR, false);
+		paramId.setIdentifier("id");
+		paramId.setDataTypeName("int");
+		paramId.addDocpart(createDocumentation("COMPARISON", "The ID of the customer."));
+		inputParameters.addParameter(paramId);
+		op.setInputParameters(inputParameters);
+		return op;
+	}
+
+	private static Documentation createDocumentation(final String role,
+			final String text)
+	{
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(new ThematicRole(role));
+		final Map<Addressee, String> texts = new HashMap<Addressee, String>();
+		texts.put(DEVELOPER, text);
+		documentation.setDocumentation(texts);
+		documentation.setAddresseeSequence(new ArrayList<Addressee>(Arrays
+				.asList(DEVELOPER)));
+		return documentation;
+	}
+}
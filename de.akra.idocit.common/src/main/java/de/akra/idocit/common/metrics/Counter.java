@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe counter of events, e.g. of cache hits.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see Metrics#counter(String)
+ */
+public final class Counter
+{
+	private final String name;
+
+	private final AtomicLong count = new AtomicLong();
+
+	Counter(final String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * Increments the counter by one.
+	 *
+	 * @thematicgrid Putting Operations
+	 */
+	public void increment()
+	{
+		count.incrementAndGet();
+	}
+
+	/**
+	 * Adds <code>delta</code> to the counter.
+	 *
+	 * @param delta
+	 *            [ATTRIBUTE] The value to add.
+	 * @thematicgrid Putting Operations
+	 */
+	public void add(final long delta)
+	{
+		count.addAndGet(delta);
+	}
+
+	/**
+	 * @return [COUNT] The current value.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	/**
+	 * @return [OBJECT] The name of the counter.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Sets the counter to zero.
+	 *
+	 * @thematicgrid Resetting Operations
+	 */
+	public void reset()
+	{
+		count.set(0);
+	}
+
+	@Override
+	public String toString()
+	{
+		return name + ": count=" + getCount();
+	}
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe distribution of non-negative values, e.g. sizes or durations.
+ * <p>
+ * Besides count, sum, minimum and maximum the values are counted in buckets whose
+ * upper bounds are powers of two. Percentiles are estimated from these buckets, so
+ * they are at most twice the real value. Recording a value does not allocate and
+ * does not lock.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see Metrics#histogram(String)
+ */
+public class Histogram
+{
+	/**
+	 * Bucket <code>i</code> counts the values below <code>2^i</code> which do not fit
+	 * into bucket <code>i - 1</code>.
+	 */
+	private static final int BUCKETS = 64;
+
+	private final String name;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	Histogram(final String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * Records the <code>value</code>. Negative values are recorded as zero.
+	 *
+	 * @param value
+	 *            [OBJECT] The value to record.
+	 * @thematicgrid Putting Operations
+	 */
+	public void update(final long value)
+	{
+		final long v = Math.max(0, value);
+		count.incrementAndGet();
+		sum.addAndGet(v);
+		buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v)));
+
+		long current = min.get();
+		while (v < current && !min.compareAndSet(current, v))
+		{
+			current = min.get();
+		}
+		current = max.get();
+		while (v > current && !max.compareAndSet(current, v))
+		{
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return [OBJECT] The name of the histogram.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @return [COUNT] The number of recorded values.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	/**
+	 * @return [COUNT] The sum of all recorded values.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public long getSum()
+	{
+		return sum.get();
+	}
+
+	/**
+	 * @return [REPORT] The smallest recorded value, or 0 if nothing is recorded.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public long getMin()
+	{
+		return getCount() > 0 ? min.get() : 0;
+	}
+
+	/**
+	 * @return [REPORT] The largest recorded value, or 0 if nothing is recorded.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public long getMax()
+	{
+		return getCount() > 0 ? max.get() : 0;
+	}
+
+	/**
+	 * @return [REPORT] The mean of the recorded values, or 0 if nothing is recorded.
+	 * @thematicgrid Calculating Operations
+	 */
+	public double getMean()
+	{
+		final long n = getCount();
+		return n > 0 ? (double) getSum() / n : 0;
+	}
+
+	/**
+	 * Estimates the value below which the <code>percentile</code> of the recorded
+	 * values fall.
+	 *
+	 * @param percentile
+	 *            [ATTRIBUTE] The percentile between 0 and 1, e.g. 0.95.
+	 * @return [REPORT] The upper bound of the bucket containing the percentile, but not
+	 *         more than the maximum. 0 if nothing is recorded.
+	 * @thematicgrid Calculating Operations
+	 */
+	public long getPercentile(final double percentile)
+	{
+		final long n = getCount();
+		if (n == 0)
+		{
+			return 0;
+		}
+
+		final long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * n);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += buckets.get(i);
+			if (seen >= rank && seen > 0)
+			{
+				final long upperBound = i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+				return Math.min(upperBound, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes all recorded values.
+	 *
+	 * @thematicgrid Resetting Operations
+	 */
+	public void reset()
+	{
+		count.set(0);
+		sum.set(0);
+		min.set(Long.MAX_VALUE);
+		max.set(Long.MIN_VALUE);
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			buckets.set(i, 0);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return name + ": count=" + getCount() + ", min=" + getMin() + ", mean="
+				+ Math.round(getMean()) + ", p95=" + getPercentile(0.95) + ", max="
+				+ getMax();
+	}
+}
@@ -0,0 +1,361 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The registry of all {@link Counter}s, {@link Histogram}s and {@link Timer}s of
+ * iDocIt!. The metrics are created on their first use and live as long as the
+ * application.
+ * <p>
+ * The metrics can be observed with JMX after {@link #registerMBean()}, or written
+ * to the log periodically with {@link #startPeriodicLog(long)}.
+ * </p>
+ * <p>
+ * Names are dot-separated, starting with the area, e.g.
+ * <code>"parser.parse.java"</code>, <code>"rules.evaluate"</code> or
+ * <code>"ui.recommendations"</code>.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class Metrics
+{
+	private static final Logger LOG = Logger.getLogger(Metrics.class.getName());
+
+	/**
+	 * The name of the MBean, see {@link #registerMBean()}.
+	 */
+	public static final String MBEAN_NAME = "de.akra.idocit:type=Metrics";
+
+	/**
+	 * The system property with the period of the log summary in seconds. The summary is
+	 * not logged if the property is not set or not positive.
+	 */
+	public static final String LOG_PERIOD_PROPERTY = "de.akra.idocit.metrics.logPeriod";
+
+	private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<String, Counter>();
+
+	private static final ConcurrentMap<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<String, Histogram>();
+
+	private static final Object LOG_LOCK = new Object();
+
+	/**
+	 * The executor of the periodic log, guarded by {@link #LOG_LOCK}.
+	 */
+	private static ScheduledExecutorService logExecutor = null;
+
+	/**
+	 * Private constructor, only static methods.
+	 */
+	private Metrics()
+	{}
+
+	/**
+	 * @param name
+	 *            [PRIMARY_KEY] The name of the counter.
+	 * @return [OBJECT] The counter with the <code>name</code>. It is created if it does
+	 *         not exist.
+	 * @thematicgrid Getting Operations
+	 */
+	public static Counter counter(final String name)
+	{
+		Counter counter = COUNTERS.get(name);
+		if (counter == null)
+		{
+			final Counter newCounter = new Counter(name);
+			counter = COUNTERS.putIfAbsent(name, newCounter);
+			if (counter == null)
+			{
+				counter = newCounter;
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * @param name
+	 *            [PRIMARY_KEY] The name of the histogram.
+	 * @return [OBJECT] The histogram with the <code>name</code>. It is created if it
+	 *         does not exist.
+	 * @throws IllegalArgumentException
+	 *             If a {@link Timer} with the <code>name</code> exists.
+	 * @thematicgrid Getting Operations
+	 */
+	public static Histogram histogram(final String name)
+	{
+		final Histogram histogram = getOrCreateHistogram(name, false);
+		if (histogram instanceof Timer)
+		{
+			throw new IllegalArgumentException("The metric " + name + " is a timer.");
+		}
+		return histogram;
+	}
+
+	/**
+	 * @param name
+	 *            [PRIMARY_KEY] The name of the timer.
+	 * @return [OBJECT] The timer with the <code>name</code>. It is created if it does
+	 *         not exist.
+	 * @throws IllegalArgumentException
+	 *             If a {@link Histogram} with the <code>name</code> exists.
+	 * @thematicgrid Getting Operations
+	 */
+	public static Timer timer(final String name)
+	{
+		final Histogram histogram = getOrCreateHistogram(name, true);
+		if (!(histogram instanceof Timer))
+		{
+			throw new IllegalArgumentException("The metric " + name
+					+ " is a histogram.");
+		}
+		return (Timer) histogram;
+	}
+
+	private static Histogram getOrCreateHistogram(final String name,
+			final boolean isTimer)
+	{
+		Histogram histogram = HISTOGRAMS.get(name);
+		if (histogram == null)
+		{
+			final Histogram newHistogram = isTimer ? new Timer(name) : new Histogram(
+					name);
+			histogram = HISTOGRAMS.putIfAbsent(name, newHistogram);
+			if (histogram == null)
+			{
+				histogram = newHistogram;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * @return [REPORT] One line per used metric, sorted by name. Metrics which have not
+	 *         recorded anything are left out.
+	 * @thematicgrid Creating Operations
+	 */
+	public static String getSummary()
+	{
+		final Map<String, Object> metrics = new TreeMap<String, Object>();
+		for (final Counter counter : COUNTERS.values())
+		{
+			if (counter.getCount() != 0)
+			{
+				metrics.put(counter.getName(), counter);
+			}
+		}
+		for (final Histogram histogram : HISTOGRAMS.values())
+		{
+			if (histogram.getCount() != 0)
+			{
+				metrics.put(histogram.getName(), histogram);
+			}
+		}
+
+		final StringBuilder summary = new StringBuilder();
+		for (final Object metric : metrics.values())
+		{
+			summary.append(metric).append('\n');
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * @return [OBJECT] The names of all metrics, sorted.
+	 * @thematicgrid Getting Operations
+	 */
+	public static String[] getNames()
+	{
+		final Map<String, Object> names = new TreeMap<String, Object>();
+		names.putAll(COUNTERS);
+		names.putAll(HISTOGRAMS);
+		return names.keySet().toArray(new String[names.size()]);
+	}
+
+	/**
+	 * @param name
+	 *            [PRIMARY_KEY] The name of the metric.
+	 * @return [REPORT] The description of the metric, or <code>null</code> if it does
+	 *         not exist.
+	 * @thematicgrid Getting Operations
+	 */
+	public static String describe(final String name)
+	{
+		final Object metric = COUNTERS.containsKey(name) ? COUNTERS.get(name)
+				: HISTOGRAMS.get(name);
+		return metric != null ? metric.toString() : null;
+	}
+
+	/**
+	 * Resets all metrics.
+	 *
+	 * @thematicgrid Resetting Operations
+	 */
+	public static void reset()
+	{
+		for (final Counter counter : COUNTERS.values())
+		{
+			counter.reset();
+		}
+		for (final Histogram histogram : HISTOGRAMS.values())
+		{
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Registers the {@link MetricsView} in the platform MBean server under
+	 * {@link #MBEAN_NAME}. Nothing happens if it is already registered.
+	 *
+	 * @thematicgrid Starting Operations
+	 */
+	public static void registerMBean()
+	{
+		try
+		{
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName objectName = new ObjectName(MBEAN_NAME);
+			if (!server.isRegistered(objectName))
+			{
+				server.registerMBean(new MetricsView(), objectName);
+			}
+		}
+		catch (final JMException e)
+		{
+			LOG.log(Level.WARNING, "The metrics MBean could not be registered.", e);
+		}
+	}
+
+	/**
+	 * Unregisters the {@link MetricsView} from the platform MBean server.
+	 *
+	 * @thematicgrid Stopping Operations
+	 */
+	public static void unregisterMBean()
+	{
+		try
+		{
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName objectName = new ObjectName(MBEAN_NAME);
+			if (server.isRegistered(objectName))
+			{
+				server.unregisterMBean(objectName);
+			}
+		}
+		catch (final JMException e)
+		{
+			LOG.log(Level.WARNING, "The metrics MBean could not be unregistered.", e);
+		}
+	}
+
+	/**
+	 * Starts to log the {@link #getSummary()} every <code>periodSeconds</code> with the
+	 * level INFO. A running periodic log is replaced.
+	 *
+	 * @param periodSeconds
+	 *            [ATTRIBUTE] The period in seconds. If it is not positive, nothing is
+	 *            logged.
+	 * @thematicgrid Starting Operations
+	 */
+	public static void startPeriodicLog(final long periodSeconds)
+	{
+		synchronized (LOG_LOCK)
+		{
+			stopPeriodicLog();
+			if (periodSeconds <= 0)
+			{
+				return;
+			}
+
+			logExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable)
+				{
+					final Thread thread = new Thread(runnable, "iDocIt! Metrics Log");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			logExecutor.scheduleAtFixedRate(new Runnable() {
+				@Override
+				public void run()
+				{
+					final String summary = getSummary();
+					if (!summary.isEmpty())
+					{
+						LOG.log(Level.INFO, "iDocIt! metrics:\n" + summary);
+					}
+				}
+			}, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Starts the periodic log with the period of the system property
+	 * {@link #LOG_PERIOD_PROPERTY}, if it is set.
+	 *
+	 * @thematicgrid Starting Operations
+	 */
+	public static void startConfiguredPeriodicLog()
+	{
+		final String period = System.getProperty(LOG_PERIOD_PROPERTY);
+		if (period != null)
+		{
+			try
+			{
+				startPeriodicLog(Long.parseLong(period.trim()));
+			}
+			catch (final NumberFormatException e)
+			{
+				LOG.log(Level.WARNING, "Invalid value of " + LOG_PERIOD_PROPERTY + ": "
+						+ period);
+			}
+		}
+	}
+
+	/**
+	 * Stops the periodic log.
+	 *
+	 * @thematicgrid Stopping Operations
+	 */
+	public static void stopPeriodicLog()
+	{
+		synchronized (LOG_LOCK)
+		{
+			if (logExecutor != null)
+			{
+				logExecutor.shutdownNow();
+				logExecutor = null;
+			}
+		}
+	}
+}
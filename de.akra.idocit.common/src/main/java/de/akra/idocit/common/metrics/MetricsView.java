@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+/**
+ * The JMX MBean which delegates to {@link Metrics}.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see Metrics#registerMBean()
+ */
+public final class MetricsView implements MetricsViewMBean
+{
+	@Override
+	public String[] getMetricNames()
+	{
+		return Metrics.getNames();
+	}
+
+	@Override
+	public String getSummary()
+	{
+		return Metrics.getSummary();
+	}
+
+	@Override
+	public String describe(final String name)
+	{
+		return Metrics.describe(name);
+	}
+
+	@Override
+	public void reset()
+	{
+		Metrics.reset();
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+/**
+ * The JMX management interface of the {@link Metrics}.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public interface MetricsViewMBean
+{
+	/**
+	 * @return [OBJECT] The names of all metrics, sorted.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	String[] getMetricNames();
+
+	/**
+	 * @return [REPORT] One line per used metric.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	String getSummary();
+
+	/**
+	 * @param name
+	 *            [PRIMARY_KEY] The name of the metric.
+	 * @return [REPORT] The description of the metric, or <code>null</code> if it does
+	 *         not exist.
+	 * @thematicgrid Getting Operations
+	 */
+	String describe(String name);
+
+	/**
+	 * Resets all metrics.
+	 *
+	 * @thematicgrid Resetting Operations
+	 */
+	void reset();
+}
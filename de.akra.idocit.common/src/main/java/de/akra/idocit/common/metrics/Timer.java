@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Histogram} of durations in nanoseconds.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * final long start = timer.start();
+ * try
+ * {
+ * 	// the measured code
+ * }
+ * finally
+ * {
+ * 	timer.stop(start);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see Metrics#timer(String)
+ */
+public final class Timer extends Histogram
+{
+	Timer(final String name)
+	{
+		super(name);
+	}
+
+	/**
+	 * @return [ATTRIBUTE] The start time to pass to {@link #stop(long)}.
+	 * @thematicgrid Starting Operations
+	 */
+	public long start()
+	{
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the time since <code>startTime</code>.
+	 *
+	 * @param startTime
+	 *            [ATTRIBUTE] The result of {@link #start()}.
+	 * @return [REPORT] The recorded duration in nanoseconds.
+	 * @thematicgrid Stopping Operations
+	 */
+	public long stop(final long startTime)
+	{
+		final long duration = System.nanoTime() - startTime;
+		update(duration);
+		return duration;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getName() + ": count=" + getCount() + ", total=" + toMillis(getSum())
+				+ "ms, min=" + toMillis(getMin()) + "ms, mean="
+				+ toMillis(Math.round(getMean())) + "ms, p95="
+				+ toMillis(getPercentile(0.95)) + "ms, max=" + toMillis(getMax()) + "ms";
+	}
+
+	private static String toMillis(final long nanos)
+	{
+		final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		return (micros / 1000) + "." + String.format("%03d", micros % 1000);
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,12 +28,18 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.ElementRecommendations;
 import de.akra.idocit.common.structure.Interface;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.Operation;
@@ -71,6 +78,95 @@ public final class RuleService
 {
 	private static final Logger LOG = Logger.getLogger(RuleService.class.getName());
 
+	private static final Timer EVALUATION_TIMER = Metrics.timer("rules.evaluate");
+
+	private static final Timer RECOMMENDATIONS_TIMER = Metrics
+			.timer("rules.recommendations");
+
+	/**
+	 * Maximum number of compiled rules kept in {@link #COMPILED_RULES}.
+	 */
+	private static final int MAX_COMPILED_RULES = 256;
+
+	/**
+	 * Guards the shared {@link ScriptEngine} and {@link #COMPILED_RULES}. A
+	 * ScriptEngine is not thread-safe and the rule variables are put into its global
+	 * bindings, so only one rule is evaluated at the same time.
+	 */
+	private static final Object ENGINE_LOCK = new Object();
+
+	/**
+	 * The shared engine with the loaded basic predicates. It is created on first use,
+	 * because loading the predicates is expensive.
+	 */
+	private static ScriptEngine sharedEngine = null;
+
+	/**
+	 * The compiled rules (least recently used are evicted first).
+	 */
+	private static final Map<String, CompiledScript> COMPILED_RULES = new LinkedHashMap<String, CompiledScript>(
+			64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, CompiledScript> eldest)
+		{
+			return size() > MAX_COMPILED_RULES;
+		}
+	};
+
+	/**
+	 * Evaluates rules for a signature element and remembers the results. A rule sees
+	 * only the thematic role contexts of the operation and whether the element is on
+	 * interface level, so the results hold for all elements of the same operation and
+	 * the contexts are created only once for them.
+	 */
+	private static final class RuleEvaluation
+	{
+		private final boolean interfaceLevel;
+		private final List<ThematicRoleContext> thematicRoleContexts;
+		private final Map<String, Boolean> results = new HashMap<String, Boolean>();
+
+		RuleEvaluation(final SignatureElement sigElem)
+		{
+			interfaceLevel = isInterfaceLevel(sigElem);
+
+			final SignatureElement operationElement = SignatureElementUtils
+					.findOperationForParameter(sigElem);
+			if (!SignatureElement.EMPTY_SIGNATURE_ELEMENT.equals(operationElement))
+			// In this case we have a signature element on operation level or below.
+			{
+				thematicRoleContexts = createThematicRolesContextsForOperation((Operation) operationElement);
+			}
+			else
+			{
+				thematicRoleContexts = null;
+			}
+		}
+
+		boolean evaluate(final String rule)
+		{
+			Preconditions.checkNotNull(rule, "The rule must not be null.");
+
+			Boolean result = results.get(rule);
+			if (result == null)
+			{
+				final long start = EVALUATION_TIMER.start();
+				try
+				{
+					result = Boolean.valueOf(doEvaluateRule(rule, interfaceLevel,
+							thematicRoleContexts));
+				}
+				finally
+				{
+					EVALUATION_TIMER.stop(start);
+				}
+				results.put(rule, result);
+			}
+			return result.booleanValue();
+		}
+	}
+
 	/**
 	 * <table name="idocit" border="1" cellspacing="0">
 	 * <tr>
@@ -134,6 +230,12 @@ public final class RuleService
 	 */
 	public static ThematicGrid reduceGrid(final ThematicGrid gridToReduce,
 			final SignatureElement selectedSignatureElement)
+	{
+		return reduceGrid(gridToReduce, new RuleEvaluation(selectedSignatureElement));
+	}
+
+	private static ThematicGrid reduceGrid(final ThematicGrid gridToReduce,
+			final RuleEvaluation evaluation)
 	{
 		final ThematicGrid reducedGrid = (ThematicGrid) gridToReduce.clone();
 		final Map<ThematicRole, Boolean> reducedRoles = new HashMap<ThematicRole, Boolean>();
@@ -154,7 +256,7 @@ public final class RuleService
 							"Evaluating rule for thematic role " + role.getName());
 				}
 
-				if (evaluateRule(gridRule, selectedSignatureElement))
+				if (evaluation.evaluate(gridRule))
 				{
 					reducedRoles.put(role, entry.getValue());
 					reducedRules.put(role.getName(), gridRule);
@@ -294,6 +396,16 @@ public final class RuleService
 			final Collection<ThematicGrid> matchingGrids,
 			final List<ThematicRole> definedRoles,
 			final SignatureElement selectedSignatureElement)
+	{
+		return deriveRolesRecommendation(matchingGrids, definedRoles,
+				selectedSignatureElement, new RuleEvaluation(selectedSignatureElement));
+	}
+
+	private static RolesRecommendations deriveRolesRecommendation(
+			final Collection<ThematicGrid> matchingGrids,
+			final List<ThematicRole> definedRoles,
+			final SignatureElement selectedSignatureElement,
+			final RuleEvaluation evaluation)
 	{
 		// At the beginning every role is recommended. In the following steps we identify
 		// those roles, which do not need to be on first level recommendations and remove
@@ -306,8 +418,8 @@ public final class RuleService
 
 		if ((matchingGrids != null) && (!matchingGrids.isEmpty()))
 		{
-			evaluateGridBasedRules(matchingGrids, selectedSignatureElement, firstLevel,
-					secondLevel);
+			evaluateGridBasedRules(matchingGrids, selectedSignatureElement, evaluation,
+					firstLevel, secondLevel);
 		}
 
 		final Set<ThematicRole> associatedThematicRoles = new HashSet<ThematicRole>();
@@ -328,6 +440,281 @@ public final class RuleService
 		return new RolesRecommendations(sortByName(firstLevel), sortByName(secondLevel));
 	}
 
+	/**
+	 * Derives the matching grids, the reduced grids, the {@link RolesRecommendations}
+	 * and the missing mandatory roles for the given signature element in one step. The
+	 * result is the same for all elements of the same {@link Operation}.
+	 * <p>
+	 * The matching grids are derived from the verb of the operation. The recommendations
+	 * are derived from the matching grids like
+	 * {@link #deriveRolesRecommendation(Collection, List, SignatureElement)} does. A
+	 * role is missing if it is mandatory in the reduced reference grid of the
+	 * operation, or else in every reduced matching grid, and no documentation of the
+	 * operation, its parameters or its interfaces has this role.
+	 * </p>
+	 * 
+	 * @param sigElem
+	 *            [OWNER]
+	 * @param grids
+	 *            [SOURCE] All defined thematic grids.
+	 * @param definedRoles
+	 *            [SOURCE] All defined thematic roles.
+	 * @return [OBJECT]
+	 * @see #deriveRecommendations(InterfaceArtifact, List, List)
+	 * @thematicgrid Creating Operations
+	 */
+	public static ElementRecommendations deriveRecommendations(
+			final SignatureElement sigElem, final List<ThematicGrid> grids,
+			final List<ThematicRole> definedRoles)
+	{
+		Preconditions.checkNotNull(sigElem, "The SignatureElement must not be null.");
+
+		final long start = RECOMMENDATIONS_TIMER.start();
+		try
+		{
+			return doDeriveRecommendations(sigElem, grids, new VerbRecognizer(grids),
+					definedRoles);
+		}
+		finally
+		{
+			RECOMMENDATIONS_TIMER.stop(start);
+		}
+	}
+
+	/**
+	 * Derives the {@link ElementRecommendations} for all signature elements of the
+	 * artifact in one pass. They are derived once for the interface level and once for
+	 * each operation. The thematic role contexts and the results of the rules are
+	 * shared by the operation and its parameters, and the recommendations of the
+	 * interface level by the artifact and all interfaces.
+	 * <p>
+	 * Only the known attributes of the parameters are taken (see
+	 * {@link Parameter#getKnownComplexType()}), so the derivation does not reflect a
+	 * deferred data type. The attributes of such a type have no entry; they share the
+	 * recommendations of their operation.
+	 * </p>
+	 * 
+	 * @param artifact
+	 *            [OWNER]
+	 * @param grids
+	 *            [SOURCE] All defined thematic grids.
+	 * @param definedRoles
+	 *            [SOURCE] All defined thematic roles.
+	 * @return [OBJECT] The recommendations by the ids of the signature elements.
+	 * @see #deriveRecommendations(SignatureElement, List, List)
+	 * @thematicgrid Creating Operations
+	 */
+	public static Map<Integer, ElementRecommendations> deriveRecommendations(
+			final InterfaceArtifact artifact, final List<ThematicGrid> grids,
+			final List<ThematicRole> definedRoles)
+	{
+		Preconditions.checkNotNull(artifact, "The artifact must not be null.");
+
+		final long start = RECOMMENDATIONS_TIMER.start();
+		try
+		{
+			final Map<Integer, ElementRecommendations> recommendations = new HashMap<Integer, ElementRecommendations>();
+			final VerbRecognizer recognizer = new VerbRecognizer(grids);
+
+			final ElementRecommendations interfaceLevel = doDeriveRecommendations(
+					artifact, grids, recognizer, definedRoles);
+			recommendations.put(Integer.valueOf(artifact.getId()), interfaceLevel);
+			putInterfaceRecommendations(artifact.getInterfaces(), grids, recognizer,
+					definedRoles, interfaceLevel, recommendations);
+
+			return recommendations;
+		}
+		finally
+		{
+			RECOMMENDATIONS_TIMER.stop(start);
+		}
+	}
+
+	private static void putInterfaceRecommendations(
+			final List<? extends Interface> interfaces, final List<ThematicGrid> grids,
+			final VerbRecognizer recognizer, final List<ThematicRole> definedRoles,
+			final ElementRecommendations interfaceLevel,
+			final Map<Integer, ElementRecommendations> recommendations)
+	{
+		if (interfaces != null)
+		{
+			for (final Interface anInterface : interfaces)
+			{
+				recommendations.put(Integer.valueOf(anInterface.getId()), interfaceLevel);
+
+				if (anInterface.getOperations() != null)
+				{
+					for (final Operation operation : anInterface.getOperations())
+					{
+						putRecommendations(operation, doDeriveRecommendations(operation,
+								grids, recognizer, definedRoles), recommendations);
+					}
+				}
+
+				putInterfaceRecommendations(anInterface.getInnerInterfaces(), grids,
+						recognizer, definedRoles, interfaceLevel, recommendations);
+			}
+		}
+	}
+
+	/**
+	 * Puts the <code>elementRecommendations</code> for the element and all elements
+	 * below it.
+	 */
+	private static void putRecommendations(final SignatureElement sigElem,
+			final ElementRecommendations elementRecommendations,
+			final Map<Integer, ElementRecommendations> recommendations)
+	{
+		if (sigElem == null)
+		{
+			return;
+		}
+
+		recommendations.put(Integer.valueOf(sigElem.getId()), elementRecommendations);
+
+		if (sigElem instanceof Operation)
+		{
+			final Operation operation = (Operation) sigElem;
+			putRecommendations(operation.getInputParameters(), elementRecommendations,
+					recommendations);
+			putRecommendations(operation.getOutputParameters(), elementRecommendations,
+					recommendations);
+			if (operation.getExceptions() != null)
+			{
+				for (final Parameters exception : operation.getExceptions())
+				{
+					putRecommendations(exception, elementRecommendations,
+							recommendations);
+				}
+			}
+		}
+		else if (sigElem instanceof Parameters)
+		{
+			putRecommendations(((Parameters) sigElem).getParameters(),
+					elementRecommendations, recommendations);
+		}
+		else if (sigElem instanceof Parameter)
+		{
+			// the attributes of a deferred data type are derived on demand
+			putRecommendations(((Parameter) sigElem).getKnownComplexType(),
+					elementRecommendations, recommendations);
+		}
+	}
+
+	private static void putRecommendations(final List<Parameter> parameters,
+			final ElementRecommendations elementRecommendations,
+			final Map<Integer, ElementRecommendations> recommendations)
+	{
+		if (parameters != null)
+		{
+			for (final Parameter parameter : parameters)
+			{
+				putRecommendations(parameter, elementRecommendations, recommendations);
+			}
+		}
+	}
+
+	private static ElementRecommendations doDeriveRecommendations(
+			final SignatureElement sigElem, final List<ThematicGrid> grids,
+			final VerbRecognizer recognizer, final List<ThematicRole> definedRoles)
+	{
+		final RuleEvaluation evaluation = new RuleEvaluation(sigElem);
+		final SignatureElement operation = SignatureElementUtils
+				.findOperationForParameter(sigElem);
+
+		final Map<String, ThematicGrid> matchingGrids = ThematicGridService
+				.deriveThematicGrid(operation.getIdentifier(), recognizer);
+		final Map<String, ThematicGrid> reducedGrids = new HashMap<String, ThematicGrid>();
+		for (final Entry<String, ThematicGrid> grid : matchingGrids.entrySet())
+		{
+			reducedGrids.put(grid.getKey(), reduceGrid(grid.getValue(), evaluation));
+		}
+
+		final RolesRecommendations rolesRecommendations = deriveRolesRecommendation(
+				matchingGrids.values(), definedRoles, sigElem, evaluation);
+
+		final Set<ThematicRole> missingRoles;
+		if (!SignatureElement.EMPTY_SIGNATURE_ELEMENT.equals(operation))
+		{
+			missingRoles = findMissingRoles((Operation) operation, grids, reducedGrids,
+					evaluation);
+		}
+		else
+		{
+			missingRoles = Collections.emptySet();
+		}
+
+		return new ElementRecommendations(matchingGrids, reducedGrids,
+				rolesRecommendations, missingRoles);
+	}
+
+	private static Set<ThematicRole> findMissingRoles(final Operation operation,
+			final List<ThematicGrid> grids, final Map<String, ThematicGrid> reducedGrids,
+			final RuleEvaluation evaluation)
+	{
+		Collection<ThematicGrid> operationGrids = reducedGrids.values();
+		final String gridName = operation.getThematicGridName();
+		if (gridName != null)
+		{
+			ThematicGrid referenceGrid = reducedGrids.get(gridName);
+			if (referenceGrid == null)
+			{
+				referenceGrid = ThematicGridService.findThematicGridByName(gridName,
+						grids);
+				if (referenceGrid != null)
+				{
+					referenceGrid = reduceGrid(referenceGrid, evaluation);
+				}
+			}
+			if (referenceGrid != null)
+			{
+				operationGrids = Collections.singletonList(referenceGrid);
+			}
+		}
+
+		// a role is only required if every grid requires it
+		Set<ThematicRole> missingRoles = null;
+		for (final ThematicGrid grid : operationGrids)
+		{
+			final Set<ThematicRole> mandatoryRoles = new HashSet<ThematicRole>();
+			for (final Entry<ThematicRole, Boolean> role : grid.getRoles().entrySet())
+			{
+				if (Boolean.TRUE.equals(role.getValue()))
+				{
+					mandatoryRoles.add(role.getKey());
+				}
+			}
+
+			if (missingRoles == null)
+			{
+				missingRoles = mandatoryRoles;
+			}
+			else
+			{
+				missingRoles.retainAll(mandatoryRoles);
+			}
+		}
+		if (missingRoles == null)
+		{
+			return Collections.emptySet();
+		}
+
+		final Set<ThematicRole> documentedRoles = new HashSet<ThematicRole>();
+		SignatureElementUtils.collectAssociatedThematicRoles(documentedRoles, operation,
+				false);
+		for (final ThematicRole documentedRole : documentedRoles)
+		{
+			final ThematicRole missingRole = ThematicRoleUtils.findRoleByName(
+					documentedRole.getName(), missingRoles);
+			if (missingRole != null)
+			{
+				missingRoles.remove(missingRole);
+			}
+		}
+
+		return missingRoles;
+	}
+
 	private static boolean isInterfaceLevel(final SignatureElement sigElem)
 	{
 		return (sigElem instanceof Interface) || (sigElem instanceof InterfaceArtifact);
@@ -383,7 +770,8 @@ public final class RuleService
 	private static void evaluateGridBasedRules(
 			final Collection<ThematicGrid> matchingGrids,
 			final SignatureElement selectedSignatureElement,
-			final Set<ThematicRole> firstLevel, final Set<ThematicRole> secondLevel)
+			final RuleEvaluation evaluation, final Set<ThematicRole> firstLevel,
+			final Set<ThematicRole> secondLevel)
 	{
 		final SignatureElement sigElemOp = SignatureElementUtils
 				.findOperationForParameter(selectedSignatureElement);
@@ -408,7 +796,7 @@ public final class RuleService
 
 						if (role != null)
 						{
-							if (!evaluateRule(entry.getValue(), selectedSignatureElement))
+							if (!evaluation.evaluate(entry.getValue()))
 							{
 								// Remove role if the grid-based-rule does not apply:
 								firstLevel.remove(role);
@@ -508,8 +896,9 @@ public final class RuleService
 			for (Parameter parameter : parameters)
 			{
 				createThematicRoleContexts(thematicRoleContexts, parameter);
+				// the attributes of a deferred data type are not documented yet
 				createThematicRoleContexts(thematicRoleContexts,
-						parameter.getComplexType());
+						parameter.getKnownComplexType());
 			}
 		}
 	}
@@ -576,39 +965,109 @@ public final class RuleService
 		Preconditions.checkNotNull(rule, "The rule must not be null.");
 		Preconditions.checkNotNull(sigElem, "The SignatureElement must not be null.");
 
-		final ScriptEngine engine = getScriptEngine();
-		engine.put("EMPTY_SIGNATURE_ELEMENT", SignatureElement.EMPTY_SIGNATURE_ELEMENT);
-		engine.put(
-				"interfaceLevel",
-				Boolean.valueOf((sigElem instanceof Interface)
-						|| (sigElem instanceof InterfaceArtifact)));
-
-		final SignatureElement operationElement = SignatureElementUtils
-				.findOperationForParameter(sigElem);
+		return new RuleEvaluation(sigElem).evaluate(rule);
+	}
 
-		if (!SignatureElement.EMPTY_SIGNATURE_ELEMENT.equals(operationElement))
-		// In this case we have a signature element on operation level or below.
+	private static boolean doEvaluateRule(final String rule,
+			final boolean interfaceLevel,
+			final List<ThematicRoleContext> thematicRoleContexts)
+	{
+		Boolean result;
+		synchronized (ENGINE_LOCK)
 		{
+			final ScriptEngine engine = getSharedScriptEngine();
+			engine.put("EMPTY_SIGNATURE_ELEMENT", SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+			engine.put("interfaceLevel", Boolean.valueOf(interfaceLevel));
 
-			final Operation operation = (Operation) SignatureElementUtils
-					.findOperationForParameter(sigElem);
+			final Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+			if (thematicRoleContexts != null)
+			{
+				bindings.put("thematicRoleContexts", thematicRoleContexts);
+			}
+			else
+			{
+				// The engine is shared, so the contexts of a former evaluation must not
+				// be visible on interface level.
+				bindings.remove("thematicRoleContexts");
+			}
 
-			engine.put("thematicRoleContexts",
-					createThematicRolesContextsForOperation(operation));
+			try
+			{
+				final CompiledScript compiledRule = getCompiledRule(engine, rule);
+				result = (Boolean) (compiledRule != null ? compiledRule.eval() : engine
+						.eval(rule));
+			}
+			catch (ScriptException e)
+			{
+				LOG.log(Level.SEVERE, "Error evaluating rule \"" + rule + "\".", e);
+				throw new IllegalArgumentException("Error evaluating rule \"" + rule
+						+ "\".");
+			}
 		}
 
-		Boolean result;
-		try
+		return result.booleanValue();
+	}
+
+	/**
+	 * Compiles all given rules in advance, so that the first evaluation of a rule does
+	 * not need to compile it. Invalid rules are skipped.
+	 * 
+	 * @param rules
+	 *            [OBJECT] The rules to compile. <code>null</code> entries are ignored.
+	 * @return [REPORT] The number of rules which are compiled and ready for evaluation.
+	 * @thematicgrid Putting Operations
+	 */
+	public static int precompileRules(final Collection<String> rules)
+	{
+		int compiled = 0;
+		synchronized (ENGINE_LOCK)
 		{
-			result = (Boolean) engine.eval(rule);
+			final ScriptEngine engine = getSharedScriptEngine();
+			for (final String rule : rules)
+			{
+				if (!StringUtils.isBlank(rule))
+				{
+					try
+					{
+						if (getCompiledRule(engine, rule) != null)
+						{
+							compiled++;
+						}
+					}
+					catch (final ScriptException e)
+					{
+						LOG.log(Level.WARNING, "Cannot compile rule \"" + rule + "\".", e);
+					}
+				}
+			}
 		}
-		catch (ScriptException e)
+		return compiled;
+	}
+
+	/**
+	 * Returns the compiled <code>rule</code> from the cache or compiles it. Must only
+	 * be called while holding {@link #ENGINE_LOCK}.
+	 * 
+	 * @return The compiled rule, or <code>null</code> if the engine can not compile
+	 *         scripts.
+	 * @throws ScriptException
+	 *             If the rule can not be compiled.
+	 */
+	private static CompiledScript getCompiledRule(final ScriptEngine engine,
+			final String rule) throws ScriptException
+	{
+		if (!(engine instanceof Compilable))
 		{
-			LOG.log(Level.SEVERE, "Error evaluating rule \"" + rule + "\".", e);
-			throw new IllegalArgumentException("Error evaluating rule \"" + rule + "\".");
+			return null;
 		}
 
-		return result.booleanValue();
+		CompiledScript compiledRule = COMPILED_RULES.get(rule);
+		if (compiledRule == null)
+		{
+			compiledRule = ((Compilable) engine).compile(rule);
+			COMPILED_RULES.put(rule, compiledRule);
+		}
+		return compiledRule;
 	}
 
 	/**
@@ -724,8 +1183,10 @@ public final class RuleService
 		{
 			if (!StringUtils.isBlank(ruleExpression))
 			{
-				final ScriptEngine engine = getScriptEngine();
-				((Compilable) engine).compile(ruleExpression);
+				synchronized (ENGINE_LOCK)
+				{
+					((Compilable) getSharedScriptEngine()).compile(ruleExpression);
+				}
 				valid = true;
 			}
 		}
@@ -768,4 +1229,19 @@ public final class RuleService
 
 		return engine;
 	}
+
+	/**
+	 * Returns the engine shared by all rule evaluations. Must only be called while
+	 * holding {@link #ENGINE_LOCK}.
+	 * 
+	 * @return The shared ScriptEngine with the loaded basic predicates.
+	 */
+	private static ScriptEngine getSharedScriptEngine()
+	{
+		if (sharedEngine == null)
+		{
+			sharedEngine = getScriptEngine();
+		}
+		return sharedEngine;
+	}
 }
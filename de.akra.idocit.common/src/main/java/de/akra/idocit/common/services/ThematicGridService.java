@@ -20,7 +20,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import de.akra.idocit.common.structure.ThematicGrid;
 import de.akra.idocit.common.structure.ThematicRole;
@@ -31,39 +30,10 @@ import de.akra.idocit.common.utils.StringUtils;
  * 
  * @author Jan Christian Krause
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  */
 public class ThematicGridService
 {
-
-	/**
-	 * Finds the thematic grids for the given <code>verb</code>.
-	 * 
-	 * @param verb
-	 *            The verb for which should be find the thematic grids.
-	 * @param definedGrids
-	 *            The list of defined {@link ThematicGrid}s (SOURCE)
-	 * 
-	 * @return List of found {@link ThematicGrid}s.
-	 */
-	private static List<ThematicGrid> findMatchingGrids(final String verb,
-			final List<ThematicGrid> definedGrids)
-	{
-		final List<ThematicGrid> matchingGrids = new ArrayList<ThematicGrid>();
-
-		for (final ThematicGrid definedGrid : definedGrids)
-		{
-			final Set<String> verbs = definedGrid.getVerbs();
-
-			if (verbs.contains(verb))
-			{
-				matchingGrids.add(definedGrid);
-			}
-		}
-
-		return matchingGrids;
-	}
-
 	/**
 	 * Extracts the verb from the given identifier. The identifier is assumed to be in
 	 * camel-syntax.
@@ -95,6 +65,13 @@ public class ThematicGridService
 	 * Finds the thematic grids for the verb out of the <code>identifier</code>. The
 	 * identifier is assumed to be in camel-syntax. If no verb could be identified, the
 	 * resulting map will be empty.
+	 * <p>
+	 * The verb is recognized by a new {@link VerbRecognizer} of the
+	 * <code>definedGrids</code>, so it may consist of several words like
+	 * <code>make_out</code> in <code>makeOutReport</code>. To derive the grids of many
+	 * identifiers, the recognizer should be built once and passed to
+	 * {@link #deriveThematicGrid(String, VerbRecognizer)}.
+	 * </p>
 	 * 
 	 * @param identifier
 	 *            The identifier from which the verb should be extracted and the thematic
@@ -105,21 +82,38 @@ public class ThematicGridService
 	 */
 	public static Map<String, ThematicGrid> deriveThematicGrid(final String identifier,
 			final List<ThematicGrid> definedGrids)
+	{
+		if (identifier == null)
+		{
+			return new HashMap<String, ThematicGrid>();
+		}
+		return deriveThematicGrid(identifier, new VerbRecognizer(definedGrids));
+	}
+
+	/**
+	 * Finds the thematic grids for the verb out of the <code>identifier</code> with the
+	 * given <code>recognizer</code>. The recognizer must be built again if the verbs
+	 * of its grids change.
+	 * 
+	 * @param identifier
+	 *            [SOURCE] The identifier from which the verb should be extracted.
+	 * @param recognizer
+	 *            [INSTRUMENT] The recognizer of the defined {@link ThematicGrid}s.
+	 * @return [OBJECT] Map of thematic grid names linking to the {@link ThematicGrid}.
+	 * @thematicgrid Searching Operations
+	 * @since 0.0.11
+	 */
+	public static Map<String, ThematicGrid> deriveThematicGrid(final String identifier,
+			final VerbRecognizer recognizer)
 	{
 		final Map<String, ThematicGrid> matchingGrids = new HashMap<String, ThematicGrid>();
 
-		final String verb = extractVerb(identifier);
-		if (verb != null)
+		if (identifier != null)
 		{
 			// Classify the verb.
-			final List<ThematicGrid> matchingVerbClasses = findMatchingGrids(verb,
-					definedGrids);
-			if (!matchingVerbClasses.isEmpty())
+			for (final ThematicGrid verbClass : recognizer.findGrids(identifier))
 			{
-				for (ThematicGrid verbClass : matchingVerbClasses)
-				{
-					matchingGrids.put(verbClass.getName(), verbClass);
-				}
+				matchingGrids.put(verbClass.getName(), verbClass);
 			}
 		}
 
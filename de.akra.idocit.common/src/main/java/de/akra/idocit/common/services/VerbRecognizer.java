@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import de.akra.idocit.common.structure.ThematicGrid;
+
+/**
+ * Recognizes the verbs of {@link ThematicGrid}s at the beginning of identifiers.
+ * <p>
+ * All verbs of the grids are stored in a character trie. The words of a verb and of
+ * an identifier are separated by underscores, blanks and the camel-syntax, e.g.
+ * <code>make_out</code>, <code>make out</code> and <code>makeOut</code> are the same
+ * verb. Letters are compared case-insensitive. An identifier is walked only once and
+ * without creating objects; the longest verb which ends at the end of a word is
+ * recognized, e.g. <code>make_out</code> instead of <code>make</code> in
+ * <code>makeOutReport</code>.
+ * </p>
+ * <p>
+ * For search-as-you-type the recognizer also finds the candidate grids of an incomplete
+ * identifier, i.e. the grids of all verbs which start with it. They are precomputed for
+ * every node of the trie, so each lookup costs only the walk of the identifier.
+ * </p>
+ * <p>
+ * The recognizer is immutable and therefore thread-safe. It has to be created again if
+ * the verbs of the grids change.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.2
+ * @see ThematicGridService#deriveThematicGrid(String, VerbRecognizer)
+ */
+public final class VerbRecognizer
+{
+	/**
+	 * The key of the transition between two words.
+	 */
+	private static final char WORD_SEPARATOR = ' ';
+
+	private static final char[] NO_KEYS = new char[0];
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	/**
+	 * A node of the trie. The children are searched linearly, because a node has only
+	 * a few of them.
+	 */
+	private static final class Node
+	{
+		private char[] keys = NO_KEYS;
+		private Node[] children = NO_CHILDREN;
+
+		/**
+		 * The grids of the verb which ends in this node, or <code>null</code>.
+		 */
+		private List<ThematicGrid> grids = null;
+
+		/**
+		 * The grids of all verbs which end in this node or below it.
+		 */
+		private List<ThematicGrid> candidateGrids = null;
+
+		Node getChild(final char key)
+		{
+			for (int i = 0; i < keys.length; i++)
+			{
+				if (keys[i] == key)
+				{
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		Node addChild(final char key)
+		{
+			Node child = getChild(key);
+			if (child == null)
+			{
+				final int size = keys.length;
+				final char[] newKeys = new char[size + 1];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				final Node[] newChildren = new Node[size + 1];
+				System.arraycopy(children, 0, newChildren, 0, size);
+
+				child = new Node();
+				newKeys[size] = key;
+				newChildren[size] = child;
+				keys = newKeys;
+				children = newChildren;
+			}
+			return child;
+		}
+
+		void addGrid(final ThematicGrid grid)
+		{
+			if (grids == null)
+			{
+				grids = new ArrayList<ThematicGrid>(1);
+			}
+			if (!grids.contains(grid))
+			{
+				grids.add(grid);
+			}
+		}
+
+		List<ThematicGrid> freeze()
+		{
+			final List<ThematicGrid> candidates = new ArrayList<ThematicGrid>();
+			if (grids != null)
+			{
+				grids = Collections.unmodifiableList(grids);
+				candidates.addAll(grids);
+			}
+			for (final Node child : children)
+			{
+				for (final ThematicGrid grid : child.freeze())
+				{
+					if (!candidates.contains(grid))
+					{
+						candidates.add(grid);
+					}
+				}
+			}
+			candidateGrids = Collections.unmodifiableList(candidates);
+			return candidateGrids;
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Builds the trie of the verbs of the <code>grids</code>.
+	 *
+	 * @param grids
+	 *            [SOURCE] The defined grids. Grids and verbs which are
+	 *            <code>null</code> are ignored.
+	 */
+	public VerbRecognizer(final List<ThematicGrid> grids)
+	{
+		if (grids != null)
+		{
+			for (final ThematicGrid grid : grids)
+			{
+				final Set<String> verbs = grid != null ? grid.getVerbs() : null;
+				if (verbs != null)
+				{
+					for (final String verb : verbs)
+					{
+						if (verb != null)
+						{
+							addVerb(verb, grid);
+						}
+					}
+				}
+			}
+		}
+		root.freeze();
+	}
+
+	private void addVerb(final String verb, final ThematicGrid grid)
+	{
+		Node node = root;
+		boolean wordEnds = false;
+		char previous = WORD_SEPARATOR;
+
+		for (int i = 0; i < verb.length(); i++)
+		{
+			final char letter = verb.charAt(i);
+			if (isSeparator(letter))
+			{
+				wordEnds = true;
+			}
+			else
+			{
+				if (isBigCharacter(letter) && !isBigCharacter(previous))
+				{
+					wordEnds = true;
+				}
+				if (wordEnds && node != root)
+				{
+					node = node.addChild(WORD_SEPARATOR);
+				}
+				wordEnds = false;
+				node = node.addChild(Character.toLowerCase(letter));
+			}
+			previous = letter;
+		}
+
+		if (node != root)
+		{
+			node.addGrid(grid);
+		}
+	}
+
+	/**
+	 * Finds the grids of the longest verb at the beginning of the
+	 * <code>identifier</code>.
+	 *
+	 * @param identifier
+	 *            [OBJECT] The identifier of an operation, e.g. in camel-syntax.
+	 * @return [OBJECT] The unmodifiable list of grids of the recognized verb. It is
+	 *         empty if no verb is recognized.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<ThematicGrid> findGrids(final String identifier)
+	{
+		final Node verbNode = findVerbNode(identifier);
+		if (verbNode != null)
+		{
+			return verbNode.grids;
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Finds the candidate grids of an identifier which is still typed: the grids of the
+	 * recognized verb, and the grids of all verbs which start with the whole
+	 * <code>identifier</code>. E.g. <code>ma</code> finds the grids of
+	 * <code>make</code> and <code>make_out</code>, <code>makeO</code> finds the grids of
+	 * <code>make</code> and <code>make_out</code>, <code>makeX</code> only those of
+	 * <code>make</code>.
+	 *
+	 * @param identifier
+	 *            [OBJECT] The beginning of an identifier of an operation.
+	 * @return [OBJECT] The unmodifiable list of candidate grids, the grids of the
+	 *         longest recognized verb first. It is empty if no verb starts with the
+	 *         <code>identifier</code>.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<ThematicGrid> findCandidateGrids(final String identifier)
+	{
+		final Node[] result = new Node[2];
+		walk(identifier, result);
+		final Node verbNode = result[0];
+		final Node lastNode = result[1];
+
+		if (lastNode == null || lastNode == root)
+		{
+			return (verbNode != null) ? verbNode.grids : Collections
+					.<ThematicGrid> emptyList();
+		}
+		else if (verbNode == null || verbNode == lastNode)
+		{
+			return lastNode.candidateGrids;
+		}
+		else
+		{
+			final List<ThematicGrid> candidates = new ArrayList<ThematicGrid>(
+					verbNode.grids);
+			for (final ThematicGrid grid : lastNode.candidateGrids)
+			{
+				if (!candidates.contains(grid))
+				{
+					candidates.add(grid);
+				}
+			}
+			return Collections.unmodifiableList(candidates);
+		}
+	}
+
+	/**
+	 * @return The node of the longest verb at the beginning of the identifier, or
+	 *         <code>null</code>.
+	 */
+	private Node findVerbNode(final String identifier)
+	{
+		final Node[] result = new Node[2];
+		walk(identifier, result);
+		return result[0];
+	}
+
+	/**
+	 * Walks the <code>identifier</code> through the trie.
+	 *
+	 * @param result
+	 *            Receives the node of the longest verb at the beginning of the
+	 *            identifier at index 0, and the node reached at the end of the
+	 *            identifier at index 1. Both are <code>null</code> if they do not exist.
+	 */
+	private void walk(final String identifier, final Node[] result)
+	{
+		if (identifier == null)
+		{
+			return;
+		}
+
+		Node node = root;
+		Node verbNode = null;
+		boolean wordEnds = false;
+		char previous = WORD_SEPARATOR;
+
+		for (int i = 0; i < identifier.length(); i++)
+		{
+			final char letter = identifier.charAt(i);
+			if (isSeparator(letter))
+			{
+				wordEnds = true;
+			}
+			else
+			{
+				if (isBigCharacter(letter) && !isBigCharacter(previous))
+				{
+					wordEnds = true;
+				}
+				if (wordEnds && node != root)
+				{
+					// a verb must end with a word
+					if (node.grids != null)
+					{
+						verbNode = node;
+					}
+					node = node.getChild(WORD_SEPARATOR);
+					if (node == null)
+					{
+						result[0] = verbNode;
+						return;
+					}
+				}
+				wordEnds = false;
+
+				node = node.getChild(Character.toLowerCase(letter));
+				if (node == null)
+				{
+					result[0] = verbNode;
+					return;
+				}
+			}
+			previous = letter;
+		}
+
+		if (node.grids != null)
+		{
+			verbNode = node;
+		}
+		result[0] = verbNode;
+		result[1] = node;
+	}
+
+	private static boolean isSeparator(final char letter)
+	{
+		return (letter == '_') || Character.isWhitespace(letter);
+	}
+
+	/**
+	 * Same as in {@link de.akra.idocit.common.utils.StringUtils#addBlanksToCamelSyntax(String)}.
+	 */
+	private static boolean isBigCharacter(final char letter)
+	{
+		return (letter >= 'A') && (letter <= 'Z');
+	}
+}
@@ -15,20 +15,29 @@
  *******************************************************************************/
 package de.akra.idocit.common.structure;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * It represents a documentation part of a {@link SignatureElement}.<br>
  * The documentation map contains mappings from {@link Addressee}s to the documentation as
  * String.
+ * <p>
+ * A {@link #copy()} shares the map and the addressee sequence with the original until
+ * one of both is changed (copy-on-write). Therefore the map and the sequence must only
+ * be changed via the objects returned by {@link #getDocumentation()} and
+ * {@link #getAddresseeSequence()}, not via references kept from before a copy. Both
+ * getters copy a shared map or sequence, so code which only reads the documentation
+ * should use {@link #getDocumentationView()} and {@link #getAddresseeSequenceView()}
+ * instead.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.4
  * 
  */
 public class Documentation
@@ -70,6 +79,18 @@ public class Documentation
 	 */
 	private boolean errorCase;
 
+	/**
+	 * <code>true</code> if {@link #documentation} may also be referenced by another
+	 * Documentation and has to be copied before it is handed out for changes.
+	 */
+	private boolean documentationShared = false;
+
+	/**
+	 * <code>true</code> if {@link #addresseeSequence} may also be referenced by another
+	 * Documentation and has to be copied before it is handed out for changes.
+	 */
+	private boolean addresseeSequenceShared = false;
+
 	/**
 	 * Constructor. Initializes <code>documentation</code> and
 	 * <code>addresseeSequence</code>.
@@ -81,34 +102,34 @@ public class Documentation
 	}
 
 	/**
-	 * Make a deep copy of the Documentation.
+	 * Constructor for {@link #copy()}. Shares the map and the sequence of
+	 * <code>original</code>.
+	 */
+	private Documentation(Documentation original)
+	{
+		thematicRole = original.thematicRole;
+		signatureElementIdentifier = original.signatureElementIdentifier;
+		errorCase = original.errorCase;
+
+		documentation = original.documentation;
+		addresseeSequence = original.addresseeSequence;
+		documentationShared = true;
+		addresseeSequenceShared = true;
+		original.documentationShared = true;
+		original.addresseeSequenceShared = true;
+	}
+
+	/**
+	 * Make a copy of the Documentation. The copy is independent of this instance, but
+	 * the map and the addressee sequence are only copied when one of both
+	 * Documentations is changed. Therefore a copy costs the same, regardless of the
+	 * size of the documentation.
 	 * 
 	 * @return A clone of this Documentation.
 	 */
 	public final Documentation copy()
 	{
-		Documentation newDoc = new Documentation();
-		newDoc.setThematicRole(thematicRole);
-		newDoc.setSignatureElementIdentifier(signatureElementIdentifier);
-
-		Map<Addressee, String> newDocMap = new HashMap<Addressee, String>();
-		Set<Addressee> keys = documentation.keySet();
-		for (Addressee key : keys)
-		{
-			newDocMap.put(key, documentation.get(key));
-		}
-		newDoc.setDocumentation(newDocMap);
-
-		List<Addressee> newAddresseeSequence = new LinkedList<Addressee>();
-		for (Addressee addressee : addresseeSequence)
-		{
-			newAddresseeSequence.add(addressee);
-		}
-		newDoc.setAddresseeSequence(newAddresseeSequence);
-
-		newDoc.setErrorCase(errorCase);
-
-		return newDoc;
+		return new Documentation(this);
 	}
 
 	public boolean isErrorCase()
@@ -122,13 +143,32 @@ public class Documentation
 	}
 
 	/**
-	 * @return the documentation
+	 * @return the documentation. It may be changed, it is not shared with a copy.
 	 */
 	public Map<Addressee, String> getDocumentation()
 	{
+		if (documentationShared)
+		{
+			documentation = new HashMap<Addressee, String>(documentation);
+			documentationShared = false;
+		}
 		return documentation;
 	}
 
+	/**
+	 * Returns the documentation for reading. Unlike {@link #getDocumentation()} it does
+	 * not copy a map shared with a copy of this Documentation.
+	 * 
+	 * @return [OBJECT] An unmodifiable view of the documentation, or <code>null</code>
+	 *         if it is not set.
+	 * @thematicgrid Getting Operations
+	 * @since 0.0.11
+	 */
+	public Map<Addressee, String> getDocumentationView()
+	{
+		return documentation != null ? Collections.unmodifiableMap(documentation) : null;
+	}
+
 	/**
 	 * @param documentation
 	 *            the documentation to set
@@ -136,16 +176,37 @@ public class Documentation
 	public void setDocumentation(Map<Addressee, String> documentation)
 	{
 		this.documentation = documentation;
+		this.documentationShared = false;
 	}
 
 	/**
-	 * @return the addresseeSequence
+	 * @return the addresseeSequence. It may be changed, it is not shared with a copy.
 	 */
 	public List<Addressee> getAddresseeSequence()
 	{
+		if (addresseeSequenceShared)
+		{
+			addresseeSequence = new LinkedList<Addressee>(addresseeSequence);
+			addresseeSequenceShared = false;
+		}
 		return addresseeSequence;
 	}
 
+	/**
+	 * Returns the addressee sequence for reading. Unlike {@link #getAddresseeSequence()}
+	 * it does not copy a sequence shared with a copy of this Documentation.
+	 * 
+	 * @return [OBJECT] An unmodifiable view of the addressee sequence, or
+	 *         <code>null</code> if it is not set.
+	 * @thematicgrid Getting Operations
+	 * @since 0.0.11
+	 */
+	public List<Addressee> getAddresseeSequenceView()
+	{
+		return addresseeSequence != null ? Collections.unmodifiableList(addresseeSequence)
+				: null;
+	}
+
 	/**
 	 * @param addresseeSequence
 	 *            the addresseeSequence to set
@@ -153,6 +214,7 @@ public class Documentation
 	public void setAddresseeSequence(List<Addressee> addresseeSequence)
 	{
 		this.addresseeSequence = addresseeSequence;
+		this.addresseeSequenceShared = false;
 	}
 
 	/**
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.structure;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The thematic grids and role recommendations of a {@link SignatureElement}, as they
+ * are derived by
+ * {@link de.akra.idocit.common.services.RuleService#deriveRecommendations(SignatureElement, java.util.List, java.util.List)}
+ * .
+ * <p>
+ * All elements of the same {@link Operation} share the same recommendations, because
+ * the rules are evaluated in the context of the operation.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class ElementRecommendations
+{
+	private final Map<String, ThematicGrid> matchingGrids;
+	private final Map<String, ThematicGrid> reducedGrids;
+	private final RolesRecommendations rolesRecommendations;
+	private final Set<ThematicRole> missingRoles;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param matchingGrids
+	 *            [OBJECT] The grids derived from the verb of the operation, by name.
+	 * @param reducedGrids
+	 *            [OBJECT] The <code>matchingGrids</code> reduced by their grid-based
+	 *            rules, by name.
+	 * @param rolesRecommendations
+	 *            [OBJECT]
+	 * @param missingRoles
+	 *            [OBJECT] The mandatory roles of the operation which are not
+	 *            documented.
+	 */
+	public ElementRecommendations(final Map<String, ThematicGrid> matchingGrids,
+			final Map<String, ThematicGrid> reducedGrids,
+			final RolesRecommendations rolesRecommendations,
+			final Set<ThematicRole> missingRoles)
+	{
+		this.matchingGrids = matchingGrids;
+		this.reducedGrids = reducedGrids;
+		this.rolesRecommendations = rolesRecommendations;
+		this.missingRoles = missingRoles;
+	}
+
+	/**
+	 * @return [OBJECT] The grids derived from the verb of the operation, by name.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public Map<String, ThematicGrid> getMatchingGrids()
+	{
+		return Collections.unmodifiableMap(matchingGrids);
+	}
+
+	/**
+	 * @return [OBJECT] The matching grids reduced by their grid-based rules, by name.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public Map<String, ThematicGrid> getReducedGrids()
+	{
+		return Collections.unmodifiableMap(reducedGrids);
+	}
+
+	/**
+	 * @return [OBJECT] The first and second level recommendations.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public RolesRecommendations getRolesRecommendations()
+	{
+		return rolesRecommendations;
+	}
+
+	/**
+	 * @return [OBJECT] The mandatory roles of the operation which are not documented.
+	 *         It is empty on interface level.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public Set<ThematicRole> getMissingRoles()
+	{
+		return Collections.unmodifiableSet(missingRoles);
+	}
+
+	/**
+	 * @return [REPORT] <code>true</code> if mandatory roles are not documented.
+	 * @thematicgrid Checking Operations
+	 */
+	public boolean hasMissingRoles()
+	{
+		return !missingRoles.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "ElementRecommendations [reducedGrids=" + reducedGrids.keySet()
+				+ ", rolesRecommendations=" + rolesRecommendations + ", missingRoles="
+				+ missingRoles + "]";
+	}
+}
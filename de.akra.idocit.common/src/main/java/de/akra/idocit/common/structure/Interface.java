@@ -24,7 +24,7 @@ import java.util.List;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public abstract class Interface extends SignatureElement
@@ -126,6 +126,7 @@ public abstract class Interface extends SignatureElement
 	public void setOperations(List<? extends Operation> operations)
 	{
 		this.operations = operations;
+		clearContentHash();
 	}
 
 	/**
@@ -135,6 +136,7 @@ public abstract class Interface extends SignatureElement
 	public void setInnerInterfaces(List<? extends Interface> innerInterfaces)
 	{
 		this.innerInterfaces = innerInterfaces;
+		clearContentHash();
 	}
 
 	/**
@@ -145,6 +147,19 @@ public abstract class Interface extends SignatureElement
 		return innerInterfaces;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SignatureElement> getChildElements()
+	{
+		final List<SignatureElement> children = new ArrayList<SignatureElement>(
+				innerInterfaces.size() + operations.size());
+		children.addAll(innerInterfaces);
+		children.addAll(operations);
+		return children;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
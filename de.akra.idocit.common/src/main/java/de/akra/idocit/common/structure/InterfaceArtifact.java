@@ -25,7 +25,7 @@ import java.util.List;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public abstract class InterfaceArtifact extends SignatureElement
@@ -110,6 +110,7 @@ public abstract class InterfaceArtifact extends SignatureElement
 	public void setInterfaces(List<Interface> interfaceList)
 	{
 		this.interfaces = interfaceList;
+		clearContentHash();
 	}
 
 	/**
@@ -125,6 +126,16 @@ public abstract class InterfaceArtifact extends SignatureElement
 			interfaces = new ArrayList<Interface>(DEFAULT_ARRAY_SIZE);
 		}
 		this.interfaces.add(i);
+		clearContentHash();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SignatureElement> getChildElements()
+	{
+		return new ArrayList<SignatureElement>(interfaces);
 	}
 
 	/*
@@ -24,7 +24,7 @@ import java.util.List;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public abstract class Operation extends SignatureElement
@@ -113,7 +113,7 @@ public abstract class Operation extends SignatureElement
 		}
 
 		List<Parameters> newExceptions = Collections.emptyList();
-		if (exceptions != Collections.EMPTY_LIST)
+		if (exceptions != null && exceptions != Collections.EMPTY_LIST)
 		{
 			newExceptions = new ArrayList<Parameters>(exceptions.size());
 			for (Parameters paramList : exceptions)
@@ -132,6 +132,7 @@ public abstract class Operation extends SignatureElement
 	public void setOutputParameters(Parameters outputParameters)
 	{
 		this.outputParameters = outputParameters;
+		clearContentHash();
 	}
 
 	/**
@@ -149,6 +150,7 @@ public abstract class Operation extends SignatureElement
 	public void setInputParameters(Parameters inputParameters)
 	{
 		this.inputParameters = inputParameters;
+		clearContentHash();
 	}
 
 	/**
@@ -166,6 +168,7 @@ public abstract class Operation extends SignatureElement
 	public void setExceptions(List<? extends Parameters> exceptions)
 	{
 		this.exceptions = exceptions;
+		clearContentHash();
 	}
 
 	/**
@@ -176,6 +179,29 @@ public abstract class Operation extends SignatureElement
 		return exceptions;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SignatureElement> getChildElements()
+	{
+		final List<SignatureElement> children = new ArrayList<SignatureElement>(
+				(exceptions != null ? exceptions.size() : 0) + 2);
+		if (inputParameters != null)
+		{
+			children.add(inputParameters);
+		}
+		if (outputParameters != null)
+		{
+			children.add(outputParameters);
+		}
+		if (exceptions != null)
+		{
+			children.addAll(exceptions);
+		}
+		return children;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -26,7 +26,7 @@ import java.util.List;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public abstract class Parameter extends SignatureElement
@@ -228,6 +228,7 @@ public abstract class Parameter extends SignatureElement
 	public void setComplexType(List<Parameter> complexType)
 	{
 		this.complexType = complexType;
+		clearContentHash();
 	}
 
 	/**
@@ -246,6 +247,7 @@ public abstract class Parameter extends SignatureElement
 				complexType = new ArrayList<Parameter>(DEFAULT_ARRAY_SIZE);
 			}
 			this.complexType.add(parameter);
+			clearContentHash();
 		}
 	}
 
@@ -257,6 +259,29 @@ public abstract class Parameter extends SignatureElement
 		return complexType;
 	}
 
+	/**
+	 * Returns the attributes of the data type which are known yet. Unlike
+	 * {@link #getComplexType()} it does not cause a derived class to reflect a data
+	 * type whose reflection is deferred, so the attributes of such a type are missing.
+	 * 
+	 * @return [OBJECT] The known attributes.
+	 * @thematicgrid Getting Operations
+	 * @since 0.0.11
+	 */
+	public final List<Parameter> getKnownComplexType()
+	{
+		return complexType;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SignatureElement> getChildElements()
+	{
+		return new ArrayList<SignatureElement>(complexType);
+	}
+
 	/**
 	 * @param signatureElementPath
 	 *            the signatureElementPath to set
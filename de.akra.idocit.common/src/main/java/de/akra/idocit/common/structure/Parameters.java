@@ -26,7 +26,7 @@ import java.util.List;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public abstract class Parameters extends SignatureElement
@@ -151,6 +151,7 @@ public abstract class Parameters extends SignatureElement
 				parameters = new ArrayList<Parameter>(DEFAULT_ARRAY_SIZE);
 			}
 			this.parameters.add(parameter);
+			clearContentHash();
 		}
 	}
 
@@ -162,6 +163,15 @@ public abstract class Parameters extends SignatureElement
 		return parameters;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SignatureElement> getChildElements()
+	{
+		return new ArrayList<SignatureElement>(parameters);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
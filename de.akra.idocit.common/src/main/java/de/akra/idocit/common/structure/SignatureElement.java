@@ -15,10 +15,17 @@
  *******************************************************************************/
 package de.akra.idocit.common.structure;
 
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import de.akra.idocit.common.constants.Misc;
 import de.akra.idocit.common.utils.Preconditions;
 
 /**
@@ -28,7 +35,7 @@ import de.akra.idocit.common.utils.Preconditions;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public abstract class SignatureElement
@@ -50,6 +57,13 @@ public abstract class SignatureElement
 	 */
 	public static final int DEFAULT_ARRAY_SIZE = 5;
 
+	/**
+	 * Counter for the unique IDs, starts with {@link Integer#MIN_VALUE}. Elements may be
+	 * created by several threads. It must be initialized before
+	 * {@link #EMPTY_SIGNATURE_ELEMENT}.
+	 */
+	private static final AtomicInteger ID_COUNTER = new AtomicInteger(Integer.MIN_VALUE);
+
 	/**
 	 * The empty SignatureElement represents the parent of the root SignatureElement.
 	 */
@@ -76,11 +90,6 @@ public abstract class SignatureElement
 		}
 	};
 
-	/**
-	 * Counter for the unique IDs, starts with {@link Integer#MIN_VALUE}.
-	 */
-	private static int ID_COUNTER = Integer.MIN_VALUE;
-
 	/**
 	 * The parent SignatureElement.
 	 */
@@ -149,6 +158,60 @@ public abstract class SignatureElement
 	 */
 	private boolean hasPublicAccessibleAttributes = false;
 
+	/**
+	 * The algorithm of the hashes of the content.
+	 */
+	private static final String CONTENT_HASH_ALGORITHM = "SHA-1";
+
+	private static final Charset CONTENT_HASH_CHARSET = Charset
+			.forName(Misc.DEFAULT_CHARSET);
+
+	/**
+	 * Orders the entries of the documentation texts, so that equal maps are hashed in
+	 * the same order.
+	 */
+	private static final Comparator<Map.Entry<Addressee, String>> ADDRESSEE_ORDER = new Comparator<Map.Entry<Addressee, String>>() {
+		@Override
+		public int compare(final Map.Entry<Addressee, String> entry1,
+				final Map.Entry<Addressee, String> entry2)
+		{
+			final Addressee addressee1 = entry1.getKey();
+			final Addressee addressee2 = entry2.getKey();
+			if (addressee1 == null || addressee2 == null)
+			{
+				return addressee1 == null ? (addressee2 == null ? 0 : -1) : 1;
+			}
+			int result = compareStrings(addressee1.getName(), addressee2.getName());
+			if (result == 0)
+			{
+				result = compareStrings(addressee1.getDescription(),
+						addressee2.getDescription());
+			}
+			if (result == 0 && addressee1.isDefault() != addressee2.isDefault())
+			{
+				result = addressee1.isDefault() ? 1 : -1;
+			}
+			return result;
+		}
+	};
+
+	/**
+	 * The cached hash of the content of this element and of all its children, see
+	 * {@link #getContentHash()}. It is valid if {@link #contentHashValid} is
+	 * <code>true</code>.
+	 * 
+	 * @since 0.0.11
+	 */
+	private transient String contentHash;
+
+	/**
+	 * False, if the {@link #contentHash} must be computed again. If it is false, it is
+	 * false for all ancestors, too.
+	 * 
+	 * @since 0.0.11
+	 */
+	private transient boolean contentHashValid = false;
+
 	/**
 	 * Returns the next free id for a SignatureElement.
 	 *  
@@ -156,8 +219,7 @@ public abstract class SignatureElement
 	 */
 	private static int fetchNextId()
 	{
-		ID_COUNTER++;
-		return ID_COUNTER;
+		return ID_COUNTER.incrementAndGet();
 	}
 	
 	/**
@@ -189,7 +251,8 @@ public abstract class SignatureElement
 	/**
 	 * Make a deep copy of this instance. It calls the abstract methods
 	 * {@link #createSignatureElement(SignatureElement)} and
-	 * {@link #doCopyTo(SignatureElement)}.
+	 * {@link #doCopyTo(SignatureElement)}. The {@link Documentation}s are copied with
+	 * {@link Documentation#copy()}, i.e. their texts are shared until they are changed.
 	 * 
 	 * @param parent
 	 *            The parent for the copy.
@@ -327,6 +390,7 @@ public abstract class SignatureElement
 	public void setDocumentations(List<Documentation> documentations)
 	{
 		this.documentations = documentations;
+		clearContentHash();
 	}
 
 	/**
@@ -343,6 +407,7 @@ public abstract class SignatureElement
 			documentations = new ArrayList<Documentation>(DEFAULT_ARRAY_SIZE);
 		}
 		this.documentations.add(documentation);
+		clearContentHash();
 	}
 
 	/**
@@ -360,6 +425,7 @@ public abstract class SignatureElement
 	public void setIdentifier(String identifier)
 	{
 		this.identifier = identifier;
+		clearContentHash();
 	}
 
 	/**
@@ -386,6 +452,7 @@ public abstract class SignatureElement
 	public void setCategory(String category)
 	{
 		this.category = category;
+		clearContentHash();
 	}
 
 	/**
@@ -411,6 +478,7 @@ public abstract class SignatureElement
 	public void setQualifiedIdentifier(String qualifiedIdentifier)
 	{
 		this.qualifiedIdentifier = qualifiedIdentifier;
+		clearContentHash();
 	}
 
 	/**
@@ -435,12 +503,216 @@ public abstract class SignatureElement
 	 * 
 	 * @param documentationChanged
 	 *            set true, if something has happened with the the {@link #documentations}
-	 *            .
+	 *            . This also clears the cached {@link #getContentHash()}.
 	 * @since 0.0.2
 	 */
 	public void setDocumentationChanged(boolean documentationChanged)
 	{
 		this.documentationChanged = documentationChanged;
+		clearContentHash();
+	}
+
+	/**
+	 * Returns the direct children of this element in the structure, e.g. the operations
+	 * of an interface. The default implementation returns an empty list.
+	 * 
+	 * @return [OBJECT] A new list of the children.
+	 * @thematicgrid Getting Operations
+	 * @since 0.0.11
+	 */
+	public List<SignatureElement> getChildElements()
+	{
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns the SHA-1 hash of the identifiers and the {@link Documentation}s of this
+	 * element and of all its children, as hexadecimal string. Equal subtrees have equal
+	 * hashes, and different subtrees have different hashes, so two structures can be
+	 * compared by descending only into the children whose hashes differ.
+	 * <p>
+	 * The hash is computed bottom-up and cached in the elements. The setters of the
+	 * elements clear it for the element and its ancestors. If a {@link Documentation} of
+	 * the element is changed in place, {@link #setDocumentationChanged(boolean)} must be
+	 * called to clear it.
+	 * </p>
+	 * 
+	 * @return [REPORT]
+	 * @thematicgrid Calculating Operations
+	 * @since 0.0.11
+	 */
+	public String getContentHash()
+	{
+		if (!contentHashValid)
+		{
+			final MessageDigest digest = createDigest();
+			updateOwnContent(digest);
+			for (final SignatureElement child : getChildElements())
+			{
+				update(digest, child != null ? child.getContentHash() : null);
+			}
+			contentHash = toHex(digest.digest());
+			contentHashValid = true;
+		}
+		return contentHash;
+	}
+
+	/**
+	 * Returns the SHA-1 hash of the identifiers and the {@link Documentation}s of only
+	 * this element, without its children, as hexadecimal string. It is not cached.
+	 * 
+	 * @return [REPORT]
+	 * @thematicgrid Calculating Operations
+	 * @since 0.0.11
+	 */
+	public String getOwnContentHash()
+	{
+		final MessageDigest digest = createDigest();
+		updateOwnContent(digest);
+		return toHex(digest.digest());
+	}
+
+	private void updateOwnContent(final MessageDigest digest)
+	{
+		update(digest, category);
+		update(digest, identifier);
+		update(digest, qualifiedIdentifier);
+		if (documentations == null)
+		{
+			update(digest, null);
+			return;
+		}
+
+		update(digest, String.valueOf(documentations.size()));
+		for (final Documentation documentation : documentations)
+		{
+			updateDocumentation(digest, documentation);
+		}
+	}
+
+	private static void updateDocumentation(final MessageDigest digest,
+			final Documentation documentation)
+	{
+		if (documentation == null)
+		{
+			update(digest, null);
+			return;
+		}
+
+		update(digest, String.valueOf(documentation.isErrorCase()));
+		update(digest, documentation.getSignatureElementIdentifier());
+		final ThematicRole role = documentation.getThematicRole();
+		update(digest, role != null ? role.getName() : null);
+		update(digest, role != null ? role.getDescription() : null);
+		update(digest, role != null && role.getRoleScope() != null ? role
+				.getRoleScope().name() : null);
+
+		final List<Addressee> addressees = documentation.getAddresseeSequenceView();
+		if (addressees == null)
+		{
+			update(digest, null);
+		}
+		else
+		{
+			update(digest, String.valueOf(addressees.size()));
+			for (final Addressee addressee : addressees)
+			{
+				updateAddressee(digest, addressee);
+			}
+		}
+
+		final Map<Addressee, String> texts = documentation.getDocumentationView();
+		if (texts == null)
+		{
+			update(digest, null);
+		}
+		else
+		{
+			final List<Map.Entry<Addressee, String>> entries = new ArrayList<Map.Entry<Addressee, String>>(
+					texts.entrySet());
+			Collections.sort(entries, ADDRESSEE_ORDER);
+			update(digest, String.valueOf(entries.size()));
+			for (final Map.Entry<Addressee, String> entry : entries)
+			{
+				updateAddressee(digest, entry.getKey());
+				update(digest, entry.getValue());
+			}
+		}
+	}
+
+	private static void updateAddressee(final MessageDigest digest,
+			final Addressee addressee)
+	{
+		update(digest, addressee != null ? addressee.getName() : null);
+		update(digest, addressee != null ? addressee.getDescription() : null);
+		update(digest, addressee != null ? String.valueOf(addressee.isDefault()) : null);
+	}
+
+	/**
+	 * Adds the length and the bytes of the <code>value</code>, so that the hashed values
+	 * can not be confused.
+	 */
+	private static void update(final MessageDigest digest, final String value)
+	{
+		final byte[] bytes = (value != null) ? value.getBytes(CONTENT_HASH_CHARSET) : null;
+		final int length = (bytes != null) ? bytes.length : -1;
+		digest.update((byte) (length >>> 24));
+		digest.update((byte) (length >>> 16));
+		digest.update((byte) (length >>> 8));
+		digest.update((byte) length);
+		if (bytes != null)
+		{
+			digest.update(bytes);
+		}
+	}
+
+	private static MessageDigest createDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(final byte[] bytes)
+	{
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes)
+		{
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+			hex.append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private static int compareStrings(final String string1, final String string2)
+	{
+		if (string1 == null || string2 == null)
+		{
+			return string1 == null ? (string2 == null ? 0 : -1) : 1;
+		}
+		return string1.compareTo(string2);
+	}
+
+	/**
+	 * Clears the cached {@link #getContentHash()} of this element and of its ancestors.
+	 * Derived classes must call it if they change their children.
+	 * 
+	 * @since 0.0.11
+	 */
+	protected final void clearContentHash()
+	{
+		SignatureElement element = this;
+		// the hashes of the ancestors of an invalid hash are invalid already
+		while (element != null && element.contentHashValid)
+		{
+			element.contentHashValid = false;
+			element = element.parent;
+		}
 	}
 
 	public Numerus getNumerus()
@@ -0,0 +1,550 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.utils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.akra.idocit.common.constants.Misc;
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.RoleScope;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+
+/**
+ * Compact, versioned binary format for the configuration of iDocIt! ({@link Addressee}
+ * s, {@link ThematicRole}s and {@link ThematicGrid}s). The snapshots are stored as
+ * Base64 strings, so that they can be kept in a preference store. Decoding is a single
+ * sequential pass over the bytes without any reflection, which is much faster than
+ * unmarshalling the XStream XML.
+ * <p>
+ * Layout: magic bytes <code>IDCS</code>, format version, content type, number of
+ * items, items. Strings are written as length (<code>-1</code> for <code>null</code>)
+ * followed by the UTF-8 bytes.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class ConfigurationSnapshot
+{
+	/**
+	 * The current version of the binary format. It has to be increased if the layout
+	 * changes. Snapshots with another version are rejected.
+	 */
+	public static final byte FORMAT_VERSION = 1;
+
+	private static final byte[] MAGIC = { 'I', 'D', 'C', 'S' };
+
+	private static final byte TYPE_ADDRESSEES = 1;
+	private static final byte TYPE_THEMATIC_ROLES = 2;
+	private static final byte TYPE_THEMATIC_GRIDS = 3;
+
+	private static final byte NULL_VALUE = -1;
+
+	private static final Charset UTF_8 = Charset.forName(Misc.DEFAULT_CHARSET);
+
+	private static final char[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.toCharArray();
+
+	private static final int[] BASE64_VALUES = new int[128];
+
+	static
+	{
+		for (int i = 0; i < BASE64_VALUES.length; i++)
+		{
+			BASE64_VALUES[i] = -1;
+		}
+		for (int i = 0; i < BASE64_ALPHABET.length; i++)
+		{
+			BASE64_VALUES[BASE64_ALPHABET[i]] = i;
+		}
+	}
+
+	/**
+	 * Private constructor, only static methods.
+	 */
+	private ConfigurationSnapshot()
+	{}
+
+	/**
+	 * Encodes the <code>addressees</code> into a snapshot.
+	 *
+	 * @param addressees
+	 *            [OBJECT] Must not be <code>null</code>.
+	 * @return [OBJECT] The Base64 encoded snapshot.
+	 */
+	public static String encodeAddressees(final List<Addressee> addressees)
+	{
+		final Writer writer = new Writer(TYPE_ADDRESSEES, addressees.size());
+		for (final Addressee addressee : addressees)
+		{
+			writer.writeString(addressee.getName());
+			writer.writeString(addressee.getDescription());
+			writer.writeByte(addressee.isDefault() ? 1 : 0);
+		}
+		return writer.toBase64();
+	}
+
+	/**
+	 * Decodes a snapshot created by {@link #encodeAddressees(List)}.
+	 *
+	 * @param snapshot
+	 *            [OBJECT] The Base64 encoded snapshot.
+	 * @return [OBJECT] The decoded addressees.
+	 * @throws IOException
+	 *             If the <code>snapshot</code> is malformed or has another format
+	 *             version.
+	 */
+	public static List<Addressee> decodeAddressees(final String snapshot)
+			throws IOException
+	{
+		final Reader reader = new Reader(snapshot, TYPE_ADDRESSEES);
+		final int count = reader.readCount();
+		final List<Addressee> addressees = new ArrayList<Addressee>(count);
+		for (int i = 0; i < count; i++)
+		{
+			final Addressee addressee = new Addressee();
+			addressee.setName(reader.readString());
+			addressee.setDescription(reader.readString());
+			addressee.setDefault(reader.readByte() != 0);
+			addressees.add(addressee);
+		}
+		reader.checkEnd();
+		return addressees;
+	}
+
+	/**
+	 * Encodes the <code>roles</code> into a snapshot.
+	 *
+	 * @param roles
+	 *            [OBJECT] Must not be <code>null</code>.
+	 * @return [OBJECT] The Base64 encoded snapshot.
+	 */
+	public static String encodeThematicRoles(final List<ThematicRole> roles)
+	{
+		final Writer writer = new Writer(TYPE_THEMATIC_ROLES, roles.size());
+		for (final ThematicRole role : roles)
+		{
+			writeRole(writer, role);
+		}
+		return writer.toBase64();
+	}
+
+	/**
+	 * Decodes a snapshot created by {@link #encodeThematicRoles(List)}.
+	 *
+	 * @param snapshot
+	 *            [OBJECT] The Base64 encoded snapshot.
+	 * @return [OBJECT] The decoded roles.
+	 * @throws IOException
+	 *             If the <code>snapshot</code> is malformed or has another format
+	 *             version.
+	 */
+	public static List<ThematicRole> decodeThematicRoles(final String snapshot)
+			throws IOException
+	{
+		final Reader reader = new Reader(snapshot, TYPE_THEMATIC_ROLES);
+		final int count = reader.readCount();
+		final List<ThematicRole> roles = new ArrayList<ThematicRole>(count);
+		for (int i = 0; i < count; i++)
+		{
+			roles.add(readRole(reader));
+		}
+		reader.checkEnd();
+		return roles;
+	}
+
+	/**
+	 * Encodes the <code>grids</code> into a snapshot.
+	 *
+	 * @param grids
+	 *            [OBJECT] Must not be <code>null</code>.
+	 * @return [OBJECT] The Base64 encoded snapshot.
+	 */
+	public static String encodeThematicGrids(final List<ThematicGrid> grids)
+	{
+		final Writer writer = new Writer(TYPE_THEMATIC_GRIDS, grids.size());
+		for (final ThematicGrid grid : grids)
+		{
+			writer.writeString(grid.getName());
+			writer.writeString(grid.getDescription());
+			writer.writeString(grid.getRefernceVerb());
+
+			final Set<String> verbs = grid.getVerbs();
+			writer.writeInt(verbs != null ? verbs.size() : NULL_VALUE);
+			if (verbs != null)
+			{
+				for (final String verb : verbs)
+				{
+					writer.writeString(verb);
+				}
+			}
+
+			final Map<ThematicRole, Boolean> roles = grid.getRoles();
+			writer.writeInt(roles != null ? roles.size() : NULL_VALUE);
+			if (roles != null)
+			{
+				for (final Entry<ThematicRole, Boolean> role : roles.entrySet())
+				{
+					writeRole(writer, role.getKey());
+					writer.writeByte(role.getValue() == null ? NULL_VALUE : (role
+							.getValue().booleanValue() ? 1 : 0));
+				}
+			}
+
+			writeStringMap(writer, grid.getGridBasedRules());
+		}
+		return writer.toBase64();
+	}
+
+	/**
+	 * Decodes a snapshot created by {@link #encodeThematicGrids(List)}.
+	 *
+	 * @param snapshot
+	 *            [OBJECT] The Base64 encoded snapshot.
+	 * @return [OBJECT] The decoded grids.
+	 * @throws IOException
+	 *             If the <code>snapshot</code> is malformed or has another format
+	 *             version.
+	 */
+	public static List<ThematicGrid> decodeThematicGrids(final String snapshot)
+			throws IOException
+	{
+		final Reader reader = new Reader(snapshot, TYPE_THEMATIC_GRIDS);
+		final int count = reader.readCount();
+		final List<ThematicGrid> grids = new ArrayList<ThematicGrid>(count);
+		for (int i = 0; i < count; i++)
+		{
+			final ThematicGrid grid = new ThematicGrid();
+			grid.setName(reader.readString());
+			grid.setDescription(reader.readString());
+			grid.setRefernceVerb(reader.readString());
+
+			final int verbCount = reader.readCount();
+			if (verbCount != NULL_VALUE)
+			{
+				final Set<String> verbs = new TreeSet<String>();
+				for (int v = 0; v < verbCount; v++)
+				{
+					verbs.add(reader.readString());
+				}
+				grid.setVerbs(verbs);
+			}
+
+			final int roleCount = reader.readCount();
+			if (roleCount != NULL_VALUE)
+			{
+				final Map<ThematicRole, Boolean> roles = new HashMap<ThematicRole, Boolean>(
+						roleCount * 2);
+				for (int r = 0; r < roleCount; r++)
+				{
+					final ThematicRole role = readRole(reader);
+					final byte mandatory = reader.readByte();
+					roles.put(role, mandatory == NULL_VALUE ? null : Boolean
+							.valueOf(mandatory != 0));
+				}
+				grid.setRoles(roles);
+			}
+
+			grid.setGridBasedRules(readStringMap(reader));
+			grids.add(grid);
+		}
+		reader.checkEnd();
+		return grids;
+	}
+
+	private static void writeRole(final Writer writer, final ThematicRole role)
+	{
+		writer.writeString(role.getName());
+		writer.writeString(role.getDescription());
+		writer.writeByte(role.getRoleScope() != null ? role.getRoleScope().ordinal()
+				: NULL_VALUE);
+	}
+
+	private static ThematicRole readRole(final Reader reader) throws IOException
+	{
+		final String name = reader.readString();
+		final String description = reader.readString();
+		final byte scope = reader.readByte();
+		final RoleScope[] scopes = RoleScope.values();
+		if (scope != NULL_VALUE && (scope < 0 || scope >= scopes.length))
+		{
+			throw new IOException("Unknown role scope " + scope);
+		}
+		return new ThematicRole(name, description, scope == NULL_VALUE ? null
+				: scopes[scope]);
+	}
+
+	private static void writeStringMap(final Writer writer, final Map<String, String> map)
+	{
+		writer.writeInt(map != null ? map.size() : NULL_VALUE);
+		if (map != null)
+		{
+			for (final Entry<String, String> entry : map.entrySet())
+			{
+				writer.writeString(entry.getKey());
+				writer.writeString(entry.getValue());
+			}
+		}
+	}
+
+	private static Map<String, String> readStringMap(final Reader reader)
+			throws IOException
+	{
+		final int count = reader.readCount();
+		if (count == NULL_VALUE)
+		{
+			return null;
+		}
+		final Map<String, String> map = new HashMap<String, String>(count * 2);
+		for (int i = 0; i < count; i++)
+		{
+			map.put(reader.readString(), reader.readString());
+		}
+		return map;
+	}
+
+	/**
+	 * Growing byte buffer which writes the header on creation.
+	 */
+	private static final class Writer
+	{
+		private byte[] buffer = new byte[1024];
+		private int length = 0;
+
+		Writer(final byte type, final int count)
+		{
+			for (final byte b : MAGIC)
+			{
+				writeByte(b);
+			}
+			writeByte(FORMAT_VERSION);
+			writeByte(type);
+			writeInt(count);
+		}
+
+		private void ensureCapacity(final int additional)
+		{
+			if (length + additional > buffer.length)
+			{
+				final byte[] newBuffer = new byte[Math.max(buffer.length * 2, length
+						+ additional)];
+				System.arraycopy(buffer, 0, newBuffer, 0, length);
+				buffer = newBuffer;
+			}
+		}
+
+		void writeByte(final int value)
+		{
+			ensureCapacity(1);
+			buffer[length++] = (byte) value;
+		}
+
+		void writeInt(final int value)
+		{
+			ensureCapacity(4);
+			buffer[length++] = (byte) (value >>> 24);
+			buffer[length++] = (byte) (value >>> 16);
+			buffer[length++] = (byte) (value >>> 8);
+			buffer[length++] = (byte) value;
+		}
+
+		void writeString(final String value)
+		{
+			if (value == null)
+			{
+				writeInt(NULL_VALUE);
+			}
+			else
+			{
+				final byte[] bytes = value.getBytes(UTF_8);
+				writeInt(bytes.length);
+				ensureCapacity(bytes.length);
+				System.arraycopy(bytes, 0, buffer, length, bytes.length);
+				length += bytes.length;
+			}
+		}
+
+		String toBase64()
+		{
+			final StringBuilder sb = new StringBuilder((length + 2) / 3 * 4);
+			int i = 0;
+			for (; i + 2 < length; i += 3)
+			{
+				final int bits = (buffer[i] & 0xff) << 16 | (buffer[i + 1] & 0xff) << 8
+						| (buffer[i + 2] & 0xff);
+				sb.append(BASE64_ALPHABET[bits >>> 18]);
+				sb.append(BASE64_ALPHABET[(bits >>> 12) & 0x3f]);
+				sb.append(BASE64_ALPHABET[(bits >>> 6) & 0x3f]);
+				sb.append(BASE64_ALPHABET[bits & 0x3f]);
+			}
+			final int rest = length - i;
+			if (rest > 0)
+			{
+				final int bits = (buffer[i] & 0xff) << 16
+						| (rest == 2 ? (buffer[i + 1] & 0xff) << 8 : 0);
+				sb.append(BASE64_ALPHABET[bits >>> 18]);
+				sb.append(BASE64_ALPHABET[(bits >>> 12) & 0x3f]);
+				sb.append(rest == 2 ? BASE64_ALPHABET[(bits >>> 6) & 0x3f] : '=');
+				sb.append('=');
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Sequential reader which checks the header on creation.
+	 */
+	private static final class Reader
+	{
+		private final byte[] buffer;
+		private int position = 0;
+
+		Reader(final String base64, final byte expectedType) throws IOException
+		{
+			buffer = fromBase64(base64);
+			for (final byte b : MAGIC)
+			{
+				if (readByte() != b)
+				{
+					throw new IOException("Not an iDocIt! configuration snapshot.");
+				}
+			}
+			final byte version = readByte();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException("Unsupported snapshot format version " + version);
+			}
+			final byte type = readByte();
+			if (type != expectedType)
+			{
+				throw new IOException("Unexpected snapshot content type " + type);
+			}
+		}
+
+		private void require(final int count) throws IOException
+		{
+			if (count < 0 || position + count > buffer.length)
+			{
+				throw new IOException("Truncated configuration snapshot.");
+			}
+		}
+
+		byte readByte() throws IOException
+		{
+			require(1);
+			return buffer[position++];
+		}
+
+		int readInt() throws IOException
+		{
+			require(4);
+			final int value = (buffer[position] & 0xff) << 24
+					| (buffer[position + 1] & 0xff) << 16
+					| (buffer[position + 2] & 0xff) << 8 | (buffer[position + 3] & 0xff);
+			position += 4;
+			return value;
+		}
+
+		/**
+		 * Reads a number of items, which is either {@link ConfigurationSnapshot#NULL_VALUE}
+		 * or not negative.
+		 */
+		int readCount() throws IOException
+		{
+			final int count = readInt();
+			if (count < NULL_VALUE)
+			{
+				throw new IOException("Invalid item count " + count);
+			}
+			return count;
+		}
+
+		String readString() throws IOException
+		{
+			final int byteCount = readCount();
+			if (byteCount == NULL_VALUE)
+			{
+				return null;
+			}
+			require(byteCount);
+			final String value = new String(buffer, position, byteCount, UTF_8);
+			position += byteCount;
+			return value;
+		}
+
+		void checkEnd() throws IOException
+		{
+			if (position != buffer.length)
+			{
+				throw new IOException("Unexpected data at the end of the snapshot.");
+			}
+		}
+
+		private static byte[] fromBase64(final String base64) throws IOException
+		{
+			final int length = base64.length();
+			if (length % 4 != 0)
+			{
+				throw new IOException("Invalid Base64 length " + length);
+			}
+			int padding = 0;
+			if (length > 0 && base64.charAt(length - 1) == '=')
+			{
+				padding = base64.charAt(length - 2) == '=' ? 2 : 1;
+			}
+
+			final byte[] result = new byte[length / 4 * 3 - padding];
+			int out = 0;
+			for (int i = 0; i < length; i += 4)
+			{
+				int bits = 0;
+				for (int j = 0; j < 4; j++)
+				{
+					final char c = base64.charAt(i + j);
+					int value = 0;
+					if (c != '=' || i + 4 < length)
+					{
+						value = c < 128 ? BASE64_VALUES[c] : -1;
+						if (value < 0)
+						{
+							throw new IOException("Invalid Base64 character '" + c + "'");
+						}
+					}
+					bits = bits << 6 | value;
+				}
+				result[out++] = (byte) (bits >>> 16);
+				if (out < result.length)
+				{
+					result[out++] = (byte) (bits >>> 8);
+				}
+				if (out < result.length)
+				{
+					result[out++] = (byte) bits;
+				}
+			}
+			return result;
+		}
+	}
+}
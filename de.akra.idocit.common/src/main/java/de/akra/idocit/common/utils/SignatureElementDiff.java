@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.common.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.SignatureElement;
+
+/**
+ * Compares two structures of {@link SignatureElement}s, e.g. an
+ * {@link InterfaceArtifact} before and after saving or two revisions of a file, and
+ * reports the changed documentations per element.
+ * <p>
+ * The comparison uses the cached {@link SignatureElement#getContentHash()}es and
+ * descends only into the children whose hashes differ. The hashes are SHA-1 digests
+ * of the contents, so subtrees with equal hashes are taken as equal without comparing
+ * them.
+ * </p>
+ * <p>
+ * The children of two compared elements are matched by their category and identifier
+ * (and by their order if several children have the same ones, e.g. overloaded
+ * methods). The documentations of two matched elements are matched by their thematic
+ * role in the same way. Added and removed subtrees are reported only for their root
+ * element.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class SignatureElementDiff
+{
+	/**
+	 * The separator between the identifiers of a path.
+	 */
+	private static final char PATH_SEPARATOR = '/';
+
+	/**
+	 * The type of the change of an element.
+	 */
+	public enum ChangeType
+	{
+		/**
+		 * The element exists only in the new structure.
+		 */
+		ADDED,
+
+		/**
+		 * The element exists only in the old structure.
+		 */
+		REMOVED,
+
+		/**
+		 * The documentations of the element changed.
+		 */
+		CHANGED;
+	}
+
+	/**
+	 * The change of one element.
+	 */
+	public static final class ElementChange
+	{
+		private final ChangeType type;
+		private final String path;
+		private final SignatureElement oldElement;
+		private final SignatureElement newElement;
+		private final List<Documentation> addedDocumentations;
+		private final List<Documentation> removedDocumentations;
+		private final List<Documentation> changedDocumentations;
+
+		ElementChange(final ChangeType type, final String path,
+				final SignatureElement oldElement, final SignatureElement newElement,
+				final List<Documentation> addedDocumentations,
+				final List<Documentation> removedDocumentations,
+				final List<Documentation> changedDocumentations)
+		{
+			this.type = type;
+			this.path = path;
+			this.oldElement = oldElement;
+			this.newElement = newElement;
+			this.addedDocumentations = Collections.unmodifiableList(addedDocumentations);
+			this.removedDocumentations = Collections
+					.unmodifiableList(removedDocumentations);
+			this.changedDocumentations = Collections
+					.unmodifiableList(changedDocumentations);
+		}
+
+		/**
+		 * @return [OBJECT] The type of the change.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public ChangeType getType()
+		{
+			return type;
+		}
+
+		/**
+		 * @return [OBJECT] The identifiers of the element and its ancestors, separated
+		 *         by slashes.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getPath()
+		{
+			return path;
+		}
+
+		/**
+		 * @return [OBJECT] The element in the old structure, <code>null</code> if it
+		 *         was added.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public SignatureElement getOldElement()
+		{
+			return oldElement;
+		}
+
+		/**
+		 * @return [OBJECT] The element in the new structure, <code>null</code> if it
+		 *         was removed.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public SignatureElement getNewElement()
+		{
+			return newElement;
+		}
+
+		/**
+		 * @return [OBJECT] The documentations which exist only in the new element.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public List<Documentation> getAddedDocumentations()
+		{
+			return addedDocumentations;
+		}
+
+		/**
+		 * @return [OBJECT] The documentations which exist only in the old element.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public List<Documentation> getRemovedDocumentations()
+		{
+			return removedDocumentations;
+		}
+
+		/**
+		 * @return [OBJECT] The new versions of the documentations which differ between
+		 *         the old and the new element.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public List<Documentation> getChangedDocumentations()
+		{
+			return changedDocumentations;
+		}
+
+		@Override
+		public String toString()
+		{
+			return type + " " + path + " (+" + addedDocumentations.size() + " -"
+					+ removedDocumentations.size() + " ~" + changedDocumentations.size()
+					+ ")";
+		}
+	}
+
+	private SignatureElementDiff()
+	{
+		// only static methods
+	}
+
+	/**
+	 * Compares the <code>oldElement</code> and the <code>newElement</code> and all
+	 * their children.
+	 *
+	 * @param oldElement
+	 *            [SOURCE] The old structure, e.g. the saved {@link InterfaceArtifact}.
+	 * @param newElement
+	 *            [OBJECT] The new structure.
+	 * @return [REPORT] The changes, in the order of the elements. It is empty if the
+	 *         structures have equal identifiers and documentations.
+	 * @thematicgrid Comparing Operations
+	 */
+	public static List<ElementChange> compare(final SignatureElement oldElement,
+			final SignatureElement newElement)
+	{
+		final List<ElementChange> changes = new ArrayList<ElementChange>();
+		compare(oldElement, newElement, pathSegment(newElement), changes);
+		return changes;
+	}
+
+	private static void compare(final SignatureElement oldElement,
+			final SignatureElement newElement, final String path,
+			final List<ElementChange> changes)
+	{
+		if (oldElement.getContentHash().equals(newElement.getContentHash()))
+		{
+			return;
+		}
+
+		if (!oldElement.getOwnContentHash().equals(newElement.getOwnContentHash()))
+		{
+			compareDocumentations(oldElement, newElement, path, changes);
+		}
+
+		// match the children by key
+		final Map<String, SignatureElement> oldChildren = new LinkedHashMap<String, SignatureElement>();
+		final Map<String, Integer> occurrences = new HashMap<String, Integer>();
+		for (final SignatureElement child : oldElement.getChildElements())
+		{
+			oldChildren.put(key(childKey(child), occurrences), child);
+		}
+
+		occurrences.clear();
+		for (final SignatureElement newChild : newElement.getChildElements())
+		{
+			final String childPath = path + PATH_SEPARATOR + pathSegment(newChild);
+			final SignatureElement oldChild = oldChildren.remove(key(childKey(newChild),
+					occurrences));
+			if (oldChild == null)
+			{
+				changes.add(new ElementChange(ChangeType.ADDED, childPath, null, newChild,
+						documentations(newChild), Collections.<Documentation> emptyList(),
+						Collections.<Documentation> emptyList()));
+			}
+			else
+			{
+				compare(oldChild, newChild, childPath, changes);
+			}
+		}
+
+		for (final SignatureElement oldChild : oldChildren.values())
+		{
+			changes.add(new ElementChange(ChangeType.REMOVED, path + PATH_SEPARATOR
+					+ pathSegment(oldChild), oldChild, null,
+					Collections.<Documentation> emptyList(), documentations(oldChild),
+					Collections.<Documentation> emptyList()));
+		}
+	}
+
+	private static void compareDocumentations(final SignatureElement oldElement,
+			final SignatureElement newElement, final String path,
+			final List<ElementChange> changes)
+	{
+		final Map<String, Documentation> oldDocs = new LinkedHashMap<String, Documentation>();
+		final Map<String, Integer> occurrences = new HashMap<String, Integer>();
+		for (final Documentation documentation : documentations(oldElement))
+		{
+			oldDocs.put(key(roleName(documentation), occurrences), documentation);
+		}
+
+		final List<Documentation> added = new ArrayList<Documentation>();
+		final List<Documentation> changed = new ArrayList<Documentation>();
+		occurrences.clear();
+		for (final Documentation documentation : documentations(newElement))
+		{
+			final Documentation oldDoc = oldDocs.remove(key(roleName(documentation),
+					occurrences));
+			if (oldDoc == null)
+			{
+				added.add(documentation);
+			}
+			else if (!oldDoc.equals(documentation))
+			{
+				changed.add(documentation);
+			}
+		}
+		final List<Documentation> removed = new ArrayList<Documentation>(
+				oldDocs.values());
+
+		if (!added.isEmpty() || !removed.isEmpty() || !changed.isEmpty())
+		{
+			changes.add(new ElementChange(ChangeType.CHANGED, path, oldElement,
+					newElement, added, removed, changed));
+		}
+	}
+
+	/**
+	 * @return The <code>baseKey</code> with the number of its previous occurrences.
+	 */
+	private static String key(final String baseKey, final Map<String, Integer> occurrences)
+	{
+		final Integer count = occurrences.get(baseKey);
+		final int occurrence = count != null ? count.intValue() : 0;
+		occurrences.put(baseKey, Integer.valueOf(occurrence + 1));
+		return baseKey + '#' + occurrence;
+	}
+
+	private static String childKey(final SignatureElement element)
+	{
+		return element.getCategory() + PATH_SEPARATOR + element.getIdentifier();
+	}
+
+	private static String pathSegment(final SignatureElement element)
+	{
+		return element.getIdentifier() != null ? element.getIdentifier() : element
+				.getCategory();
+	}
+
+	private static String roleName(final Documentation documentation)
+	{
+		return documentation.getThematicRole() != null ? documentation
+				.getThematicRole().getName() : "";
+	}
+
+	private static List<Documentation> documentations(final SignatureElement element)
+	{
+		return element.getDocumentations() != null ? element.getDocumentations()
+				: Collections.<Documentation> emptyList();
+	}
+}
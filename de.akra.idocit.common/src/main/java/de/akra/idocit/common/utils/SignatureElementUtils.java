@@ -278,7 +278,9 @@ public class SignatureElementUtils
 				Iterator<Parameter> itParam;
 				if (currentSigElem instanceof Parameter)
 				{
-					itParam = ((Parameter) currentSigElem).getComplexType().iterator();
+					// the attributes of a deferred data type are not documented yet
+					itParam = ((Parameter) currentSigElem).getKnownComplexType()
+							.iterator();
 				}
 				else if (currentSigElem instanceof Parameters)
 				{
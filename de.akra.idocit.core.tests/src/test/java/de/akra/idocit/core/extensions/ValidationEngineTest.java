@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.extensions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
+import de.akra.idocit.common.structure.impl.TestOperation;
+import de.akra.idocit.common.structure.impl.TestParameter;
+import de.akra.idocit.common.structure.impl.TestParameters;
+import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
+
+/**
+ * Tests for {@link ValidationEngine}.
+ */
+public class ValidationEngineTest
+{
+	private static final String MESSAGE = "Empty documentation";
+
+	private static final Addressee DEVELOPER = new Addressee("Developer");
+
+	/**
+	 * Reports an error for each empty text and counts the checked elements.
+	 */
+	private static final class EmptyTextRule implements ValidationRule
+	{
+		private int checkedElements = 0;
+
+		@Override
+		public List<ValidationFinding> validate(final SignatureElement element)
+		{
+			checkedElements++;
+			for (final Documentation documentation : element.getDocumentations())
+			{
+				if (documentation.getDocumentation().containsValue(""))
+				{
+					return Collections.singletonList(new ValidationFinding(
+							ValidationCode.ERROR, MESSAGE, element));
+				}
+			}
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Only the elements with changed documentations are checked again, also in a copy
+	 * of the artifact. The unchanged subtrees are not descended into.
+	 */
+	@Test
+	public void testValidateChangedElements()
+	{
+		final EmptyTextRule rule = new EmptyTextRule();
+		final ValidationEngine engine = new ValidationEngine(Arrays.asList(rule));
+		final InterfaceArtifact artifact = createInterfaceArtifact();
+
+		ValidationReport report = engine.validate(artifact);
+		assertEquals(ValidationCode.OK, report.getReturnCode());
+		assertEquals("", report.getMessage());
+		assertEquals(6, rule.checkedElements);
+
+		report = engine.validate(artifact);
+		assertEquals(ValidationCode.OK, report.getReturnCode());
+		assertEquals(6, rule.checkedElements);
+
+		// clear the documentation of both parameters
+		final Parameters parameters = artifact.getInterfaces().get(0).getOperations()
+				.get(0).getInputParameters();
+		for (final Parameter parameter : parameters.getParameters())
+		{
+			parameter.getDocumentations().get(0).getDocumentation().put(DEVELOPER, "");
+			parameter.setDocumentationChanged(true);
+		}
+
+		report = engine.validate(artifact);
+		assertEquals(ValidationCode.ERROR, report.getReturnCode());
+		assertEquals(MESSAGE, report.getMessage());
+		assertEquals(2, report.getFindings().size());
+		assertEquals("id", report.getFindings().get(0).getElementIdentifier());
+		assertEquals("name", report.getFindings().get(1).getElementIdentifier());
+		assertEquals(8, rule.checkedElements);
+
+		// the findings of the unchanged elements are reused for the copy
+		final InterfaceArtifact copy = (InterfaceArtifact) artifact
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		final Parameter name = copy.getInterfaces().get(0).getOperations().get(0)
+				.getInputParameters().getParameters().get(1);
+		name.getDocumentations().get(0).getDocumentation()
+				.put(DEVELOPER, "The name of the customer.");
+		name.setDocumentationChanged(true);
+
+		report = engine.validate(copy);
+		assertEquals(ValidationCode.ERROR, report.getReturnCode());
+		assertEquals(1, report.getFindings().size());
+		assertEquals("id", report.getFindings().get(0).getElementIdentifier());
+		assertEquals(9, rule.checkedElements);
+	}
+
+	/**
+	 * The validation takes only the known attributes of a parameter, so a data type
+	 * whose reflection is deferred is not reflected.
+	 */
+	@Test
+	public void testDeferredTypeNotReflected()
+	{
+		final EmptyTextRule rule = new EmptyTextRule();
+		final ValidationEngine engine = new ValidationEngine(Arrays.asList(rule));
+		final InterfaceArtifact artifact = createInterfaceArtifact();
+
+		final Parameters parameters = artifact.getInterfaces().get(0).getOperations()
+				.get(0).getInputParameters();
+		final Parameter deferred = new TestParameter(parameters, "Parameter",
+				Numerus.SINGULAR, true)
+		{
+			@Override
+			public List<Parameter> getComplexType()
+			{
+				throw new IllegalStateException("The data type must not be reflected.");
+			}
+		};
+		deferred.setIdentifier("customer");
+		deferred.setDataTypeName("Customer");
+		parameters.addParameter(deferred);
+
+		final ValidationReport report = engine.validate(artifact);
+		assertEquals(ValidationCode.OK, report.getReturnCode());
+		assertEquals(7, rule.checkedElements);
+	}
+
+	/**
+	 * Without rules every artifact is valid.
+	 */
+	@Test
+	public void testValidateWithoutRules()
+	{
+		final ValidationEngine engine = new ValidationEngine(
+				Collections.<ValidationRule> emptyList());
+
+		final ValidationReport expected = new ValidationReport();
+		expected.setReturnCode(ValidationCode.OK);
+		expected.setMessage("");
+		assertEquals(expected, engine.validate(createInterfaceArtifact()));
+	}
+
+	private static InterfaceArtifact createInterfaceArtifact()
+	{
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setIdentifier("CustomerService.java");
+
+		final Interface interf = new TestInterface(artifact, "Class", Numerus.SINGULAR);
+		interf.setIdentifier("CustomerService");
+
+		final Operation op = new TestOperation(interf, "Method", "Searching Operations",
+				Numerus.SINGULAR);
+		op.setIdentifier("findCustomer");
+
+		final Parameters inputParameters = new TestParameters(op, "Parameters",
+				Numerus.SINGULAR);
+		inputParameters.addParameter(createParameter(inputParameters, "id",
+				"The ID of the customer."));
+		inputParameters.addParameter(createParameter(inputParameters, "name",
+				"The name of the customer."));
+		op.setInputParameters(inputParameters);
+
+		final List<Operation> operations = new ArrayList<Operation>();
+		operations.add(op);
+		interf.setOperations(operations);
+
+		final List<Interface> interfaces = new ArrayList<Interface>();
+		interfaces.add(interf);
+		artifact.setInterfaces(interfaces);
+		return artifact;
+	}
+
+	private static Parameter createParameter(final Parameters parent,
+			final String identifier, final String text)
+	{
+		final Parameter parameter = new TestParameter(parent, "Parameter",
+				Numerus.SINGULAR, false);
+		parameter.setIdentifier(identifier);
+		parameter.setDataTypeName("String");
+
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(new ThematicRole("COMPARISON"));
+		final Map<Addressee, String> texts = new HashMap<Addressee, String>();
+		texts.put(DEVELOPER, text);
+		documentation.setDocumentation(texts);
+		documentation.setAddresseeSequence(new ArrayList<Addressee>(Arrays
+				.asList(DEVELOPER)));
+		parameter.addDocpart(documentation);
+		return parameter;
+	}
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
+import de.akra.idocit.common.structure.impl.TestOperation;
+import de.akra.idocit.common.structure.impl.TestParameter;
+import de.akra.idocit.common.structure.impl.TestParameters;
+import de.akra.idocit.core.services.impl.DocumentationCoverageAnalyzer;
+import de.akra.idocit.core.services.impl.DocumentationCoverageAnalyzer.CoverageReport;
+import de.akra.idocit.core.services.impl.DocumentationCoverageAnalyzer.CoverageSummary;
+import de.akra.idocit.core.services.impl.DocumentationCoverageAnalyzer.OperationCoverage;
+
+/**
+ * Tests for {@link DocumentationCoverageAnalyzer}.
+ */
+public class DocumentationCoverageAnalyzerTest
+{
+	private static final String FILE = "/project/src/de/akra/CustomerService.java";
+
+	/**
+	 * The mandatory roles of the derived grid which are not documented are missing.
+	 */
+	@Test
+	public void testAnalyze()
+	{
+		final DocumentationCoverageAnalyzer analyzer = new DocumentationCoverageAnalyzer();
+		final List<OperationCoverage> operations = analyzer.analyze(FILE, 1,
+				createInterfaceArtifact(), createGrids());
+
+		assertEquals(2, operations.size());
+
+		final OperationCoverage find = operations.get(0);
+		assertEquals("CustomerService.findCustomer", find.getOperationPath());
+		assertEquals("CustomerService", find.getInterfacePath());
+		assertEquals("/project/src/de/akra", find.getPackage());
+		assertEquals(new HashSet<String>(Arrays.asList("Searching Operations")),
+				find.getGridNames());
+		assertEquals(new HashSet<String>(Arrays.asList("COMPARISON", "SOURCE")),
+				find.getRequiredRoles());
+		assertEquals(new HashSet<String>(Arrays.asList("SOURCE")),
+				find.getMissingRoles());
+		assertFalse(find.isCovered());
+
+		// no grid matches the verb "process"
+		final OperationCoverage process = operations.get(1);
+		assertTrue(process.getGridNames().isEmpty());
+		assertTrue(process.isCovered());
+	}
+
+	/**
+	 * The summaries count the operations and roles per interface and per package.
+	 */
+	@Test
+	public void testSummaries()
+	{
+		final DocumentationCoverageAnalyzer analyzer = new DocumentationCoverageAnalyzer();
+		final List<OperationCoverage> operations = new ArrayList<OperationCoverage>();
+		operations.addAll(analyzer.analyze(FILE, 1, createInterfaceArtifact(),
+				createGrids()));
+		operations.addAll(analyzer.analyze("/project/src/de/Other.java", 1,
+				createInterfaceArtifact(), createGrids()));
+		final CoverageReport report = new CoverageReport(operations);
+
+		final CoverageSummary summary = report.getSummary();
+		assertEquals(4, summary.getOperations());
+		assertEquals(2, summary.getCoveredOperations());
+		assertEquals(4, summary.getRequiredRoles());
+		assertEquals(2, summary.getMissingRoles());
+		assertEquals(0.5, summary.getCoverage(), 0.0001);
+
+		assertEquals(2, report.getUncoveredOperations().size());
+		assertEquals(2, report.getSummariesByInterface().size());
+		final Map<String, CoverageSummary> byPackage = report.getSummariesByPackage();
+		assertEquals(2, byPackage.get("/project/src/de/akra").getOperations());
+		assertEquals(2, byPackage.get("/project/src/de").getOperations());
+	}
+
+	/**
+	 * Cached results are returned only for the same modification stamp and grids.
+	 */
+	@Test
+	public void testCache()
+	{
+		final DocumentationCoverageAnalyzer analyzer = new DocumentationCoverageAnalyzer();
+		final List<ThematicGrid> grids = createGrids();
+		final List<OperationCoverage> operations = analyzer.analyze(FILE, 1,
+				createInterfaceArtifact(), grids);
+
+		assertSame(operations, analyzer.getCachedCoverage(FILE, 1, grids));
+		assertNull(analyzer.getCachedCoverage(FILE, 2, grids));
+
+		final List<ThematicGrid> changedGrids = createGrids();
+		changedGrids.get(0).setName("Finding Operations");
+		assertNull(analyzer.getCachedCoverage(FILE, 1, changedGrids));
+		assertNull(analyzer.getCachedCoverage(FILE, 1, grids));
+
+		assertNotNull(analyzer.analyze(FILE, 1, null, grids));
+		assertTrue(analyzer.getCachedCoverage(FILE, 1, grids).isEmpty());
+	}
+
+	private static List<ThematicGrid> createGrids()
+	{
+		final ThematicGrid grid = new ThematicGrid();
+		grid.setName("Searching Operations");
+		grid.setVerbs(new HashSet<String>(Arrays.asList("find", "search")));
+		final Map<ThematicRole, Boolean> roles = new HashMap<ThematicRole, Boolean>();
+		roles.put(new ThematicRole("COMPARISON"), Boolean.TRUE);
+		roles.put(new ThematicRole("SOURCE"), Boolean.TRUE);
+		roles.put(new ThematicRole("OBJECT"), Boolean.FALSE);
+		grid.setRoles(roles);
+
+		final List<ThematicGrid> grids = new ArrayList<ThematicGrid>();
+		grids.add(grid);
+		return grids;
+	}
+
+	private static InterfaceArtifact createInterfaceArtifact()
+	{
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setIdentifier("CustomerService.java");
+
+		final Interface interf = new TestInterface(artifact, "Class", Numerus.SINGULAR);
+		interf.setIdentifier("CustomerService");
+
+		final Operation find = new TestOperation(interf, "Method", null,
+				Numerus.SINGULAR);
+		find.setIdentifier("findCustomer");
+
+		final Parameters inputParameters = new TestParameters(find, "Parameters",
+				Numerus.SINGULAR);
+		final Parameter paramId = new TestParameter(inputParameters, "Parameter",
+				Numerus.SINGULAR, false);
+		paramId.setIdentifier("id");
+		paramId.setDataTypeName("int");
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(new ThematicRole("COMPARISON"));
+		paramId.addDocpart(documentation);
+		inputParameters.addParameter(paramId);
+		find.setInputParameters(inputParameters);
+
+		final Operation process = new TestOperation(interf, "Method", null,
+				Numerus.SINGULAR);
+		process.setIdentifier("processOrders");
+
+		interf.setOperations(Arrays.asList(find, process));
+		artifact.setInterfaces(new ArrayList<Interface>(Collections.singletonList(interf)));
+		return artifact;
+	}
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
+import de.akra.idocit.common.structure.impl.TestOperation;
+import de.akra.idocit.common.structure.impl.TestParameter;
+import de.akra.idocit.common.structure.impl.TestParameters;
+import de.akra.idocit.core.services.impl.DocumentationExporter;
+
+/**
+ * Tests for {@link DocumentationExporter}.
+ */
+public class DocumentationExporterTest
+{
+	private static final String FILE = "/project/src/CustomerService.java";
+
+	/**
+	 * Each element is one record, the texts are ordered by the addressee sequence and
+	 * special characters are escaped.
+	 */
+	@Test
+	public void testExportArtifact() throws Exception
+	{
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final DocumentationExporter exporter = new DocumentationExporter(
+				Channels.newChannel(output));
+		exporter.exportArtifact(FILE, createInterfaceArtifact());
+		assertEquals(0, output.size());
+		exporter.flush();
+
+		final String[] records = output.toString("UTF-8").split("\n");
+		assertEquals(5, records.length);
+		assertEquals(5, exporter.getRecordCount());
+		assertEquals("{\"file\":\"/project/src/CustomerService.java\","
+				+ "\"path\":\"CustomerService.java\",\"category\":\"Artifact\","
+				+ "\"grid\":null,\"documentations\":[]}", records[0]);
+		assertEquals("{\"file\":\"/project/src/CustomerService.java\","
+				+ "\"path\":\"CustomerService.java/CustomerService/findCustomer\","
+				+ "\"category\":\"Method\",\"grid\":\"Searching Operations\","
+				+ "\"documentations\":[{\"role\":\"ACTION\",\"texts\":"
+				+ "{\"Developer\":\"Finds the \\\"customer\\\".\\nOr null.\","
+				+ "\"Manager\":\"Für Kunden.\"}}]}", records[2]);
+		assertEquals("{\"file\":\"/project/src/CustomerService.java\","
+				+ "\"path\":\"CustomerService.java/CustomerService/findCustomer/"
+				+ "Parameters/id\",\"category\":\"Parameter\","
+				+ "\"grid\":\"Searching Operations\",\"documentations\":["
+				+ "{\"role\":\"COMPARISON\",\"texts\":{\"Developer\":\"The ID.\"}}]}",
+				records[4]);
+	}
+
+	/**
+	 * Records which do not fit into the buffer are written completely, and equal
+	 * artifacts give equal exports.
+	 */
+	@Test
+	public void testLargeExport() throws Exception
+	{
+		final byte[] first = export(2000);
+		final byte[] second = export(2000);
+		assertArrayEquals(first, second);
+		assertEquals(2000 * 5, new String(first, "UTF-8").split("\n").length);
+	}
+
+	private static byte[] export(final int artifacts) throws Exception
+	{
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final DocumentationExporter exporter = new DocumentationExporter(
+				Channels.newChannel(output));
+		for (int i = 0; i < artifacts; i++)
+		{
+			exporter.exportArtifact(FILE + i, createInterfaceArtifact());
+		}
+		exporter.flush();
+		return output.toByteArray();
+	}
+
+	private static InterfaceArtifact createInterfaceArtifact()
+	{
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setIdentifier("CustomerService.java");
+
+		final Interface interf = new TestInterface(artifact, "Class", Numerus.SINGULAR);
+		interf.setIdentifier("CustomerService");
+
+		final Operation op = new TestOperation(interf, "Method", "Searching Operations",
+				Numerus.SINGULAR);
+		op.setIdentifier("findCustomer");
+		op.addDocpart(createDocumentation("ACTION", "Manager", "Für Kunden.",
+				"Developer", "Finds the \"customer\".\nOr null."));
+
+		final Parameters inputParameters = new TestParameters(op, "Parameters",
+				Numerus.SINGULAR);
+		final Parameter paramId = new TestParameter(inputParameters, "Parameter",
+				Numerus.SINGULAR, false);
+		paramId.setIdentifier("id");
+		paramId.setDataTypeName("int");
+		paramId.addDocpart(createDocumentation("COMPARISON", "Developer", "The ID."));
+		inputParameters.addParameter(paramId);
+		op.setInputParameters(inputParameters);
+
+		final List<Operation> operations = new ArrayList<Operation>();
+		operations.add(op);
+		interf.setOperations(operations);
+
+		final List<Interface> interfaces = new ArrayList<Interface>();
+		interfaces.add(interf);
+		artifact.setInterfaces(interfaces);
+		return artifact;
+	}
+
+	/**
+	 * @param addresseesAndTexts
+	 *            The names of the addressees and their texts. The addressee sequence
+	 *            is reversed.
+	 */
+	private static Documentation createDocumentation(final String role,
+			final String... addresseesAndTexts)
+	{
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(new ThematicRole(role));
+		final Map<Addressee, String> texts = new LinkedHashMap<Addressee, String>();
+		final List<Addressee> sequence = new ArrayList<Addressee>();
+		for (int i = 0; i < addresseesAndTexts.length; i += 2)
+		{
+			final Addressee addressee = new Addressee(addresseesAndTexts[i]);
+			texts.put(addressee, addresseesAndTexts[i + 1]);
+			sequence.add(0, addressee);
+		}
+		documentation.setDocumentation(texts);
+		documentation.setAddresseeSequence(sequence);
+		return documentation;
+	}
+}
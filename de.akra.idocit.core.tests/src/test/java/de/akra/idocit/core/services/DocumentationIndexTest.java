@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.structure.impl.TestInterface;
+import de.akra.idocit.common.structure.impl.TestInterfaceArtifact;
+import de.akra.idocit.common.structure.impl.TestOperation;
+import de.akra.idocit.common.structure.impl.TestParameter;
+import de.akra.idocit.common.structure.impl.TestParameters;
+import de.akra.idocit.core.services.impl.DocumentationIndex;
+import de.akra.idocit.core.services.impl.DocumentationIndex.IndexEntry;
+import de.akra.idocit.core.services.impl.DocumentationIndex.IndexField;
+
+/**
+ * Tests for {@link DocumentationIndex}.
+ */
+public class DocumentationIndexTest
+{
+	private static final String FILE = "/project/CustomerService.java";
+
+	/**
+	 * All fields of an artifact are found, ignoring the case of the terms.
+	 */
+	@Test
+	public void testFind()
+	{
+		final DocumentationIndex index = new DocumentationIndex();
+		index.update(FILE, 42, createInterfaceArtifact());
+
+		assertEquals(Arrays.asList("CustomerService.findCustomer"),
+				elementPaths(index.find(IndexField.VERB, "Find")));
+		assertEquals(Arrays.asList("CustomerService.findCustomer"),
+				elementPaths(index.find(IndexField.GRID, "searching operations")));
+		assertEquals(Arrays.asList("CustomerService.findCustomer.id"),
+				elementPaths(index.find(IndexField.ROLE, "COMPARISON")));
+		assertEquals(Arrays.asList("CustomerService.findCustomer.id"),
+				elementPaths(index.find(IndexField.ADDRESSEE, "developer")));
+		assertEquals(Arrays.asList("CustomerService.findCustomer.id"),
+				elementPaths(index.find(IndexField.IDENTIFIER, "id")));
+		assertTrue(index.find(IndexField.ROLE, "SOURCE").isEmpty());
+
+		final IndexEntry entry = index.find(IndexField.IDENTIFIER, "id").get(0);
+		assertEquals(FILE, entry.getFile());
+		assertEquals("CustomerService.findCustomer", entry.getOperationPath());
+		assertEquals(42, index.getModificationStamp(FILE));
+	}
+
+	/**
+	 * Operations of a grid with the role, which do not document the role, are
+	 * missing it.
+	 */
+	@Test
+	public void testFindOperationsMissingRole()
+	{
+		final DocumentationIndex index = new DocumentationIndex();
+		index.update(FILE, 42, createInterfaceArtifact());
+
+		final ThematicGrid grid = new ThematicGrid();
+		grid.setName("Searching Operations");
+		final Map<ThematicRole, Boolean> roles = new HashMap<ThematicRole, Boolean>();
+		roles.put(new ThematicRole("COMPARISON"), Boolean.TRUE);
+		roles.put(new ThematicRole("SOURCE"), Boolean.FALSE);
+		grid.setRoles(roles);
+		final List<ThematicGrid> grids = Arrays.asList(grid);
+
+		assertEquals(Arrays.asList("CustomerService.findCustomer"),
+				elementPaths(index.findOperationsMissingRole("source", grids)));
+		assertTrue(index.findOperationsMissingRole("COMPARISON", grids).isEmpty());
+	}
+
+	/**
+	 * An update replaces the entries of the file, a removal deletes them.
+	 */
+	@Test
+	public void testUpdateAndRemove()
+	{
+		final DocumentationIndex index = new DocumentationIndex();
+		index.update(FILE, 1, createInterfaceArtifact());
+		index.update("/project/Other.java", 1, createInterfaceArtifact());
+		assertEquals(2, index.find(IndexField.VERB, "find").size());
+
+		index.update(FILE, 2, null);
+		assertEquals(1, index.find(IndexField.VERB, "find").size());
+		assertEquals(2, index.getModificationStamp(FILE));
+
+		index.remove("/project/Other.java");
+		assertTrue(index.find(IndexField.VERB, "find").isEmpty());
+		assertFalse(index.getTerms(IndexField.VERB).contains("find"));
+		assertEquals(DocumentationIndex.NULL_STAMP,
+				index.getModificationStamp("/project/Other.java"));
+	}
+
+	/**
+	 * The known attributes of a parameter are indexed, but its data type is not
+	 * reflected for the index.
+	 */
+	@Test
+	public void testKnownAttributes()
+	{
+		final InterfaceArtifact artifact = createInterfaceArtifact();
+		final Parameters inputParameters = artifact.getInterfaces().get(0)
+				.getOperations().get(0).getInputParameters();
+		final Parameter customer = new TestParameter(inputParameters, "Parameter",
+				Numerus.SINGULAR, true) {
+			@Override
+			public List<Parameter> getComplexType()
+			{
+				throw new AssertionError("The data type must not be reflected.");
+			}
+		};
+		customer.setIdentifier("customer");
+		final Parameter lastName = new TestParameter(customer, "Attribute",
+				Numerus.SINGULAR, false);
+		lastName.setIdentifier("lastName");
+		customer.addParameter(lastName);
+		inputParameters.addParameter(customer);
+
+		final DocumentationIndex index = new DocumentationIndex();
+		index.update(FILE, 42, artifact);
+		assertEquals(Arrays.asList("CustomerService.findCustomer.customer.lastName"),
+				elementPaths(index.find(IndexField.IDENTIFIER, "lastname")));
+	}
+
+	/**
+	 * A saved index is loaded with the same entries.
+	 */
+	@Test
+	public void testSaveAndLoad() throws IOException
+	{
+		final DocumentationIndex index = new DocumentationIndex();
+		index.update(FILE, 42, createInterfaceArtifact());
+		assertTrue(index.isDirty());
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		index.save(output);
+		assertFalse(index.isDirty());
+
+		final DocumentationIndex loadedIndex = new DocumentationIndex();
+		loadedIndex.load(new ByteArrayInputStream(output.toByteArray()));
+
+		assertEquals(42, loadedIndex.getModificationStamp(FILE));
+		for (final IndexField field : IndexField.values())
+		{
+			assertEquals(index.getTerms(field), loadedIndex.getTerms(field));
+			for (final String term : index.getTerms(field))
+			{
+				assertEquals(index.find(field, term), loadedIndex.find(field, term));
+			}
+		}
+	}
+
+	private static List<String> elementPaths(final List<IndexEntry> entries)
+	{
+		final List<String> paths = new ArrayList<String>(entries.size());
+		for (final IndexEntry entry : entries)
+		{
+			paths.add(entry.getElementPath());
+		}
+		return paths;
+	}
+
+	private static InterfaceArtifact createInterfaceArtifact()
+	{
+		final InterfaceArtifact artifact = new TestInterfaceArtifact(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Artifact", Numerus.SINGULAR);
+		artifact.setIdentifier("CustomerService.java");
+
+		final Interface interf = new TestInterface(artifact, "Class", Numerus.SINGULAR);
+		interf.setIdentifier("CustomerService");
+
+		final Operation op = new TestOperation(interf, "Method", "Searching Operations",
+				Numerus.SINGULAR);
+		op.setIdentifier("findCustomer");
+
+		final Parameters inputParameters = new TestParameters(op, "Parameters",
+				Numerus.SINGULAR);
+		final Parameter paramId = new TestParameter(inputParameters, "Parameter",
+				Numerus.SINGULAR, false);
+		paramId.setIdentifier("id");
+		paramId.setDataTypeName("int");
+
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(new ThematicRole("COMPARISON"));
+		final Addressee developer = new Addressee("Developer");
+		final Map<Addressee, String> texts = new HashMap<Addressee, String>();
+		texts.put(developer, "The ID of the customer.");
+		documentation.setDocumentation(texts);
+		documentation.setAddresseeSequence(new ArrayList<Addressee>(Arrays
+				.asList(developer)));
+		paramId.addDocpart(documentation);
+
+		inputParameters.addParameter(paramId);
+		op.setInputParameters(inputParameters);
+
+		final List<Operation> operations = new ArrayList<Operation>();
+		operations.add(op);
+		interf.setOperations(operations);
+
+		final List<Interface> interfaces = new ArrayList<Interface>();
+		interfaces.add(interf);
+		artifact.setInterfaces(interfaces);
+		return artifact;
+	}
+}
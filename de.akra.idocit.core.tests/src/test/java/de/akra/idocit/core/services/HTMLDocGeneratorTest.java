@@ -62,6 +62,25 @@ public class HTMLDocGeneratorTest
 		Assert.assertEquals(REFERENCE_HTML, actualHTML);
 	}
 
+	/**
+	 * A page of a documentation site references the given stylesheet and links the
+	 * index in its navigation.
+	 */
+	@Test
+	public void testGenerateHTMLForSite()
+	{
+		final InterfaceArtifact artifact = createInterfaceArtifact();
+		final HTMLDocGenerator docGen = new HTMLDocGenerator(artifact,
+				"../../stylesheet.css", "../../index.html");
+		final String actualHTML = docGen.generateHTML();
+
+		final String expectedHTML = REFERENCE_HTML.replace(
+				"href=\"stylesheet.css\"", "href=\"../../stylesheet.css\"").replace(
+				"<ul id=\"navElements\">\n",
+				"<ul id=\"navElements\">\n<li><a href=\"../../index.html\">Index</a></li>\n");
+		Assert.assertEquals(expectedHTML, actualHTML);
+	}
+
 	
 	/**
 	 * Create a test InterfaceArtifact.
@@ -15,15 +15,25 @@
  *******************************************************************************/
 package de.akra.idocit.core;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.PropertyResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +45,8 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
 import de.akra.idocit.common.constants.ThematicGridConstants;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.services.RuleService;
 import de.akra.idocit.common.services.ThematicGridService;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.RoleScope;
@@ -44,10 +56,13 @@ import de.akra.idocit.core.constants.PreferenceStoreConstants;
 import de.akra.idocit.core.exceptions.UnitializedIDocItException;
 import de.akra.idocit.core.listeners.IDocItInitializationListener;
 import de.akra.idocit.core.services.PersistenceService;
+import de.akra.idocit.core.services.impl.DocumentationCoverageAnalyzer;
+import de.akra.idocit.core.services.impl.DocumentationIndex;
 import de.akra.idocit.core.services.impl.EclipseParsingServiceInitializer;
 import de.akra.idocit.core.services.impl.EclipsePersistenceService;
 import de.akra.idocit.core.services.impl.ParsingService;
 import de.akra.idocit.core.services.impl.ServiceManager;
+import de.akra.idocit.core.services.impl.WorkspaceDocumentationIndexer;
 import de.akra.idocit.core.utils.ResourceUtils;
 
 /**
@@ -55,7 +70,7 @@ import de.akra.idocit.core.utils.ResourceUtils;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.3
  * 
  */
 public class IDocItActivator extends AbstractUIPlugin implements IStartup
@@ -68,12 +83,51 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	 */
 	public static final String PLUGIN_ID = "de.akra.idocit.ui"; //$NON-NLS-1$
 
-	private static final Set<IDocItInitializationListener> CONFIGURATION_LISTENERS = new HashSet<IDocItInitializationListener>();
+	private static final Set<IDocItInitializationListener> CONFIGURATION_LISTENERS = new CopyOnWriteArraySet<IDocItInitializationListener>();
 
-	private static boolean initializedAtStartup = false;
+	/**
+	 * Becomes <code>true</code> when the first run of the initialization is done.
+	 */
+	private static volatile boolean initializedAtStartup = false;
+
+	/**
+	 * Guards {@link #initialization}, {@link #initializationScheduled} and
+	 * {@link #executor}.
+	 */
+	private static final Object INITIALIZATION_LOCK = new Object();
+
+	/**
+	 * Serializes the runs of the initialization, e.g. if the initialization is
+	 * restarted by a preference page while it is still running.
+	 */
+	private static final Object INITIALIZATION_RUN_LOCK = new Object();
+
+	/**
+	 * The current (or next) run of the initialization. It exists before the
+	 * initialization is started, so that it can already be waited for.
+	 */
+	private static FutureTask<Boolean> initialization = new InitializationTask();
+
+	private static boolean initializationScheduled = false;
+
+	/**
+	 * Executes the initialization and its steps. It is created on first use.
+	 */
+	private static ExecutorService executor = null;
 
 	private static IDocItActivator plugin;
 
+	/**
+	 * Name of the file of the documentation index in the state location.
+	 */
+	private static final String DOCUMENTATION_INDEX_FILE = "documentation.index";
+
+	/**
+	 * The index of the documentation in the workspace. It is created with the first
+	 * successful initialization and guarded by {@link #INITIALIZATION_LOCK}.
+	 */
+	private static WorkspaceDocumentationIndexer documentationIndexer = null;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -84,6 +138,8 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 				new EclipsePersistenceService());
 		ServiceManager.getInstance().setThematicGridService(new ThematicGridService());
 		ServiceManager.getInstance().setParsingService(new ParsingService());
+		ServiceManager.getInstance().setCoverageAnalyzer(
+				new DocumentationCoverageAnalyzer());
 
 		PersistenceService persistenceService = ServiceManager.getInstance()
 				.getPersistenceService();
@@ -110,6 +166,9 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	 * via the preference pages.
 	 * 
 	 * Please note: each listener will be registered and informed exactly one time!
+	 * Depending on whether the current initialization (see
+	 * {@link #getInitialization()}) is done, it is immediately informed that the
+	 * initialization has started or finished.
 	 * 
 	 * @param listener
 	 *            The {@link IDocItInitializationListener} to register
@@ -118,7 +177,7 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	{
 		CONFIGURATION_LISTENERS.add(listener);
 
-		if (!initializedAtStartup)
+		if (!getInitialization().isDone())
 		{
 			listener.initializationStarted();
 		}
@@ -138,7 +197,7 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	 */
 	public static void removeConfigurationListener(IDocItInitializationListener listener)
 	{
-		CONFIGURATION_LISTENERS.add(listener);
+		CONFIGURATION_LISTENERS.remove(listener);
 	}
 
 	/**
@@ -168,46 +227,226 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	}
 
 	/**
-	 * Initialize the used services for deriving the thematic grids.
+	 * Initialize the used services for deriving the thematic grids. The initialization
+	 * runs in background. Its independent steps (reading the registered parsers,
+	 * initializing the role-based and the grid-based rules) run in parallel. Use
+	 * {@link #getInitialization()} to wait for it.
 	 */
 	public static void initializeIDocIt()
 	{
-		Thread initializer = new Thread() {
-			@Override
-			public void run()
+		final FutureTask<Boolean> task;
+		synchronized (INITIALIZATION_LOCK)
+		{
+			if (initializationScheduled)
 			{
+				// A new run, e.g. after the configuration has been changed.
+				initialization = new InitializationTask();
+			}
+			initializationScheduled = true;
+			task = initialization;
+			getExecutor().execute(task);
+		}
+	}
+
+	/**
+	 * Returns the handle of the current initialization of iDocIt!. The result is
+	 * {@link Boolean#TRUE} if the initialization succeeded. If it failed,
+	 * {@link Future#get()} throws an {@link ExecutionException} with the cause. The
+	 * registered {@link IDocItInitializationListener}s are informed after the
+	 * handle is done, so they can already read its result.
+	 * 
+	 * @return [OBJECT] The handle to wait for the initialization. Never
+	 *         <code>null</code>, even if the initialization is not yet started.
+	 * @thematicgrid Getting Operations
+	 */
+	public static Future<Boolean> getInitialization()
+	{
+		synchronized (INITIALIZATION_LOCK)
+		{
+			return initialization;
+		}
+	}
+
+	/**
+	 * Returns the executor for the initialization and creates it if necessary. Must
+	 * only be called while holding {@link #INITIALIZATION_LOCK}.
+	 */
+	private static ExecutorService getExecutor()
+	{
+		if (executor == null || executor.isShutdown())
+		{
+			executor = Executors.newCachedThreadPool(new ThreadFactory() {
+				private final AtomicInteger threadNumber = new AtomicInteger(1);
 
-				fireChangeEvent(true);
+				@Override
+				public Thread newThread(final Runnable runnable)
+				{
+					final Thread thread = new Thread(runnable, "iDocIt! Initializer-"
+							+ threadNumber.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
 
-				// Registered Parsers
-				ServiceManager.getInstance().getParsingService()
-						.init(new EclipseParsingServiceInitializer());
+	/**
+	 * The handle of one run of the initialization. It informs the listeners when it is
+	 * done, i.e. after its result is set.
+	 */
+	private static final class InitializationTask extends FutureTask<Boolean>
+	{
+		public InitializationTask()
+		{
+			super(new Initializer());
+		}
 
+		@Override
+		protected void done()
+		{
+			initializedAtStartup = true;
+			fireChangeEvent(false);
+		}
+	}
+
+	/**
+	 * One run of the initialization of iDocIt!.
+	 */
+	private static final class Initializer implements Callable<Boolean>
+	{
+		@Override
+		public Boolean call() throws Exception
+		{
+			synchronized (INITIALIZATION_RUN_LOCK)
+			{
 				try
 				{
+					fireChangeEvent(true);
 					ServiceManager.getInstance().getPersistenceService().init();
-					initRoleBasedRules();
-					initGridBasedRules();
+
+					final List<Future<Void>> steps = new ArrayList<Future<Void>>(3);
+					synchronized (INITIALIZATION_LOCK)
+					{
+						final ExecutorService stepExecutor = getExecutor();
+						steps.add(stepExecutor.submit(new Callable<Void>() {
+							@Override
+							public Void call() throws Exception
+							{
+								// Registered Parsers. Reading them once loads the
+								// parser plug-ins before the first file is opened.
+								final EclipseParsingServiceInitializer parserReader = new EclipseParsingServiceInitializer();
+								parserReader.readRegisteredParsers();
+								ServiceManager.getInstance().getParsingService()
+										.init(parserReader);
+								return null;
+							}
+						}));
+						steps.add(stepExecutor.submit(new Callable<Void>() {
+							@Override
+							public Void call() throws Exception
+							{
+								initRoleBasedRules();
+								return null;
+							}
+						}));
+						steps.add(stepExecutor.submit(new Callable<Void>() {
+							@Override
+							public Void call() throws Exception
+							{
+								initGridBasedRules();
+								return null;
+							}
+						}));
+					}
+
+					for (final Future<Void> step : steps)
+					{
+						step.get();
+					}
 
 					// Initialize preference
 					IPreferenceStore store = PlatformUI.getPreferenceStore();
 					store.setDefault(PreferenceStoreConstants.DEFAULT_EDITOR_PREFERENCE,
 							false);
+
+					if (store.getBoolean(PreferenceStoreConstants.INDEX_WORKSPACE))
+					{
+						startDocumentationIndexer();
+					}
+
+					return Boolean.TRUE;
 				}
-				catch (UnitializedIDocItException e)
+				catch (final ExecutionException e)
 				{
 					// TODO: Route exception to Eclipse Platform
-					throw new RuntimeException(e);
+					final Throwable cause = e.getCause();
+					logger.log(Level.SEVERE, "The initialization of iDocIt! failed.",
+							cause);
+					throw (cause instanceof Exception) ? (Exception) cause : e;
 				}
-				finally
+				catch (final Exception e)
 				{
-					initializedAtStartup = true;
-					fireChangeEvent(false);
+					// Nobody may ever call get() on the initialization, so the failure is
+					// logged here.
+					logger.log(Level.SEVERE, "The initialization of iDocIt! failed.", e);
+					throw e;
 				}
 			}
-		};
+		}
+	}
+
+	/**
+	 * Starts the {@link WorkspaceDocumentationIndexer}, if it is not running yet. The
+	 * parsers must be initialized before.
+	 */
+	private static void startDocumentationIndexer()
+	{
+		synchronized (INITIALIZATION_LOCK)
+		{
+			final IDocItActivator activator = getDefault();
+			if (documentationIndexer == null && activator != null)
+			{
+				final File indexFile = activator.getStateLocation()
+						.append(DOCUMENTATION_INDEX_FILE).toFile();
+				documentationIndexer = new WorkspaceDocumentationIndexer(
+						new DocumentationIndex(), indexFile);
+				documentationIndexer.start();
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the documentation of all supported files in the workspace.
+	 * The index is available after the first initialization of iDocIt! has finished,
+	 * see {@link #getInitialization()}, if
+	 * {@link PreferenceStoreConstants#INDEX_WORKSPACE} was set then. Its content is
+	 * completed in the background.
+	 * 
+	 * @return The index or <code>null</code> if iDocIt! is not initialized yet or the
+	 *         workspace is not indexed.
+	 */
+	public static DocumentationIndex getDocumentationIndex()
+	{
+		synchronized (INITIALIZATION_LOCK)
+		{
+			return documentationIndexer != null ? documentationIndexer.getIndex()
+					: null;
+		}
+	}
 
-		initializer.start();
+	/**
+	 * Clears the documentation index and indexes the whole workspace again.
+	 */
+	public static void rebuildDocumentationIndex()
+	{
+		synchronized (INITIALIZATION_LOCK)
+		{
+			if (documentationIndexer != null)
+			{
+				documentationIndexer.rebuild();
+			}
+		}
 	}
 
 	public static void initGridBasedRules() throws UnitializedIDocItException
@@ -238,6 +477,14 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 		}
 
 		ServiceManager.getInstance().getPersistenceService().persistThematicGrids(grids);
+
+		// Compile the rules now instead of on the first use in an editor.
+		final List<String> rules = new ArrayList<String>();
+		for (final ThematicGrid grid : grids)
+		{
+			rules.addAll(grid.getGridBasedRules().values());
+		}
+		RuleService.precompileRules(rules);
 	}
 
 	public static void initRoleBasedRules() throws UnitializedIDocItException
@@ -264,6 +511,8 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 		logger.log(Level.INFO, "Start plugin " + PLUGIN_ID);
 		super.start(context);
 		plugin = this;
+		Metrics.registerMBean();
+		Metrics.startConfiguredPeriodicLog();
 	}
 
 	/**
@@ -272,6 +521,21 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 	public void stop(BundleContext context) throws Exception
 	{
 		logger.log(Level.INFO, "Stop plugin " + PLUGIN_ID);
+		Metrics.stopPeriodicLog();
+		Metrics.unregisterMBean();
+		synchronized (INITIALIZATION_LOCK)
+		{
+			if (executor != null)
+			{
+				executor.shutdownNow();
+				executor = null;
+			}
+			if (documentationIndexer != null)
+			{
+				documentationIndexer.stop();
+				documentationIndexer = null;
+			}
+		}
 		plugin = null;
 		super.stop(context);
 	}
@@ -340,6 +604,13 @@ public class IDocItActivator extends AbstractUIPlugin implements IStartup
 		return getResourceBundle(ResourceUtils.ADDRESSEE_RESOURCE_FILE);
 	}
 
+	/**
+	 * @return <code>true</code> if the first initialization of iDocIt! is done.
+	 * @deprecated Use {@link #getInitialization()} to wait for the current
+	 *             initialization or register an {@link IDocItInitializationListener}
+	 *             instead of polling this state.
+	 */
+	@Deprecated
 	public static boolean isInitializedAtStartup()
 	{
 		return initializedAtStartup;
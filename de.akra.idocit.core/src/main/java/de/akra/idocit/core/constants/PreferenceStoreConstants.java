@@ -20,7 +20,7 @@ package de.akra.idocit.core.constants;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public final class PreferenceStoreConstants
@@ -30,8 +30,43 @@ public final class PreferenceStoreConstants
 	public static final String THEMATIC_ROLES = "de.akra.idocit.ui.ThematicRoles";
 
 	public static final String VERBCLASS_ROLE_MAPPING = "de.akra.idocit.ui.VerbclassRoleMapping";
+
+	/**
+	 * Binary snapshot of the addressees (see
+	 * {@link de.akra.idocit.common.utils.ConfigurationSnapshot}). It is read instead of
+	 * the XML stored under {@link #ADDRESSEES}, which is still written for former
+	 * versions.
+	 * 
+	 * @since 0.0.11
+	 */
+	public static final String ADDRESSEES_SNAPSHOT = "de.akra.idocit.ui.Addressees.snapshot";
+
+	/**
+	 * Binary snapshot of the thematic roles. It is read instead of the XML stored
+	 * under {@link #THEMATIC_ROLES}.
+	 * 
+	 * @since 0.0.11
+	 */
+	public static final String THEMATIC_ROLES_SNAPSHOT = "de.akra.idocit.ui.ThematicRoles.snapshot";
+
+	/**
+	 * Binary snapshot of the thematic grids. It is read instead of the XML stored
+	 * under {@link #VERBCLASS_ROLE_MAPPING}.
+	 * 
+	 * @since 0.0.11
+	 */
+	public static final String VERBCLASS_ROLE_MAPPING_SNAPSHOT = "de.akra.idocit.ui.VerbclassRoleMapping.snapshot";
 	
 	public static final String ORIGINAL_EDITOR_ID = "de.akra.idocit.ui.originalEditor";
 	
 	public static final String DEFAULT_EDITOR_PREFERENCE = "de.akra.idocit.ui.defaultFieldEditor";
+
+	/**
+	 * If <code>true</code>, the documentation of all supported files in the workspace
+	 * is indexed in the background after the initialization of iDocIt!. Otherwise (also
+	 * if not set) no index is kept.
+	 * 
+	 * @since 0.0.11
+	 */
+	public static final String INDEX_WORKSPACE = "de.akra.idocit.core.indexworkspace";
 }
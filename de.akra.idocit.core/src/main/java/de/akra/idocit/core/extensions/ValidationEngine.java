@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.extensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.akra.idocit.common.metrics.Counter;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.utils.StringUtils;
+import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
+
+/**
+ * Validates {@link InterfaceArtifact}s with {@link ValidationRule}s, for the
+ * implementations of {@link Parser#validateArtifact(InterfaceArtifact)}.
+ * <p>
+ * The findings of the rules are kept per {@link SignatureElement} together with its
+ * {@link SignatureElement#getContentHash()} and {@link SignatureElement#getOwnContentHash()}
+ * . If the same artifact (or a copy of it) is validated again, the findings of the
+ * subtrees with unchanged hashes are reused without descending into them, and the rules
+ * are applied only to the elements whose own hashes changed since. The results of the
+ * least recently validated artifacts are dropped.
+ * </p>
+ * <p>
+ * The attributes of the parameters are walked like in
+ * {@link SignatureElement#getChildElements()}, so a data type whose reflection is
+ * deferred is not reflected for the validation. If a {@link Documentation} is changed in
+ * place, {@link SignatureElement#setDocumentationChanged(boolean)} must be called before
+ * the validation, otherwise the old findings are reused.
+ * </p>
+ * <p>
+ * The report contains all findings in the order of the elements. Its message lists the
+ * different messages of the findings, one per line. The engine is thread-safe.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.2
+ */
+public final class ValidationEngine
+{
+	/**
+	 * The maximum number of artifacts whose results are kept.
+	 */
+	private static final int MAX_ARTIFACTS = 16;
+
+	private static final Counter VALIDATED = Metrics
+			.counter("core.validation.validatedElements");
+
+	private static final Counter REUSED = Metrics.counter("core.validation.reusedElements");
+
+	/**
+	 * The findings for one element and its subtree, and the hashes they were found for.
+	 */
+	private static final class ElementResult
+	{
+		final String contentHash;
+		final String ownContentHash;
+		final List<ValidationFinding> ownFindings;
+
+		/**
+		 * The findings of the element and of all its descendants, in their order.
+		 */
+		final List<ValidationFinding> findings;
+
+		/**
+		 * The results of the children, by element id.
+		 */
+		final Map<Integer, ElementResult> children;
+
+		ElementResult(final String contentHash, final String ownContentHash,
+				final List<ValidationFinding> ownFindings,
+				final List<ValidationFinding> findings,
+				final Map<Integer, ElementResult> children)
+		{
+			this.contentHash = contentHash;
+			this.ownContentHash = ownContentHash;
+			this.ownFindings = ownFindings;
+			this.findings = findings;
+			this.children = children;
+		}
+	}
+
+	private final List<ValidationRule> rules;
+
+	/**
+	 * The results of the artifacts by artifact id, in the order of their last
+	 * validation. Guarded by this engine.
+	 */
+	@SuppressWarnings("serial")
+	private final Map<Integer, ElementResult> artifacts = new LinkedHashMap<Integer, ElementResult>(
+			MAX_ARTIFACTS, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, ElementResult> eldest)
+		{
+			return size() > MAX_ARTIFACTS;
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rules
+	 *            [ATTRIBUTE] The rules to apply to each element.
+	 */
+	public ValidationEngine(final List<? extends ValidationRule> rules)
+	{
+		this.rules = Collections.unmodifiableList(new ArrayList<ValidationRule>(rules));
+	}
+
+	/**
+	 * Validates all elements of the <code>artifact</code>.
+	 *
+	 * @param artifact
+	 *            [OBJECT]
+	 * @return [REPORT] {@link ValidationCode#OK} with an empty message if there are no
+	 *         findings, otherwise the code of the most severe finding and all findings.
+	 * @thematicgrid Checking Operations
+	 */
+	public synchronized ValidationReport validate(final InterfaceArtifact artifact)
+	{
+		final ValidationReport report = new ValidationReport();
+		report.setReturnCode(ValidationCode.OK);
+		report.setMessage(StringUtils.EMPTY);
+
+		if (rules.isEmpty())
+		{
+			return report;
+		}
+
+		final Integer id = Integer.valueOf(artifact.getId());
+		// the results of removed elements are not taken over
+		final ElementResult result = validateElement(artifact, artifacts.get(id));
+		artifacts.put(id, result);
+
+		final Set<String> messages = new LinkedHashSet<String>();
+		for (final ValidationFinding finding : result.findings)
+		{
+			report.addFinding(finding);
+			messages.add(finding.getMessage());
+		}
+		final StringBuilder message = new StringBuilder();
+		for (final String findingMessage : messages)
+		{
+			if (message.length() > 0)
+			{
+				message.append(StringUtils.NEW_LINE);
+			}
+			message.append(findingMessage);
+		}
+		report.setMessage(message.toString());
+		return report;
+	}
+
+	/**
+	 * Removes the kept results of all artifacts.
+	 *
+	 * @thematicgrid Deleting Operations
+	 */
+	public synchronized void clear()
+	{
+		artifacts.clear();
+	}
+
+	/**
+	 * Returns the result for the <code>element</code> and its subtree. The
+	 * <code>previous</code> result is returned if the content hash of the element is
+	 * unchanged. Otherwise the rules are applied to the element if its own content hash
+	 * changed, and the children are validated with their previous results.
+	 */
+	private ElementResult validateElement(final SignatureElement element,
+			final ElementResult previous)
+	{
+		final String contentHash = element.getContentHash();
+		if (previous != null && previous.contentHash.equals(contentHash))
+		{
+			REUSED.increment();
+			return previous;
+		}
+
+		final String ownContentHash = element.getOwnContentHash();
+		final List<ValidationFinding> ownFindings;
+		if (previous != null && previous.ownContentHash.equals(ownContentHash))
+		{
+			REUSED.increment();
+			ownFindings = previous.ownFindings;
+		}
+		else
+		{
+			VALIDATED.increment();
+			ownFindings = new ArrayList<ValidationFinding>();
+			for (final ValidationRule rule : rules)
+			{
+				ownFindings.addAll(rule.validate(element));
+			}
+		}
+
+		final List<ValidationFinding> findings = new ArrayList<ValidationFinding>(
+				ownFindings);
+		final Map<Integer, ElementResult> children = new HashMap<Integer, ElementResult>();
+		for (final SignatureElement child : element.getChildElements())
+		{
+			if (child != null)
+			{
+				final Integer childId = Integer.valueOf(child.getId());
+				final ElementResult childResult = validateElement(child,
+						previous != null ? previous.children.get(childId) : null);
+				children.put(childId, childResult);
+				findings.addAll(childResult.findings);
+			}
+		}
+		return new ElementResult(contentHash, ownContentHash, ownFindings, findings,
+				children);
+	}
+}
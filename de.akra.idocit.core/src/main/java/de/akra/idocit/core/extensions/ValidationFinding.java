@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.extensions;
+
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
+
+/**
+ * One finding of a {@link ValidationRule} for a {@link SignatureElement}.
+ * <p>
+ * A finding refers to its element by the id and the identifier, because it may be
+ * reported again for a copy of the element.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class ValidationFinding
+{
+	private final ValidationCode code;
+
+	private final String message;
+
+	private final int elementId;
+
+	private final String elementIdentifier;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param code
+	 *            [ATTRIBUTE] The severity of the finding, {@link ValidationCode#WARNING}
+	 *            or {@link ValidationCode#ERROR}.
+	 * @param message
+	 *            [ATTRIBUTE] The message for the user.
+	 * @param element
+	 *            [SOURCE] The element which has the finding.
+	 */
+	public ValidationFinding(final ValidationCode code, final String message,
+			final SignatureElement element)
+	{
+		this.code = code;
+		this.message = message;
+		this.elementId = element.getId();
+		this.elementIdentifier = element.getIdentifier();
+	}
+
+	/**
+	 * @return [OBJECT] The severity of the finding.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public ValidationCode getCode()
+	{
+		return code;
+	}
+
+	/**
+	 * @return [OBJECT] The message for the user.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public String getMessage()
+	{
+		return message;
+	}
+
+	/**
+	 * @return [OBJECT] The id of the element, see {@link SignatureElement#getId()}.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public int getElementId()
+	{
+		return elementId;
+	}
+
+	/**
+	 * @return [OBJECT] The identifier of the element.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public String getElementIdentifier()
+	{
+		return elementIdentifier;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((code == null) ? 0 : code.hashCode());
+		result = prime * result + elementId;
+		result = prime * result
+				+ ((elementIdentifier == null) ? 0 : elementIdentifier.hashCode());
+		result = prime * result + ((message == null) ? 0 : message.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final ValidationFinding other = (ValidationFinding) obj;
+		if (code != other.code)
+			return false;
+		if (elementId != other.elementId)
+			return false;
+		if (elementIdentifier == null)
+		{
+			if (other.elementIdentifier != null)
+				return false;
+		}
+		else if (!elementIdentifier.equals(other.elementIdentifier))
+			return false;
+		if (message == null)
+		{
+			if (other.message != null)
+				return false;
+		}
+		else if (!message.equals(other.message))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ValidationFinding [code=");
+		builder.append(code);
+		builder.append(", elementId=");
+		builder.append(elementId);
+		builder.append(", elementIdentifier=");
+		builder.append(elementIdentifier);
+		builder.append(", message=");
+		builder.append(message);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -15,6 +15,10 @@
  *******************************************************************************/
 package de.akra.idocit.core.extensions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class ValidationReport
 {
 	public enum ValidationCode
@@ -26,6 +30,8 @@ public class ValidationReport
 
 	private String message;
 
+	private final List<ValidationFinding> findings = new ArrayList<ValidationFinding>();
+
 	public ValidationCode getReturnCode()
 	{
 		return returnCode;
@@ -46,11 +52,39 @@ public class ValidationReport
 		this.message = message;
 	}
 
+	/**
+	 * @return [OBJECT] All findings of the validation, in the order of the elements.
+	 * @thematicgrid Getting Operations / Getter
+	 * @since 0.0.11
+	 */
+	public List<ValidationFinding> getFindings()
+	{
+		return Collections.unmodifiableList(findings);
+	}
+
+	/**
+	 * Adds the <code>finding</code> and raises the return code to its severity.
+	 *
+	 * @param finding
+	 *            [OBJECT]
+	 * @thematicgrid Putting Operations
+	 * @since 0.0.11
+	 */
+	public void addFinding(ValidationFinding finding)
+	{
+		findings.add(finding);
+		if (returnCode == null || finding.getCode().compareTo(returnCode) > 0)
+		{
+			returnCode = finding.getCode();
+		}
+	}
+
 	@Override
 	public int hashCode()
 	{
 		final int prime = 31;
 		int result = 1;
+		result = prime * result + findings.hashCode();
 		result = prime * result + ((message == null) ? 0 : message.hashCode());
 		result = prime * result + ((returnCode == null) ? 0 : returnCode.hashCode());
 		return result;
@@ -75,6 +109,8 @@ public class ValidationReport
 			return false;
 		if (returnCode != other.returnCode)
 			return false;
+		if (!findings.equals(other.findings))
+			return false;
 		return true;
 	}
 
@@ -86,6 +122,8 @@ public class ValidationReport
 		builder.append(returnCode);
 		builder.append(", message=");
 		builder.append(message);
+		builder.append(", findings=");
+		builder.append(findings);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.extensions;
+
+import java.util.List;
+
+import de.akra.idocit.common.structure.SignatureElement;
+
+/**
+ * A rule of a {@link ValidationEngine} which checks the documentations of one
+ * {@link SignatureElement}.
+ * <p>
+ * The result of a rule may depend only on the documentations of the element and on its
+ * signature, but not on other elements. The engine reuses the findings for an element
+ * as long as its documentations do not change. Rules must be thread-safe.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public interface ValidationRule
+{
+	/**
+	 * Checks the documentations of the <code>element</code>.
+	 *
+	 * @param element
+	 *            [OBJECT] The element to check. Its children are checked separately.
+	 * @return [REPORT] The findings for the <code>element</code>. It is empty if the
+	 *         element is valid.
+	 * @thematicgrid Checking Operations
+	 */
+	public List<ValidationFinding> validate(SignatureElement element);
+}
@@ -0,0 +1,712 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.akra.idocit.common.services.RuleService;
+import de.akra.idocit.common.services.ThematicGridService;
+import de.akra.idocit.common.services.VerbRecognizer;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.utils.SignatureElementUtils;
+import de.akra.idocit.core.exceptions.UnitializedIDocItException;
+
+/**
+ * Computes which mandatory thematic roles are not documented for the operations of
+ * many files.
+ * <p>
+ * The thematic grid of an operation is the grid named in its documentation, or else
+ * the grids derived from its verb with
+ * {@link ThematicGridService#deriveThematicGrid(String, VerbRecognizer)}. The grids are reduced
+ * with {@link RuleService#reduceGrid(ThematicGrid, de.akra.idocit.common.structure.SignatureElement)}
+ * for the operation. A role is required if it is mandatory in every remaining grid,
+ * and missing if no documentation of the operation, its parameters or its interfaces
+ * has this role.
+ * </p>
+ * <p>
+ * The results are cached per file together with its modification stamp. A file is
+ * parsed and analyzed again only if its stamp changed. If the thematic grids change,
+ * the whole cache is dropped.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public class DocumentationCoverageAnalyzer
+{
+	/**
+	 * Logger.
+	 */
+	private static final Logger logger = Logger
+			.getLogger(DocumentationCoverageAnalyzer.class.getName());
+
+	/**
+	 * The separator between the identifiers of a path.
+	 */
+	private static final char PATH_SEPARATOR = '.';
+
+	/**
+	 * The coverage of one operation.
+	 */
+	public static final class OperationCoverage
+	{
+		private final String file;
+		private final String interfacePath;
+		private final String operationPath;
+		private final Set<String> gridNames;
+		private final Set<String> requiredRoles;
+		private final Set<String> missingRoles;
+
+		OperationCoverage(final String file, final String interfacePath,
+				final String operationPath, final Set<String> gridNames,
+				final Set<String> requiredRoles, final Set<String> missingRoles)
+		{
+			this.file = file;
+			this.interfacePath = interfacePath;
+			this.operationPath = operationPath;
+			this.gridNames = Collections.unmodifiableSet(gridNames);
+			this.requiredRoles = Collections.unmodifiableSet(requiredRoles);
+			this.missingRoles = Collections.unmodifiableSet(missingRoles);
+		}
+
+		/**
+		 * @return [OBJECT] The path of the file in the workspace.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getFile()
+		{
+			return file;
+		}
+
+		/**
+		 * @return [OBJECT] The folder of the file, which is the package for most
+		 *         source files.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getPackage()
+		{
+			final int index = file.lastIndexOf('/');
+			return index > 0 ? file.substring(0, index) : "";
+		}
+
+		/**
+		 * @return [OBJECT] The identifiers of the interfaces which contain the
+		 *         operation, separated by dots.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getInterfacePath()
+		{
+			return interfacePath;
+		}
+
+		/**
+		 * @return [OBJECT] The identifiers of the interfaces and of the operation,
+		 *         separated by dots.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getOperationPath()
+		{
+			return operationPath;
+		}
+
+		/**
+		 * @return [OBJECT] The names of the thematic grids of the operation. It is
+		 *         empty if no grid matches.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public Set<String> getGridNames()
+		{
+			return gridNames;
+		}
+
+		/**
+		 * @return [OBJECT] The names of the mandatory roles.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public Set<String> getRequiredRoles()
+		{
+			return requiredRoles;
+		}
+
+		/**
+		 * @return [OBJECT] The names of the mandatory roles which are not documented.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public Set<String> getMissingRoles()
+		{
+			return missingRoles;
+		}
+
+		/**
+		 * @return [REPORT] <code>true</code> if all mandatory roles are documented.
+		 * @thematicgrid Checking Operations
+		 */
+		public boolean isCovered()
+		{
+			return missingRoles.isEmpty();
+		}
+
+		@Override
+		public String toString()
+		{
+			return file + ':' + operationPath + " missing " + missingRoles;
+		}
+	}
+
+	/**
+	 * The aggregated coverage of many operations.
+	 */
+	public static final class CoverageSummary
+	{
+		private int operations = 0;
+		private int coveredOperations = 0;
+		private int requiredRoles = 0;
+		private int missingRoles = 0;
+
+		private void add(final OperationCoverage coverage)
+		{
+			operations++;
+			if (coverage.isCovered())
+			{
+				coveredOperations++;
+			}
+			requiredRoles += coverage.getRequiredRoles().size();
+			missingRoles += coverage.getMissingRoles().size();
+		}
+
+		/**
+		 * @return [COUNT] The number of operations.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public int getOperations()
+		{
+			return operations;
+		}
+
+		/**
+		 * @return [COUNT] The number of operations without missing roles.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public int getCoveredOperations()
+		{
+			return coveredOperations;
+		}
+
+		/**
+		 * @return [COUNT] The number of mandatory roles of all operations.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public int getRequiredRoles()
+		{
+			return requiredRoles;
+		}
+
+		/**
+		 * @return [COUNT] The number of missing mandatory roles of all operations.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public int getMissingRoles()
+		{
+			return missingRoles;
+		}
+
+		/**
+		 * @return [REPORT] The ratio of documented to mandatory roles between 0 and 1.
+		 *         It is 1 if no role is mandatory.
+		 * @thematicgrid Calculating Operations
+		 */
+		public double getCoverage()
+		{
+			return requiredRoles == 0 ? 1.0
+					: (double) (requiredRoles - missingRoles) / requiredRoles;
+		}
+
+		@Override
+		public String toString()
+		{
+			return coveredOperations + "/" + operations + " operations covered, "
+					+ (requiredRoles - missingRoles) + "/" + requiredRoles
+					+ " mandatory roles documented";
+		}
+	}
+
+	/**
+	 * The coverage of the operations of many files.
+	 */
+	public static final class CoverageReport
+	{
+		private final List<OperationCoverage> operations;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param operations
+		 *            [OBJECT] The coverage of the operations, e.g. of the results of
+		 *            {@link DocumentationCoverageAnalyzer#analyze(String, long, InterfaceArtifact, List)}.
+		 */
+		public CoverageReport(final List<OperationCoverage> operations)
+		{
+			this.operations = Collections.unmodifiableList(operations);
+		}
+
+		/**
+		 * @return [OBJECT] The coverage of all operations.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public List<OperationCoverage> getOperations()
+		{
+			return operations;
+		}
+
+		/**
+		 * @return [OBJECT] The coverage of the operations with missing roles.
+		 * @thematicgrid Searching Operations
+		 */
+		public List<OperationCoverage> getUncoveredOperations()
+		{
+			final List<OperationCoverage> uncovered = new ArrayList<OperationCoverage>();
+			for (final OperationCoverage coverage : operations)
+			{
+				if (!coverage.isCovered())
+				{
+					uncovered.add(coverage);
+				}
+			}
+			return uncovered;
+		}
+
+		/**
+		 * @return [REPORT] The summary of all operations.
+		 * @thematicgrid Calculating Operations
+		 */
+		public CoverageSummary getSummary()
+		{
+			final CoverageSummary summary = new CoverageSummary();
+			for (final OperationCoverage coverage : operations)
+			{
+				summary.add(coverage);
+			}
+			return summary;
+		}
+
+		/**
+		 * @return [REPORT] The summaries per interface, sorted by the file and the
+		 *         interface path (<code>"file:interfacePath"</code>).
+		 * @thematicgrid Calculating Operations
+		 */
+		public Map<String, CoverageSummary> getSummariesByInterface()
+		{
+			final Map<String, CoverageSummary> summaries = new TreeMap<String, CoverageSummary>();
+			for (final OperationCoverage coverage : operations)
+			{
+				summaryOf(summaries,
+						coverage.getFile() + ':' + coverage.getInterfacePath()).add(
+						coverage);
+			}
+			return summaries;
+		}
+
+		/**
+		 * @return [REPORT] The summaries per package, sorted by the package.
+		 * @thematicgrid Calculating Operations
+		 */
+		public Map<String, CoverageSummary> getSummariesByPackage()
+		{
+			final Map<String, CoverageSummary> summaries = new TreeMap<String, CoverageSummary>();
+			for (final OperationCoverage coverage : operations)
+			{
+				summaryOf(summaries, coverage.getPackage()).add(coverage);
+			}
+			return summaries;
+		}
+
+		private static CoverageSummary summaryOf(
+				final Map<String, CoverageSummary> summaries, final String key)
+		{
+			CoverageSummary summary = summaries.get(key);
+			if (summary == null)
+			{
+				summary = new CoverageSummary();
+				summaries.put(key, summary);
+			}
+			return summary;
+		}
+	}
+
+	/**
+	 * The cached coverage of a file.
+	 */
+	private static final class FileCoverage
+	{
+		final long modificationStamp;
+		final List<OperationCoverage> operations;
+
+		FileCoverage(final long modificationStamp,
+				final List<OperationCoverage> operations)
+		{
+			this.modificationStamp = modificationStamp;
+			this.operations = operations;
+		}
+	}
+
+	private final Map<String, FileCoverage> cache = new HashMap<String, FileCoverage>();
+
+	/**
+	 * The grids the cached results are computed with.
+	 */
+	private List<ThematicGrid> cachedGrids = Collections.emptyList();
+
+	/**
+	 * The recognizer of the verbs of the {@link #cachedGrids}. It is built again when
+	 * the grids change.
+	 */
+	private VerbRecognizer verbRecognizer = new VerbRecognizer(cachedGrids);
+
+	/**
+	 * Analyzes all supported files in the <code>container</code>. Only files which
+	 * changed since their last analysis are parsed.
+	 *
+	 * @param container
+	 *            [SOURCE] The project or folder to analyze.
+	 * @param monitor
+	 *            [ATTRIBUTE] The progress monitor. May be <code>null</code>.
+	 * @return [REPORT] The coverage of all operations in the <code>container</code>.
+	 * @throws CoreException
+	 *             If the files could not be visited.
+	 * @throws UnitializedIDocItException
+	 *             If iDocIt! is not initialized.
+	 * @throws OperationCanceledException
+	 *             If the <code>monitor</code> was canceled.
+	 * @thematicgrid Analyzing Operations
+	 */
+	public CoverageReport analyze(final IContainer container,
+			final IProgressMonitor monitor) throws CoreException,
+			UnitializedIDocItException
+	{
+		final ParsingService parsingService = ServiceManager.getInstance()
+				.getParsingService();
+		final List<ThematicGrid> grids = ServiceManager.getInstance()
+				.getPersistenceService().loadThematicGrids();
+
+		final List<IFile> files = new ArrayList<IFile>();
+		container.accept(new IResourceProxyVisitor() {
+			@Override
+			public boolean visit(final IResourceProxy proxy) throws CoreException
+			{
+				if (proxy.getType() == IResource.FILE)
+				{
+					final IFile file = (IFile) proxy.requestResource();
+					final String extension = file.getFileExtension();
+					try
+					{
+						if (extension != null && parsingService.isSupported(extension))
+						{
+							files.add(file);
+						}
+					}
+					catch (final UnitializedIDocItException e)
+					{
+						logger.log(Level.WARNING, e.getMessage(), e);
+						return false;
+					}
+				}
+				return true;
+			}
+		}, IResource.NONE);
+
+		if (monitor != null)
+		{
+			monitor.beginTask("Analyzing the documentation coverage", files.size());
+		}
+		try
+		{
+			final List<OperationCoverage> operations = new ArrayList<OperationCoverage>();
+			for (final IFile file : files)
+			{
+				if (monitor != null && monitor.isCanceled())
+				{
+					throw new OperationCanceledException();
+				}
+
+				final String path = file.getFullPath().toString();
+				final long modificationStamp = file.getModificationStamp();
+				List<OperationCoverage> fileOperations = getCachedCoverage(path,
+						modificationStamp, grids);
+				if (fileOperations == null)
+				{
+					InterfaceArtifact artifact;
+					try
+					{
+						artifact = ServiceManager.getInstance().getPersistenceService()
+								.loadInterface(file);
+					}
+					catch (final Exception e)
+					{
+						logger.log(Level.INFO, "The file " + path
+								+ " could not be analyzed.", e);
+						artifact = null;
+					}
+					fileOperations = analyze(path, modificationStamp, artifact, grids);
+				}
+				operations.addAll(fileOperations);
+
+				if (monitor != null)
+				{
+					monitor.worked(1);
+				}
+			}
+			return new CoverageReport(operations);
+		}
+		finally
+		{
+			if (monitor != null)
+			{
+				monitor.done();
+			}
+		}
+	}
+
+	/**
+	 * Analyzes the operations of the <code>artifact</code> and caches the result.
+	 *
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @param modificationStamp
+	 *            [ATTRIBUTE] The modification stamp of the file when it was parsed.
+	 * @param artifact
+	 *            [SOURCE] The parsed file. May be <code>null</code> if it could not be
+	 *            parsed.
+	 * @param grids
+	 *            [SOURCE] The configured thematic grids.
+	 * @return [REPORT] The coverage of the operations of the file.
+	 * @thematicgrid Analyzing Operations
+	 */
+	public List<OperationCoverage> analyze(final String file,
+			final long modificationStamp, final InterfaceArtifact artifact,
+			final List<ThematicGrid> grids)
+	{
+		final VerbRecognizer recognizer;
+		synchronized (cache)
+		{
+			dropCacheIfGridsChanged(grids);
+			recognizer = verbRecognizer;
+		}
+
+		final List<OperationCoverage> operations = new ArrayList<OperationCoverage>();
+		if (artifact != null && artifact != InterfaceArtifact.NOT_SUPPORTED_ARTIFACT)
+		{
+			analyzeInterfaces(file, artifact.getInterfaces(), "", grids, recognizer,
+					operations);
+		}
+
+		synchronized (cache)
+		{
+			dropCacheIfGridsChanged(grids);
+			cache.put(file, new FileCoverage(modificationStamp, operations));
+		}
+		return operations;
+	}
+
+	/**
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @param modificationStamp
+	 *            [COMPARISON] The current modification stamp of the file.
+	 * @param grids
+	 *            [COMPARISON] The configured thematic grids.
+	 * @return [REPORT] The cached coverage of the file, or <code>null</code> if the
+	 *         file or the grids changed since it was analyzed.
+	 * @thematicgrid Getting Operations
+	 */
+	public List<OperationCoverage> getCachedCoverage(final String file,
+			final long modificationStamp, final List<ThematicGrid> grids)
+	{
+		synchronized (cache)
+		{
+			dropCacheIfGridsChanged(grids);
+			final FileCoverage coverage = cache.get(file);
+			return coverage != null && coverage.modificationStamp == modificationStamp ? coverage.operations
+					: null;
+		}
+	}
+
+	/**
+	 * Removes all cached results.
+	 *
+	 * @thematicgrid Deleting Operations
+	 */
+	public void clearCache()
+	{
+		synchronized (cache)
+		{
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Must be called with the lock of the {@link #cache}.
+	 */
+	private void dropCacheIfGridsChanged(final List<ThematicGrid> grids)
+	{
+		if (!cachedGrids.equals(grids))
+		{
+			cache.clear();
+			cachedGrids = new ArrayList<ThematicGrid>(grids);
+			verbRecognizer = new VerbRecognizer(cachedGrids);
+		}
+	}
+
+	private static void analyzeInterfaces(final String file,
+			final List<? extends Interface> interfaces, final String parentPath,
+			final List<ThematicGrid> grids, final VerbRecognizer recognizer,
+			final List<OperationCoverage> operations)
+	{
+		if (interfaces == null)
+		{
+			return;
+		}
+
+		for (final Interface anInterface : interfaces)
+		{
+			final String path = appendPath(parentPath, anInterface.getIdentifier());
+			if (anInterface.getOperations() != null)
+			{
+				for (final Operation operation : anInterface.getOperations())
+				{
+					operations.add(analyzeOperation(file, path, operation, grids,
+							recognizer));
+				}
+			}
+			analyzeInterfaces(file, anInterface.getInnerInterfaces(), path, grids,
+					recognizer, operations);
+		}
+	}
+
+	private static OperationCoverage analyzeOperation(final String file,
+			final String interfacePath, final Operation operation,
+			final List<ThematicGrid> grids, final VerbRecognizer recognizer)
+	{
+		final Collection<ThematicGrid> operationGrids = findGrids(operation, grids,
+				recognizer);
+
+		final Set<String> gridNames = new TreeSet<String>();
+		Set<String> requiredRoles = null;
+		for (final ThematicGrid grid : operationGrids)
+		{
+			gridNames.add(grid.getName());
+
+			final ThematicGrid reducedGrid = grid.getGridBasedRules() != null ? RuleService
+					.reduceGrid(grid, operation) : grid;
+			final Set<String> mandatoryRoles = new TreeSet<String>();
+			if (reducedGrid.getRoles() != null)
+			{
+				for (final Entry<ThematicRole, Boolean> role : reducedGrid.getRoles()
+						.entrySet())
+				{
+					if (Boolean.TRUE.equals(role.getValue()))
+					{
+						mandatoryRoles.add(role.getKey().getName());
+					}
+				}
+			}
+
+			// a role is only required if every matching grid requires it
+			if (requiredRoles == null)
+			{
+				requiredRoles = mandatoryRoles;
+			}
+			else
+			{
+				requiredRoles.retainAll(mandatoryRoles);
+			}
+		}
+		if (requiredRoles == null)
+		{
+			requiredRoles = new TreeSet<String>();
+		}
+
+		final Set<ThematicRole> documentedRoles = new HashSet<ThematicRole>();
+		SignatureElementUtils.collectAssociatedThematicRoles(documentedRoles, operation,
+				false);
+		final Set<String> documentedRoleNames = new HashSet<String>();
+		for (final ThematicRole role : documentedRoles)
+		{
+			documentedRoleNames.add(role.getName());
+		}
+
+		final Set<String> missingRoles = new TreeSet<String>(requiredRoles);
+		missingRoles.removeAll(documentedRoleNames);
+
+		return new OperationCoverage(file, interfacePath, appendPath(interfacePath,
+				operation.getIdentifier()), gridNames, requiredRoles, missingRoles);
+	}
+
+	/**
+	 * @return The grid named in the documentation of the <code>operation</code>, or
+	 *         else the grids derived from its verb.
+	 */
+	private static Collection<ThematicGrid> findGrids(final Operation operation,
+			final List<ThematicGrid> grids, final VerbRecognizer recognizer)
+	{
+		final String gridName = operation.getThematicGridName();
+		if (gridName != null)
+		{
+			final ThematicGrid grid = ThematicGridService.findThematicGridByName(
+					gridName, grids);
+			if (grid != null)
+			{
+				return Collections.singletonList(grid);
+			}
+		}
+		return ThematicGridService.deriveThematicGrid(operation.getIdentifier(),
+				recognizer).values();
+	}
+
+	private static String appendPath(final String parentPath, final String identifier)
+	{
+		if (identifier == null || identifier.isEmpty())
+		{
+			return parentPath;
+		}
+		return parentPath.isEmpty() ? identifier : parentPath + PATH_SEPARATOR
+				+ identifier;
+	}
+}
@@ -0,0 +1,458 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.core.exceptions.UnitializedIDocItException;
+
+/**
+ * Exports the documentations of many files as newline-delimited JSON, e.g. for an API
+ * portal or a search index.
+ * <p>
+ * The files are parsed, written and released one after another, so the used memory
+ * does not grow with the number of files. The records are encoded into a fixed buffer
+ * which is written to a {@link WritableByteChannel} whenever it is full.
+ * </p>
+ * <p>
+ * There is one record per {@link SignatureElement} and line, e.g.
+ * </p>
+ * 
+ * <pre>
+ * {"file":"/project/src/Customer.java","path":"Customer.java/Customer/find",
+ *  "category":"Method","grid":"Searching Operations",
+ *  "documentations":[{"role":"ACTION","texts":{"Developer":"Finds it."}}]}
+ * </pre>
+ * <p>
+ * The path consists of the identifiers of the element and its ancestors, separated by
+ * slashes. The grid is the thematic grid of the operation of the element, or
+ * <code>null</code>. The files are exported in the order of their paths, the elements
+ * in the order of the structure and the texts in the order of the addressees of the
+ * documentation, so that two exports of the same files are equal.
+ * </p>
+ * <p>
+ * An exporter is not thread-safe. The channel is not closed by the exporter.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public class DocumentationExporter
+{
+	/**
+	 * Logger.
+	 */
+	private static final Logger logger = Logger.getLogger(DocumentationExporter.class
+			.getName());
+
+	/**
+	 * The size of the buffer for the encoded records, in bytes.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The separator between the identifiers of a path.
+	 */
+	private static final char PATH_SEPARATOR = '/';
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/**
+	 * The current record. It is reused for all records.
+	 */
+	private final StringBuilder record = new StringBuilder(1024);
+
+	private int recordCount = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param channel
+	 *            [DESTINATION] The channel to write the records to.
+	 */
+	public DocumentationExporter(final WritableByteChannel channel)
+	{
+		this.channel = channel;
+	}
+
+	/**
+	 * Exports all supported files in the <code>container</code> and flushes the
+	 * written records. Files which cannot be parsed are skipped.
+	 *
+	 * @param container
+	 *            [SOURCE] The project or folder to export.
+	 * @param monitor
+	 *            [ATTRIBUTE] The progress monitor. May be <code>null</code>.
+	 * @return [REPORT] The number of records written by this exporter so far.
+	 * @throws CoreException
+	 *             If the files could not be visited.
+	 * @throws IOException
+	 *             If the records could not be written.
+	 * @throws UnitializedIDocItException
+	 *             If iDocIt! is not initialized.
+	 * @throws OperationCanceledException
+	 *             If the <code>monitor</code> was canceled.
+	 * @thematicgrid Putting Operations
+	 */
+	public int export(final IContainer container, final IProgressMonitor monitor)
+			throws CoreException, IOException, UnitializedIDocItException
+	{
+		final ParsingService parsingService = ServiceManager.getInstance()
+				.getParsingService();
+
+		// only the handles are collected, the files are parsed one by one
+		final List<IFile> files = new ArrayList<IFile>();
+		container.accept(new IResourceProxyVisitor() {
+			@Override
+			public boolean visit(final IResourceProxy proxy) throws CoreException
+			{
+				if (proxy.getType() == IResource.FILE)
+				{
+					final IFile file = (IFile) proxy.requestResource();
+					final String extension = file.getFileExtension();
+					try
+					{
+						if (extension != null && parsingService.isSupported(extension))
+						{
+							files.add(file);
+						}
+					}
+					catch (final UnitializedIDocItException e)
+					{
+						logger.log(Level.WARNING, e.getMessage(), e);
+						return false;
+					}
+				}
+				return true;
+			}
+		}, IResource.NONE);
+
+		Collections.sort(files, new Comparator<IFile>() {
+			@Override
+			public int compare(final IFile file1, final IFile file2)
+			{
+				return file1.getFullPath().toString()
+						.compareTo(file2.getFullPath().toString());
+			}
+		});
+
+		if (monitor != null)
+		{
+			monitor.beginTask("Exporting the documentation", files.size());
+		}
+		try
+		{
+			for (final IFile file : files)
+			{
+				if (monitor != null && monitor.isCanceled())
+				{
+					throw new OperationCanceledException();
+				}
+
+				final String path = file.getFullPath().toString();
+				InterfaceArtifact artifact;
+				try
+				{
+					artifact = ServiceManager.getInstance().getPersistenceService()
+							.loadInterface(file);
+				}
+				catch (final Exception e)
+				{
+					logger.log(Level.INFO, "The file " + path + " could not be exported.",
+							e);
+					artifact = null;
+				}
+
+				if (artifact != null)
+				{
+					exportArtifact(path, artifact);
+				}
+
+				if (monitor != null)
+				{
+					monitor.worked(1);
+				}
+			}
+			flush();
+			return recordCount;
+		}
+		finally
+		{
+			if (monitor != null)
+			{
+				monitor.done();
+			}
+		}
+	}
+
+	/**
+	 * Writes the records of all elements of the <code>artifact</code>. They may stay in
+	 * the buffer until it is full or {@link #flush()} is called.
+	 *
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @param artifact
+	 *            [SOURCE] The parsed file.
+	 * @throws IOException
+	 *             If the records could not be written.
+	 * @thematicgrid Putting Operations
+	 */
+	public void exportArtifact(final String file, final InterfaceArtifact artifact)
+			throws IOException
+	{
+		if (artifact != InterfaceArtifact.NOT_SUPPORTED_ARTIFACT)
+		{
+			exportElement(file, artifact, pathSegment(artifact), null);
+		}
+	}
+
+	/**
+	 * Writes the buffered records to the channel.
+	 *
+	 * @throws IOException
+	 *             If the records could not be written.
+	 * @thematicgrid Putting Operations
+	 */
+	public void flush() throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * @return [REPORT] The number of records written by this exporter.
+	 * @thematicgrid Counting Operations
+	 */
+	public int getRecordCount()
+	{
+		return recordCount;
+	}
+
+	private void exportElement(final String file, final SignatureElement element,
+			final String path, final String parentGrid) throws IOException
+	{
+		final String grid = element instanceof Operation ? ((Operation) element)
+				.getThematicGridName() : parentGrid;
+
+		record.setLength(0);
+		record.append("{\"file\":");
+		appendString(file);
+		record.append(",\"path\":");
+		appendString(path);
+		record.append(",\"category\":");
+		appendString(element.getCategory());
+		record.append(",\"grid\":");
+		appendString(grid);
+		record.append(",\"documentations\":[");
+		if (element.getDocumentations() != null)
+		{
+			boolean first = true;
+			for (final Documentation documentation : element.getDocumentations())
+			{
+				if (!first)
+				{
+					record.append(',');
+				}
+				first = false;
+				appendDocumentation(documentation);
+			}
+		}
+		record.append("]}\n");
+		write();
+		recordCount++;
+
+		for (final SignatureElement child : element.getChildElements())
+		{
+			exportElement(file, child, path + PATH_SEPARATOR + pathSegment(child), grid);
+		}
+	}
+
+	private void appendDocumentation(final Documentation documentation)
+	{
+		record.append("{\"role\":");
+		appendString(documentation.getThematicRole() != null ? documentation
+				.getThematicRole().getName() : null);
+		record.append(",\"texts\":{");
+
+		// the texts in the order of the addressees, then the others by name
+		final Map<Addressee, String> texts = documentation.getDocumentationView();
+		final List<Addressee> addressees = documentation.getAddresseeSequenceView();
+		final Map<String, String> otherTexts = new TreeMap<String, String>();
+		if (texts != null)
+		{
+			for (final Entry<Addressee, String> text : texts.entrySet())
+			{
+				if (text.getKey() != null && !addressees.contains(text.getKey()))
+				{
+					otherTexts.put(text.getKey().getName(), text.getValue());
+				}
+			}
+		}
+
+		boolean first = true;
+		for (final Addressee addressee : addressees)
+		{
+			if (texts != null && texts.containsKey(addressee))
+			{
+				first = appendText(addressee.getName(), texts.get(addressee), first);
+			}
+		}
+		for (final Entry<String, String> text : otherTexts.entrySet())
+		{
+			first = appendText(text.getKey(), text.getValue(), first);
+		}
+		record.append("}}");
+	}
+
+	private boolean appendText(final String addressee, final String text,
+			final boolean first)
+	{
+		if (!first)
+		{
+			record.append(',');
+		}
+		appendString(addressee != null ? addressee : "");
+		record.append(':');
+		appendString(text);
+		return false;
+	}
+
+	/**
+	 * Appends the <code>value</code> as JSON string, or <code>null</code>.
+	 */
+	private void appendString(final String value)
+	{
+		if (value == null)
+		{
+			record.append("null");
+			return;
+		}
+
+		record.append('"');
+		for (int i = 0; i < value.length(); i++)
+		{
+			final char c = value.charAt(i);
+			switch (c)
+			{
+			case '"':
+				record.append("\\\"");
+				break;
+			case '\\':
+				record.append("\\\\");
+				break;
+			case '\n':
+				record.append("\\n");
+				break;
+			case '\r':
+				record.append("\\r");
+				break;
+			case '\t':
+				record.append("\\t");
+				break;
+			default:
+				if (c < 0x20 || c == '\u2028' || c == '\u2029')
+				{
+					record.append("\\u").append(HEX_DIGITS[(c >> 12) & 0xF])
+							.append(HEX_DIGITS[(c >> 8) & 0xF])
+							.append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+				}
+				else
+				{
+					record.append(c);
+				}
+			}
+		}
+		record.append('"');
+	}
+
+	/**
+	 * Encodes the {@link #record} into the {@link #buffer} and writes the full buffer to
+	 * the channel.
+	 */
+	private void write() throws IOException
+	{
+		final CharBuffer chars = CharBuffer.wrap(record);
+		encoder.reset();
+		while (true)
+		{
+			final CoderResult result = encoder.encode(chars, buffer, true);
+			if (result.isOverflow())
+			{
+				flush();
+			}
+			else if (result.isUnderflow())
+			{
+				break;
+			}
+			else
+			{
+				result.throwException();
+			}
+		}
+		while (encoder.flush(buffer).isOverflow())
+		{
+			flush();
+		}
+	}
+
+	private static String pathSegment(final SignatureElement element)
+	{
+		return element.getIdentifier() != null ? element.getIdentifier() : element
+				.getCategory();
+	}
+}
@@ -0,0 +1,856 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.akra.idocit.common.services.ThematicGridService;
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicGrid;
+import de.akra.idocit.common.structure.ThematicRole;
+
+/**
+ * An inverted index of the documentation of many {@link InterfaceArtifact}s. It maps
+ * verbs, thematic grid names, thematic roles, addressees and identifiers to the
+ * {@link IndexEntry}s of the documented signature elements.
+ * <p>
+ * The entries are kept per file, so that the entries of a changed file can be
+ * replaced without touching the rest of the index. All terms are compared case
+ * insensitive. A query is a hash lookup and does not parse any file.
+ * </p>
+ * <p>
+ * The index is thread-safe. It can be written to and read from a stream, see
+ * {@link #save(OutputStream)} and {@link #load(InputStream)}.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see WorkspaceDocumentationIndexer
+ */
+public class DocumentationIndex
+{
+	/**
+	 * The version of the stream format of {@link #save(OutputStream)}.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The modification stamp of files which are not in the index.
+	 */
+	public static final long NULL_STAMP = -1;
+
+	/**
+	 * The separator between the identifiers of an element path, e.g.
+	 * <code>"CustomerService.find.Cust"</code>.
+	 */
+	private static final char PATH_SEPARATOR = '.';
+
+	/**
+	 * The fields of the index.
+	 */
+	public enum IndexField
+	{
+		/**
+		 * The verb of an operation identifier, e.g. <code>"find"</code>.
+		 */
+		VERB,
+
+		/**
+		 * The name of the thematic grid of an operation.
+		 */
+		GRID,
+
+		/**
+		 * The name of a thematic role which is used in a documentation.
+		 */
+		ROLE,
+
+		/**
+		 * The name of an addressee for which a documentation exists.
+		 */
+		ADDRESSEE,
+
+		/**
+		 * The identifier of an interface, operation or parameter.
+		 */
+		IDENTIFIER
+	}
+
+	/**
+	 * The location of an indexed signature element.
+	 */
+	public static final class IndexEntry
+	{
+		private final String file;
+		private final String elementPath;
+		private final String operationPath;
+		private final String category;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param file
+		 *            [OWNER] The path of the file in the workspace.
+		 * @param elementPath
+		 *            [ATTRIBUTE] The identifiers from the outermost interface to the
+		 *            element, separated by dots.
+		 * @param operationPath
+		 *            [ATTRIBUTE] The path of the operation which contains the element.
+		 *            <code>null</code> if the element is not part of an operation.
+		 * @param category
+		 *            [ATTRIBUTE] The category of the element, e.g. <code>"Method"</code>.
+		 */
+		public IndexEntry(final String file, final String elementPath,
+				final String operationPath, final String category)
+		{
+			this.file = file;
+			this.elementPath = elementPath;
+			this.operationPath = operationPath;
+			this.category = category;
+		}
+
+		/**
+		 * @return [OBJECT] The path of the file in the workspace.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getFile()
+		{
+			return file;
+		}
+
+		/**
+		 * @return [OBJECT] The identifiers from the outermost interface to the element,
+		 *         separated by dots.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getElementPath()
+		{
+			return elementPath;
+		}
+
+		/**
+		 * @return [OBJECT] The path of the operation which contains the element, or
+		 *         <code>null</code> if the element is not part of an operation.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getOperationPath()
+		{
+			return operationPath;
+		}
+
+		/**
+		 * @return [OBJECT] The category of the element.
+		 * @thematicgrid Getting Operations / Getter
+		 */
+		public String getCategory()
+		{
+			return category;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((category == null) ? 0 : category.hashCode());
+			result = prime * result
+					+ ((elementPath == null) ? 0 : elementPath.hashCode());
+			result = prime * result + ((file == null) ? 0 : file.hashCode());
+			result = prime * result
+					+ ((operationPath == null) ? 0 : operationPath.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(final Object obj)
+		{
+			if (this == obj)
+			{
+				return true;
+			}
+			if (!(obj instanceof IndexEntry))
+			{
+				return false;
+			}
+			final IndexEntry other = (IndexEntry) obj;
+			return equal(file, other.file) && equal(elementPath, other.elementPath)
+					&& equal(operationPath, other.operationPath)
+					&& equal(category, other.category);
+		}
+
+		private static boolean equal(final String s1, final String s2)
+		{
+			return s1 == null ? s2 == null : s1.equals(s2);
+		}
+
+		@Override
+		public String toString()
+		{
+			return file + ':' + elementPath + " [" + category + ']';
+		}
+	}
+
+	/**
+	 * A term of a field which refers to an entry. Every file keeps its postings to
+	 * remove them from the index.
+	 */
+	private static final class Posting
+	{
+		final IndexField field;
+		final String term;
+		final IndexEntry entry;
+
+		Posting(final IndexField field, final String term, final IndexEntry entry)
+		{
+			this.field = field;
+			this.term = term;
+			this.entry = entry;
+		}
+	}
+
+	/**
+	 * The postings and the modification stamp of an indexed file.
+	 */
+	private static final class IndexedFile
+	{
+		final long modificationStamp;
+		final List<Posting> postings;
+
+		IndexedFile(final long modificationStamp, final List<Posting> postings)
+		{
+			this.modificationStamp = modificationStamp;
+			this.postings = postings;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<IndexField, Map<String, Set<IndexEntry>>> fields = new EnumMap<IndexField, Map<String, Set<IndexEntry>>>(
+			IndexField.class);
+
+	private final Map<String, IndexedFile> files = new HashMap<String, IndexedFile>();
+
+	private boolean dirty = false;
+
+	/**
+	 * Constructor for an empty index.
+	 */
+	public DocumentationIndex()
+	{
+		for (final IndexField field : IndexField.values())
+		{
+			fields.put(field, new HashMap<String, Set<IndexEntry>>());
+		}
+	}
+
+	/**
+	 * Replaces the entries of the <code>file</code> with the entries of the
+	 * <code>artifact</code>.
+	 *
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @param modificationStamp
+	 *            [ATTRIBUTE] The modification stamp of the file when it was parsed.
+	 * @param artifact
+	 *            [SOURCE] The parsed file.
+	 * @thematicgrid Putting Operations
+	 */
+	public void update(final String file, final long modificationStamp,
+			final InterfaceArtifact artifact)
+	{
+		final List<Posting> postings = new ArrayList<Posting>();
+		if (artifact != null && artifact != InterfaceArtifact.NOT_SUPPORTED_ARTIFACT)
+		{
+			collectInterfaces(file, artifact.getInterfaces(), "", postings);
+		}
+
+		lock.writeLock().lock();
+		try
+		{
+			removePostings(files.remove(file));
+			addPostings(postings);
+			files.put(file, new IndexedFile(modificationStamp, postings));
+			dirty = true;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all entries of the <code>file</code>.
+	 *
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @thematicgrid Deleting Operations
+	 */
+	public void remove(final String file)
+	{
+		lock.writeLock().lock();
+		try
+		{
+			final IndexedFile indexedFile = files.remove(file);
+			if (indexedFile != null)
+			{
+				removePostings(indexedFile);
+				dirty = true;
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 *
+	 * @thematicgrid Deleting Operations
+	 */
+	public void clear()
+	{
+		lock.writeLock().lock();
+		try
+		{
+			for (final Map<String, Set<IndexEntry>> terms : fields.values())
+			{
+				terms.clear();
+			}
+			files.clear();
+			dirty = true;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @param file
+	 *            [OWNER] The path of the file in the workspace.
+	 * @return [ATTRIBUTE] The modification stamp of the <code>file</code> when it was
+	 *         indexed, or {@link #NULL_STAMP} if it is not in the index.
+	 * @thematicgrid Getting Operations
+	 */
+	public long getModificationStamp(final String file)
+	{
+		lock.readLock().lock();
+		try
+		{
+			final IndexedFile indexedFile = files.get(file);
+			return indexedFile != null ? indexedFile.modificationStamp : NULL_STAMP;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return [OBJECT] The paths of all indexed files.
+	 * @thematicgrid Getting Operations
+	 */
+	public Set<String> getFiles()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return new HashSet<String>(files.keySet());
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return [REPORT] <code>true</code> if the index was changed since it was loaded or
+	 *         saved the last time.
+	 * @thematicgrid Checking Operations
+	 */
+	public boolean isDirty()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return dirty;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds all entries with the <code>term</code> in the <code>field</code>.
+	 *
+	 * @param field
+	 *            [ATTRIBUTE] The field to search in.
+	 * @param term
+	 *            [COMPARISON] The term, e.g. a verb or a role name. The case is ignored.
+	 * @return [OBJECT] The matching entries in the order they were indexed. The list is
+	 *         empty if nothing matches.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<IndexEntry> find(final IndexField field, final String term)
+	{
+		lock.readLock().lock();
+		try
+		{
+			final Set<IndexEntry> entries = fields.get(field).get(normalize(term));
+			return entries != null ? new ArrayList<IndexEntry>(entries) : Collections
+					.<IndexEntry> emptyList();
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the operations which belong to a thematic grid containing the role
+	 * <code>roleName</code>, but which have no documentation with this role.
+	 *
+	 * @param roleName
+	 *            [COMPARISON] The name of the missing role. The case is ignored.
+	 * @param grids
+	 *            [SOURCE] The configured thematic grids.
+	 * @return [OBJECT] The entries of the operations with the missing role.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<IndexEntry> findOperationsMissingRole(final String roleName,
+			final Collection<ThematicGrid> grids)
+	{
+		final String role = normalize(roleName);
+
+		lock.readLock().lock();
+		try
+		{
+			final Set<String> documentedOperations = new HashSet<String>();
+			final Set<IndexEntry> roleEntries = fields.get(IndexField.ROLE).get(role);
+			if (roleEntries != null)
+			{
+				for (final IndexEntry entry : roleEntries)
+				{
+					documentedOperations.add(entry.getFile() + PATH_SEPARATOR
+							+ entry.getOperationPath());
+				}
+			}
+
+			final List<IndexEntry> result = new ArrayList<IndexEntry>();
+			final Map<String, Set<IndexEntry>> gridTerms = fields.get(IndexField.GRID);
+			for (final ThematicGrid grid : grids)
+			{
+				if (!containsRole(grid, role))
+				{
+					continue;
+				}
+				final Set<IndexEntry> operations = gridTerms.get(normalize(grid.getName()));
+				if (operations != null)
+				{
+					for (final IndexEntry operation : operations)
+					{
+						if (!documentedOperations.contains(operation.getFile()
+								+ PATH_SEPARATOR + operation.getOperationPath()))
+						{
+							result.add(operation);
+						}
+					}
+				}
+			}
+			return result;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param field
+	 *            [ATTRIBUTE] The field.
+	 * @return [OBJECT] All terms of the <code>field</code> in lower case, sorted.
+	 * @thematicgrid Getting Operations
+	 */
+	public Set<String> getTerms(final IndexField field)
+	{
+		lock.readLock().lock();
+		try
+		{
+			return new TreeSet<String>(fields.get(field).keySet());
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes the index to the <code>output</code>. The stream is not closed.
+	 *
+	 * @param output
+	 *            [DESTINATION] The stream to write to.
+	 * @throws IOException
+	 * @thematicgrid Putting Operations
+	 */
+	public void save(final OutputStream output) throws IOException
+	{
+		final DataOutputStream out = new DataOutputStream(output);
+
+		lock.writeLock().lock();
+		try
+		{
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(files.size());
+			for (final Map.Entry<String, IndexedFile> file : files.entrySet())
+			{
+				out.writeUTF(file.getKey());
+				out.writeLong(file.getValue().modificationStamp);
+
+				final List<Posting> postings = file.getValue().postings;
+				out.writeInt(postings.size());
+				for (final Posting posting : postings)
+				{
+					out.writeByte(posting.field.ordinal());
+					out.writeUTF(posting.term);
+					out.writeUTF(posting.entry.getElementPath());
+					out.writeUTF(posting.entry.getOperationPath() != null ? posting.entry
+							.getOperationPath() : "");
+					out.writeUTF(posting.entry.getCategory() != null ? posting.entry
+							.getCategory() : "");
+				}
+			}
+			out.flush();
+			dirty = false;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the content of this index with the index read from the
+	 * <code>input</code>. The stream is not closed.
+	 *
+	 * @param input
+	 *            [SOURCE] The stream written by {@link #save(OutputStream)}.
+	 * @throws IOException
+	 *             If the stream could not be read or has an unknown format. The index
+	 *             is empty then.
+	 * @thematicgrid Putting Operations
+	 */
+	public void load(final InputStream input) throws IOException
+	{
+		final DataInputStream in = new DataInputStream(input);
+
+		lock.writeLock().lock();
+		try
+		{
+			clear();
+
+			final int version = in.readInt();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException("Unknown format version of the index: " + version);
+			}
+
+			final IndexField[] fieldValues = IndexField.values();
+			final int fileCount = in.readInt();
+			for (int i = 0; i < fileCount; i++)
+			{
+				final String file = in.readUTF();
+				final long modificationStamp = in.readLong();
+				final int postingCount = in.readInt();
+				final List<Posting> postings = new ArrayList<Posting>(postingCount);
+				for (int j = 0; j < postingCount; j++)
+				{
+					final IndexField field = fieldValues[in.readUnsignedByte()];
+					final String term = in.readUTF();
+					final String elementPath = in.readUTF();
+					final String operationPath = in.readUTF();
+					final String category = in.readUTF();
+					postings.add(new Posting(field, term, new IndexEntry(file,
+							elementPath, operationPath.isEmpty() ? null : operationPath,
+							category.isEmpty() ? null : category)));
+				}
+				addPostings(postings);
+				files.put(file, new IndexedFile(modificationStamp, postings));
+			}
+			dirty = false;
+		}
+		catch (final IOException e)
+		{
+			clear();
+			throw e;
+		}
+		catch (final ArrayIndexOutOfBoundsException e)
+		{
+			clear();
+			throw new IOException("The index is corrupt.", e);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Must be called with the write lock.
+	 */
+	private void addPostings(final List<Posting> postings)
+	{
+		for (final Posting posting : postings)
+		{
+			final Map<String, Set<IndexEntry>> terms = fields.get(posting.field);
+			Set<IndexEntry> entries = terms.get(posting.term);
+			if (entries == null)
+			{
+				entries = new LinkedHashSet<IndexEntry>();
+				terms.put(posting.term, entries);
+			}
+			entries.add(posting.entry);
+		}
+	}
+
+	/**
+	 * Must be called with the write lock.
+	 */
+	private void removePostings(final IndexedFile indexedFile)
+	{
+		if (indexedFile == null)
+		{
+			return;
+		}
+
+		for (final Posting posting : indexedFile.postings)
+		{
+			final Map<String, Set<IndexEntry>> terms = fields.get(posting.field);
+			final Set<IndexEntry> entries = terms.get(posting.term);
+			if (entries != null)
+			{
+				entries.remove(posting.entry);
+				if (entries.isEmpty())
+				{
+					terms.remove(posting.term);
+				}
+			}
+		}
+	}
+
+	private static void collectInterfaces(final String file,
+			final List<? extends Interface> interfaces, final String parentPath,
+			final List<Posting> postings)
+	{
+		if (interfaces == null)
+		{
+			return;
+		}
+
+		for (final Interface anInterface : interfaces)
+		{
+			final String path = appendPath(parentPath, anInterface.getIdentifier());
+			final IndexEntry entry = new IndexEntry(file, path, null,
+					anInterface.getCategory());
+			addIdentifier(anInterface, entry, postings);
+			addDocumentations(anInterface, entry, postings);
+
+			if (anInterface.getOperations() != null)
+			{
+				for (final Operation operation : anInterface.getOperations())
+				{
+					collectOperation(file, operation, path, postings);
+				}
+			}
+
+			collectInterfaces(file, anInterface.getInnerInterfaces(), path, postings);
+		}
+	}
+
+	private static void collectOperation(final String file, final Operation operation,
+			final String parentPath, final List<Posting> postings)
+	{
+		final String path = appendPath(parentPath, operation.getIdentifier());
+		final IndexEntry entry = new IndexEntry(file, path, path,
+				operation.getCategory());
+		addIdentifier(operation, entry, postings);
+		addDocumentations(operation, entry, postings);
+
+		final String verb = ThematicGridService.extractVerb(operation.getIdentifier());
+		if (verb != null && !verb.isEmpty())
+		{
+			postings.add(new Posting(IndexField.VERB, normalize(verb), entry));
+		}
+		if (operation.getThematicGridName() != null)
+		{
+			postings.add(new Posting(IndexField.GRID, normalize(operation
+					.getThematicGridName()), entry));
+		}
+
+		collectParameters(file, operation.getInputParameters(), path, path, postings);
+		collectParameters(file, operation.getOutputParameters(), path, path, postings);
+		if (operation.getExceptions() != null)
+		{
+			for (final Parameters exceptions : operation.getExceptions())
+			{
+				collectParameters(file, exceptions, path, path, postings);
+			}
+		}
+	}
+
+	private static void collectParameters(final String file,
+			final Parameters parameters, final String parentPath,
+			final String operationPath, final List<Posting> postings)
+	{
+		if (parameters == null)
+		{
+			return;
+		}
+
+		// The Parameters are only a container, the parameters are part of the path.
+		final IndexEntry entry = new IndexEntry(file, appendPath(parentPath,
+				parameters.getIdentifier()), operationPath, parameters.getCategory());
+		addDocumentations(parameters, entry, postings);
+
+		if (parameters.getParameters() != null)
+		{
+			for (final Parameter parameter : parameters.getParameters())
+			{
+				collectParameter(file, parameter, parentPath, operationPath, postings);
+			}
+		}
+	}
+
+	private static void collectParameter(final String file, final Parameter parameter,
+			final String parentPath, final String operationPath,
+			final List<Posting> postings)
+	{
+		final String path = appendPath(parentPath, parameter.getIdentifier());
+		final IndexEntry entry = new IndexEntry(file, path, operationPath,
+				parameter.getCategory());
+		addIdentifier(parameter, entry, postings);
+		addDocumentations(parameter, entry, postings);
+
+		// An attribute is documented only if it was reflected during the parse, so
+		// unreflected data types need not to be reflected for the index.
+		if (parameter.getKnownComplexType() != null)
+		{
+			for (final Parameter child : parameter.getKnownComplexType())
+			{
+				collectParameter(file, child, path, operationPath, postings);
+			}
+		}
+	}
+
+	private static void addIdentifier(final SignatureElement element,
+			final IndexEntry entry, final List<Posting> postings)
+	{
+		if (element.getIdentifier() != null && !element.getIdentifier().isEmpty())
+		{
+			postings.add(new Posting(IndexField.IDENTIFIER, normalize(element
+					.getIdentifier()), entry));
+		}
+	}
+
+	private static void addDocumentations(final SignatureElement element,
+			final IndexEntry entry, final List<Posting> postings)
+	{
+		if (element.getDocumentations() == null)
+		{
+			return;
+		}
+
+		for (final Documentation documentation : element.getDocumentations())
+		{
+			final ThematicRole role = documentation.getThematicRole();
+			if (role != null && role.getName() != null)
+			{
+				postings.add(new Posting(IndexField.ROLE, normalize(role.getName()),
+						entry));
+			}
+
+			final Map<Addressee, String> texts = documentation.getDocumentationView();
+			if (texts != null)
+			{
+				for (final Map.Entry<Addressee, String> text : texts.entrySet())
+				{
+					if (text.getKey() != null && text.getValue() != null
+							&& !text.getValue().trim().isEmpty())
+					{
+						postings.add(new Posting(IndexField.ADDRESSEE, normalize(text
+								.getKey().getName()), entry));
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean containsRole(final ThematicGrid grid, final String role)
+	{
+		if (grid.getRoles() != null)
+		{
+			for (final ThematicRole gridRole : grid.getRoles().keySet())
+			{
+				if (role.equals(normalize(gridRole.getName())))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String appendPath(final String parentPath, final String identifier)
+	{
+		if (identifier == null || identifier.isEmpty())
+		{
+			return parentPath;
+		}
+		return parentPath.isEmpty() ? identifier : parentPath + PATH_SEPARATOR
+				+ identifier;
+	}
+
+	private static String normalize(final String term)
+	{
+		return term != null ? term.trim().toLowerCase(Locale.ENGLISH) : "";
+	}
+}
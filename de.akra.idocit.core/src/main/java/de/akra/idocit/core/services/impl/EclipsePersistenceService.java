@@ -54,10 +54,13 @@ import com.thoughtworks.xstream.io.xml.CompactWriter;
 
 import de.akra.idocit.common.constants.Misc;
 import de.akra.idocit.common.factories.XStreamFactory;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.ThematicGrid;
 import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.utils.ConfigurationSnapshot;
 import de.akra.idocit.common.utils.DescribedItemNameComparator;
 import de.akra.idocit.common.utils.StringUtils;
 import de.akra.idocit.core.IDocItActivator;
@@ -74,7 +77,7 @@ import de.akra.idocit.core.utils.ResourceUtils;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.4
  * 
  */
 public class EclipsePersistenceService implements PersistenceService
@@ -131,7 +134,17 @@ public class EclipsePersistenceService implements PersistenceService
 			return InterfaceArtifact.NOT_SUPPORTED_ARTIFACT;
 		}
 
-		InterfaceArtifact result = parser.parse(iFile);
+		final Timer timer = Metrics.timer("parser.parse." + iFile.getFileExtension());
+		final long start = timer.start();
+		InterfaceArtifact result;
+		try
+		{
+			result = parser.parse(iFile);
+		}
+		finally
+		{
+			timer.stop(start);
+		}
 
 		logger.exiting(EclipsePersistenceService.class.getName(), "loadInterface", result);
 		return result;
@@ -148,7 +161,17 @@ public class EclipsePersistenceService implements PersistenceService
 					.getParser(iFile.getFileExtension());
 			if (parser != null)
 			{
-				parser.write(interfaceArtifact, iFile);
+				final Timer timer = Metrics.timer("parser.write."
+						+ iFile.getFileExtension());
+				final long start = timer.start();
+				try
+				{
+					parser.write(interfaceArtifact, iFile);
+				}
+				finally
+				{
+					timer.stop(start);
+				}
 			}
 			else
 			{
@@ -167,30 +190,63 @@ public class EclipsePersistenceService implements PersistenceService
 	/**
 	 * 
 	 * @return true, if the {@link IPreferenceStore} of Eclipse is loaded and it contains
-	 *         a value for {@link PreferenceStoreConstants#ADDRESSEES}.
+	 *         a value for {@link PreferenceStoreConstants#ADDRESSEES_SNAPSHOT} or
+	 *         {@link PreferenceStoreConstants#ADDRESSEES}.
 	 */
 	@Override
 	public boolean areAddresseesInitialized()
 	{
 		IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
 
-		return prefStore.contains(PreferenceStoreConstants.ADDRESSEES)
-				&& !"".equals(prefStore.getString(PreferenceStoreConstants.ADDRESSEES));
+		return containsValue(prefStore, PreferenceStoreConstants.ADDRESSEES_SNAPSHOT)
+				|| containsValue(prefStore, PreferenceStoreConstants.ADDRESSEES);
 	}
 
 	/**
 	 * 
 	 * @return true, if the {@link IPreferenceStore} of Eclipse is loaded and it contains
-	 *         a value for {@link PreferenceStoreConstants#THEMATIC_ROLES}.
+	 *         a value for {@link PreferenceStoreConstants#THEMATIC_ROLES_SNAPSHOT} or
+	 *         {@link PreferenceStoreConstants#THEMATIC_ROLES}.
 	 */
 	@Override
 	public boolean areThematicRolesInitialized()
 	{
 		IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
 
-		return prefStore.contains(PreferenceStoreConstants.THEMATIC_ROLES)
-				&& !"".equals(prefStore
-						.getString(PreferenceStoreConstants.THEMATIC_ROLES));
+		return containsValue(prefStore, PreferenceStoreConstants.THEMATIC_ROLES_SNAPSHOT)
+				|| containsValue(prefStore, PreferenceStoreConstants.THEMATIC_ROLES);
+	}
+
+	private static boolean containsValue(final IPreferenceStore prefStore,
+			final String key)
+	{
+		return prefStore.contains(key) && !"".equals(prefStore.getString(key));
+	}
+
+	/**
+	 * Stores the <code>snapshot</code> under <code>snapshotKey</code> and the
+	 * <code>xml</code> under <code>xmlKey</code>. This version reads only the snapshot,
+	 * the XML is still written so that former versions of iDocIt! started on the same
+	 * workspace keep the configuration.
+	 * 
+	 * @param prefStore
+	 *            [DESTINATION]
+	 * @param snapshotKey
+	 *            [ATTRIBUTE] The key of the snapshot.
+	 * @param snapshot
+	 *            [OBJECT] The Base64 encoded snapshot.
+	 * @param xmlKey
+	 *            [ATTRIBUTE] The key of the XML configuration of former versions.
+	 * @param xml
+	 *            [OBJECT] The same configuration as XStream XML.
+	 * @thematicgrid Putting Operations
+	 */
+	private static void storeConfiguration(final IPreferenceStore prefStore,
+			final String snapshotKey, final String snapshot, final String xmlKey,
+			final String xml)
+	{
+		prefStore.putValue(snapshotKey, snapshot);
+		prefStore.putValue(xmlKey, xml);
 	}
 
 	private XStream configureXStreamForAddressee()
@@ -241,15 +297,16 @@ public class EclipsePersistenceService implements PersistenceService
 		logger.fine("persist Addresses");
 		// TODO delete old entries from preference store
 		final IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
-		final XStream stream = configureXStreamForAddressee();
 
 		for (final Addressee a : addressees)
 		{
 			a.setDescription(StringUtils.removeLineBreaks(a.getDescription()));
 		}
 
-		final String addresseeXML = stream.toXML(addressees);
-		prefStore.putValue(PreferenceStoreConstants.ADDRESSEES, addresseeXML);
+		storeConfiguration(prefStore, PreferenceStoreConstants.ADDRESSEES_SNAPSHOT,
+				ConfigurationSnapshot.encodeAddressees(addressees),
+				PreferenceStoreConstants.ADDRESSEES,
+				configureXStreamForAddressee().toXML(addressees));
 
 		logger.fine("notify addressee change listeners");
 		notifyListeners(this.addresseChangeListeners);
@@ -261,7 +318,6 @@ public class EclipsePersistenceService implements PersistenceService
 		logger.fine("persist ThematicRoles");
 		// TODO delete old entries from preference store
 		final IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
-		final XStream stream = XStreamFactory.configureXStreamForThematicRoles();
 		Collections.sort(roles, DescribedItemNameComparator.getInstance());
 
 		for (final ThematicRole role : roles)
@@ -272,8 +328,10 @@ public class EclipsePersistenceService implements PersistenceService
 			}
 		}
 
-		final String rolesXML = stream.toXML(roles);
-		prefStore.putValue(PreferenceStoreConstants.THEMATIC_ROLES, rolesXML);
+		storeConfiguration(prefStore, PreferenceStoreConstants.THEMATIC_ROLES_SNAPSHOT,
+				ConfigurationSnapshot.encodeThematicRoles(roles),
+				PreferenceStoreConstants.THEMATIC_ROLES, XStreamFactory
+						.configureXStreamForThematicRoles().toXML(roles));
 
 		logger.fine("notify thematic role change listeners");
 		notifyListeners(this.thematicRoleChangeListeners);
@@ -340,28 +398,65 @@ public class EclipsePersistenceService implements PersistenceService
 
 	/**
 	 * Load the {@link Addressee}s that are configured in the Eclipse preference pages for
-	 * iDocIt!.
+	 * iDocIt!. If only the XML configuration of a former version exists, it is migrated
+	 * once to a {@link ConfigurationSnapshot}.
 	 * 
 	 * @return List of {@link Addressee}s.
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<Addressee> loadConfiguredAddressees()
+	{
+		final Timer timer = Metrics.timer("persistence.loadAddressees");
+		final long start = timer.start();
+		try
+		{
+			return doLoadConfiguredAddressees();
+		}
+		finally
+		{
+			timer.stop(start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Addressee> doLoadConfiguredAddressees()
 	{
 		IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
-		XStream stream = configureXStreamForAddressee();
-		List<Addressee> addressees = new ArrayList<Addressee>();
+		List<Addressee> addressees = null;
 
-		String prefVal = prefStore.getString(PreferenceStoreConstants.ADDRESSEES);
-		if (!prefVal.isEmpty())
+		String snapshot = prefStore
+				.getString(PreferenceStoreConstants.ADDRESSEES_SNAPSHOT);
+		if (!snapshot.isEmpty())
 		{
 			try
 			{
-				addressees = (List<Addressee>) stream.fromXML(prefVal);
+				addressees = ConfigurationSnapshot.decodeAddressees(snapshot);
 			}
-			catch (XStreamException e)
+			catch (IOException e)
 			{
-				logger.log(Level.WARNING, "No addressees were loaded.", e);
+				logger.log(Level.WARNING, "The addressee snapshot could not be read.", e);
+			}
+		}
+
+		if (addressees == null)
+		{
+			addressees = new ArrayList<Addressee>();
+
+			String prefVal = prefStore.getString(PreferenceStoreConstants.ADDRESSEES);
+			if (!prefVal.isEmpty())
+			{
+				try
+				{
+					addressees = (List<Addressee>) configureXStreamForAddressee()
+							.fromXML(prefVal);
+					prefStore.putValue(PreferenceStoreConstants.ADDRESSEES_SNAPSHOT,
+							ConfigurationSnapshot.encodeAddressees(addressees));
+					logger.info("Migrated the addressees to a configuration snapshot.");
+				}
+				catch (XStreamException e)
+				{
+					logger.log(Level.WARNING, "No addressees were loaded.", e);
+				}
 			}
 		}
 
@@ -370,28 +465,66 @@ public class EclipsePersistenceService implements PersistenceService
 
 	/**
 	 * Load the {@link ThematicRole}s that are configured in the Eclipse preference pages
-	 * for iDocIt!.
+	 * for iDocIt!. If only the XML configuration of a former version exists, it is
+	 * migrated once to a {@link ConfigurationSnapshot}.
 	 * 
 	 * @return List of {@link ThematicRole}s.
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<ThematicRole> loadThematicRoles()
+	{
+		final Timer timer = Metrics.timer("persistence.loadThematicRoles");
+		final long start = timer.start();
+		try
+		{
+			return doLoadThematicRoles();
+		}
+		finally
+		{
+			timer.stop(start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ThematicRole> doLoadThematicRoles()
 	{
 		IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
-		XStream stream = XStreamFactory.configureXStreamForThematicRoles();
-		List<ThematicRole> roles = new ArrayList<ThematicRole>();
+		List<ThematicRole> roles = null;
 
-		String prefVal = prefStore.getString(PreferenceStoreConstants.THEMATIC_ROLES);
-		if (!prefVal.isEmpty())
+		String snapshot = prefStore
+				.getString(PreferenceStoreConstants.THEMATIC_ROLES_SNAPSHOT);
+		if (!snapshot.isEmpty())
 		{
 			try
 			{
-				roles = (List<ThematicRole>) stream.fromXML(prefVal);
+				roles = ConfigurationSnapshot.decodeThematicRoles(snapshot);
 			}
-			catch (XStreamException e)
+			catch (IOException e)
 			{
-				logger.log(Level.WARNING, "No thematic role were loaded.", e);
+				logger.log(Level.WARNING, "The thematic role snapshot could not be read.",
+						e);
+			}
+		}
+
+		if (roles == null)
+		{
+			roles = new ArrayList<ThematicRole>();
+
+			String prefVal = prefStore.getString(PreferenceStoreConstants.THEMATIC_ROLES);
+			if (!prefVal.isEmpty())
+			{
+				try
+				{
+					roles = (List<ThematicRole>) XStreamFactory
+							.configureXStreamForThematicRoles().fromXML(prefVal);
+					prefStore.putValue(PreferenceStoreConstants.THEMATIC_ROLES_SNAPSHOT,
+							ConfigurationSnapshot.encodeThematicRoles(roles));
+					logger.info("Migrated the thematic roles to a configuration snapshot.");
+				}
+				catch (XStreamException e)
+				{
+					logger.log(Level.WARNING, "No thematic role were loaded.", e);
+				}
 			}
 		}
 
@@ -462,7 +595,8 @@ public class EclipsePersistenceService implements PersistenceService
 
 	/**
 	 * Load the {@link ThematicGrid}s that are configured in the Eclipse preference pages
-	 * for iDocIt!.
+	 * for iDocIt!. If only the XML configuration of a former version exists, it is
+	 * migrated once to a {@link ConfigurationSnapshot}.
 	 * 
 	 * @return List of {@link ThematicGrid}s.
 	 * 
@@ -471,10 +605,42 @@ public class EclipsePersistenceService implements PersistenceService
 	 *             been initialized yet via {@link PersistenceService#init(InputStream)}.
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	public List<ThematicGrid> loadThematicGrids() throws UnitializedIDocItException
+	{
+		final Timer timer = Metrics.timer("persistence.loadThematicGrids");
+		final long start = timer.start();
+		try
+		{
+			return doLoadThematicGrids();
+		}
+		finally
+		{
+			timer.stop(start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ThematicGrid> doLoadThematicGrids()
+			throws UnitializedIDocItException
 	{
 		IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
+
+		String snapshot = prefStore
+				.getString(PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING_SNAPSHOT);
+		if (!snapshot.isEmpty())
+		{
+			try
+			{
+				return removeFormattingCharsThematicGrids(ConfigurationSnapshot
+						.decodeThematicGrids(snapshot));
+			}
+			catch (IOException e)
+			{
+				logger.log(Level.WARNING, "The thematic grid snapshot could not be read.",
+						e);
+			}
+		}
+
 		String verbClassRoleAssocsXML = prefStore
 				.getString(PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING);
 
@@ -486,6 +652,10 @@ public class EclipsePersistenceService implements PersistenceService
 				List<ThematicGrid> grids = (List<ThematicGrid>) XStreamFactory
 						.configureXStreamForThematicGrid()
 						.fromXML(verbClassRoleAssocsXML);
+				prefStore.putValue(
+						PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING_SNAPSHOT,
+						ConfigurationSnapshot.encodeThematicGrids(grids));
+				logger.info("Migrated the thematic grids to a configuration snapshot.");
 				return removeFormattingCharsThematicGrids(grids);
 			}
 			catch (XStreamException e)
@@ -523,14 +693,15 @@ public class EclipsePersistenceService implements PersistenceService
 		logger.fine("persist ThematicGrids");
 		final IPreferenceStore prefStore = PlatformUI.getPreferenceStore();
 
-		final XStream xs = XStreamFactory.configureXStreamForThematicGrid();
-		final StringWriter sw = new StringWriter();
-		xs.marshal(verbClassRoleAssociations, new CompactWriter(sw));
-
-		final String verbClassRoleAssocsXML = sw.toString();
+		final StringWriter verbClassRoleAssocsXML = new StringWriter();
+		XStreamFactory.configureXStreamForThematicGrid().marshal(
+				verbClassRoleAssociations, new CompactWriter(verbClassRoleAssocsXML));
 
-		prefStore.putValue(PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING,
-				verbClassRoleAssocsXML);
+		storeConfiguration(prefStore,
+				PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING_SNAPSHOT,
+				ConfigurationSnapshot.encodeThematicGrids(verbClassRoleAssociations),
+				PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING,
+				verbClassRoleAssocsXML.toString());
 
 		logger.fine("notify thematic grid change listeners");
 		notifyListeners(this.thematicGridChangeListeners);
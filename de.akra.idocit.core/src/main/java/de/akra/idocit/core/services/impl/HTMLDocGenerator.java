@@ -33,15 +33,49 @@ import de.akra.idocit.common.structure.Parameters;
  */
 public class HTMLDocGenerator
 {
+	/**
+	 * The default name of the stylesheet which is referenced by the generated pages.
+	 */
+	public static final String DEFAULT_STYLESHEET = "stylesheet.css";
 
 	/**
 	 * The artifact to convert to HTML.
 	 */
 	private InterfaceArtifact artifact;
 
+	/**
+	 * The (relative) path of the stylesheet referenced by the generated page.
+	 */
+	private String stylesheetPath;
+
+	/**
+	 * The (relative) path of the index page of a documentation site. If it is
+	 * <code>null</code>, no link to an index is generated.
+	 */
+	private String indexPath;
+
 	public HTMLDocGenerator(final InterfaceArtifact artifact)
+	{
+		this(artifact, DEFAULT_STYLESHEET, null);
+	}
+
+	/**
+	 * Constructor for pages which are part of a documentation site.
+	 * 
+	 * @param artifact
+	 *            The artifact to convert to HTML.
+	 * @param stylesheetPath
+	 *            The path of the stylesheet relative to the generated page.
+	 * @param indexPath
+	 *            The path of the index page relative to the generated page. If it is
+	 *            <code>null</code>, no link to the index is added to the navigation.
+	 */
+	public HTMLDocGenerator(final InterfaceArtifact artifact,
+			final String stylesheetPath, final String indexPath)
 	{
 		this.artifact = artifact;
+		this.stylesheetPath = stylesheetPath;
+		this.indexPath = indexPath;
 	}
 
 	/**
@@ -74,7 +108,8 @@ public class HTMLDocGenerator
 		htmlDoc.append("<meta name=\"author\" content=\"AKRA GmbH\"/>\n");
 		htmlDoc.append("<meta name=\"generator\" content=\"iDocIt!\"/>\n");
 		htmlDoc.append("<meta http-equiv=\"content-type\" content=\"text/html; charset=UTF-8\"/>\n");
-		htmlDoc.append("<link rel=\"stylesheet\" media=\"screen\" href=\"stylesheet.css\"/>\n");
+		htmlDoc.append("<link rel=\"stylesheet\" media=\"screen\" href=\""
+				+ stylesheetPath + "\"/>\n");
 		htmlDoc.append("</head>\n");
 	}
 
@@ -107,6 +142,10 @@ public class HTMLDocGenerator
 		StringBuffer navigation = new StringBuffer();
 		navigation.append("<div id=\"nav\">\n");
 		navigation.append("<ul id=\"navElements\">\n");
+		if (indexPath != null)
+		{
+			navigation.append("<li><a href=\"" + indexPath + "\">Index</a></li>\n");
+		}
 		// add operations and inner interfaces with operations for each interface to
 		// navigation bar
 		for (final Interface interf : artifact.getInterfaces())
@@ -347,7 +386,7 @@ public class HTMLDocGenerator
 			for (final Documentation doc : documentations)
 			{
 				// write only if there is something to write
-				if (doc.getThematicRole() != null || !doc.getDocumentation().isEmpty())
+				if (doc.getThematicRole() != null || !doc.getDocumentationView().isEmpty())
 				{
 					htmlDoc.append("<p>\n");
 					if (doc.getSignatureElementIdentifier() != null)
@@ -364,8 +403,8 @@ public class HTMLDocGenerator
 						htmlDoc.append("<br />\n");
 					}
 
-					final Map<Addressee, String> docMap = doc.getDocumentation();
-					for (final Addressee addressee : doc.getAddresseeSequence())
+					final Map<Addressee, String> docMap = doc.getDocumentationView();
+					for (final Addressee addressee : doc.getAddresseeSequenceView())
 					{
 						final String text = docMap.get(addressee);
 						if (!text.isEmpty())
@@ -0,0 +1,683 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.akra.idocit.common.constants.Misc;
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.common.utils.ConfigurationSnapshot;
+import de.akra.idocit.core.services.PersistenceService;
+import de.akra.idocit.core.utils.ResourceUtils;
+
+/**
+ * Exports the documentation of many artifacts as a linked HTML site. Every artifact is
+ * parsed and rendered by {@link HTMLDocGenerator} on a pool of worker threads. All pages
+ * share one stylesheet and are linked from a generated index page.
+ * <p>
+ * A manifest in the destination directory stores a content hash for each exported
+ * source file. The hash includes the configured addressees and thematic roles, because
+ * the documentation is parsed with them. Files whose hash did not change since the last
+ * export are skipped, as long as their page still exists.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public class HTMLSiteExporter
+{
+	/**
+	 * Logger.
+	 */
+	private static final Logger logger = Logger.getLogger(HTMLSiteExporter.class
+			.getName());
+
+	/**
+	 * Name of the generated index page.
+	 */
+	public static final String INDEX_FILE = "index.html";
+
+	/**
+	 * Name of the manifest file which contains the content hashes of the exported files.
+	 */
+	public static final String MANIFEST_FILE = "idocit-export.properties";
+
+	private static final String HTML_EXTENSION = ".html";
+
+	private static final String HASH_ALGORITHM = "MD5";
+
+	private static final String PARENT_DIR = "../";
+
+	private static final char PATH_SEPARATOR = '/';
+
+	private static final long POLL_INTERVAL_MS = 100;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final File destinationDir;
+
+	private final int threadCount;
+
+	/**
+	 * Constructor. Uses one worker thread per available processor.
+	 *
+	 * @param destinationDir
+	 *            The directory into which the site is exported.
+	 */
+	public HTMLSiteExporter(final File destinationDir)
+	{
+		this(destinationDir, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param destinationDir
+	 *            The directory into which the site is exported.
+	 * @param threadCount
+	 *            The number of worker threads (at least 1).
+	 */
+	public HTMLSiteExporter(final File destinationDir, final int threadCount)
+	{
+		this.destinationDir = destinationDir;
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Exports the documentation of all <code>files</code> into the destination
+	 * directory. Afterwards the shared stylesheet, the index page and the manifest are
+	 * written.
+	 *
+	 * @param files
+	 *            The files to export. Each file must be supported by a registered
+	 *            parser.
+	 * @param monitor
+	 *            The progress monitor. It is checked for cancellation.
+	 * @return The {@link ExportResult} with the exported, skipped and failed files.
+	 * @throws IOException
+	 *             If the destination directory, the index or the manifest can not be
+	 *             written.
+	 * @throws InterruptedException
+	 *             If the export was interrupted while waiting for the workers.
+	 * @throws OperationCanceledException
+	 *             If the export was canceled via the <code>monitor</code>.
+	 */
+	public ExportResult export(final List<IFile> files, final IProgressMonitor monitor)
+			throws IOException, InterruptedException
+	{
+		if (!destinationDir.isDirectory() && !destinationDir.mkdirs())
+		{
+			throw new IOException("Can not create directory "
+					+ destinationDir.getAbsolutePath());
+		}
+
+		final Properties manifest = readManifest();
+		final byte[] configurationHash = computeConfigurationHash();
+		final ExportResult result = new ExportResult();
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+		monitor.beginTask("Export iDocIt! documentation", files.size() + 1);
+		try
+		{
+			final CompletionService<PageEntry> completionService = new ExecutorCompletionService<PageEntry>(
+					executor);
+			for (final IFile file : files)
+			{
+				completionService.submit(new PageExportTask(file, manifest
+						.getProperty(toManifestKey(file)), configurationHash));
+			}
+
+			for (int i = 0; i < files.size(); i++)
+			{
+				final PageEntry entry = takeNext(completionService, monitor);
+				if (entry != null)
+				{
+					if (entry.hash == null)
+					{
+						manifest.remove(entry.manifestKey);
+						result.failed.add(entry.manifestKey);
+					}
+					else
+					{
+						manifest.setProperty(entry.manifestKey, entry.hash);
+						if (entry.skipped)
+						{
+							result.skipped.add(entry.manifestKey);
+						}
+						else
+						{
+							result.exported.add(entry.manifestKey);
+						}
+					}
+				}
+				monitor.worked(1);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		monitor.subTask("Write index");
+		copyStylesheet();
+		writeIndex(manifest);
+		writeManifest(manifest);
+		monitor.worked(1);
+		monitor.done();
+
+		return result;
+	}
+
+	/**
+	 * Waits for the next finished export task while polling the <code>monitor</code>
+	 * for cancellation.
+	 *
+	 * @return The {@link PageEntry} of the finished task or <code>null</code> if the
+	 *         task terminated abnormally.
+	 */
+	private PageEntry takeNext(final CompletionService<PageEntry> completionService,
+			final IProgressMonitor monitor) throws InterruptedException
+	{
+		Future<PageEntry> future = null;
+		while (future == null)
+		{
+			if (monitor.isCanceled())
+			{
+				throw new OperationCanceledException();
+			}
+			future = completionService.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		}
+
+		try
+		{
+			return future.get();
+		}
+		catch (final ExecutionException e)
+		{
+			logger.log(Level.SEVERE, "Export task terminated abnormally.", e.getCause());
+			return null;
+		}
+	}
+
+	/**
+	 * Converts the workspace path of the <code>file</code> into the key used in the
+	 * manifest, e.g. "project/src/Service.java".
+	 */
+	private static String toManifestKey(final IFile file)
+	{
+		return file.getFullPath().makeRelative().toString();
+	}
+
+	/**
+	 * Returns the path of the page for the source file with the given manifest key,
+	 * relative to the destination directory.
+	 */
+	private static String toPagePath(final String manifestKey)
+	{
+		return manifestKey + HTML_EXTENSION;
+	}
+
+	/**
+	 * Escapes the characters of <code>text</code> that have a special meaning in HTML,
+	 * so that it can be written as text or as attribute value.
+	 */
+	private static String escapeHtml(final String text)
+	{
+		final StringBuilder escaped = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++)
+		{
+			final char c = text.charAt(i);
+			switch (c)
+			{
+			case '&':
+				escaped.append("&amp;");
+				break;
+			case '<':
+				escaped.append("&lt;");
+				break;
+			case '>':
+				escaped.append("&gt;");
+				break;
+			case '"':
+				escaped.append("&quot;");
+				break;
+			case '\'':
+				escaped.append("&#39;");
+				break;
+			default:
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Encodes each segment of the relative <code>path</code> for the use in a URL,
+	 * e.g. "my project/a#b.html" becomes "my%20project/a%23b.html".
+	 */
+	private static String encodePath(final String path) throws IOException
+	{
+		final StringBuilder encoded = new StringBuilder(path.length());
+		int segmentStart = 0;
+		for (int i = 0; i <= path.length(); i++)
+		{
+			if (i == path.length() || path.charAt(i) == PATH_SEPARATOR)
+			{
+				// URLEncoder encodes for HTML forms, where a space becomes '+'.
+				encoded.append(URLEncoder.encode(path.substring(segmentStart, i),
+						Misc.DEFAULT_CHARSET).replace("+", "%20"));
+				if (i < path.length())
+				{
+					encoded.append(PATH_SEPARATOR);
+				}
+				segmentStart = i + 1;
+			}
+		}
+		return encoded.toString();
+	}
+
+	/**
+	 * Returns the relative path from the page <code>pagePath</code> back to the
+	 * destination directory, e.g. "../../" for "project/src/Service.java.html".
+	 */
+	private static String toRootPrefix(final String pagePath)
+	{
+		final StringBuilder prefix = new StringBuilder();
+		for (int i = 0; i < pagePath.length(); i++)
+		{
+			if (pagePath.charAt(i) == PATH_SEPARATOR)
+			{
+				prefix.append(PARENT_DIR);
+			}
+		}
+		return prefix.toString();
+	}
+
+	/**
+	 * Computes the hash of the configured addressees and thematic roles. It is the same
+	 * for all files of one export.
+	 */
+	private static byte[] computeConfigurationHash()
+	{
+		final PersistenceService persistenceService = ServiceManager.getInstance()
+				.getPersistenceService();
+		final MessageDigest digest = createDigest();
+		digest.update(ConfigurationSnapshot.encodeAddressees(
+				persistenceService.loadConfiguredAddressees()).getBytes(
+				Charset.forName(Misc.DEFAULT_CHARSET)));
+		digest.update(ConfigurationSnapshot.encodeThematicRoles(
+				persistenceService.loadThematicRoles()).getBytes(
+				Charset.forName(Misc.DEFAULT_CHARSET)));
+		return digest.digest();
+	}
+
+	/**
+	 * Computes the hex encoded content hash of the given file and the
+	 * <code>configurationHash</code>.
+	 */
+	private static String computeHash(final File file, final byte[] configurationHash)
+			throws IOException
+	{
+		final MessageDigest digest = createDigest();
+		digest.update(configurationHash);
+
+		final InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try
+		{
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			int read = in.read(buffer);
+			while (read != -1)
+			{
+				digest.update(buffer, 0, read);
+				read = in.read(buffer);
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+
+		final StringBuilder hex = new StringBuilder();
+		for (final byte b : digest.digest())
+		{
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+			hex.append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private static MessageDigest createDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Properties readManifest() throws IOException
+	{
+		final Properties manifest = new Properties();
+		final File manifestFile = new File(destinationDir, MANIFEST_FILE);
+		if (manifestFile.isFile())
+		{
+			final InputStream in = new BufferedInputStream(new FileInputStream(
+					manifestFile));
+			try
+			{
+				manifest.load(in);
+			}
+			finally
+			{
+				in.close();
+			}
+		}
+		return manifest;
+	}
+
+	private void writeManifest(final Properties manifest) throws IOException
+	{
+		final OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(
+				destinationDir, MANIFEST_FILE)));
+		try
+		{
+			manifest.store(out, "iDocIt! HTML export manifest");
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	private void copyStylesheet() throws IOException
+	{
+		final InputStream in = ResourceUtils
+				.getResourceInputStream(HTMLDocGenerator.DEFAULT_STYLESHEET);
+		try
+		{
+			final OutputStream out = new BufferedOutputStream(new FileOutputStream(
+					new File(destinationDir, HTMLDocGenerator.DEFAULT_STYLESHEET)));
+			try
+			{
+				final byte[] buffer = new byte[BUFFER_SIZE];
+				int read = in.read(buffer);
+				while (read != -1)
+				{
+					out.write(buffer, 0, read);
+					read = in.read(buffer);
+				}
+			}
+			finally
+			{
+				out.close();
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the index page. It links all pages listed in the <code>manifest</code>,
+	 * grouped by their folder. The navigation links to the folders.
+	 */
+	private void writeIndex(final Properties manifest) throws IOException
+	{
+		final Map<String, List<String>> pagesByFolder = new TreeMap<String, List<String>>();
+		for (final Object key : manifest.keySet())
+		{
+			final String manifestKey = (String) key;
+			if (new File(destinationDir, toPagePath(manifestKey)).isFile())
+			{
+				final int folderEnd = manifestKey.lastIndexOf(PATH_SEPARATOR);
+				final String folder = folderEnd > 0 ? manifestKey.substring(0, folderEnd)
+						: "";
+				List<String> pages = pagesByFolder.get(folder);
+				if (pages == null)
+				{
+					pages = new ArrayList<String>();
+					pagesByFolder.put(folder, pages);
+				}
+				pages.add(manifestKey);
+			}
+		}
+
+		final StringBuilder html = new StringBuilder("<!DOCTYPE>\n");
+		html.append("<html>\n<head>\n<title>iDocIt! Documentation</title>\n");
+		html.append("<meta name=\"author\" content=\"AKRA GmbH\"/>\n");
+		html.append("<meta name=\"generator\" content=\"iDocIt!\"/>\n");
+		html.append("<meta http-equiv=\"content-type\" content=\"text/html; charset=UTF-8\"/>\n");
+		html.append("<link rel=\"stylesheet\" media=\"screen\" href=\"")
+				.append(HTMLDocGenerator.DEFAULT_STYLESHEET).append("\"/>\n");
+		html.append("</head>\n<body>\n");
+		html.append("<div id=\"header\">\n<h1 id=\"docTitle\">iDocIt! Documentation</h1>\n</div>\n");
+
+		html.append("<div id=\"nav\">\n<ul id=\"navElements\">\n");
+		html.append("<label class=\"navTitle\" for=\"folders\">Folders</label>\n");
+		for (final String folder : pagesByFolder.keySet())
+		{
+			html.append("<li><a href=\"#").append(escapeHtml(encodePath(folder)))
+					.append("\">").append(escapeHtml(folder)).append("</a></li>\n");
+		}
+		html.append("</ul>\n</div>\n");
+
+		html.append("<div id=\"content\">\n<ul class=\"interfaceList\">\n");
+		for (final Entry<String, List<String>> folderEntry : pagesByFolder.entrySet())
+		{
+			html.append("<li>\n<h3 class=\"interfaceTitle\" id=\"")
+					.append(escapeHtml(folderEntry.getKey())).append("\">")
+					.append(escapeHtml(folderEntry.getKey())).append("</h3>\n");
+			html.append("<ul class=\"operationList\">\n");
+
+			final List<String> pages = folderEntry.getValue();
+			Collections.sort(pages);
+			for (final String manifestKey : pages)
+			{
+				html.append("<li><a href=\"")
+						.append(escapeHtml(encodePath(toPagePath(manifestKey))))
+						.append("\">")
+						.append(escapeHtml(manifestKey.substring(manifestKey
+								.lastIndexOf(PATH_SEPARATOR) + 1))).append("</a></li>\n");
+			}
+			html.append("</ul>\n</li>\n");
+		}
+		html.append("</ul>\n</div>\n</body>\n</html>\n");
+
+		writeFile(new File(destinationDir, INDEX_FILE), html.toString());
+	}
+
+	private static void writeFile(final File destination, final String content)
+			throws IOException
+	{
+		final File parent = destination.getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			throw new IOException("Can not create directory " + parent.getAbsolutePath());
+		}
+
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(destination), Charset.forName(Misc.DEFAULT_CHARSET)));
+		try
+		{
+			writer.write(content);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * Exports the page of a single file, if its content hash differs from the hash in
+	 * the manifest or its page is missing.
+	 */
+	private class PageExportTask implements Callable<PageEntry>
+	{
+		private final IFile file;
+
+		private final String previousHash;
+
+		private final byte[] configurationHash;
+
+		public PageExportTask(final IFile file, final String previousHash,
+				final byte[] configurationHash)
+		{
+			this.file = file;
+			this.previousHash = previousHash;
+			this.configurationHash = configurationHash;
+		}
+
+		@Override
+		public PageEntry call()
+		{
+			final String manifestKey = toManifestKey(file);
+			final String pagePath = toPagePath(manifestKey);
+			final File pageFile = new File(destinationDir, pagePath);
+
+			try
+			{
+				final String hash = computeHash(file.getLocation().toFile(),
+						configurationHash);
+				if (hash.equals(previousHash) && pageFile.isFile())
+				{
+					return new PageEntry(manifestKey, hash, true);
+				}
+
+				final InterfaceArtifact artifact = ServiceManager.getInstance()
+						.getPersistenceService().loadInterface(file);
+				if (artifact == InterfaceArtifact.NOT_SUPPORTED_ARTIFACT)
+				{
+					logger.log(Level.WARNING, "Not supported file: " + manifestKey);
+					return new PageEntry(manifestKey, null, false);
+				}
+
+				final String rootPrefix = toRootPrefix(pagePath);
+				final HTMLDocGenerator docGen = new HTMLDocGenerator(artifact, rootPrefix
+						+ HTMLDocGenerator.DEFAULT_STYLESHEET, rootPrefix + INDEX_FILE);
+				writeFile(pageFile, docGen.generateHTML());
+
+				return new PageEntry(manifestKey, hash, false);
+			}
+			catch (final Exception e)
+			{
+				logger.log(Level.SEVERE, "Could not export documentation for "
+						+ manifestKey, e);
+				return new PageEntry(manifestKey, null, false);
+			}
+		}
+	}
+
+	/**
+	 * The outcome of a {@link PageExportTask}. If the export failed, the
+	 * <code>hash</code> is <code>null</code>.
+	 */
+	private static class PageEntry
+	{
+		private final String manifestKey;
+
+		private final String hash;
+
+		private final boolean skipped;
+
+		public PageEntry(final String manifestKey, final String hash,
+				final boolean skipped)
+		{
+			this.manifestKey = manifestKey;
+			this.hash = hash;
+			this.skipped = skipped;
+		}
+	}
+
+	/**
+	 * The result of an export. It contains the workspace paths of the exported, skipped
+	 * (unchanged) and failed files.
+	 *
+	 * @since 0.0.11
+	 * @version 0.0.1
+	 */
+	public static class ExportResult
+	{
+		private final List<String> exported = new ArrayList<String>();
+
+		private final List<String> skipped = new ArrayList<String>();
+
+		private final List<String> failed = new ArrayList<String>();
+
+		/**
+		 * @return the workspace paths of the files whose page was (re)generated.
+		 */
+		public List<String> getExported()
+		{
+			return exported;
+		}
+
+		/**
+		 * @return the workspace paths of the files that have not changed since the last
+		 *         export.
+		 */
+		public List<String> getSkipped()
+		{
+			return skipped;
+		}
+
+		/**
+		 * @return the workspace paths of the files that could not be exported.
+		 */
+		public List<String> getFailed()
+		{
+			return failed;
+		}
+	}
+}
@@ -28,6 +28,8 @@ public class ServiceManager {
 
 	private ThematicGridService thematicGridService = null;
 
+	private DocumentationCoverageAnalyzer coverageAnalyzer = null;
+
 	private ServiceManager() {
 
 	}
@@ -48,6 +50,10 @@ public class ServiceManager {
 		return thematicGridService;
 	}
 
+	public DocumentationCoverageAnalyzer getCoverageAnalyzer() {
+		return coverageAnalyzer;
+	}
+
 	public void setParsingService(ParsingService parsingService) {
 		this.parsingService = parsingService;
 	}
@@ -59,4 +65,8 @@ public class ServiceManager {
 	public void setThematicGridService(ThematicGridService thematicGridService) {
 		this.thematicGridService = thematicGridService;
 	}
+
+	public void setCoverageAnalyzer(DocumentationCoverageAnalyzer coverageAnalyzer) {
+		this.coverageAnalyzer = coverageAnalyzer;
+	}
 }
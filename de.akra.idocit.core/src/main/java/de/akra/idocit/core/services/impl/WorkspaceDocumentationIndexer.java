@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.core.services.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.akra.idocit.common.structure.InterfaceArtifact;
+import de.akra.idocit.core.exceptions.UnitializedIDocItException;
+
+/**
+ * Keeps a {@link DocumentationIndex} of all supported files in the workspace up to
+ * date and stores it in a file, e.g. in the state location of the plug-in.
+ * <p>
+ * On {@link #start()} the stored index is loaded and a background job indexes all
+ * files whose modification stamp differs from the stored one. Afterwards the resource
+ * deltas of the workspace are observed, and only the added, changed and removed files
+ * are processed again.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public class WorkspaceDocumentationIndexer implements IResourceChangeListener
+{
+	/**
+	 * Logger.
+	 */
+	private static final Logger logger = Logger
+			.getLogger(WorkspaceDocumentationIndexer.class.getName());
+
+	/**
+	 * Delay in milliseconds before changed files are indexed, so that a burst of
+	 * resource changes (e.g. a build or a refactoring) is processed at once.
+	 */
+	private static final long UPDATE_DELAY = 1000;
+
+	private final DocumentationIndex index;
+
+	private final File indexFile;
+
+	/**
+	 * The files to index with the next run of the {@link #indexJob}. The set is also
+	 * used as lock.
+	 */
+	private final Set<IFile> pendingFiles = new LinkedHashSet<IFile>();
+
+	private boolean synchronizationPending = false;
+
+	private final Job indexJob = new IndexJob();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param index
+	 *            [OBJECT] The index to keep up to date.
+	 * @param indexFile
+	 *            [DESTINATION] The file in which the index is stored.
+	 */
+	public WorkspaceDocumentationIndexer(final DocumentationIndex index,
+			final File indexFile)
+	{
+		this.index = index;
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * Loads the stored index, schedules the synchronization with the workspace and
+	 * starts to observe the resource changes.
+	 *
+	 * @thematicgrid Starting Operations
+	 */
+	public void start()
+	{
+		if (indexFile.isFile())
+		{
+			InputStream input = null;
+			try
+			{
+				input = new BufferedInputStream(new FileInputStream(indexFile));
+				index.load(input);
+			}
+			catch (final IOException e)
+			{
+				logger.log(Level.WARNING, "The documentation index "
+						+ indexFile.getAbsolutePath()
+						+ " could not be loaded. It is rebuilt.", e);
+			}
+			finally
+			{
+				close(input);
+			}
+		}
+
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this,
+				IResourceChangeEvent.POST_CHANGE);
+
+		synchronized (pendingFiles)
+		{
+			synchronizationPending = true;
+		}
+		indexJob.schedule();
+	}
+
+	/**
+	 * Stops observing the resource changes, waits for the running indexing and stores
+	 * the index.
+	 *
+	 * @thematicgrid Stopping Operations
+	 */
+	public void stop()
+	{
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		indexJob.cancel();
+		try
+		{
+			indexJob.join();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		save();
+	}
+
+	/**
+	 * Clears the index and indexes all supported files of the workspace again.
+	 *
+	 * @thematicgrid Resetting Operations
+	 */
+	public void rebuild()
+	{
+		index.clear();
+		synchronized (pendingFiles)
+		{
+			synchronizationPending = true;
+		}
+		indexJob.schedule();
+	}
+
+	/**
+	 * @return [OBJECT] The index which is kept up to date.
+	 * @thematicgrid Getting Operations / Getter
+	 */
+	public DocumentationIndex getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * Collects the added, changed and removed files of the resource delta and
+	 * schedules their indexing.
+	 *
+	 * @param event
+	 *            [SOURCE] The resource change event.
+	 * @thematicgrid Putting Operations
+	 */
+	@Override
+	public void resourceChanged(final IResourceChangeEvent event)
+	{
+		final IResourceDelta delta = event.getDelta();
+		if (delta == null)
+		{
+			return;
+		}
+
+		final List<IFile> changedFiles = new ArrayList<IFile>();
+		try
+		{
+			delta.accept(new IResourceDeltaVisitor() {
+				@Override
+				public boolean visit(final IResourceDelta child)
+				{
+					final IResource resource = child.getResource();
+					if (resource.getType() != IResource.FILE)
+					{
+						return true;
+					}
+
+					if (child.getKind() == IResourceDelta.ADDED
+							|| child.getKind() == IResourceDelta.REMOVED
+							|| (child.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0)
+					{
+						final IFile file = (IFile) resource;
+						if (isSupported(file))
+						{
+							changedFiles.add(file);
+						}
+					}
+					return false;
+				}
+			});
+		}
+		catch (final CoreException e)
+		{
+			logger.log(Level.WARNING, "The resource delta could not be processed.", e);
+			return;
+		}
+
+		if (!changedFiles.isEmpty())
+		{
+			synchronized (pendingFiles)
+			{
+				pendingFiles.addAll(changedFiles);
+			}
+			indexJob.schedule(UPDATE_DELAY);
+		}
+	}
+
+	/**
+	 * Writes the index to the {@link #indexFile}, if it was changed.
+	 */
+	private void save()
+	{
+		if (!index.isDirty())
+		{
+			return;
+		}
+
+		final File parent = indexFile.getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			logger.log(Level.WARNING, "The directory " + parent.getAbsolutePath()
+					+ " could not be created.");
+			return;
+		}
+
+		OutputStream output = null;
+		try
+		{
+			output = new BufferedOutputStream(new FileOutputStream(indexFile));
+			index.save(output);
+		}
+		catch (final IOException e)
+		{
+			logger.log(Level.WARNING, "The documentation index could not be stored to "
+					+ indexFile.getAbsolutePath(), e);
+		}
+		finally
+		{
+			close(output);
+		}
+	}
+
+	/**
+	 * Adds all supported files of the workspace whose modification stamp differs from
+	 * the indexed one to the pending files. Removes the indexed files which do not
+	 * exist anymore.
+	 */
+	private void synchronize(final IProgressMonitor monitor) throws CoreException
+	{
+		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		final Set<String> indexedFiles = index.getFiles();
+		final List<IFile> outdatedFiles = new ArrayList<IFile>();
+
+		root.accept(new IResourceProxyVisitor() {
+			@Override
+			public boolean visit(final IResourceProxy proxy)
+			{
+				if (monitor.isCanceled())
+				{
+					return false;
+				}
+				if (proxy.getType() != IResource.FILE)
+				{
+					return true;
+				}
+
+				final IFile file = (IFile) proxy.requestResource();
+				final String path = file.getFullPath().toString();
+				indexedFiles.remove(path);
+				if (isSupported(file)
+						&& index.getModificationStamp(path) != proxy
+								.getModificationStamp())
+				{
+					outdatedFiles.add(file);
+				}
+				return false;
+			}
+		}, IResource.NONE);
+
+		if (monitor.isCanceled())
+		{
+			return;
+		}
+
+		for (final String path : indexedFiles)
+		{
+			index.remove(path);
+		}
+		synchronized (pendingFiles)
+		{
+			pendingFiles.addAll(outdatedFiles);
+		}
+	}
+
+	private static boolean isSupported(final IFile file)
+	{
+		final String extension = file.getFileExtension();
+		try
+		{
+			return extension != null
+					&& ServiceManager.getInstance().getParsingService()
+							.isSupported(extension);
+		}
+		catch (final UnitializedIDocItException e)
+		{
+			return false;
+		}
+	}
+
+	private static void close(final Closeable closeable)
+	{
+		if (closeable != null)
+		{
+			try
+			{
+				closeable.close();
+			}
+			catch (final IOException e)
+			{
+				logger.log(Level.WARNING, "A stream could not be closed.", e);
+			}
+		}
+	}
+
+	/**
+	 * Indexes the pending files in the background.
+	 */
+	private final class IndexJob extends Job
+	{
+		IndexJob()
+		{
+			super("Updating the iDocIt! documentation index");
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(final IProgressMonitor monitor)
+		{
+			try
+			{
+				final boolean synchronizeFirst;
+				synchronized (pendingFiles)
+				{
+					synchronizeFirst = synchronizationPending;
+					synchronizationPending = false;
+				}
+				if (synchronizeFirst)
+				{
+					synchronize(monitor);
+				}
+
+				final List<IFile> files;
+				synchronized (pendingFiles)
+				{
+					files = new ArrayList<IFile>(pendingFiles);
+					pendingFiles.clear();
+				}
+
+				monitor.beginTask(getName(), files.size());
+				for (int i = 0; i < files.size(); i++)
+				{
+					if (monitor.isCanceled())
+					{
+						// keep the rest for the next run
+						synchronized (pendingFiles)
+						{
+							pendingFiles.addAll(files.subList(i, files.size()));
+						}
+						break;
+					}
+					indexFile(files.get(i));
+					monitor.worked(1);
+				}
+				save();
+			}
+			catch (final CoreException e)
+			{
+				logger.log(Level.WARNING, "The workspace could not be indexed.", e);
+			}
+			finally
+			{
+				monitor.done();
+			}
+			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		}
+
+		private void indexFile(final IFile file)
+		{
+			final String path = file.getFullPath().toString();
+			if (!file.exists())
+			{
+				index.remove(path);
+				return;
+			}
+
+			try
+			{
+				final long modificationStamp = file.getModificationStamp();
+				final InterfaceArtifact artifact = ServiceManager.getInstance()
+						.getPersistenceService().loadInterface(file);
+				index.update(path, modificationStamp, artifact);
+			}
+			catch (final Exception e)
+			{
+				// Index the file as empty, so it is not parsed again until it changes.
+				logger.log(Level.INFO, "The file " + path + " could not be indexed.", e);
+				index.update(path, file.getModificationStamp(), null);
+			}
+		}
+	}
+}
@@ -36,17 +36,24 @@ import org.junit.runners.Suite;
 import de.akra.idocit.common.constants.Misc;
 import de.akra.idocit.java.services.AddresseeUtilsTest;
 import de.akra.idocit.java.services.HTMLTableParserTest;
+import de.akra.idocit.java.services.JavaArtifactDetacherTest;
+import de.akra.idocit.java.services.JavaInterfaceParserParallelTest;
 import de.akra.idocit.java.services.JavaInterfaceParserTest;
 import de.akra.idocit.java.services.JavaParserTest;
 import de.akra.idocit.java.services.JavadocGeneratorTest;
+import de.akra.idocit.java.services.JavadocParseCacheTest;
 import de.akra.idocit.java.services.JavadocParserTest;
+import de.akra.idocit.java.services.JavadocSourceWriterTest;
+import de.akra.idocit.java.services.SimpleJavadocGeneratorEquivalenceTest;
 import de.akra.idocit.java.services.SimpleJavadocGeneratorTest;
 import de.akra.idocit.java.services.SimpleJavadocParserTest;
+import de.akra.idocit.java.services.StructuralTypeResolverTest;
 import de.akra.idocit.java.structure.DocumentationTest;
 import de.akra.idocit.java.structure.JavaInterfaceArtifactTest;
 import de.akra.idocit.java.structure.JavaInterfaceTest;
 import de.akra.idocit.java.structure.JavaMethodTest;
 import de.akra.idocit.java.structure.JavaParameterTest;
+import de.akra.idocit.java.utils.JavadocTagLexerTest;
 
 /**
  * All tests.
@@ -60,7 +67,11 @@ import de.akra.idocit.java.structure.JavaParameterTest;
 		DocumentationTest.class, JavaInterfaceArtifactTest.class,
 		JavaInterfaceTest.class, JavaMethodTest.class, JavaParameterTest.class,
 		SimpleJavadocGeneratorTest.class, SimpleJavadocParserTest.class,
-		AddresseeUtilsTest.class })
+		AddresseeUtilsTest.class, JavadocTagLexerTest.class,
+		JavadocSourceWriterTest.class, JavaArtifactDetacherTest.class,
+		StructuralTypeResolverTest.class,
+		SimpleJavadocGeneratorEquivalenceTest.class, JavadocParseCacheTest.class,
+		JavaInterfaceParserParallelTest.class })
 public class AllIDocItJavaTests
 {
 	public static final String SOURCE_DIR = "src/test/resources/source/";
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.ui.PlatformUI;
+import org.junit.After;
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.utils.TestUtils;
+import de.akra.idocit.java.AllIDocItJavaTests;
+import de.akra.idocit.java.constants.PreferenceStoreConstants;
+import de.akra.idocit.java.exceptions.ParsingException;
+import de.akra.idocit.java.structure.JavaInterfaceArtifact;
+import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.utils.JavaTestUtils;
+
+/**
+ * Tests for {@link JavaArtifactDetacher}. A detached artifact must be written exactly
+ * like an artifact which kept its AST.
+ */
+public class JavaArtifactDetacherTest
+{
+	/**
+	 * Files with inner types, anonymous types, varargs and arrays.
+	 */
+	private static final String[] FILE_NAMES = { "CustomerService.java",
+			"InnerTypesService.java", "TestRecursion.java" };
+
+	@After
+	public void resetPreferences()
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		store.setToDefault(PreferenceStoreConstants.DETACH_ARTIFACTS);
+	}
+
+	/**
+	 * Parses, changes and writes each file twice, once attached and once detached. The
+	 * written files must be equal.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testWriteDetachedArtifact() throws Exception
+	{
+		for (final String fileName : FILE_NAMES)
+		{
+			final String original = TestUtils.readFile(AllIDocItJavaTests.SOURCE_DIR
+					+ fileName);
+			final String attached = parseChangeAndWrite(fileName, false);
+			final String detached = parseChangeAndWrite(fileName, true);
+
+			assertFalse(fileName, original.equals(attached));
+			assertEquals(fileName, attached, detached);
+		}
+	}
+
+	/**
+	 * A detached artifact keeps no AST, and it is detached again after writing.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testDetach() throws Exception
+	{
+		final IProject project = initProject();
+		try
+		{
+			PlatformUI.getPreferenceStore().setValue(
+					PreferenceStoreConstants.DETACH_ARTIFACTS, true);
+			final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH
+					+ "InnerTypesService.java");
+			final JavaParser parser = new JavaParser();
+			final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) parser
+					.parse(file);
+
+			assertTrue(artifact.isDetached());
+			assertNull(artifact.getCompilationUnit());
+			final JavaMethod method = (JavaMethod) artifact.getInterfaces().get(0)
+					.getOperations().get(0);
+			assertNull(method.getRefToASTNode());
+			assertEquals("findCustomer(int)", method.getNodeKey());
+
+			changeOperations(artifact.getInterfaces(), "Searching Operations");
+			parser.write(artifact, file);
+
+			assertTrue(artifact.isDetached());
+			assertNull(method.getRefToASTNode());
+		}
+		finally
+		{
+			JavaTestUtils.deleteProjectFromWorkspace(JavaTestUtils.PROJECT_NAME);
+		}
+	}
+
+	/**
+	 * If a declaration is not found at its position with the same key, the artifact can
+	 * not be attached.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testAttachWithChangedKey() throws Exception
+	{
+		final IProject project = initProject();
+		try
+		{
+			PlatformUI.getPreferenceStore().setValue(
+					PreferenceStoreConstants.DETACH_ARTIFACTS, true);
+			final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH
+					+ "InnerTypesService.java");
+			final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) new JavaParser()
+					.parse(file);
+
+			assertNotNull(JavaArtifactDetacher.attach(artifact));
+			JavaArtifactDetacher.detach(artifact);
+
+			final JavaMethod method = (JavaMethod) artifact.getInterfaces().get(0)
+					.getOperations().get(0);
+			method.setNodeKey("findCustomer(long)");
+			try
+			{
+				JavaArtifactDetacher.attach(artifact);
+				fail("A ParsingException was expected.");
+			}
+			catch (final ParsingException e)
+			{
+				// expected
+			}
+
+			method.setNodeKey("findCustomer(int)");
+			method.setNameStartPosition(method.getNameStartPosition() + 1);
+			try
+			{
+				JavaArtifactDetacher.attach(artifact);
+				fail("A ParsingException was expected.");
+			}
+			catch (final ParsingException e)
+			{
+				// expected
+			}
+		}
+		finally
+		{
+			JavaTestUtils.deleteProjectFromWorkspace(JavaTestUtils.PROJECT_NAME);
+		}
+	}
+
+	/**
+	 * Parses the file, changes the thematic grids of all operations and writes it. This
+	 * is done twice, to write an artifact which was already written.
+	 *
+	 * @return The content of the written file.
+	 */
+	private String parseChangeAndWrite(final String fileName, final boolean detached)
+			throws Exception
+	{
+		final IProject project = initProject();
+		try
+		{
+			PlatformUI.getPreferenceStore().setValue(
+					PreferenceStoreConstants.DETACH_ARTIFACTS, detached);
+			final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH + fileName);
+			final JavaParser parser = new JavaParser();
+			final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) parser
+					.parse(file);
+			assertEquals(detached, artifact.isDetached());
+
+			changeOperations(artifact.getInterfaces(), "Searching Operations");
+			parser.write(artifact, file);
+			changeOperations(artifact.getInterfaces(), "Putting Operations");
+			parser.write(artifact, file);
+
+			file.refreshLocal(IProject.DEPTH_ZERO, null);
+			return TestUtils.readFile(file.getLocation().toOSString());
+		}
+		finally
+		{
+			JavaTestUtils.deleteProjectFromWorkspace(JavaTestUtils.PROJECT_NAME);
+		}
+	}
+
+	private static void changeOperations(final List<? extends Interface> interfaces,
+			final String gridName)
+	{
+		if (interfaces == null)
+		{
+			return;
+		}
+		for (final Interface anInterface : interfaces)
+		{
+			if (anInterface.getOperations() != null)
+			{
+				for (final Operation operation : anInterface.getOperations())
+				{
+					operation.setThematicGridName(gridName);
+					operation.setDocumentationChanged(true);
+				}
+			}
+			changeOperations(anInterface.getInnerInterfaces(), gridName);
+		}
+	}
+
+	private static IProject initProject() throws Exception
+	{
+		final List<File> filesToAdd = new ArrayList<File>();
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + "Customer.java"));
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + "NameParameters.java"));
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR
+				+ "CustomerNameParameters.java"));
+		for (final String fileName : FILE_NAMES)
+		{
+			filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + fileName));
+		}
+		return JavaTestUtils.initProjectInWorkspace(JavaTestUtils.PROJECT_NAME,
+				filesToAdd);
+	}
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.java.AllIDocItJavaTests;
+import de.akra.idocit.java.exceptions.ParsingException;
+import de.akra.idocit.java.structure.JavaInterfaceArtifact;
+import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.utils.JavaInterfaceArtifactComparatorUtils;
+import de.akra.idocit.java.utils.JavaTestUtils;
+
+/**
+ * Tests for the parallel processing of the methods in {@link JavaInterfaceParser}.
+ * <p>
+ * Run this test as JUnit Plug-in Test, because the compilation unit is taken from the
+ * Eclipse Workspace.
+ * </p>
+ */
+public class JavaInterfaceParserParallelTest
+{
+	private static final String FILE_NAME = "CustomerRepository.java";
+
+	/**
+	 * The methods of {@link #FILE_NAME} in the order of their declaration.
+	 */
+	private static final List<String> METHOD_NAMES = Arrays.asList("findCustomer",
+			"findCustomersByName", "addCustomer", "removeCustomer", "updateCustomer",
+			"countCustomers", "existsCustomer", "removeAllCustomers", "getCustomer",
+			"getAllCustomers");
+
+	private static final int RUNS = 20;
+
+	/**
+	 * Parses the Javadoc like the {@link JavadocParser}, but fails for the comments of
+	 * <code>removeCustomer</code> and <code>removeAllCustomers</code> with different
+	 * exceptions.
+	 */
+	private static final class FailingJavadocParser extends AbsJavadocParser
+	{
+		static final String FIRST_FAILURE = "Removes the customer";
+
+		static final String SECOND_FAILURE = "Removes all customers";
+
+		@Override
+		public List<Documentation> parseIDocItJavadoc(final Javadoc javadoc,
+				final List<Addressee> addressees, final List<ThematicRole> thematicRoles,
+				final JavaMethod method) throws SAXException, IOException,
+				ParserConfigurationException, ParsingException
+		{
+			final String comment = String.valueOf(javadoc);
+			if (comment.contains(FIRST_FAILURE))
+			{
+				throw new ParsingException(FIRST_FAILURE);
+			}
+			if (comment.contains(SECOND_FAILURE))
+			{
+				throw new IllegalStateException(SECOND_FAILURE);
+			}
+			return JavadocParser.INSTANCE.parseIDocItJavadoc(javadoc, addressees,
+					thematicRoles, method);
+		}
+	}
+
+	private IProject project;
+
+	private ThreadPoolExecutor executor;
+
+	@Before
+	public void setupWorkspace() throws Exception
+	{
+		final List<File> filesToAdd = new ArrayList<File>();
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + FILE_NAME));
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + "Customer.java"));
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + "NameParameters.java"));
+		project = JavaTestUtils.initProjectInWorkspace(JavaTestUtils.PROJECT_NAME,
+				filesToAdd);
+
+		executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+	}
+
+	@After
+	public void clearWorkspace() throws Exception
+	{
+		executor.shutdownNow();
+		JavaTestUtils.deleteProjectFromWorkspace(JavaTestUtils.PROJECT_NAME);
+	}
+
+	/**
+	 * The methods are processed by the executor. The parsed artifact is equal to the
+	 * serially parsed one and keeps the order of the declarations.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testParallelEqualsSerial() throws Exception
+	{
+		final JavaInterfaceArtifact serial = parse(false, false, JavadocParser.INSTANCE);
+		assertEquals(METHOD_NAMES, methodNames(serial));
+		assertEquals(0, executor.getTaskCount());
+
+		for (int run = 1; run <= RUNS; run++)
+		{
+			final JavaInterfaceArtifact parallel = parse(false, true,
+					JavadocParser.INSTANCE);
+			assertEquals(run * METHOD_NAMES.size(), executor.getTaskCount());
+			assertEquals(METHOD_NAMES, methodNames(parallel));
+			assertTrue(JavaInterfaceArtifactComparatorUtils.equalsInterfaceArtifacts(
+					serial, parallel));
+		}
+	}
+
+	/**
+	 * The exception of the first failed method in the order of the declarations is
+	 * thrown with its type, even if a later method fails earlier.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testFirstFailureRethrown() throws Exception
+	{
+		for (int run = 0; run < RUNS; run++)
+		{
+			try
+			{
+				parse(false, true, new FailingJavadocParser());
+				fail("The parsing must fail.");
+			}
+			catch (final ParsingException e)
+			{
+				assertEquals(FailingJavadocParser.FIRST_FAILURE, e.getMessage());
+			}
+		}
+		assertTrue(executor.getTaskCount() > 0);
+	}
+
+	/**
+	 * The bindings of an AST are not thread-safe, so an AST with bindings is parsed in
+	 * the calling thread although an executor is set.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testBindingsParsedSerially() throws Exception
+	{
+		final JavaInterfaceArtifact artifact = parse(true, true, JavadocParser.INSTANCE);
+		assertEquals(0, executor.getTaskCount());
+		assertEquals(METHOD_NAMES, methodNames(artifact));
+	}
+
+	private JavaInterfaceArtifact parse(final boolean resolveBindings,
+			final boolean parallel, final AbsJavadocParser javadocParser)
+			throws Exception
+	{
+		final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH + FILE_NAME);
+		final ICompilationUnit compilationUnit = JavaCore.createCompilationUnitFrom(file);
+
+		final ASTParser parser = ASTParser.newParser(AST.JLS3);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setSource(compilationUnit);
+		parser.setResolveBindings(resolveBindings);
+		parser.setBindingsRecovery(resolveBindings);
+		final CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+
+		final JavaInterfaceParser interfaceParser = new JavaInterfaceParser(unit,
+				compilationUnit.getElementName(), JavaParser.delimiters);
+		if (parallel)
+		{
+			interfaceParser.setMethodExecutor(executor);
+		}
+		return (JavaInterfaceArtifact) interfaceParser.parse(javadocParser);
+	}
+
+	private static List<String> methodNames(final JavaInterfaceArtifact artifact)
+	{
+		final List<String> names = new ArrayList<String>();
+		for (final Operation operation : artifact.getInterfaces().get(0).getOperations())
+		{
+			names.add(operation.getIdentifier());
+		}
+		return names;
+	}
+}
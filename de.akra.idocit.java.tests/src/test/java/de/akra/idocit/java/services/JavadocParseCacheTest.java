@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.Test;
+
+import de.akra.idocit.common.metrics.Counter;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.utils.TestUtils;
+import de.akra.idocit.core.utils.DescribedItemUtils;
+import de.akra.idocit.java.services.JavadocParseCache.Configuration;
+import de.akra.idocit.java.services.JavadocParseCache.ParsedJavadoc;
+
+/**
+ * Tests for {@link JavadocParseCache}.
+ * <p>
+ * Run this test as JUnit Plug-in Test, because {@link DescribedItemUtils} needs the
+ * Eclipse Workspace.
+ * </p>
+ */
+public class JavadocParseCacheTest
+{
+	private static final String GRID_NAME = "Searching Operations";
+
+	private final List<Addressee> addressees = TestUtils.createReferenceAddressees();
+
+	private final List<ThematicRole> roles = TestUtils.createReferenceThematicRoles();
+
+	private final Configuration configuration = JavadocParseCache.configure(
+			JavadocParser.INSTANCE, addressees, roles);
+
+	/**
+	 * An equal comment of another AST hits the cached entry, and the handed out
+	 * Documentations are copies.
+	 */
+	@Test
+	public void testLookup() throws Exception
+	{
+		final JavadocParseCache cache = new JavadocParseCache(16);
+		final Javadoc javadoc = createJavadoc();
+		final List<Documentation> expected = JavadocParser.INSTANCE.parseIDocItJavadoc(
+				javadoc, addressees, roles, null);
+		final Counter hits = Metrics.counter("java.javadocParseCache.hits");
+		final long hitsBefore = hits.getCount();
+
+		final ParsedJavadoc parsedJavadoc = cache.lookup(configuration, javadoc, null);
+		assertEquals(GRID_NAME, parsedJavadoc.getReferenceGridName());
+		assertEquals(expected, parsedJavadoc.getDocumentations(null));
+		assertEquals(hitsBefore, hits.getCount());
+
+		final Javadoc copy = (Javadoc) ASTNode.copySubtree(AST.newAST(AST.JLS3),
+				javadoc);
+		final List<Documentation> cachedDocs = cache.lookup(configuration, copy, null)
+				.getDocumentations(null);
+		assertEquals(expected, cachedDocs);
+		assertEquals(hitsBefore + 1, hits.getCount());
+		assertEquals(1, cache.size());
+
+		cachedDocs.get(0).getDocumentation().clear();
+		assertEquals(expected, cache.lookup(configuration, javadoc, null)
+				.getDocumentations(null));
+
+		// another configuration is another entry
+		cache.lookup(JavadocParseCache.configure(JavadocParser.INSTANCE, addressees,
+				new ArrayList<ThematicRole>(roles.subList(1, roles.size()))), javadoc,
+				null);
+		assertEquals(2, cache.size());
+	}
+
+	/**
+	 * Comments are looked up by their source in the document. Equal comments at other
+	 * positions hit the same entry. If the comment is not found in the document, it is
+	 * looked up as it is printed by the AST.
+	 */
+	@Test
+	public void testLookupBySource() throws Exception
+	{
+		final JavadocParseCache cache = new JavadocParseCache(16);
+		final String comment = "/**\n\t * Searches the customer.\n\t *\n\t * @thematicgrid "
+				+ GRID_NAME + "\n\t */";
+		final String source = "class A {\n\t" + comment + "\n\tvoid find() {}\n}";
+		final String movedSource = "class B {\n\tint id;\n\n\t" + comment
+				+ "\n\tvoid search(int id) {}\n}";
+
+		final ParsedJavadoc parsedJavadoc = cache.lookup(configuration,
+				parseMethodJavadoc(source), source);
+		assertEquals(GRID_NAME, parsedJavadoc.getReferenceGridName());
+		assertEquals(1, cache.size());
+
+		final Javadoc movedJavadoc = parseMethodJavadoc(movedSource);
+		assertEquals(GRID_NAME, cache.lookup(configuration, movedJavadoc, movedSource)
+				.getReferenceGridName());
+		assertEquals(1, cache.size());
+
+		final String changedSource = source.replace("customer", "customers");
+		cache.lookup(configuration, parseMethodJavadoc(changedSource), changedSource);
+		assertEquals(2, cache.size());
+
+		// the document does not contain the comment at its position
+		cache.lookup(configuration, movedJavadoc, source);
+		assertEquals(3, cache.size());
+		cache.lookup(configuration, movedJavadoc, null);
+		assertEquals(3, cache.size());
+	}
+
+	/**
+	 * The loaded entries resolve the addressees and roles by name.
+	 */
+	@Test
+	public void testSaveAndLoad() throws Exception
+	{
+		final JavadocParseCache cache = new JavadocParseCache(16);
+		final Javadoc javadoc = createJavadoc();
+		final List<Documentation> expected = cache.lookup(configuration, javadoc, null)
+				.getDocumentations(null);
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		cache.save(output);
+
+		final JavadocParseCache loadedCache = new JavadocParseCache(16);
+		loadedCache.load(new ByteArrayInputStream(output.toByteArray()));
+		assertEquals(1, loadedCache.size());
+
+		final ParsedJavadoc parsedJavadoc = loadedCache.lookup(configuration, javadoc,
+				null);
+		assertEquals(GRID_NAME, parsedJavadoc.getReferenceGridName());
+		assertEquals(expected, parsedJavadoc.getDocumentations(null));
+	}
+
+	/**
+	 * @return The Javadoc of the first method of the first type in the
+	 *         <code>source</code>.
+	 */
+	private static Javadoc parseMethodJavadoc(final String source)
+	{
+		final ASTParser parser = ASTParser.newParser(AST.JLS3);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setSource(source.toCharArray());
+		parser.setResolveBindings(false);
+		final CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		return ((TypeDeclaration) unit.types().get(0)).getMethods()[0].getJavadoc();
+	}
+
+	/**
+	 * Creates a Javadoc with a general description and a reference grid.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Javadoc createJavadoc() throws Exception
+	{
+		final AST ast = AST.newAST(AST.JLS3);
+		final Javadoc javadoc = ast.newJavadoc();
+
+		final Documentation documentation = new Documentation();
+		documentation.setThematicRole(DescribedItemUtils.findThematicRole("ACTION"));
+		final Addressee developer = DescribedItemUtils.findAddressee("Developer");
+		documentation.getDocumentation().put(developer, "Searches the customer.");
+		documentation.getAddresseeSequence().add(developer);
+
+		final List<Documentation> documentations = new ArrayList<Documentation>();
+		documentations.add(documentation);
+		JavadocGenerator.INSTANCE.appendDocsToJavadoc(documentations, null, null,
+				GRID_NAME, javadoc, new ArrayList<TagElement>(), null);
+
+		final TagElement gridTag = ast.newTagElement();
+		gridTag.setTagName(AbsJavadocParser.JAVADOC_TAG_THEMATICGRID);
+		final TextElement gridName = ast.newTextElement();
+		gridName.setText(GRID_NAME);
+		gridTag.fragments().add(gridName);
+		javadoc.tags().add(gridTag);
+
+		return javadoc;
+	}
+}
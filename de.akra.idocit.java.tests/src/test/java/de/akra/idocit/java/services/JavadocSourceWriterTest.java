@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.junit.Test;
+
+import de.akra.idocit.java.services.JavadocSourceWriter.ChangedRange;
+
+public class JavadocSourceWriterTest
+{
+	private static final String ORIGINAL = "class A {\n\t/** a */\n\tvoid a();\n\n"
+			+ "\tvoid b();\n\n\t/** c */\n\tvoid c();\n}\n";
+
+	private static final int A_OFFSET = ORIGINAL.indexOf("/** a */");
+	private static final int B_OFFSET = ORIGINAL.indexOf("void b();");
+	private static final int C_OFFSET = ORIGINAL.indexOf("/** c */");
+
+	/**
+	 * Saves the comments several times like the editor does. The edits are always
+	 * created against the original source, like the rewrite of the recorded AST does.
+	 */
+	@Test
+	public void testComputeEdits() throws Exception
+	{
+		// 1st save: change comment a
+		final IDocument first = new Document(ORIGINAL);
+		final MultiTextEdit firstEdit = new MultiTextEdit();
+		firstEdit.addChild(new ReplaceEdit(A_OFFSET, 8, "/** changed a */"));
+		final List<ChangedRange> firstRanges = JavadocSourceWriter.applyEdit(firstEdit,
+				first);
+
+		List<ReplaceEdit> edits = JavadocSourceWriter.computeEdits(ORIGINAL,
+				Collections.<ChangedRange> emptyList(), first.get(), firstRanges);
+		assertEquals(1, edits.size());
+		assertEquals("changed ", edits.get(0).getText());
+		assertEquals(first.get(), apply(ORIGINAL, edits));
+
+		// 2nd save: comment a is unchanged since the 1st save, b gets a new comment
+		final IDocument second = new Document(ORIGINAL);
+		final MultiTextEdit secondEdit = new MultiTextEdit();
+		secondEdit.addChild(new ReplaceEdit(A_OFFSET, 8, "/** changed a */"));
+		secondEdit.addChild(new InsertEdit(B_OFFSET, "/** b */\n\t"));
+		final List<ChangedRange> secondRanges = JavadocSourceWriter.applyEdit(
+				secondEdit, second);
+
+		edits = JavadocSourceWriter.computeEdits(first.get(), firstRanges,
+				second.get(), secondRanges);
+		assertEquals(1, edits.size());
+		assertEquals(first.get().indexOf("void b();"), edits.get(0).getOffset());
+		assertEquals(0, edits.get(0).getLength());
+		assertEquals(second.get(), apply(first.get(), edits));
+
+		// 3rd save: comment a is reverted, comment c is removed
+		final IDocument third = new Document(ORIGINAL);
+		final MultiTextEdit thirdEdit = new MultiTextEdit();
+		thirdEdit.addChild(new InsertEdit(B_OFFSET, "/** b */\n\t"));
+		thirdEdit.addChild(new ReplaceEdit(C_OFFSET, 10, ""));
+		final List<ChangedRange> thirdRanges = JavadocSourceWriter.applyEdit(thirdEdit,
+				third);
+
+		edits = JavadocSourceWriter.computeEdits(second.get(), secondRanges,
+				third.get(), thirdRanges);
+		assertEquals(2, edits.size());
+		assertTrue(edits.get(0).getOffset() < edits.get(1).getOffset());
+		assertEquals(third.get(), apply(second.get(), edits));
+	}
+
+	@Test
+	public void testComputeEditsWithoutChanges() throws Exception
+	{
+		final IDocument document = new Document(ORIGINAL);
+		final MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(C_OFFSET, 8, "/** c */"));
+		final List<ChangedRange> ranges = JavadocSourceWriter.applyEdit(edit, document);
+
+		assertTrue(JavadocSourceWriter.computeEdits(ORIGINAL,
+				Collections.<ChangedRange> emptyList(), document.get(), ranges)
+				.isEmpty());
+	}
+
+	private static String apply(final String source, final List<ReplaceEdit> edits)
+			throws BadLocationException
+	{
+		final IDocument document = new Document(source);
+		final TextEdit edit = new MultiTextEdit();
+		for (final ReplaceEdit replaceEdit : edits)
+		{
+			edit.addChild(replaceEdit.copy());
+		}
+		edit.apply(document);
+		return document.get();
+	}
+}
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.junit.Test;
+
+import de.akra.idocit.common.constants.Misc;
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.common.utils.ThematicRoleUtils;
+import de.akra.idocit.core.constants.AddresseeConstants;
+import de.akra.idocit.core.services.impl.ServiceManager;
+import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.structure.JavadocTagElement;
+
+/**
+ * Compares the Javadoc generated by {@link SimpleJavadocGenerator} for seeded random
+ * tags, documentations and additional tags with the expected Javadoc in
+ * {@link #EXPECTED_DIR}. The generated Javadoc must be equal character by character.
+ * <p>
+ * The expected Javadoc was generated by the {@link SimpleJavadocGenerator} before it
+ * normalized the Javadoc in one ordered walk. The files contain one Javadoc (or the
+ * name of the thrown exception) per line, with the backslash, line feed and carriage
+ * return escaped like in Java. If the generated Javadoc changes on purpose, run the
+ * test with the system property {@value #UPDATE_PROPERTY}<code>=true</code> to write
+ * the files again and check the differences before committing them.
+ * </p>
+ */
+public class SimpleJavadocGeneratorEquivalenceTest
+{
+	private static final String EXPECTED_DIR = "src/test/resources/expected/";
+
+	private static final String UPDATE_PROPERTY = "idocit.test.updateExpected";
+
+	private static final long SEED = 20121019L;
+
+	private static final int RUNS = 500;
+
+	private static final String[] TEXTS = { "", " ", "a", "b c", "x\ny", "p<br/>q",
+			"<x> r", "s\n", "\nt", "u<br/>", " v ", "w\r\nz", "&amp; <code>c</code>" };
+
+	private static final String[] TAG_NAMES = { null, null, null, "@param", "@return",
+			"@source", "@paraminfo", "@throws", "@subparam" };
+
+	private static final String[] ROLE_NAMES = { null, "NONE", "ACTION", "SOURCE",
+			"OBJECT", "RULE" };
+
+	private static final String[] PATHS = { null, "m(int)/a:int",
+			"m/p:Customer/c.d.firstName:String", "m/x:A/y:B/z:C", "q" };
+
+	private static final String[] GRID_NAMES = { "Checking Operations",
+			"Searching Operations" };
+
+	/**
+	 * Appends the documentations tag by tag to the Javadoc and compares the Javadoc
+	 * after each call.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testAppendDocsToJavadoc() throws Exception
+	{
+		assertExpected("SimpleJavadocGenerator.appendDocsToJavadoc.txt", "Call #",
+				appendDocs(SimpleJavadocGenerator.INSTANCE));
+	}
+
+	/**
+	 * Creates the Javadoc with
+	 * {@link JavaInterfaceGenerator#createOrUpdateJavadoc(List, List, Javadoc, AST, String, IJavadocGenerator, JavaMethod)}
+	 * , which indexes the additional tags once for the {@link SimpleJavadocGenerator}.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testCreateOrUpdateJavadoc() throws Exception
+	{
+		assertExpected("SimpleJavadocGenerator.createOrUpdateJavadoc.txt", "Run #",
+				createOrUpdateJavadocs(SimpleJavadocGenerator.INSTANCE));
+	}
+
+	private static void assertExpected(final String fileName, final String label,
+			final List<String> actual) throws IOException
+	{
+		final File file = new File(EXPECTED_DIR + fileName);
+		if (Boolean.getBoolean(UPDATE_PROPERTY))
+		{
+			writeExpected(file, actual);
+		}
+		final List<String> expected = readExpected(file);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+		{
+			assertEquals(label + i, expected.get(i), actual.get(i));
+		}
+	}
+
+	private static List<String> readExpected(final File file) throws IOException
+	{
+		final List<String> javadocs = new ArrayList<String>();
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), Charset.forName(Misc.DEFAULT_CHARSET)));
+		try
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				javadocs.add(unescape(line));
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return javadocs;
+	}
+
+	private static void writeExpected(final File file, final List<String> javadocs)
+			throws IOException
+	{
+		final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(file), Charset.forName(Misc.DEFAULT_CHARSET)));
+		try
+		{
+			for (final String javadoc : javadocs)
+			{
+				writer.write(escape(javadoc));
+				writer.write('\n');
+			}
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	private static String escape(final String text)
+	{
+		return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+	}
+
+	private static String unescape(final String line)
+	{
+		final StringBuilder text = new StringBuilder(line.length());
+		for (int i = 0; i < line.length(); i++)
+		{
+			final char c = line.charAt(i);
+			if (c == '\\' && i + 1 < line.length())
+			{
+				final char escaped = line.charAt(++i);
+				text.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+			}
+			else
+			{
+				text.append(c);
+			}
+		}
+		return text.toString();
+	}
+
+	private static List<String> appendDocs(final IJavadocGenerator generator)
+	{
+		final Random random = new Random(SEED);
+		final List<ThematicRole> roles = loadRoles();
+		final List<String> javadocs = new ArrayList<String>();
+
+		for (int run = 0; run < RUNS; run++)
+		{
+			final AST ast = AST.newAST(AST.JLS3);
+			final Javadoc javadoc = createJavadoc(ast, random);
+			final List<TagElement> additionalTags = createAdditionalTags(ast, random);
+
+			final int calls = 1 + random.nextInt(6);
+			for (int call = 0; call < calls; call++)
+			{
+				final List<Documentation> documentations = createDocumentations(random,
+						roles);
+				final String tagName = TAG_NAMES[random.nextInt(TAG_NAMES.length)];
+				final String paramName = random.nextBoolean() ? "a" : "x";
+				final String gridName = GRID_NAMES[random.nextInt(GRID_NAMES.length)];
+				final JavaMethod method = random.nextBoolean() ? createMethod(gridName)
+						: null;
+				try
+				{
+					generator.appendDocsToJavadoc(documentations, tagName, paramName,
+							gridName, javadoc, additionalTags, method);
+					javadocs.add(javadoc.toString());
+				}
+				catch (final Exception e)
+				{
+					javadocs.add(e.getClass().getName());
+				}
+			}
+		}
+		return javadocs;
+	}
+
+	private static List<String> createOrUpdateJavadocs(final IJavadocGenerator generator)
+	{
+		final Random random = new Random(SEED);
+		final List<ThematicRole> roles = loadRoles();
+		final List<String> javadocs = new ArrayList<String>();
+
+		for (int run = 0; run < RUNS; run++)
+		{
+			final AST ast = AST.newAST(AST.JLS3);
+			final Javadoc javadoc = random.nextBoolean() ? createJavadoc(ast, random)
+					: null;
+			final List<TagElement> additionalTags = createAdditionalTags(ast, random);
+
+			final List<JavadocTagElement> tagElements = new ArrayList<JavadocTagElement>();
+			final int count = 1 + random.nextInt(6);
+			for (int i = 0; i < count; i++)
+			{
+				tagElements.add(new JavadocTagElement(
+						TAG_NAMES[random.nextInt(TAG_NAMES.length)],
+						random.nextBoolean() ? "a" : "x", createDocumentations(random,
+								roles), null));
+			}
+			final String gridName = GRID_NAMES[random.nextInt(GRID_NAMES.length)];
+			final JavaMethod method = random.nextBoolean() ? createMethod(gridName)
+					: null;
+			try
+			{
+				javadocs.add(String.valueOf(JavaInterfaceGenerator.createOrUpdateJavadoc(
+						tagElements, additionalTags, javadoc, ast, gridName, generator,
+						method)));
+			}
+			catch (final Exception e)
+			{
+				javadocs.add(e.getClass().getName());
+			}
+		}
+		return javadocs;
+	}
+
+	private static Javadoc createJavadoc(final AST ast, final Random random)
+	{
+		final Javadoc javadoc = ast.newJavadoc();
+		@SuppressWarnings("unchecked")
+		final List<TagElement> tags = javadoc.tags();
+		final int count = random.nextInt(4);
+		for (int i = 0; i < count; i++)
+		{
+			tags.add(createTag(ast, TAG_NAMES[random.nextInt(TAG_NAMES.length)],
+					TEXTS[random.nextInt(TEXTS.length)]));
+		}
+		return javadoc;
+	}
+
+	private static List<TagElement> createAdditionalTags(final AST ast,
+			final Random random)
+	{
+		final List<TagElement> additionalTags = new ArrayList<TagElement>();
+		final int count = random.nextInt(3);
+		for (int i = 0; i < count; i++)
+		{
+			additionalTags.add(createTag(ast, random.nextBoolean() ? "@param"
+					: "@throws", random.nextBoolean() ? "a" : "x foo"));
+		}
+		return additionalTags;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TagElement createTag(final AST ast, final String tagName,
+			final String text)
+	{
+		final TagElement tag = ast.newTagElement();
+		tag.setTagName(tagName);
+		final TextElement textElement = ast.newTextElement();
+		textElement.setText(text);
+		tag.fragments().add(textElement);
+		return tag;
+	}
+
+	private static List<Documentation> createDocumentations(final Random random,
+			final List<ThematicRole> roles)
+	{
+		final List<Documentation> documentations = new ArrayList<Documentation>();
+		final int count = random.nextInt(3);
+		for (int i = 0; i < count; i++)
+		{
+			final Documentation documentation = new Documentation();
+			final String roleName = ROLE_NAMES[random.nextInt(ROLE_NAMES.length)];
+			if (roleName != null)
+			{
+				final ThematicRole role = ThematicRoleUtils.findRoleByName(roleName, roles);
+				documentation.setThematicRole(role != null ? role : new ThematicRole(
+						roleName));
+			}
+
+			final Map<Addressee, String> texts = new HashMap<Addressee, String>();
+			texts.put(new Addressee(AddresseeConstants.MOST_IMPORTANT_ADDRESSEE),
+					TEXTS[random.nextInt(TEXTS.length)]);
+			documentation.setDocumentation(texts);
+			documentation.setErrorCase(random.nextInt(5) == 0);
+			documentation.setSignatureElementIdentifier(PATHS[random
+					.nextInt(PATHS.length)]);
+			documentations.add(documentation);
+		}
+		return documentations;
+	}
+
+	private static JavaMethod createMethod(final String gridName)
+	{
+		return new JavaMethod(SignatureElement.EMPTY_SIGNATURE_ELEMENT, "Method",
+				gridName, Numerus.SINGULAR);
+	}
+
+	private static List<ThematicRole> loadRoles()
+	{
+		return ServiceManager.getInstance().getPersistenceService().loadThematicRoles();
+	}
+}
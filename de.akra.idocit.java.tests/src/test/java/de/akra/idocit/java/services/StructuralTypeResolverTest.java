@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.ui.PlatformUI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.java.AllIDocItJavaTests;
+import de.akra.idocit.java.constants.PreferenceStoreConstants;
+import de.akra.idocit.java.structure.JavaInterfaceArtifact;
+import de.akra.idocit.java.structure.JavaParameter;
+import de.akra.idocit.java.utils.JavaInterfaceArtifactComparatorUtils;
+import de.akra.idocit.java.utils.JavaTestUtils;
+
+/**
+ * Tests for {@link StructuralTypeResolver} and the deferred reflection of
+ * {@link JavaParameter}s.
+ */
+public class StructuralTypeResolverTest
+{
+	/**
+	 * Files whose parameters have no generic types with type variables in their
+	 * attributes, so both modes must give the same structure.
+	 */
+	private static final String[] FILE_NAMES = { "Customer.java",
+			"CustomerService.java", "InnerTypesService.java", "SpecialException.java",
+			"TestRecursion.java" };
+
+	private IProject project;
+
+	@Before
+	public void setupWorkspace() throws Exception
+	{
+		final List<File> filesToAdd = new ArrayList<File>();
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + "NameParameters.java"));
+		filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR
+				+ "CustomerNameParameters.java"));
+		for (final String fileName : FILE_NAMES)
+		{
+			filesToAdd.add(new File(AllIDocItJavaTests.SOURCE_DIR + fileName));
+		}
+		project = JavaTestUtils.initProjectInWorkspace(JavaTestUtils.PROJECT_NAME,
+				filesToAdd);
+	}
+
+	@After
+	public void clearWorkspace() throws Exception
+	{
+		JavaTestUtils.deleteProjectFromWorkspace(JavaTestUtils.PROJECT_NAME);
+
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		store.setToDefault(PreferenceStoreConstants.STRUCTURAL_PARSE);
+	}
+
+	/**
+	 * Parses each file with and without bindings. The identifiers, data types,
+	 * numerus, flags for public accessible attributes, attributes and paths must be
+	 * equal.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testParseWithoutBindings() throws Exception
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		for (final String fileName : FILE_NAMES)
+		{
+			final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH + fileName);
+
+			store.setValue(PreferenceStoreConstants.STRUCTURAL_PARSE, false);
+			final JavaInterfaceArtifact withBindings = (JavaInterfaceArtifact) new JavaParser()
+					.parse(file);
+
+			store.setValue(PreferenceStoreConstants.STRUCTURAL_PARSE, true);
+			final JavaInterfaceArtifact withoutBindings = (JavaInterfaceArtifact) new JavaParser()
+					.parse(file);
+
+			assertTrue(fileName, JavaInterfaceArtifactComparatorUtils
+					.equalsInterfaceArtifacts(withBindings, withoutBindings));
+		}
+	}
+
+	/**
+	 * The data types are reflected on the first access, also in a copy. Primitive types
+	 * are not reflected.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testDeferredReflection() throws Exception
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		store.setValue(PreferenceStoreConstants.STRUCTURAL_PARSE, true);
+
+		final IFile file = project.getFile(JavaTestUtils.REL_SOURCE_PATH
+				+ "InnerTypesService.java");
+		final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) new JavaParser()
+				.parse(file);
+
+		// public Customer findCustomer(final int id)
+		final Operation findCustomer = findOperation(artifact.getInterfaces(),
+				"findCustomer");
+		final JavaParameter id = (JavaParameter) findCustomer.getInputParameters()
+				.getParameters().get(0);
+		final JavaParameter customer = (JavaParameter) findCustomer
+				.getOutputParameters().getParameters().get(0);
+		assertTrue(id.isReflected());
+		assertFalse(customer.isReflected());
+		assertEquals("source.Customer", customer.getQualifiedDataTypeName());
+
+		// public Customer getCustomer(final String lastName)
+		final Operation getCustomer = findOperation(artifact.getInterfaces(),
+				"getCustomer");
+		final JavaParameter lastName = (JavaParameter) getCustomer.getInputParameters()
+				.getParameters().get(0);
+		assertFalse(lastName.isReflected());
+		assertEquals(Numerus.SINGULAR, lastName.getNumerus());
+		assertTrue(lastName.isReflected());
+
+		final JavaInterfaceArtifact copy = (JavaInterfaceArtifact) artifact
+				.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		final JavaParameter copiedCustomer = (JavaParameter) findOperation(
+				copy.getInterfaces(), "findCustomer").getOutputParameters()
+				.getParameters().get(0);
+		assertFalse(copiedCustomer.isReflected());
+
+		// Customer has the attributes firstName and lastName
+		final List<Parameter> attributes = customer.getComplexType();
+		assertTrue(customer.isReflected());
+		assertTrue(customer.hasPublicAccessibleAttributes());
+		assertEquals(2, attributes.size());
+		for (final Parameter attribute : attributes)
+		{
+			assertTrue(attribute.getSignatureElementPath().startsWith(
+					customer.getSignatureElementPath()));
+		}
+
+		assertFalse(copiedCustomer.isReflected());
+		assertTrue(JavaInterfaceArtifactComparatorUtils.equalsParameter(customer,
+				copiedCustomer));
+		assertTrue(copiedCustomer.isReflected());
+	}
+
+	/**
+	 * Without a declaring type the names are taken as they are written, like the names
+	 * of the bindings. Arrays and primitive types are not reflected.
+	 */
+	@Test
+	public void testNamesAsWritten()
+	{
+		final ASTParser parser = ASTParser.newParser(AST.JLS3);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		@SuppressWarnings("unchecked")
+		final Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_1_5, options);
+		parser.setCompilerOptions(options);
+		parser.setSource(("class A { void m(java.util.Map<String, java.util.List<? extends Number>> map, "
+				+ "int[] values, String... names) {} }").toCharArray());
+		parser.setResolveBindings(false);
+		final CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		final MethodDeclaration method = ((TypeDeclaration) unit.types().get(0))
+				.getMethods()[0];
+		@SuppressWarnings("unchecked")
+		final List<SingleVariableDeclaration> parameters = method.parameters();
+
+		final StructuralTypeResolver resolver = new StructuralTypeResolver(null,
+				JavaParser.delimiters);
+		assertEquals("Map<String,List<? extends Number>>",
+				resolver.nameOf(parameters.get(0).getType()));
+		assertEquals("java.util.Map<String,java.util.List<? extends Number>>",
+				resolver.qualifiedNameOf(parameters.get(0).getType()));
+		assertEquals("int[]", resolver.nameOf(parameters.get(1).getType()));
+
+		final JavaParameter map = resolver.createParameter(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "m", parameters.get(0)
+						.getType(), 0, "map", true);
+		assertEquals("map", map.getIdentifier());
+		assertEquals("Map<String,List<? extends Number>>", map.getDataTypeName());
+		assertEquals("m/map:java.util.Map<String,java.util.List<? extends Number>>",
+				map.getSignatureElementPath());
+		assertTrue(map.isReflected());
+
+		final JavaParameter names = resolver.createParameter(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, "m", parameters.get(2)
+						.getType(), 1, "names", true);
+		assertEquals("String[]", names.getDataTypeName());
+		assertTrue(names.isReflected());
+		assertTrue(names.getComplexType().isEmpty());
+	}
+
+	private static Operation findOperation(final List<? extends Interface> interfaces,
+			final String identifier)
+	{
+		if (interfaces != null)
+		{
+			for (final Interface anInterface : interfaces)
+			{
+				if (anInterface.getOperations() != null)
+				{
+					for (final Operation operation : anInterface.getOperations())
+					{
+						if (identifier.equals(operation.getIdentifier()))
+						{
+							return operation;
+						}
+					}
+				}
+
+				final Operation operation = findOperation(
+						anInterface.getInnerInterfaces(), identifier);
+				if (operation != null)
+				{
+					return operation;
+				}
+			}
+		}
+		return null;
+	}
+}
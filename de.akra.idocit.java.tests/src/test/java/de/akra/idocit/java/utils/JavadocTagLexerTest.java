@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import de.akra.idocit.java.utils.JavadocTagLexer.TagKind;
+
+public class JavadocTagLexerTest
+{
+
+	@Test
+	public void testClassify()
+	{
+		assertEquals(TagKind.DESCRIPTION, JavadocTagLexer.classify(null));
+		assertEquals(TagKind.PARAM, JavadocTagLexer.classify("@param"));
+		assertEquals(TagKind.PARAM, JavadocTagLexer.classify("@param \t"));
+		assertEquals(TagKind.RETURN, JavadocTagLexer.classify("@return"));
+		assertEquals(TagKind.THROWS, JavadocTagLexer.classify("@throws"));
+		assertEquals(TagKind.PARAM_INFO, JavadocTagLexer.classify("@paraminfo"));
+		assertEquals(TagKind.SUB_PARAM, JavadocTagLexer.classify("@subparam"));
+		assertEquals(TagKind.SUB_RETURN_INFO, JavadocTagLexer.classify("@subreturninfo"));
+		assertEquals(TagKind.THEMATIC_GRID, JavadocTagLexer.classify("@thematicgrid  "));
+		assertEquals(TagKind.OTHER, JavadocTagLexer.classify("@source"));
+		assertEquals(TagKind.OTHER, JavadocTagLexer.classify("@params"));
+		assertEquals(TagKind.OTHER, JavadocTagLexer.classify(" @param"));
+		assertEquals(TagKind.OTHER, JavadocTagLexer.classify(""));
+	}
+
+	@Test
+	public void testExtractIdentifierChain()
+	{
+		assertArrayEquals(new String[] { "person", "address", "street" },
+				JavadocTagLexer.extractIdentifierChain("person. address .street"));
+		assertArrayEquals(new String[] { "identifier" },
+				JavadocTagLexer.extractIdentifierChain("identifier some description"));
+		assertArrayEquals(new String[] { "identifier" },
+				JavadocTagLexer.extractIdentifierChain(" identifier "));
+
+		// same behavior as String.split("\\.") followed by trim()
+		final String[] texts = { "a..b", "a..", "a. .", ".a", "a. ", ".", "a.b c" };
+		for (final String text : texts)
+		{
+			final String[] expected = text.split("\\.");
+			for (int i = 0; i < expected.length; i++)
+			{
+				expected[i] = expected[i].trim();
+			}
+			assertArrayEquals(text, expected, JavadocTagLexer.extractIdentifierChain(text));
+		}
+	}
+
+	@Test
+	public void testFirstWord()
+	{
+		assertEquals("identifier", JavadocTagLexer.firstWord("identifier description"));
+		assertEquals("identifier", JavadocTagLexer.firstWord("identifier"));
+		assertEquals("", JavadocTagLexer.firstWord(""));
+	}
+}
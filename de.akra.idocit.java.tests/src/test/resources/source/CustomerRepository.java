@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package source;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A repository with enough methods to parse them in parallel.
+ */
+public interface CustomerRepository
+{
+	/**
+	 * Finds the customer with the <code>id</code>.
+	 * 
+	 * @param id
+	 *            [PRIMARY_KEY] The id of the customer.
+	 * @return [OBJECT] The customer.
+	 * @thematicgrid Searching Operations
+	 */
+	public Customer findCustomer(int id);
+
+	/**
+	 * Finds the customers with the name.
+	 * 
+	 * @param parameters
+	 *            [COMPARISON] The name of the customers.
+	 * @return [OBJECT] The customers.
+	 * @throws IOException
+	 *             If the customers could not be read.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<Customer> findCustomersByName(NameParameters parameters)
+			throws IOException;
+
+	/**
+	 * Adds the <code>customer</code>.
+	 * 
+	 * @param customer
+	 *            [OBJECT] The new customer.
+	 * @thematicgrid Putting Operations
+	 */
+	public void addCustomer(Customer customer);
+
+	/**
+	 * Removes the customer with the <code>id</code>.
+	 * 
+	 * @param id
+	 *            [PRIMARY_KEY] The id of the customer.
+	 * @thematicgrid Deleting Operations
+	 */
+	public void removeCustomer(int id);
+
+	/**
+	 * Replaces the customer.
+	 * 
+	 * @param customer
+	 *            [OBJECT] The changed customer.
+	 * @thematicgrid Putting Operations
+	 */
+	public void updateCustomer(Customer customer);
+
+	/**
+	 * @return [REPORT] The number of customers.
+	 * @thematicgrid Counting Operations
+	 */
+	public int countCustomers();
+
+	/**
+	 * @param id
+	 *            [PRIMARY_KEY] The id of the customer.
+	 * @return [REPORT] <code>true</code> if the customer exists.
+	 * @thematicgrid Checking Operations
+	 */
+	public boolean existsCustomer(int id);
+
+	/**
+	 * Removes all customers.
+	 * 
+	 * @thematicgrid Deleting Operations
+	 */
+	public void removeAllCustomers();
+
+	/**
+	 * @param lastName
+	 *            [COMPARISON] The last name of the customers.
+	 * @return [OBJECT] The first customer with the <code>lastName</code>.
+	 * @thematicgrid Searching Operations
+	 */
+	public Customer getCustomer(String lastName);
+
+	/**
+	 * @return [OBJECT] All customers.
+	 * @thematicgrid Searching Operations
+	 */
+	public List<Customer> getAllCustomers();
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package source;
+
+import java.util.Comparator;
+
+public class InnerTypesService
+{
+	private final Comparator<Customer> byLastName = new Comparator<Customer>() {
+		public int compare(Customer customer1, Customer customer2)
+		{
+			return customer1.getLastName().compareTo(customer2.getLastName());
+		}
+	};
+
+	/**
+	 * Find Customer.
+	 *
+	 * @param id [PRIMARY_KEY]
+	 *
+	 * @return [OBJECT]
+	 */
+	public Customer findCustomer(final int id)
+	{
+		final Runnable task = new Runnable() {
+			public void run()
+			{
+				findCustomers(new Customer[0]);
+			}
+		};
+		task.run();
+		return null;
+	}
+
+	public void findCustomers(final Customer[] customers, final String... lastNames)
+	{
+	}
+
+	public Comparator<Customer> getComparator()
+	{
+		return byLastName;
+	}
+
+	public static class CustomerCache
+	{
+		public Customer getCustomer(final String lastName)
+		{
+			return null;
+		}
+
+		public interface CacheListener
+		{
+			void customerChanged(Customer customer);
+		}
+	}
+}
@@ -15,12 +15,15 @@
  *******************************************************************************/
 package de.akra.idocit.java.ui;
 
+import java.io.File;
 import java.util.logging.Logger;
 
 import org.eclipse.ui.IStartup;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import de.akra.idocit.java.services.JavadocParseCache;
+
 public class Activator extends AbstractUIPlugin implements IStartup
 {
 	/**
@@ -33,6 +36,12 @@ public class Activator extends AbstractUIPlugin implements IStartup
 	 */
 	public static final String PLUGIN_ID = "de.akra.idocit.java.ui"; //$NON-NLS-1$
 
+	/**
+	 * The file in the state location of the plug-in in which the
+	 * {@link JavadocParseCache} is kept between the sessions.
+	 */
+	private static final String JAVADOC_PARSE_CACHE_FILE = "javadoc-parse-cache.bin"; //$NON-NLS-1$
+
 	// The shared instance
 	private static Activator plugin;
 
@@ -42,17 +51,24 @@ public class Activator extends AbstractUIPlugin implements IStartup
 	{
 		super.start(context);
 		plugin = this;
+		JavadocParseCache.INSTANCE.restore(getJavadocParseCacheFile());
 		this.recommendedGridsViewHandler = new RecommendedGridsViewHandler();
 		this.recommendedGridsViewHandler.start();
 	}
 
 	public void stop(BundleContext context) throws Exception
 	{
+		JavadocParseCache.INSTANCE.store(getJavadocParseCacheFile());
 		plugin = null;
 		super.stop(context);
 		this.recommendedGridsViewHandler.stop();
 	}
 
+	private File getJavadocParseCacheFile()
+	{
+		return getStateLocation().append(JAVADOC_PARSE_CACHE_FILE).toFile();
+	}
+
 	/**
 	 * Returns the shared instance
 	 * 
@@ -15,12 +15,17 @@
  *******************************************************************************/
 package de.akra.idocit.java.ui;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
@@ -34,21 +39,33 @@ import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.ui.SharedASTProvider;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.ISelectionListener;
 import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbenchPart;
 
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.Documentation;
 import de.akra.idocit.common.structure.ThematicRole;
 import de.akra.idocit.core.services.impl.ServiceManager;
 import de.akra.idocit.java.services.AbsJavadocParser;
 import de.akra.idocit.java.services.JavaParser;
+import de.akra.idocit.java.services.JavadocParseCache;
+import de.akra.idocit.java.services.JavadocParseCache.Configuration;
 import de.akra.idocit.ui.components.RecommendedGridsView;
 import de.akra.idocit.ui.components.RecommendedGridsViewSelection;
 
@@ -56,6 +73,13 @@ import de.akra.idocit.ui.components.RecommendedGridsViewSelection;
  * Listener to notice selections in a JavaEditor. If a JavaMethod is selected, then the
  * iDocIt! Recommended Roles view ({@link RecommendedGridsView}) shall be updated with the
  * selected method's properties.
+ * <p>
+ * Nothing is done while the caret stays in the same method and the document is not
+ * changed. Otherwise the selection of the view is prepared by a {@link Job}, which is
+ * started after the caret rested for {@link #DEBOUNCE_DELAY} milliseconds. It reads
+ * the Javadoc from the editor's shared AST and caches the result per method and
+ * modification stamp of the document.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * 
@@ -66,6 +90,148 @@ public class JavaEditorSelectionListener implements ISelectionListener
 	private static Logger LOG = Logger.getLogger(JavaEditorSelectionListener.class
 			.getName());
 
+	/**
+	 * Milliseconds to wait for further selections before the view is updated.
+	 */
+	private static final long DEBOUNCE_DELAY = 200;
+
+	/**
+	 * Maximum number of cached selections.
+	 */
+	private static final int MAX_CACHED_SELECTIONS = 64;
+
+	private static final Timer PREPARATION_TIMER = Metrics
+			.timer("ui.recommendations.java.prepare");
+
+	/**
+	 * A prepared selection for a method and the modification stamp of the document it
+	 * was prepared from.
+	 */
+	private static final class CachedSelection
+	{
+		final long modificationStamp;
+		final RecommendedGridsViewSelection selection;
+
+		CachedSelection(final long modificationStamp,
+				final RecommendedGridsViewSelection selection)
+		{
+			this.modificationStamp = modificationStamp;
+			this.selection = selection;
+		}
+	}
+
+	/**
+	 * Prepares the selection for the last requested method and passes it to the view.
+	 */
+	private final class SelectionJob extends Job
+	{
+		private RecommendedGridsView view;
+		private ITypeRoot root;
+		private IMethod method;
+		private long modificationStamp;
+
+		SelectionJob()
+		{
+			super("Update iDocIt! Recommended Roles");
+			setSystem(true);
+		}
+
+		synchronized void request(final RecommendedGridsView view, final ITypeRoot root,
+				final IMethod method, final long modificationStamp)
+		{
+			this.view = view;
+			this.root = root;
+			this.method = method;
+			this.modificationStamp = modificationStamp;
+		}
+
+		@Override
+		protected IStatus run(final IProgressMonitor monitor)
+		{
+			final RecommendedGridsView view;
+			final ITypeRoot root;
+			final IMethod method;
+			final long modificationStamp;
+			synchronized (this)
+			{
+				view = this.view;
+				root = this.root;
+				method = this.method;
+				modificationStamp = this.modificationStamp;
+			}
+
+			RecommendedGridsViewSelection newViewSelection = null;
+			final long start = PREPARATION_TIMER.start();
+			try
+			{
+				newViewSelection = prepareViewSelection(root, method, monitor);
+				PREPARATION_TIMER.stop(start);
+				if (monitor.isCanceled())
+				{
+					return Status.CANCEL_STATUS;
+				}
+				putCachedSelection(method, modificationStamp, newViewSelection);
+			}
+			catch (final Exception e)
+			{
+				LOG.log(Level.WARNING, "Failed to collect assigned ThematicRoles.", e);
+			}
+
+			final RecommendedGridsViewSelection viewSelection = newViewSelection;
+			Display.getDefault().asyncExec(new Runnable() {
+				@Override
+				public void run()
+				{
+					// the caret may have been moved in the meantime
+					if (method.equals(lastMethod)
+							&& modificationStamp == lastModificationStamp
+							&& view.getSite().getPage().findView(RecommendedGridsView.ID) == view)
+					{
+						view.setSelection(viewSelection);
+					}
+				}
+			});
+			return Status.OK_STATUS;
+		}
+	}
+
+	private final SelectionJob selectionJob = new SelectionJob();
+
+	/**
+	 * The prepared selections by the methods (LRU order).
+	 */
+	private final Map<IMethod, CachedSelection> cachedSelections = new LinkedHashMap<IMethod, CachedSelection>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<IMethod, CachedSelection> eldest)
+		{
+			return size() > MAX_CACHED_SELECTIONS;
+		}
+	};
+
+	/**
+	 * The configured addressees and roles, loaded on first use. Reset by
+	 * {@link #clearCaches()}.
+	 */
+	private volatile List<Addressee> addressees;
+	private volatile List<ThematicRole> roles;
+
+	/**
+	 * The configuration of the {@link JavadocParseCache} for the configured Javadoc
+	 * parser, the addressees and the roles. Reset by {@link #clearCaches()}.
+	 */
+	private volatile Configuration configuration;
+
+	/**
+	 * The last selected method and the modification stamp of its document. Accessed
+	 * only in the UI thread.
+	 */
+	private IMethod lastMethod;
+	private long lastModificationStamp = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
 	/**
 	 * Always it is done a selection within a JavaEditor (mouse click or moving curser by
 	 * keys) it is tried to find out out the selected JavaMethod. If a JavaMethod were
@@ -87,7 +253,7 @@ public class JavaEditorSelectionListener implements ISelectionListener
 
 			final ISelection sel = javaEditor.getSelectionProvider().getSelection();
 
-			if (sel instanceof ITextSelection)
+			if (root != null && sel instanceof ITextSelection)
 			{
 				// get iDocIt! view for active window
 				final IViewPart findView = part.getSite().getPage()
@@ -96,13 +262,13 @@ public class JavaEditorSelectionListener implements ISelectionListener
 				{
 					final RecommendedGridsView view = (RecommendedGridsView) findView;
 					final ITextSelection textSel = (ITextSelection) sel;
-					RecommendedGridsViewSelection newViewSelection = null;
+					IMethod method = null;
 					try
 					{
 						final IJavaElement elt = root.getElementAt(textSel.getOffset());
 						if (elt != null && elt.getElementType() == IJavaElement.METHOD)
 						{
-							newViewSelection = prepareViewSelection((IMethod) elt);
+							method = (IMethod) elt;
 						}
 					}
 					catch (final JavaModelException e)
@@ -111,12 +277,7 @@ public class JavaEditorSelectionListener implements ISelectionListener
 								"Java method not found for \"{0}\" (file offset={1}).",
 								new Object[] { textSel.getText(), textSel.getOffset() });
 					}
-					catch (final Exception e)
-					{
-						LOG.log(Level.WARNING,
-								"Failed to collect assigned ThematicRoles.", e);
-					}
-					view.setSelection(newViewSelection);
+					updateView(view, root, method, getModificationStamp(javaEditor));
 				}
 				else
 				{
@@ -127,9 +288,263 @@ public class JavaEditorSelectionListener implements ISelectionListener
 		}
 	}
 
+	/**
+	 * Updates the <code>view</code> for the selected <code>method</code>, if the method
+	 * or the document was changed since the last selection.
+	 * 
+	 * @param view
+	 *            [DESTINATION]
+	 * @param root
+	 *            [SOURCE] The edited type root.
+	 * @param method
+	 *            [OBJECT] The selected method, or <code>null</code>.
+	 * @param modificationStamp
+	 *            [ATTRIBUTE] The modification stamp of the edited document.
+	 */
+	private void updateView(final RecommendedGridsView view, final ITypeRoot root,
+			final IMethod method, final long modificationStamp)
+	{
+		final boolean sameMethod = method == null ? lastMethod == null : method
+				.equals(lastMethod);
+		if (sameMethod
+				&& modificationStamp == lastModificationStamp
+				&& modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+		{
+			return;
+		}
+		lastMethod = method;
+		lastModificationStamp = modificationStamp;
+		selectionJob.cancel();
+
+		if (method == null)
+		{
+			view.setSelection(null);
+			return;
+		}
+
+		final CachedSelection cached = getCachedSelection(method);
+		if (cached != null
+				&& cached.modificationStamp == modificationStamp
+				&& modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+		{
+			Metrics.counter("ui.recommendations.java.cacheHits").increment();
+			view.setSelection(cached.selection);
+		}
+		else
+		{
+			Metrics.counter("ui.recommendations.java.cacheMisses").increment();
+			selectionJob.request(view, root, method, modificationStamp);
+			selectionJob.schedule(DEBOUNCE_DELAY);
+		}
+	}
+
+	/**
+	 * Clears the cached selections and the loaded configuration. Must be called if the
+	 * addressees or thematic roles are changed.
+	 */
+	public void clearCaches()
+	{
+		synchronized (cachedSelections)
+		{
+			cachedSelections.clear();
+		}
+		addressees = null;
+		roles = null;
+		configuration = null;
+	}
+
+	private CachedSelection getCachedSelection(final IMethod method)
+	{
+		synchronized (cachedSelections)
+		{
+			return cachedSelections.get(method);
+		}
+	}
+
+	private void putCachedSelection(final IMethod method, final long modificationStamp,
+			final RecommendedGridsViewSelection selection)
+	{
+		if (modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+		{
+			synchronized (cachedSelections)
+			{
+				cachedSelections.put(method, new CachedSelection(modificationStamp,
+						selection));
+			}
+		}
+	}
+
+	/**
+	 * @return The modification stamp of the document in the <code>javaEditor</code>,
+	 *         or {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP}.
+	 */
+	private static long getModificationStamp(final JavaEditor javaEditor)
+	{
+		final IDocument document = javaEditor.getDocumentProvider() != null ? javaEditor
+				.getDocumentProvider().getDocument(javaEditor.getEditorInput()) : null;
+		return document instanceof IDocumentExtension4 ? ((IDocumentExtension4) document)
+				.getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
+	private List<Addressee> getAddressees()
+	{
+		List<Addressee> result = addressees;
+		if (result == null)
+		{
+			result = ServiceManager.getInstance().getPersistenceService()
+					.loadConfiguredAddressees();
+			addressees = result;
+		}
+		return result;
+	}
+
+	private List<ThematicRole> getRoles()
+	{
+		List<ThematicRole> result = roles;
+		if (result == null)
+		{
+			result = ServiceManager.getInstance().getPersistenceService()
+					.loadThematicRoles();
+			roles = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @return The configuration of the {@link JavadocParseCache}. It is created again if
+	 *         another Javadoc parser is configured.
+	 */
+	private Configuration getConfiguration()
+	{
+		final AbsJavadocParser javadocParser = JavaParser.getJavadocParser();
+		Configuration result = configuration;
+		if (result == null || result.getParser() != javadocParser)
+		{
+			result = JavadocParseCache.configure(javadocParser, getAddressees(),
+					getRoles());
+			configuration = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Collect assigned ThematicRoles from the method and it's parents (classes,
+	 * interfaces, enumerations) and find the reference ThematicGrid. The editor's shared
+	 * AST is used, if it is available and matches the method. Otherwise the code
+	 * snippets of the method and its parents are parsed.
+	 * 
+	 * @param root
+	 *            [SOURCE] The type root of the method.
+	 * @param method
+	 *            [SOURCE]
+	 * @param monitor
+	 *            [ATTRIBUTE]
+	 * @throws Exception
+	 */
+	private RecommendedGridsViewSelection prepareViewSelection(final ITypeRoot root,
+			final IMethod method, final IProgressMonitor monitor) throws Exception
+	{
+		final CompilationUnit ast = SharedASTProvider.getAST(root,
+				SharedASTProvider.WAIT_ACTIVE_ONLY, monitor);
+		final MethodDeclaration methodDeclaration = ast != null ? findMethodDeclaration(
+				ast, method) : null;
+		if (methodDeclaration == null)
+		{
+			return prepareViewSelection(method);
+		}
+
+		final Configuration configuration = getConfiguration();
+		// the source of the editor's document, which the shared AST was created from
+		final String source = root.getSource();
+		final RecommendedGridsViewSelection selection = new RecommendedGridsViewSelection();
+		selection.setOperationIdentifier(method.getElementName());
+
+		final Set<ThematicRole> assignedThematicRoles = new TreeSet<ThematicRole>();
+		selection.setAssignedThematicRoles(assignedThematicRoles);
+
+		if (methodDeclaration.getJavadoc() != null)
+		{
+			selection.setReferenceThematicGridName(configuration.getParser()
+					.parseIDocItReferenceGrid(methodDeclaration.getJavadoc()));
+			collectAssignedRoles(configuration, methodDeclaration.getJavadoc(), source,
+					assignedThematicRoles);
+		}
+
+		/*
+		 * Collect documentations from parent interfaces, classes and enumerations
+		 */
+		ASTNode parent = methodDeclaration.getParent();
+		while (parent != null
+				&& (parent.getNodeType() == ASTNode.TYPE_DECLARATION || parent
+						.getNodeType() == ASTNode.ENUM_DECLARATION))
+		{
+			collectAssignedRoles(configuration, ((BodyDeclaration) parent).getJavadoc(),
+					source, assignedThematicRoles);
+			parent = parent.getParent();
+		}
+		return selection;
+	}
+
+	/**
+	 * Finds the declaration of the <code>method</code> in the <code>ast</code>.
+	 * 
+	 * @return The {@link MethodDeclaration}, or <code>null</code> if the AST does not
+	 *         match the method (e.g. it is not yet reconciled).
+	 * @throws JavaModelException
+	 */
+	private static MethodDeclaration findMethodDeclaration(final CompilationUnit ast,
+			final IMethod method) throws JavaModelException
+	{
+		final ISourceRange nameRange = method.getNameRange();
+		if (nameRange == null || nameRange.getOffset() < 0)
+		{
+			return null;
+		}
+
+		ASTNode node = NodeFinder.perform(ast, nameRange.getOffset(),
+				nameRange.getLength());
+		while (node != null && node.getNodeType() != ASTNode.METHOD_DECLARATION)
+		{
+			node = node.getParent();
+		}
+
+		final MethodDeclaration methodDeclaration = (MethodDeclaration) node;
+		return methodDeclaration != null
+				&& methodDeclaration.getName().getStartPosition() == nameRange.getOffset()
+				&& methodDeclaration.getName().getIdentifier()
+						.equals(method.getElementName()) ? methodDeclaration : null;
+	}
+
+	/**
+	 * Adds the thematic roles documented in the <code>javadoc</code> to
+	 * <code>assignedThematicRoles</code>.
+	 * 
+	 * @param source
+	 *            The source which the AST of the <code>javadoc</code> was parsed from,
+	 *            or <code>null</code>.
+	 */
+	private void collectAssignedRoles(final Configuration configuration,
+			final Javadoc javadoc, final String source,
+			final Set<ThematicRole> assignedThematicRoles) throws Exception
+	{
+		if (javadoc != null)
+		{
+			final List<Documentation> parsedDocs = JavadocParseCache.INSTANCE
+					.lookup(configuration, javadoc, source).getDocumentations(null);
+			for (final Documentation doc : parsedDocs)
+			{
+				if (doc.getThematicRole() != null)
+				{
+					assignedThematicRoles.add(doc.getThematicRole());
+				}
+			}
+		}
+	}
+
 	/**
 	 * Collect assigned ThematicRoles from the method and it's parents (classes,
-	 * interfaces, enumerations) and find the reference ThematicGrid.
+	 * interfaces, enumerations) and find the reference ThematicGrid. The code snippets
+	 * of the method and its parents are parsed.
 	 * 
 	 * @param method
 	 *            [SOURCE]
@@ -138,11 +553,7 @@ public class JavaEditorSelectionListener implements ISelectionListener
 	private RecommendedGridsViewSelection prepareViewSelection(final IMethod method)
 			throws Exception
 	{
-		final AbsJavadocParser javadocParser = JavaParser.getJavadocParser();
-		final List<Addressee> addressees = ServiceManager.getInstance()
-				.getPersistenceService().loadConfiguredAddressees();
-		final List<ThematicRole> roles = ServiceManager.getInstance()
-				.getPersistenceService().loadThematicRoles();
+		final Configuration configuration = getConfiguration();
 
 		final RecommendedGridsViewSelection selection = new RecommendedGridsViewSelection();
 		selection.setOperationIdentifier(method.getElementName());
@@ -171,19 +582,10 @@ public class JavaEditorSelectionListener implements ISelectionListener
 				if (bodyDeclaration.getNodeType() == ASTNode.METHOD_DECLARATION
 						&& bodyDeclaration.getJavadoc() != null)
 				{
-					selection.setReferenceThematicGridName(javadocParser
+					selection.setReferenceThematicGridName(configuration.getParser()
 							.parseIDocItReferenceGrid(bodyDeclaration.getJavadoc()));
-
-					final List<Documentation> parsedDocs = javadocParser
-							.parseIDocItJavadoc(bodyDeclaration.getJavadoc(), addressees,
-									roles, null);
-					for (final Documentation doc : parsedDocs)
-					{
-						if (doc.getThematicRole() != null)
-						{
-							assignedThematicRoles.add(doc.getThematicRole());
-						}
-					}
+					collectAssignedRoles(configuration, bodyDeclaration.getJavadoc(),
+							methodSource, assignedThematicRoles);
 				}
 
 				/*
@@ -213,20 +615,11 @@ public class JavaEditorSelectionListener implements ISelectionListener
 							final BodyDeclaration bodyDecl = bodyDecls.get(0);
 
 							// process if it is a class, interface or enum and has Javadoc
-							if ((bodyDecl.getNodeType() == ASTNode.TYPE_DECLARATION || bodyDecl
-									.getNodeType() == ASTNode.ENUM_DECLARATION)
-									&& bodyDecl.getJavadoc() != null)
+							if (bodyDecl.getNodeType() == ASTNode.TYPE_DECLARATION
+									|| bodyDecl.getNodeType() == ASTNode.ENUM_DECLARATION)
 							{
-								final List<Documentation> parsedDocs = javadocParser
-										.parseIDocItJavadoc(bodyDecl.getJavadoc(),
-												addressees, roles, null);
-								for (final Documentation doc : parsedDocs)
-								{
-									if (doc.getThematicRole() != null)
-									{
-										assignedThematicRoles.add(doc.getThematicRole());
-									}
-								}
+								collectAssignedRoles(configuration, bodyDecl.getJavadoc(),
+										typeSource, assignedThematicRoles);
 							}
 						}
 
@@ -289,8 +682,8 @@ public class JavaEditorSelectionListener implements ISelectionListener
 		final ASTParser parser = ASTParser.newParser(AST.JLS3);
 		parser.setKind(codeSnippetKind);
 		parser.setSource(source);
-		parser.setResolveBindings(true);
-		parser.setBindingsRecovery(true);
-		return parser.createAST(Job.getJobManager().createProgressGroup());
+		// the Javadoc is read only, a snippet has no bindings
+		parser.setResolveBindings(false);
+		return parser.createAST(null);
 	}
 }
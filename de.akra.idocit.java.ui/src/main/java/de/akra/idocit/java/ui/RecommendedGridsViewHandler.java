@@ -15,7 +15,6 @@
  *******************************************************************************/
 package de.akra.idocit.java.ui;
 
-import org.eclipse.ui.ISelectionListener;
 import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWindowListener;
 import org.eclipse.ui.IWorkbenchWindow;
@@ -35,10 +34,11 @@ import de.akra.idocit.ui.components.RecommendedGridsViewSelection;
 public class RecommendedGridsViewHandler
 {
 	// Listeners
-	private ISelectionListener editorSelectionListener;
+	private JavaEditorSelectionListener editorSelectionListener;
 	private IWindowListener windowListener;
 	private IConfigurationChangeListener thematicGridConfigChangeListener;
 	private IConfigurationChangeListener thematicRoleConfigChangeListener;
+	private IConfigurationChangeListener addresseeConfigChangeListener;
 
 	/**
 	 * Initialize and start needed listeners to handle the {@link RecommendedGridsView}.
@@ -73,6 +73,8 @@ public class RecommendedGridsViewHandler
 				.removeThematicGridChangeListener(thematicGridConfigChangeListener);
 		ServiceManager.getInstance().getPersistenceService()
 				.removeThematicRoleChangeListener(thematicRoleConfigChangeListener);
+		ServiceManager.getInstance().getPersistenceService()
+				.removeAddresseChangeListener(addresseeConfigChangeListener);
 	}
 
 	private void addAllListener()
@@ -93,6 +95,8 @@ public class RecommendedGridsViewHandler
 				.addThematicGridChangeListener(thematicGridConfigChangeListener);
 		ServiceManager.getInstance().getPersistenceService()
 				.addThematicRoleChangeListener(thematicRoleConfigChangeListener);
+		ServiceManager.getInstance().getPersistenceService()
+				.addAddresseChangeListener(addresseeConfigChangeListener);
 	}
 
 	private void initListeners()
@@ -138,9 +142,20 @@ public class RecommendedGridsViewHandler
 			@Override
 			public void configurationChange()
 			{
+				// the cached assigned roles may refer to changed roles
+				editorSelectionListener.clearCaches();
 				updateAllViews();
 			}
 		};
+
+		addresseeConfigChangeListener = new IConfigurationChangeListener() {
+
+			@Override
+			public void configurationChange()
+			{
+				editorSelectionListener.clearCaches();
+			}
+		};
 	}
 
 	/**
@@ -22,4 +22,26 @@ public final class PreferenceStoreConstants
 	public static final String JAVADOC_GENERATION_MODE_COMPLEX = "complex";
 
 	public static final String JAVADOC_GENERATION_MODE_SIMPLE = "simple";
+
+	/**
+	 * If <code>true</code>, the AST is released after parsing and created again for
+	 * writing. Otherwise (also if not set) the parsed artifacts keep their AST.
+	 */
+	public static final String DETACH_ARTIFACTS = "de.akra.idocit.java.detachartifacts";
+
+	/**
+	 * If <code>true</code>, Java files are parsed without bindings and the data types of
+	 * the parameters are reflected on first access. The attributes of generic types then
+	 * keep their type variables. Otherwise (also if not set) the files are parsed with
+	 * bindings and the data types are reflected immediately.
+	 */
+	public static final String STRUCTURAL_PARSE = "de.akra.idocit.java.structuralparse";
+
+	/**
+	 * If <code>true</code>, the methods of large types are parsed in parallel. This
+	 * requires the structural mode (see {@link #STRUCTURAL_PARSE}), because the
+	 * bindings of an AST can not be resolved in parallel. Otherwise (also if not set)
+	 * they are parsed one after another.
+	 */
+	public static final String PARALLEL_PARSE = "de.akra.idocit.java.parallelparse";
 }
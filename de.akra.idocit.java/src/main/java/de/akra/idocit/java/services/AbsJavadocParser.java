@@ -38,6 +38,8 @@ import de.akra.idocit.core.utils.DescribedItemUtils;
 import de.akra.idocit.java.constants.CustomTaglets;
 import de.akra.idocit.java.exceptions.ParsingException;
 import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.utils.JavadocTagLexer;
+import de.akra.idocit.java.utils.JavadocTagLexer.TagKind;
 import de.akra.idocit.java.utils.JavadocUtils;
 
 public abstract class AbsJavadocParser
@@ -47,12 +49,8 @@ public abstract class AbsJavadocParser
 	 */
 	static Logger log = Logger.getLogger(AbsJavadocParser.class.getName());
 
-	static final String JAVADOC_TAG_PARAM = TagElement.TAG_PARAM + "\\s*";
-	static final String JAVADOC_TAG_RETURN = TagElement.TAG_RETURN + "\\s*";
-	static final String JAVADOC_TAG_THROWS = TagElement.TAG_THROWS + "\\s*";
 	static final String JAVADOC_TAG_THEMATICGRID = CustomTaglets.THEMATIC_GRID
 			.getTagName();
-	static final String JAVADOC_TAG_THEMATICGRID_PATTERN = JAVADOC_TAG_THEMATICGRID;
 
 	public static final String CONVERTED_JAVADOC_TAG_PARAM = "param";
 	public static final String CONVERTED_JAVADOC_TAG_RETURN = "return";
@@ -117,9 +115,8 @@ public abstract class AbsJavadocParser
 				{
 					TagElement docElement = (TagElement) javadocComments.get(i);
 
-					if ((docElement.getTagName() != null)
-							&& docElement.getTagName().matches(
-									JAVADOC_TAG_THEMATICGRID_PATTERN))
+					if (JavadocTagLexer.classify(docElement.getTagName()) ==
+							TagKind.THEMATIC_GRID)
 					{
 						return JavadocUtils.readFragments(docElement.fragments(), 0)
 								.trim();
@@ -168,20 +165,20 @@ public abstract class AbsJavadocParser
 			for (final TagElement tag : (List<TagElement>) javadoc.tags())
 			{
 				final Documentation doc = new Documentation();
+				final TagKind kind = JavadocTagLexer.classify(tag.getTagName());
 				String comment = null;
-				if (tag.getTagName() == null)
+				if (kind == TagKind.DESCRIPTION)
 				{
 					comment = JavadocUtils.readFragments((List<ASTNode>) tag.fragments(),
 							0);
 				}
-				else if (tag.getTagName().matches(JAVADOC_TAG_RETURN))
+				else if (kind == TagKind.RETURN)
 				{
 					comment = JavadocUtils.readFragments((List<ASTNode>) tag.fragments(),
 							0).trim();
 					doc.setSignatureElementIdentifier(CONVERTED_JAVADOC_TAG_RETURN);
 				}
-				else if (tag.getTagName().matches(JAVADOC_TAG_PARAM)
-						|| tag.getTagName().matches(JAVADOC_TAG_THROWS))
+				else if (kind == TagKind.PARAM || kind == TagKind.THROWS)
 				{
 					comment = JavadocUtils.readFragments((List<ASTNode>) tag.fragments(),
 							1);
@@ -190,7 +187,7 @@ public abstract class AbsJavadocParser
 					{
 						final SimpleName name = (SimpleName) paramName;
 						String identifier = null;
-						if (tag.getTagName().matches(JAVADOC_TAG_PARAM))
+						if (kind == TagKind.PARAM)
 						{
 							identifier = CONVERTED_JAVADOC_TAG_PARAM
 									+ JavaParser.delimiters.getPathDelimiter()
@@ -274,12 +271,12 @@ public abstract class AbsJavadocParser
 		StringBuffer html = new StringBuffer();
 		for (TagElement tag : (List<TagElement>) javadoc.tags())
 		{
-			if (tag.getTagName() == null || tag.getTagName().matches(JAVADOC_TAG_RETURN))
+			final TagKind kind = JavadocTagLexer.classify(tag.getTagName());
+			if (kind == TagKind.DESCRIPTION || kind == TagKind.RETURN)
 			{
 				html.append(JavadocUtils.readFragments((List<ASTNode>) tag.fragments(), 0));
 			}
-			else if (tag.getTagName().matches(JAVADOC_TAG_PARAM)
-					|| tag.getTagName().matches(JAVADOC_TAG_THROWS))
+			else if (kind == TagKind.PARAM || kind == TagKind.THROWS)
 			{
 				html.append(JavadocUtils.readFragments((List<ASTNode>) tag.fragments(), 1));
 			}
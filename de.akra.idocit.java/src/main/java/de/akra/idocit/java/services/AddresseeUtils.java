@@ -59,7 +59,7 @@ public class AddresseeUtils
 		{
 			for (Documentation documentation : documentations)
 			{
-				Map<Addressee, String> addresseeDocs = documentation.getDocumentation();
+				Map<Addressee, String> addresseeDocs = documentation.getDocumentationView();
 
 				if (addresseeDocs != null)
 				{
@@ -37,6 +37,8 @@ import org.xml.sax.SAXException;
 import org.xml.sax.ext.DefaultHandler2;
 
 import de.akra.idocit.common.constants.Misc;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.Documentation;
 import de.akra.idocit.common.structure.ThematicRole;
@@ -48,7 +50,7 @@ import de.akra.idocit.java.utils.JavadocUtils;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.4
  * 
  */
 public class HTMLTableParser
@@ -63,7 +65,8 @@ public class HTMLTableParser
 	 */
 	private static Logger logger = Logger.getLogger(HTMLTableParser.class.getName());
 
-	private static final HTMLTableHandler handler = new HTMLTableHandler();
+	private static final Timer CONVERSION_TIMER = Metrics
+			.timer("javadoc.htmlTable.convert");
 
 	/**
 	 * Parse the <code>html</code> String and converts each iDocIt! comment table into a
@@ -81,6 +84,20 @@ public class HTMLTableParser
 	 */
 	public static List<Documentation> convertJavadocToDocumentations(String html)
 			throws SAXException, IOException, ParserConfigurationException
+	{
+		final long start = CONVERSION_TIMER.start();
+		try
+		{
+			return parseDocumentations(html);
+		}
+		finally
+		{
+			CONVERSION_TIMER.stop(start);
+		}
+	}
+
+	private static List<Documentation> parseDocumentations(String html)
+			throws SAXException, IOException, ParserConfigurationException
 	{
 		StringBuilder xml = new StringBuilder(JavadocUtils.XML_HEADER.length()
 				+ JavadocUtils.XML_ROOT_START.length() + html.length()
@@ -91,14 +108,14 @@ public class HTMLTableParser
 		SAXParserFactory factory = SAXParserFactory.newInstance();
 		SAXParser saxParser = factory.newSAXParser();
 
+		// a handler per call, the methods of a type may be parsed in parallel
+		final HTMLTableHandler handler = new HTMLTableHandler();
 		handler.setDtdInputSources(readDTDs());
 		saxParser.parse(
 				new ByteArrayInputStream(xml.toString()
 						.getBytes(Charset.forName(Misc.DEFAULT_CHARSET))), handler);
 
-		List<Documentation> documentations = handler.getDocumentations();
-		handler.reset();
-		return documentations;
+		return handler.getDocumentations();
 	}
 
 	/**
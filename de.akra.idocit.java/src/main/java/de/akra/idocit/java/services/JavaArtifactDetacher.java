@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import de.akra.idocit.common.structure.Interface;
+import de.akra.idocit.common.structure.Operation;
+import de.akra.idocit.java.exceptions.ParsingException;
+import de.akra.idocit.java.structure.JavaInterface;
+import de.akra.idocit.java.structure.JavaInterfaceArtifact;
+import de.akra.idocit.java.structure.JavaMethod;
+
+/**
+ * Detaches a {@link JavaInterfaceArtifact} from the AST it was parsed from, and
+ * attaches it to a new AST to write it.
+ * <p>
+ * The AST of the parser has resolved bindings, which hold the binding environment of
+ * the whole project in memory. A detached artifact only keeps the start position of
+ * the name and a key of each declaration. The additional Javadoc tags are copied to a
+ * small AST without bindings. To write the artifact, the original source is parsed
+ * again without bindings and the declarations are found by their positions.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see JavaInterfaceArtifact#isDetached()
+ */
+final class JavaArtifactDetacher
+{
+	/**
+	 * Private constructor, only static methods.
+	 */
+	private JavaArtifactDetacher()
+	{}
+
+	/**
+	 * Releases all references from <code>artifact</code> into its AST.
+	 *
+	 * @param artifact
+	 *            [OBJECT] The artifact to detach. It may already be detached, e.g. after
+	 *            it was attached for writing.
+	 * @thematicgrid Putting Operations
+	 */
+	static void detach(final JavaInterfaceArtifact artifact)
+	{
+		final ICompilationUnit workingCopy = artifact.getWorkingCopy();
+		detachInterfaces(artifact.getInterfaces(), AST.newAST(AST.JLS3));
+		artifact.setWorkingCopy(workingCopy);
+		artifact.setCompilationUnit(null);
+	}
+
+	/**
+	 * Parses the original source of the detached <code>artifact</code> without
+	 * bindings and sets the references of its {@link JavaInterface}s and
+	 * {@link JavaMethod}s to the new AST. Modifications of the new AST are recorded.
+	 *
+	 * @param artifact
+	 *            [OBJECT] The detached artifact.
+	 * @return [OBJECT] The new {@link CompilationUnit}. It is not set to the artifact.
+	 * @throws ParsingException
+	 *             If a declaration of the artifact is not found in the new AST.
+	 * @thematicgrid Creating Operations
+	 */
+	static CompilationUnit attach(final JavaInterfaceArtifact artifact)
+			throws ParsingException
+	{
+		final ASTParser parser = ASTParser.newParser(AST.JLS3);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setProject(artifact.getWorkingCopy().getJavaProject());
+		parser.setSource(artifact.getOriginalDocument().toCharArray());
+		parser.setResolveBindings(false);
+		final CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+		unit.recordModifications();
+
+		final Map<Integer, BodyDeclaration> declarations = new HashMap<Integer, BodyDeclaration>();
+		unit.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(final TypeDeclaration node)
+			{
+				declarations.put(Integer.valueOf(node.getName().getStartPosition()),
+						node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(final EnumDeclaration node)
+			{
+				declarations.put(Integer.valueOf(node.getName().getStartPosition()),
+						node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(final MethodDeclaration node)
+			{
+				declarations.put(Integer.valueOf(node.getName().getStartPosition()),
+						node);
+				// the parser does not process types declared in method bodies
+				return false;
+			}
+		});
+
+		attachInterfaces(artifact.getInterfaces(), declarations, unit.getAST());
+		return unit;
+	}
+
+	private static void detachInterfaces(final List<? extends Interface> interfaces,
+			final AST detachedAST)
+	{
+		if (interfaces == null)
+		{
+			return;
+		}
+
+		for (final Interface anInterface : interfaces)
+		{
+			final JavaInterface jInterface = (JavaInterface) anInterface;
+			final AbstractTypeDeclaration typeDeclaration = jInterface.getRefToASTNode();
+			if (typeDeclaration != null)
+			{
+				jInterface.setNameStartPosition(typeDeclaration.getName()
+						.getStartPosition());
+				jInterface.setNodeKey(createKey(typeDeclaration));
+				jInterface.setRefToASTNode(null);
+			}
+			jInterface.setAdditionalTags(copyTags(jInterface.getAdditionalTags(),
+					detachedAST));
+
+			if (jInterface.getOperations() != null)
+			{
+				for (final Operation operation : jInterface.getOperations())
+				{
+					final JavaMethod method = (JavaMethod) operation;
+					final MethodDeclaration methodDeclaration = method.getRefToASTNode();
+					if (methodDeclaration != null)
+					{
+						method.setNameStartPosition(methodDeclaration.getName()
+								.getStartPosition());
+						method.setNodeKey(createKey(methodDeclaration));
+						method.setRefToASTNode(null);
+					}
+					method.setAdditionalTags(copyTags(method.getAdditionalTags(),
+							detachedAST));
+				}
+			}
+
+			detachInterfaces(jInterface.getInnerInterfaces(), detachedAST);
+		}
+	}
+
+	private static void attachInterfaces(final List<? extends Interface> interfaces,
+			final Map<Integer, BodyDeclaration> declarations, final AST ast)
+			throws ParsingException
+	{
+		if (interfaces == null)
+		{
+			return;
+		}
+
+		for (final Interface anInterface : interfaces)
+		{
+			final JavaInterface jInterface = (JavaInterface) anInterface;
+			final BodyDeclaration typeDeclaration = declarations.get(Integer
+					.valueOf(jInterface.getNameStartPosition()));
+			if (!(typeDeclaration instanceof AbstractTypeDeclaration)
+					|| !jInterface.getNodeKey().equals(
+							createKey((AbstractTypeDeclaration) typeDeclaration)))
+			{
+				throw new ParsingException("The declaration of "
+						+ jInterface.getQualifiedIdentifier()
+						+ " is not found in the source.");
+			}
+			jInterface.setRefToASTNode((AbstractTypeDeclaration) typeDeclaration);
+			jInterface.setAdditionalTags(copyTags(jInterface.getAdditionalTags(), ast));
+
+			if (jInterface.getOperations() != null)
+			{
+				for (final Operation operation : jInterface.getOperations())
+				{
+					final JavaMethod method = (JavaMethod) operation;
+					final BodyDeclaration methodDeclaration = declarations.get(Integer
+							.valueOf(method.getNameStartPosition()));
+					if (!(methodDeclaration instanceof MethodDeclaration)
+							|| !method.getNodeKey().equals(
+									createKey((MethodDeclaration) methodDeclaration)))
+					{
+						throw new ParsingException("The declaration of "
+								+ method.getQualifiedIdentifier()
+								+ " is not found in the source.");
+					}
+					method.setRefToASTNode((MethodDeclaration) methodDeclaration);
+					method.setAdditionalTags(copyTags(method.getAdditionalTags(), ast));
+				}
+			}
+
+			attachInterfaces(jInterface.getInnerInterfaces(), declarations, ast);
+		}
+	}
+
+	/**
+	 * Copies the <code>tags</code> into the <code>targetAST</code>.
+	 */
+	private static List<TagElement> copyTags(final List<TagElement> tags,
+			final AST targetAST)
+	{
+		if (tags == null || tags.isEmpty())
+		{
+			return tags;
+		}
+
+		final List<TagElement> copies = new ArrayList<TagElement>(tags.size());
+		for (final TagElement tag : tags)
+		{
+			copies.add((TagElement) ASTNode.copySubtree(targetAST, tag));
+		}
+		return copies;
+	}
+
+	/**
+	 * @return The key of a type declaration, e.g. <code>"Customer"</code>.
+	 */
+	private static String createKey(final AbstractTypeDeclaration typeDeclaration)
+	{
+		return typeDeclaration.getName().getIdentifier();
+	}
+
+	/**
+	 * @return The key of a method declaration, e.g.
+	 *         <code>"findCustomer(String,int[])"</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	private static String createKey(final MethodDeclaration methodDeclaration)
+	{
+		final StringBuilder key = new StringBuilder(methodDeclaration.getName()
+				.getIdentifier());
+		key.append('(');
+		boolean first = true;
+		for (final SingleVariableDeclaration parameter : (List<SingleVariableDeclaration>) methodDeclaration
+				.parameters())
+		{
+			if (!first)
+			{
+				key.append(',');
+			}
+			key.append(parameter.getType().toString());
+			for (int i = 0; i < parameter.getExtraDimensions(); i++)
+			{
+				key.append("[]");
+			}
+			if (parameter.isVarargs())
+			{
+				key.append("...");
+			}
+			first = false;
+		}
+		key.append(')');
+		return key.toString();
+	}
+}
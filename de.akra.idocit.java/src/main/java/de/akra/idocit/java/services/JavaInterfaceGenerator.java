@@ -376,11 +376,29 @@ public class JavaInterfaceGenerator
 			newJavadoc.tags().clear();
 		}
 
-		for (JavadocTagElement tagElement : javadocTagElements)
+		if (javadocGenerator instanceof SimpleJavadocGenerator)
 		{
-			javadocGenerator.appendDocsToJavadoc(tagElement.getDocumentations(),
-					tagElement.getTagName(), tagElement.getParameterName(),
-					thematicGridName, newJavadoc, additionalTags, method);
+			// the additional tags are indexed once for all tags of the Javadoc
+			final SimpleJavadocGenerator simpleGenerator = (SimpleJavadocGenerator) javadocGenerator;
+			final SimpleJavadocGenerator.AdditionalTagIndex additionalTagIndex = new SimpleJavadocGenerator.AdditionalTagIndex(
+					additionalTags);
+
+			for (JavadocTagElement tagElement : javadocTagElements)
+			{
+				simpleGenerator.appendDocsToJavadoc(tagElement.getDocumentations(),
+						tagElement.getTagName(), tagElement.getParameterName(),
+						thematicGridName, newJavadoc, additionalTags,
+						additionalTagIndex, method);
+			}
+		}
+		else
+		{
+			for (JavadocTagElement tagElement : javadocTagElements)
+			{
+				javadocGenerator.appendDocsToJavadoc(tagElement.getDocumentations(),
+						tagElement.getTagName(), tagElement.getParameterName(),
+						thematicGridName, newJavadoc, additionalTags, method);
+			}
 		}
 
 		newJavadoc.tags().addAll(additionalTags);
@@ -16,16 +16,25 @@
 package de.akra.idocit.java.services;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
@@ -46,7 +55,6 @@ import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.xml.sax.SAXException;
 
 import de.akra.idocit.common.constants.ThematicGridConstants;
-import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.Delimiters;
 import de.akra.idocit.common.structure.Documentation;
 import de.akra.idocit.common.structure.Interface;
@@ -56,12 +64,14 @@ import de.akra.idocit.common.structure.Operation;
 import de.akra.idocit.common.structure.Parameter;
 import de.akra.idocit.common.structure.Parameters;
 import de.akra.idocit.common.structure.SignatureElement;
-import de.akra.idocit.common.structure.ThematicRole;
 import de.akra.idocit.common.utils.SignatureElementUtils;
 import de.akra.idocit.common.utils.StringUtils;
+import de.akra.idocit.core.services.PersistenceService;
 import de.akra.idocit.core.services.impl.ServiceManager;
 import de.akra.idocit.java.constants.Constants;
 import de.akra.idocit.java.exceptions.ParsingException;
+import de.akra.idocit.java.services.JavadocParseCache.Configuration;
+import de.akra.idocit.java.services.JavadocParseCache.ParsedJavadoc;
 import de.akra.idocit.java.structure.JavaInterface;
 import de.akra.idocit.java.structure.JavaInterfaceArtifact;
 import de.akra.idocit.java.structure.JavaMethod;
@@ -72,10 +82,25 @@ import de.akra.idocit.java.utils.JavadocUtils;
 /**
  * The parser parses Java Interfaces, Classes and Enumerations and maps the structure to
  * the iDocIt structure.
+ * <p>
+ * If the {@link CompilationUnit} was parsed without bindings, the data types of the
+ * parameters are named with the Java model and reflected on first access (see
+ * {@link StructuralTypeResolver}).
+ * </p>
+ * <p>
+ * If an executor is set (see {@link #setMethodExecutor(ExecutorService)}) and the
+ * {@link CompilationUnit} has no bindings, the methods of a type with many methods are
+ * processed in parallel. The methods are independent of each other, they only read the
+ * AST and share the thread-safe {@link StructuralTypeResolver} of their type. They are
+ * added to the type in the order of their declaration. The bindings of a JDT AST are
+ * resolved lazily by a binding resolver and lookup environment of the AST, which are
+ * not thread-safe, so the methods of an AST with bindings are always processed in the
+ * calling thread.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.3
  * 
  */
 public class JavaInterfaceParser
@@ -85,6 +110,11 @@ public class JavaInterfaceParser
 	 */
 	private static Logger logger = Logger.getLogger(JavaInterfaceParser.class.getName());
 
+	/**
+	 * The minimum number of method declarations of a type to process them in parallel.
+	 */
+	private static final int MIN_PARALLEL_METHODS = 8;
+
 	/**
 	 * Copy of the abstract syntax tree (AST) of the artifact.
 	 */
@@ -101,9 +131,23 @@ public class JavaInterfaceParser
 	private Delimiters delimiters;
 
 	/**
-	 * Helper to traverse the data type structure.
+	 * The source of the {@link #compilationUnit} while it is parsed. The comments are
+	 * looked up in the {@link JavadocParseCache} by their source.
+	 */
+	private String source = null;
+
+	/**
+	 * The resolvers of the data types by the declaring types, if the
+	 * {@link #compilationUnit} has no bindings. Otherwise <code>null</code>. Guarded
+	 * by this parser.
 	 */
-	private ReflectionHelper reflectionHelper;
+	private Map<AbstractTypeDeclaration, StructuralTypeResolver> typeResolvers;
+
+	/**
+	 * The executor which processes the methods in parallel, or <code>null</code> to
+	 * process them in the calling thread.
+	 */
+	private ExecutorService methodExecutor = null;
 
 	/**
 	 * Constructor.
@@ -121,7 +165,75 @@ public class JavaInterfaceParser
 		this.compilationUnit = compilationUnit;
 		this.artifactName = artifactName;
 		this.delimiters = delimiters;
-		this.reflectionHelper = new ReflectionHelper();
+		if (!compilationUnit.getAST().hasResolvedBindings())
+		{
+			this.typeResolvers = new HashMap<AbstractTypeDeclaration, StructuralTypeResolver>();
+		}
+	}
+
+	/**
+	 * Sets the executor which processes the methods of the types with many methods in
+	 * parallel, if the AST has no bindings. The AST must not be changed while the
+	 * artifact is parsed.
+	 * 
+	 * @param methodExecutor
+	 *            [OBJECT] The executor, or <code>null</code> to process the methods in
+	 *            the calling thread (default).
+	 * @thematicgrid Setting Operation / Setter
+	 */
+	public void setMethodExecutor(final ExecutorService methodExecutor)
+	{
+		this.methodExecutor = methodExecutor;
+	}
+
+	/**
+	 * Returns the {@link StructuralTypeResolver} for the type which declares the
+	 * <code>methodDeclaration</code>.
+	 * 
+	 * @param methodDeclaration
+	 *            [SOURCE]
+	 * @return [OBJECT] The resolver, or <code>null</code> if the
+	 *         {@link #compilationUnit} has bindings.
+	 * @thematicgrid Getting Operations
+	 */
+	private synchronized StructuralTypeResolver getTypeResolver(
+			final MethodDeclaration methodDeclaration)
+	{
+		if (typeResolvers == null
+				|| !(methodDeclaration.getParent() instanceof AbstractTypeDeclaration))
+		{
+			return null;
+		}
+
+		final AbstractTypeDeclaration typeDeclaration = (AbstractTypeDeclaration) methodDeclaration
+				.getParent();
+		StructuralTypeResolver typeResolver = typeResolvers.get(typeDeclaration);
+		if (typeResolver == null)
+		{
+			IType declaringType = null;
+			final ICompilationUnit cu = (ICompilationUnit) compilationUnit
+					.getJavaElement();
+			if (cu != null)
+			{
+				try
+				{
+					final IJavaElement element = cu.getElementAt(typeDeclaration
+							.getName().getStartPosition());
+					if (element instanceof IType)
+					{
+						declaringType = (IType) element;
+					}
+				}
+				catch (final JavaModelException e)
+				{
+					logger.log(Level.WARNING, "Could not find the type "
+							+ typeDeclaration.getName().getIdentifier(), e);
+				}
+			}
+			typeResolver = new StructuralTypeResolver(declaringType, delimiters);
+			typeResolvers.put(typeDeclaration, typeResolver);
+		}
+		return typeResolver;
 	}
 
 	/**
@@ -139,11 +251,19 @@ public class JavaInterfaceParser
 			throws JavaModelException, SAXException, IOException,
 			ParserConfigurationException, ParsingException
 	{
-		final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) processCompilationUnit(
-				SignatureElement.EMPTY_SIGNATURE_ELEMENT, compilationUnit, parser);
-
 		final ICompilationUnit cu = (ICompilationUnit) compilationUnit.getJavaElement();
-		artifact.setOriginalDocument(cu.getSource());
+		source = cu.getSource();
+
+		// the configuration is hashed once for all comments of the compilation unit
+		final PersistenceService persistenceService = ServiceManager.getInstance()
+				.getPersistenceService();
+		final Configuration configuration = JavadocParseCache.configure(parser,
+				persistenceService.loadConfiguredAddressees(),
+				persistenceService.loadThematicRoles());
+
+		final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) processCompilationUnit(
+				SignatureElement.EMPTY_SIGNATURE_ELEMENT, compilationUnit, configuration);
+		artifact.setOriginalDocument(source);
 
 		return artifact;
 	}
@@ -156,13 +276,15 @@ public class JavaInterfaceParser
 	 *            The parent {@link SignatureElement}.
 	 * @param compilationUnit
 	 *            The {@link CompilationUnit} to process.
+	 * @param configuration
+	 *            The parser and the configuration of the Javadoc.
 	 * @return a new {@link JavaInterfaceArtifact}.
 	 * @throws ParserConfigurationException
 	 * @throws IOException
 	 * @throws SAXException
 	 */
 	private JavaInterfaceArtifact processCompilationUnit(final SignatureElement parent,
-			final CompilationUnit compilationUnit, final AbsJavadocParser parser)
+			final CompilationUnit compilationUnit, final Configuration configuration)
 			throws SAXException, IOException, ParserConfigurationException,
 			ParsingException
 	{
@@ -188,14 +310,14 @@ public class JavaInterfaceParser
 					{
 						final TypeDeclaration typeDec = (TypeDeclaration) type;
 						interfaces.add((Interface) processTypeDeclaration(artifact,
-								typeDec, parser));
+								typeDec, configuration));
 						break;
 					}
 					case ASTNode.ENUM_DECLARATION:
 					{
 						final EnumDeclaration enumDec = (EnumDeclaration) type;
 						interfaces.add((Interface) processEnumDeclaration(artifact,
-								enumDec, parser));
+								enumDec, configuration));
 						break;
 					}
 					default:
@@ -219,19 +341,21 @@ public class JavaInterfaceParser
 	 *            The parent {@link SignatureElement}.
 	 * @param typeDeclaration
 	 *            The {@link TypeDeclaration} to process.
+	 * @param configuration
+	 *            The parser and the configuration of the Javadoc.
 	 * @return a new {@link JavaInterface}.
 	 * @throws ParserConfigurationException
 	 * @throws IOException
 	 * @throws SAXException
 	 */
 	private JavaInterface processTypeDeclaration(final SignatureElement parent,
-			final TypeDeclaration typeDeclaration, final AbsJavadocParser parser)
+			final TypeDeclaration typeDeclaration, final Configuration configuration)
 			throws SAXException, IOException, ParserConfigurationException,
 			ParsingException
 	{
 		return processAbstractTypeDeclaration(parent, typeDeclaration,
 				typeDeclaration.isInterface() ? Constants.CATEGORY_INTERFACE
-						: Constants.CATEGORY_CLASS, parser);
+						: Constants.CATEGORY_CLASS, configuration);
 	}
 
 	/**
@@ -241,18 +365,20 @@ public class JavaInterfaceParser
 	 *            The parent {@link SignatureElement}.
 	 * @param enumDeclaration
 	 *            The {@link EnumDeclaration} to process.
+	 * @param configuration
+	 *            The parser and the configuration of the Javadoc.
 	 * @return a new {@link JavaInterface}.
 	 * @throws ParserConfigurationException
 	 * @throws IOException
 	 * @throws SAXException
 	 */
 	private JavaInterface processEnumDeclaration(final SignatureElement parent,
-			final EnumDeclaration enumDeclaration, final AbsJavadocParser parser)
+			final EnumDeclaration enumDeclaration, final Configuration configuration)
 			throws SAXException, IOException, ParserConfigurationException,
 			ParsingException
 	{
 		return processAbstractTypeDeclaration(parent, enumDeclaration,
-				Constants.CATEGORY_ENUM, parser);
+				Constants.CATEGORY_ENUM, configuration);
 	}
 
 	/**
@@ -264,6 +390,8 @@ public class JavaInterfaceParser
 	 *            The {@link AbstractTypeDeclaration} to process.
 	 * @param category
 	 *            The category for the {@link JavaInterface}.
+	 * @param configuration
+	 *            The parser and the configuration of the Javadoc.
 	 * @return a new {@link JavaInterface}.
 	 * @throws ParserConfigurationException
 	 * @throws IOException
@@ -272,7 +400,7 @@ public class JavaInterfaceParser
 	 */
 	private JavaInterface processAbstractTypeDeclaration(final SignatureElement parent,
 			final AbstractTypeDeclaration absTypeDeclaration, final String category,
-			final AbsJavadocParser parser) throws SAXException, IOException,
+			final Configuration configuration) throws SAXException, IOException,
 			ParserConfigurationException, ParsingException
 	{
 		final JavaInterface jInterface = new JavaInterface(parent, category,
@@ -283,23 +411,16 @@ public class JavaInterfaceParser
 		jInterface.setRefToASTNode(absTypeDeclaration);
 
 		final Javadoc javadoc = absTypeDeclaration.getJavadoc();
-		final List<Addressee> addressees = ServiceManager.getInstance()
-				.getPersistenceService().loadConfiguredAddressees();
-		final List<ThematicRole> roles = ServiceManager.getInstance()
-				.getPersistenceService().loadThematicRoles();
-		List<Documentation> docs = parser.parseIDocItJavadoc(javadoc, addressees, roles,
-				null);
+		final ParsedJavadoc parsedJavadoc = JavadocParseCache.INSTANCE.lookup(
+				configuration, javadoc, source);
+		List<Documentation> docs = parsedJavadoc.getDocumentations(null);
 		if (docs.isEmpty())
 		{
-			docs = parser.convertExistingJavadoc(javadoc);
+			docs = configuration.getParser().convertExistingJavadoc(javadoc);
 		}
 		jInterface.setDocumentations(docs);
 
-		final List<ThematicRole> knownRoles = ServiceManager.getInstance()
-				.getPersistenceService().loadThematicRoles();
-
-		final List<TagElement> additionalTags = parser.findAdditionalTags(javadoc,
-				knownRoles);
+		final List<TagElement> additionalTags = parsedJavadoc.getAdditionalTags();
 		jInterface.setAdditionalTags(additionalTags);
 
 		@SuppressWarnings("unchecked")
@@ -309,57 +430,89 @@ public class JavaInterfaceParser
 		List<Interface> innerInterface = Collections.emptyList();
 		List<Operation> operations = Collections.emptyList();
 
-		for (final BodyDeclaration bodyDec : bodyDeclarations)
+		// the methods processed by the executor, in the order of their declaration
+		final List<Future<JavaMethod>> pendingMethods = isParallel(bodyDeclarations) ? new ArrayList<Future<JavaMethod>>(
+				bodyDeclarations.size()) : null;
+		try
 		{
-			// only public elements are processed. In Java interfaces everything is
-			// public.
-			if (ReflectionHelper.isPublic(bodyDec.getModifiers())
-					|| Constants.CATEGORY_INTERFACE.equals(category))
+			for (final BodyDeclaration bodyDec : bodyDeclarations)
 			{
-				switch (bodyDec.getNodeType())
-				{
-				case ASTNode.TYPE_DECLARATION:
+				// only public elements are processed. In Java interfaces everything is
+				// public.
+				if (ReflectionHelper.isPublic(bodyDec.getModifiers())
+						|| Constants.CATEGORY_INTERFACE.equals(category))
 				{
-					if (innerInterface == Collections.EMPTY_LIST)
+					switch (bodyDec.getNodeType())
+					{
+					case ASTNode.TYPE_DECLARATION:
 					{
-						innerInterface = new ArrayList<Interface>(
-								SignatureElement.DEFAULT_ARRAY_SIZE);
+						if (innerInterface == Collections.EMPTY_LIST)
+						{
+							innerInterface = new ArrayList<Interface>(
+									SignatureElement.DEFAULT_ARRAY_SIZE);
+						}
+						final TypeDeclaration typeDec = (TypeDeclaration) bodyDec;
+						innerInterface
+								.add(processTypeDeclaration(jInterface, typeDec,
+										configuration));
+						break;
 					}
-					final TypeDeclaration typeDec = (TypeDeclaration) bodyDec;
-					innerInterface
-							.add(processTypeDeclaration(jInterface, typeDec, parser));
-					break;
-				}
-				case ASTNode.ENUM_DECLARATION:
-				{
-					if (innerInterface == Collections.EMPTY_LIST)
+					case ASTNode.ENUM_DECLARATION:
+					{
+						if (innerInterface == Collections.EMPTY_LIST)
+						{
+							innerInterface = new ArrayList<Interface>(
+									SignatureElement.DEFAULT_ARRAY_SIZE);
+						}
+						final EnumDeclaration enumDec = (EnumDeclaration) bodyDec;
+						innerInterface
+								.add(processEnumDeclaration(jInterface, enumDec,
+										configuration));
+						break;
+					}
+					case ASTNode.METHOD_DECLARATION:
 					{
-						innerInterface = new ArrayList<Interface>(
-								SignatureElement.DEFAULT_ARRAY_SIZE);
+						if (operations == Collections.EMPTY_LIST)
+						{
+							// init with number of all declarations for fields, methods,
+							// enumerations, classes etc. to avoid resizing of the array
+							operations = new ArrayList<Operation>(bodyDeclarations.size());
+						}
+						final MethodDeclaration methodDec = (MethodDeclaration) bodyDec;
+						if (pendingMethods != null)
+						{
+							pendingMethods.add(submitMethodDeclaration(jInterface,
+									methodDec, configuration));
+						}
+						else
+						{
+							operations.add(processMethodDeclaration(jInterface, methodDec,
+									configuration));
+						}
+						break;
 					}
-					final EnumDeclaration enumDec = (EnumDeclaration) bodyDec;
-					innerInterface
-							.add(processEnumDeclaration(jInterface, enumDec, parser));
-					break;
-				}
-				case ASTNode.METHOD_DECLARATION:
-				{
-					if (operations == Collections.EMPTY_LIST)
+					default:
 					{
-						// init with number of all declarations for fields, methods,
-						// enumerations, classes etc. to avoid resizing of the array
-						operations = new ArrayList<Operation>(bodyDeclarations.size());
+						// Do nothing!
+						logger.info("Nodetype of ASTNode is " + bodyDec.getNodeType());
+					}
 					}
-					final MethodDeclaration methodDec = (MethodDeclaration) bodyDec;
-					operations.add(processMethodDeclaration(jInterface, methodDec,
-							parser, knownRoles));
-					break;
 				}
-				default:
+			}
+
+			if (pendingMethods != null)
+			{
+				awaitMethods(pendingMethods, operations);
+			}
+		}
+		finally
+		{
+			if (pendingMethods != null)
+			{
+				// stop the remaining methods, if a declaration could not be processed
+				for (final Future<JavaMethod> pendingMethod : pendingMethods)
 				{
-					// Do nothing!
-					logger.info("Nodetype of ASTNode is " + bodyDec.getNodeType());
-				}
+					pendingMethod.cancel(false);
 				}
 			}
 		}
@@ -369,23 +522,129 @@ public class JavaInterfaceParser
 		return jInterface;
 	}
 
+	/**
+	 * @return <code>true</code> if an executor is set, the {@link #compilationUnit} has
+	 *         no bindings and the <code>declarations</code> contain enough methods to
+	 *         process them in parallel.
+	 */
+	private boolean isParallel(final List<BodyDeclaration> declarations)
+	{
+		// bindings are resolved lazily and not thread-safe
+		if (methodExecutor == null || typeResolvers == null
+				|| declarations.size() < MIN_PARALLEL_METHODS)
+		{
+			return false;
+		}
+
+		int methodCount = 0;
+		for (final BodyDeclaration declaration : declarations)
+		{
+			if (declaration.getNodeType() == ASTNode.METHOD_DECLARATION)
+			{
+				methodCount++;
+			}
+		}
+		return methodCount >= MIN_PARALLEL_METHODS;
+	}
+
+	/**
+	 * Submits the processing of the <code>methodDeclaration</code> to the
+	 * {@link #methodExecutor}.
+	 * 
+	 * @return The pending {@link JavaMethod}.
+	 * @see #processMethodDeclaration(SignatureElement, MethodDeclaration,
+	 *      Configuration)
+	 */
+	private Future<JavaMethod> submitMethodDeclaration(final SignatureElement parent,
+			final MethodDeclaration methodDeclaration, final Configuration configuration)
+	{
+		return methodExecutor.submit(new Callable<JavaMethod>() {
+			@Override
+			public JavaMethod call() throws Exception
+			{
+				return processMethodDeclaration(parent, methodDeclaration,
+						configuration);
+			}
+		});
+	}
+
+	/**
+	 * Waits for the <code>pendingMethods</code> and adds them to the
+	 * <code>operations</code> in their order. The exception of the first failed method
+	 * is thrown.
+	 * 
+	 * @throws InterruptedIOException
+	 *             If the thread was interrupted while waiting.
+	 */
+	private static void awaitMethods(final List<Future<JavaMethod>> pendingMethods,
+			final List<Operation> operations) throws SAXException, IOException,
+			ParserConfigurationException, ParsingException
+	{
+		for (final Future<JavaMethod> pendingMethod : pendingMethods)
+		{
+			try
+			{
+				operations.add(pendingMethod.get());
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(
+						"Interrupted while waiting for the parsed methods.");
+			}
+			catch (final ExecutionException e)
+			{
+				final Throwable cause = e.getCause();
+				if (cause instanceof SAXException)
+				{
+					throw (SAXException) cause;
+				}
+				else if (cause instanceof IOException)
+				{
+					throw (IOException) cause;
+				}
+				else if (cause instanceof ParserConfigurationException)
+				{
+					throw (ParserConfigurationException) cause;
+				}
+				else if (cause instanceof ParsingException)
+				{
+					throw (ParsingException) cause;
+				}
+				else if (cause instanceof RuntimeException)
+				{
+					throw (RuntimeException) cause;
+				}
+				else if (cause instanceof Error)
+				{
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
 	/**
 	 * Converts a {@link MethodDeclaration} to a {@link JavaMethod}. If there exists no
 	 * parameters, return value or thrown exceptions they are set to <code>null</code>.
+	 * The method may be called in parallel for different declarations, if the
+	 * {@link #compilationUnit} has no bindings.
 	 * 
 	 * @param parent
 	 *            The parent {@link SignatureElement}.
 	 * @param methodDeclaration
 	 *            The {@link MethodDeclaration} to process.
+	 * @param configuration
+	 *            The parser and the configuration of the Javadoc.
 	 * @return a new {@link JavaMethod}.
 	 * @throws ParserConfigurationException
 	 * @throws IOException
 	 * @throws SAXException
 	 */
 	private JavaMethod processMethodDeclaration(final SignatureElement parent,
-			final MethodDeclaration methodDeclaration, final AbsJavadocParser parser,
-			final List<ThematicRole> knownRoles) throws SAXException, IOException,
-			ParserConfigurationException, ParsingException
+			final MethodDeclaration methodDeclaration, final Configuration configuration)
+			throws SAXException, IOException, ParserConfigurationException,
+			ParsingException
 	{
 		String category = Constants.CATEGORY_METHOD;
 		if (methodDeclaration.isConstructor())
@@ -394,7 +653,9 @@ public class JavaInterfaceParser
 		}
 
 		final Javadoc javadoc = methodDeclaration.getJavadoc();
-		String thematicGridName = parser.parseIDocItReferenceGrid(javadoc);
+		final ParsedJavadoc parsedJavadoc = JavadocParseCache.INSTANCE.lookup(
+				configuration, javadoc, source);
+		String thematicGridName = parsedJavadoc.getReferenceGridName();
 
 		if (thematicGridName == null)
 		{
@@ -406,9 +667,11 @@ public class JavaInterfaceParser
 		method.setIdentifier(methodDeclaration.getName().getIdentifier());
 		method.setQualifiedIdentifier(methodDeclaration.getName().getFullyQualifiedName());
 		method.setRefToASTNode(methodDeclaration);
+		final StructuralTypeResolver typeResolver = getTypeResolver(methodDeclaration);
+		// the helper is confined to this method, which may be processed in parallel
+		final ReflectionHelper reflectionHelper = new ReflectionHelper();
 
-		final List<TagElement> additionalTags = parser.findAdditionalTags(javadoc,
-				knownRoles);
+		final List<TagElement> additionalTags = parsedJavadoc.getAdditionalTags();
 		method.setAdditionalTags(additionalTags);
 
 		/*
@@ -427,9 +690,15 @@ public class JavaInterfaceParser
 					.parameters();
 			for (final SingleVariableDeclaration parameter : parameters)
 			{
-				final JavaParameter param = processParameter(inputParameters, parameter);
-				SignatureElementUtils.setParametersPaths(delimiters,
-						inputParameters.getQualifiedIdentifier(), param);
+				final JavaParameter param = processParameter(inputParameters, parameter,
+						typeResolver, reflectionHelper);
+				if (typeResolver == null)
+				{
+					// the resolver sets the paths itself, before the inner structure
+					// is reflected
+					SignatureElementUtils.setParametersPaths(delimiters,
+							inputParameters.getQualifiedIdentifier(), param);
+				}
 				inputParameters.addParameter(param);
 			}
 
@@ -442,7 +711,8 @@ public class JavaInterfaceParser
 		final JavaParameters outputParameters = new JavaParameters(method,
 				Constants.CATEGORY_RETURN_TYPE, Numerus.SINGULAR, false);
 		final Type retType = methodDeclaration.getReturnType2();
-		final JavaParameter returnType = processReturnType(outputParameters, retType);
+		final JavaParameter returnType = processReturnType(outputParameters, retType,
+				typeResolver, reflectionHelper);
 
 		// add only if there is a type and that type is not void
 		if (returnType != null)
@@ -452,8 +722,11 @@ public class JavaInterfaceParser
 			outputParameters.setQualifiedIdentifier(StringUtils.EMPTY);
 			outputParameters.addParameter(returnType);
 
-			SignatureElementUtils.setParametersPaths(delimiters,
-					outputParameters.getQualifiedIdentifier(), returnType);
+			if (typeResolver == null)
+			{
+				SignatureElementUtils.setParametersPaths(delimiters,
+						outputParameters.getQualifiedIdentifier(), returnType);
+			}
 
 			method.setOutputParameters(outputParameters);
 		}
@@ -472,21 +745,18 @@ public class JavaInterfaceParser
 			// exceptions. (We need the second list for WSDL fault messages.)
 			final List<JavaParameters> exceptionList = new ArrayList<JavaParameters>(1);
 			final JavaParameters exception = processThrownExceptions(method,
-					thrownExceptions);
+					thrownExceptions, typeResolver, reflectionHelper);
 			exceptionList.add(exception);
 			method.setExceptions(exceptionList);
 		}
 
-		final List<Addressee> addressees = ServiceManager.getInstance()
-				.getPersistenceService().loadConfiguredAddressees();
-		final List<ThematicRole> roles = ServiceManager.getInstance()
-				.getPersistenceService().loadThematicRoles();
 		List<Documentation> convertedJavadoc = null;
-		final List<Documentation> documentations = parser.parseIDocItJavadoc(javadoc,
-				addressees, roles, method);
+		final List<Documentation> documentations = parsedJavadoc
+				.getDocumentations(method);
 		if (documentations.isEmpty() && javadoc != null)
 		{
-			convertedJavadoc = parser.convertExistingJavadoc(javadoc);
+			convertedJavadoc = configuration.getParser().convertExistingJavadoc(
+					javadoc);
 		}
 
 		if (convertedJavadoc == null)
@@ -773,11 +1043,26 @@ public class JavaInterfaceParser
 	 *            The parent {@link SignatureElement}.
 	 * @param variableDeclaration
 	 *            The {@link SingleVariableDeclaration} to process.
+	 * @param typeResolver
+	 *            The resolver for the data type, if there are no bindings.
+	 * @param reflectionHelper
+	 *            The helper to reflect the data type, if there are bindings.
 	 * @return a new {@link JavaParameter}.
 	 */
 	private JavaParameter processParameter(final SignatureElement parent,
-			final SingleVariableDeclaration variableDeclaration)
+			final SingleVariableDeclaration variableDeclaration,
+			final StructuralTypeResolver typeResolver,
+			final ReflectionHelper reflectionHelper)
 	{
+		if (typeResolver != null)
+		{
+			final String identifier = variableDeclaration.getName().getIdentifier();
+			return typeResolver.createParameter(parent, parent.getQualifiedIdentifier(),
+					variableDeclaration.getType(), variableDeclaration.getExtraDimensions()
+							+ (variableDeclaration.isVarargs() ? 1 : 0), identifier,
+					true);
+		}
+
 		JavaParameter containingAttributes = null;
 
 		final IVariableBinding resolvedBinding = variableDeclaration.resolveBinding();
@@ -811,10 +1096,15 @@ public class JavaInterfaceParser
 	 * @param thrownExceptions
 	 *            The {@link List} of {@link SimpleName} of the thrown exceptions to
 	 *            process.
+	 * @param typeResolver
+	 *            The resolver for the data types, if there are no bindings.
+	 * @param reflectionHelper
+	 *            The helper to reflect the data types, if there are bindings.
 	 * @return a new {@link JavaParameters}.
 	 */
 	private JavaParameters processThrownExceptions(final SignatureElement parent,
-			final List<Name> thrownExceptions)
+			final List<Name> thrownExceptions, final StructuralTypeResolver typeResolver,
+			final ReflectionHelper reflectionHelper)
 	{
 		final JavaParameters exceptions = new JavaParameters(parent,
 				Constants.CATEGORY_THROWS, Numerus.SINGULAR, false);
@@ -824,6 +1114,13 @@ public class JavaInterfaceParser
 
 		for (Name name : thrownExceptions)
 		{
+			if (typeResolver != null)
+			{
+				exceptions.addParameter(typeResolver.createParameter(exceptions,
+						exceptions.getQualifiedIdentifier(), name));
+				continue;
+			}
+
 			final ITypeBinding typeBinding = name.resolveTypeBinding();
 			final JavaParameter exception = new JavaParameter(exceptions,
 					reflectionHelper.deriveNumerus(typeBinding),
@@ -876,14 +1173,28 @@ public class JavaInterfaceParser
 	 *            The parent {@link SignatureElement}.
 	 * @param type
 	 *            The {@link Type} to process.
+	 * @param typeResolver
+	 *            The resolver for the data type, if there are no bindings.
+	 * @param reflectionHelper
+	 *            The helper to reflect the data type, if there are bindings.
 	 * @return a new {@link JavaParameter}, or <code>null</code> if
 	 *         <code>type == null</code> or the identifier of type equals
 	 *         <code>void</code>.
 	 */
-	private JavaParameter processReturnType(final SignatureElement parent, final Type type)
+	private JavaParameter processReturnType(final SignatureElement parent,
+			final Type type, final StructuralTypeResolver typeResolver,
+			final ReflectionHelper reflectionHelper)
 	{
 		JavaParameter returnType = null;
-		if (type != null)
+		if (type != null && typeResolver != null)
+		{
+			if (!Constants.RETURN_TYPE_VOID.equals(typeResolver.nameOf(type)))
+			{
+				returnType = typeResolver.createParameter(parent,
+						parent.getQualifiedIdentifier(), type, 0, null, true);
+			}
+		}
+		else if (type != null)
 		{
 			final ITypeBinding typeBinding = type.resolveBinding();
 			if (typeBinding != null)
@@ -15,6 +15,13 @@
  *******************************************************************************/
 package de.akra.idocit.java.services;
 
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,16 +35,14 @@ import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.Document;
-import org.eclipse.jface.text.IDocument;
 import org.eclipse.text.edits.MalformedTreeException;
-import org.eclipse.text.edits.TextEdit;
 import org.eclipse.ui.PlatformUI;
 
 import de.akra.idocit.common.structure.Delimiters;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.utils.StringUtils;
 import de.akra.idocit.core.extensions.Parser;
+import de.akra.idocit.core.extensions.ValidationEngine;
 import de.akra.idocit.core.extensions.ValidationReport;
 import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
 import de.akra.idocit.java.constants.PreferenceStoreConstants;
@@ -53,7 +58,7 @@ import de.akra.idocit.java.structure.JavaInterfaceArtifact;
  *             - The complex version supports all addressees, but uses a lot of HTML-code.
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public class JavaParser implements Parser
@@ -73,6 +78,25 @@ public class JavaParser implements Parser
 	 */
 	public static final Delimiters delimiters;
 
+	/**
+	 * Seconds until an idle thread of the {@link #methodExecutor} terminates.
+	 */
+	private static final long METHOD_THREAD_KEEP_ALIVE = 30;
+
+	/**
+	 * The executor for the methods of large types in the parallel mode (see
+	 * {@link PreferenceStoreConstants#PARALLEL_PARSE}). Created on first use.
+	 */
+	private static ExecutorService methodExecutor = null;
+
+	/**
+	 * Validates the artifacts in the simple mode. It is shared by all instances, because
+	 * it keeps the results of the last validations.
+	 */
+	private static final ValidationEngine SIMPLE_MODE_VALIDATION = new ValidationEngine(
+			Collections.singletonList(new SingleAddresseeRule("Developer",
+					"The generation of simplified Javadoc works only for addressee \"Developer\"")));
+
 	/**
 	 * Initialize <code>delimiters</code>.
 	 */
@@ -125,8 +149,11 @@ public class JavaParser implements Parser
 		final ASTParser parser = ASTParser.newParser(AST.JLS3);
 		parser.setKind(ASTParser.K_COMPILATION_UNIT);
 		parser.setSource(iCompilationUnit.getWorkingCopy(null));
-		parser.setResolveBindings(true); // bindings are needed for object reflection
-		parser.setBindingsRecovery(true);
+		// Bindings are needed for object reflection. In the structural mode the data
+		// types are reflected on first access instead.
+		final boolean resolveBindings = !isStructuralModeConfigured();
+		parser.setResolveBindings(resolveBindings);
+		parser.setBindingsRecovery(resolveBindings);
 		final CompilationUnit compilationUnit = (CompilationUnit) parser.createAST(Job
 				.getJobManager().createProgressGroup());
 		compilationUnit.recordModifications();
@@ -134,8 +161,17 @@ public class JavaParser implements Parser
 		de.akra.idocit.java.services.JavaInterfaceParser jInterfaceParser = new JavaInterfaceParser(
 				compilationUnit, compilationUnit.getJavaElement().getElementName(),
 				delimiters);
+		if (isParallelModeConfigured())
+		{
+			jInterfaceParser.setMethodExecutor(getMethodExecutor());
+		}
 
 		final InterfaceArtifact artifact = jInterfaceParser.parse(getJavadocParser());
+		if (isDetachedModeConfigured())
+		{
+			// release the AST with its bindings, it is created again for writing
+			JavaArtifactDetacher.detach((JavaInterfaceArtifact) artifact);
+		}
 		return artifact;
 	}
 
@@ -177,39 +213,49 @@ public class JavaParser implements Parser
 				+ iFile.getFullPath().toFile().getAbsolutePath());
 
 		final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) interfaceStructure;
-		JavaInterfaceGenerator.updateJavadocInAST(artifact, getJavadocGenerator());
-		writeToFile(artifact);
+		if (artifact.isDetached())
+		{
+			final CompilationUnit unit = JavaArtifactDetacher.attach(artifact);
+			try
+			{
+				JavaInterfaceGenerator.updateJavadocInAST(artifact, getJavadocGenerator());
+				writeToFile(artifact, unit);
+			}
+			finally
+			{
+				JavaArtifactDetacher.detach(artifact);
+			}
+		}
+		else
+		{
+			JavaInterfaceGenerator.updateJavadocInAST(artifact, getJavadocGenerator());
+			writeToFile(artifact, artifact.getCompilationUnit());
+		}
 	}
 
 	/**
 	 * Write the changes in the {@link JavaInterfaceArtifact} to the underlying file.
+	 * Only the text ranges of the changed Javadoc comments are replaced in the buffer
+	 * of the file.
 	 * 
 	 * @param artifact
 	 *            [DESTINATION] The {@link JavaInterfaceArtifact} which changes should be
 	 *            written to the file.
+	 * @param unit
+	 *            [SOURCE] The AST of the artifact with the recorded changes.
 	 * 
 	 * @throws MalformedTreeException
 	 * @throws BadLocationException
 	 * @throws CoreException
 	 * 
-	 * @see {@link CompilationUnit#rewrite(IDocument, java.util.Map)}
+	 * @see JavadocSourceWriter
 	 * @thematicgrid Putting Operations
 	 */
-	private void writeToFile(final JavaInterfaceArtifact artifact)
-			throws MalformedTreeException, BadLocationException, CoreException
+	private void writeToFile(final JavaInterfaceArtifact artifact,
+			final CompilationUnit unit) throws MalformedTreeException,
+			BadLocationException, CoreException
 	{
-		final CompilationUnit unit = artifact.getCompilationUnit();
-
-		final ICompilationUnit iCompUnit = (ICompilationUnit) unit.getJavaElement();
-
-		final IDocument document = new Document(artifact.getOriginalDocument());
-		final TextEdit textEdit = unit.rewrite(document, null);
-		textEdit.apply(document);
-
-		iCompUnit.getBuffer().setContents(document.get());
-		iCompUnit.reconcile(ICompilationUnit.NO_AST, false, null, null);
-		iCompUnit.commitWorkingCopy(true, null);
-		iCompUnit.makeConsistent(null);
+		JavadocSourceWriter.write(artifact, unit);
 	}
 
 	/**
@@ -284,6 +330,78 @@ public class JavaParser implements Parser
 				|| StringUtils.isBlank(mode);
 	}
 
+	/**
+	 * Checks if the parsed artifacts should be detached from their AST (see
+	 * {@link PreferenceStoreConstants#DETACH_ARTIFACTS}).
+	 * 
+	 * @return [REPORT] <code>true</code> if the detached mode is configured.
+	 * 
+	 * @thematicgrid Checking Operations
+	 */
+	private static boolean isDetachedModeConfigured()
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		return store.getBoolean(PreferenceStoreConstants.DETACH_ARTIFACTS);
+	}
+
+	/**
+	 * Checks if Java files should be parsed without bindings (see
+	 * {@link PreferenceStoreConstants#STRUCTURAL_PARSE}).
+	 * 
+	 * @return [REPORT] <code>true</code> if the structural mode is configured.
+	 * 
+	 * @thematicgrid Checking Operations
+	 */
+	private static boolean isStructuralModeConfigured()
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		return store.getBoolean(PreferenceStoreConstants.STRUCTURAL_PARSE);
+	}
+
+	/**
+	 * Checks if the methods of large types should be parsed in parallel (see
+	 * {@link PreferenceStoreConstants#PARALLEL_PARSE}).
+	 * 
+	 * @return [REPORT] <code>true</code> if the parallel mode is configured.
+	 * 
+	 * @thematicgrid Checking Operations
+	 */
+	private static boolean isParallelModeConfigured()
+	{
+		final IPreferenceStore store = PlatformUI.getPreferenceStore();
+		return store.getBoolean(PreferenceStoreConstants.PARALLEL_PARSE);
+	}
+
+	/**
+	 * Returns the executor for the methods and creates it if necessary. It has one
+	 * daemon thread per processor; idle threads terminate.
+	 */
+	private static synchronized ExecutorService getMethodExecutor()
+	{
+		if (methodExecutor == null)
+		{
+			final int threads = Runtime.getRuntime().availableProcessors();
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+					METHOD_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+						@Override
+						public Thread newThread(final Runnable runnable)
+						{
+							final Thread thread = new Thread(runnable,
+									"iDocIt! Java Parser-"
+											+ threadNumber.getAndIncrement());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			methodExecutor = executor;
+		}
+		return methodExecutor;
+	}
+
 	/**
 	 * Determines the implementation of {@link AbsJavadocParser} that is configured and
 	 * returns it.
@@ -325,30 +443,18 @@ public class JavaParser implements Parser
 	{
 		if (artifact instanceof JavaInterfaceArtifact)
 		{
-			final ValidationReport report = new ValidationReport();
-
 			if (isSimpleModeConfigured())
 			{
-				final JavaInterfaceArtifact javaArtifact = (JavaInterfaceArtifact) artifact;
-
-				if (AddresseeUtils.containsOnlyOneAddressee(javaArtifact, "Developer"))
-				{
-					report.setReturnCode(ValidationCode.OK);
-					report.setMessage(StringUtils.EMPTY);
-				}
-				else
-				{
-					report.setReturnCode(ValidationCode.ERROR);
-					report.setMessage("The generation of simplified Javadoc works only for addressee \"Developer\"");
-				}
+				// only the elements changed since the last validation are checked again
+				return SIMPLE_MODE_VALIDATION.validate(artifact);
 			}
 			else
 			{
+				final ValidationReport report = new ValidationReport();
 				report.setReturnCode(ValidationCode.OK);
 				report.setMessage(StringUtils.EMPTY);
+				return report;
 			}
-
-			return report;
 		}
 		else
 		{
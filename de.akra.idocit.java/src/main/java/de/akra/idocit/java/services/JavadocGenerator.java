@@ -122,7 +122,7 @@ public class JavadocGenerator implements IJavadocGenerator
 		for (Documentation doc : documentations)
 		{
 			// write only if there is something to write
-			if (doc.getThematicRole() != null || !doc.getDocumentation().isEmpty())
+			if (doc.getThematicRole() != null || !doc.getDocumentationView().isEmpty())
 			{
 				tagChanged = true;
 				StringBuffer textElem = new StringBuffer();
@@ -156,8 +156,8 @@ public class JavadocGenerator implements IJavadocGenerator
 					textElem.append("</td></tr>\n");
 				}
 
-				Map<Addressee, String> docMap = doc.getDocumentation();
-				for (Addressee addressee : doc.getAddresseeSequence())
+				Map<Addressee, String> docMap = doc.getDocumentationView();
+				for (Addressee addressee : doc.getAddresseeSequenceView())
 				{
 					String text = docMap.get(addressee);
 					if (!text.isEmpty())
@@ -0,0 +1,1084 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.xml.sax.SAXException;
+
+import de.akra.idocit.common.constants.Misc;
+import de.akra.idocit.common.metrics.Counter;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.structure.Addressee;
+import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.Parameters;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.core.utils.DescribedItemUtils;
+import de.akra.idocit.java.exceptions.ParsingException;
+import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.structure.JavaParameter;
+
+/**
+ * Caches the results of the {@link AbsJavadocParser}s by the content of the Javadoc.
+ * <p>
+ * An entry is addressed by a SHA-1 hash of the parser, the source of the comment and
+ * the configured addressees and thematic roles. A changed comment or configuration
+ * therefore never hits an outdated entry, and equal comments share one entry. The hash
+ * of the parser and the configuration is computed once per parse, see
+ * {@link #configure(AbsJavadocParser, List, List)}. The source of the comment is read
+ * from the document of the compilation unit, if it is given. The entry
+ * holds the name of the reference grid, the positions of the additional tags and the
+ * parsed {@link Documentation}s. Because the paths of the Documentations depend on the
+ * parameters of the method, the Documentations are only reused for a method with the
+ * same parameter paths. The cached Documentations are never handed out, only their
+ * copies.
+ * </p>
+ * <p>
+ * The number of entries is bounded, the least recently used entries are removed. The
+ * cache can be stored to a file, e.g. in the metadata of the workspace, and restored in
+ * the next session. The cache is thread-safe.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see JavaInterfaceParser
+ */
+public final class JavadocParseCache
+{
+	private static final Logger logger = Logger.getLogger(JavadocParseCache.class
+			.getName());
+
+	/**
+	 * The maximum number of cached Javadoc comments.
+	 */
+	private static final int MAX_ENTRIES = 4096;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String HASH_ALGORITHM = "SHA-1";
+
+	private static final Charset CHARSET = Charset.forName(Misc.DEFAULT_CHARSET);
+
+	private static final int[] NO_TAGS = new int[0];
+
+	/**
+	 * The shared cache.
+	 */
+	public static final JavadocParseCache INSTANCE = new JavadocParseCache(MAX_ENTRIES);
+
+	/**
+	 * The parse results of one comment. The Documentations are guarded by the cache.
+	 */
+	private static final class Entry
+	{
+		private final String referenceGridName;
+
+		/**
+		 * The indices of the additional tags in {@link Javadoc#tags()}.
+		 */
+		private final int[] additionalTags;
+
+		/**
+		 * The hash of the parameter paths for which {@link #documentations} were
+		 * parsed, or <code>null</code> if they are not parsed yet.
+		 */
+		private String signature = null;
+
+		/**
+		 * The parsed Documentations, or <code>null</code> if they are restored and not
+		 * resolved yet.
+		 */
+		private List<Documentation> documentations = null;
+
+		/**
+		 * The restored Documentations, until they are resolved on the first hit.
+		 */
+		private List<StoredDocumentation> storedDocumentations = null;
+
+		/**
+		 * The indices of the tags in {@link Javadoc#tags()} which the parser added to
+		 * the additional tags of the method.
+		 */
+		private int[] unassignedTags = NO_TAGS;
+
+		private Entry(final String referenceGridName, final int[] additionalTags)
+		{
+			this.referenceGridName = referenceGridName;
+			this.additionalTags = additionalTags;
+		}
+	}
+
+	/**
+	 * A {@link Documentation} which refers to its addressees and thematic role by name,
+	 * as it is stored.
+	 */
+	private static final class StoredDocumentation
+	{
+		private String signatureElementIdentifier;
+		private boolean errorCase;
+		private String thematicRoleName;
+		private final List<String> addresseeSequence = new ArrayList<String>();
+		private final Map<String, String> texts = new LinkedHashMap<String, String>();
+
+		static StoredDocumentation valueOf(final Documentation documentation)
+		{
+			final StoredDocumentation stored = new StoredDocumentation();
+			stored.signatureElementIdentifier = documentation
+					.getSignatureElementIdentifier();
+			stored.errorCase = documentation.isErrorCase();
+			stored.thematicRoleName = (documentation.getThematicRole() != null) ? documentation
+					.getThematicRole().getName() : null;
+			for (final Addressee addressee : documentation.getAddresseeSequenceView())
+			{
+				stored.addresseeSequence.add(addressee.getName());
+			}
+			for (final Map.Entry<Addressee, String> text : documentation
+					.getDocumentationView().entrySet())
+			{
+				stored.texts.put(text.getKey().getName(), text.getValue());
+			}
+			return stored;
+		}
+
+		static StoredDocumentation read(final DataInputStream in) throws IOException
+		{
+			final StoredDocumentation stored = new StoredDocumentation();
+			stored.signatureElementIdentifier = readString(in);
+			stored.errorCase = in.readBoolean();
+			stored.thematicRoleName = readString(in);
+			final int sequenceSize = in.readInt();
+			for (int i = 0; i < sequenceSize; i++)
+			{
+				stored.addresseeSequence.add(readString(in));
+			}
+			final int textCount = in.readInt();
+			for (int i = 0; i < textCount; i++)
+			{
+				final String addresseeName = readString(in);
+				stored.texts.put(addresseeName, readString(in));
+			}
+			return stored;
+		}
+
+		void write(final DataOutputStream out) throws IOException
+		{
+			writeString(out, signatureElementIdentifier);
+			out.writeBoolean(errorCase);
+			writeString(out, thematicRoleName);
+			out.writeInt(addresseeSequence.size());
+			for (final String addresseeName : addresseeSequence)
+			{
+				writeString(out, addresseeName);
+			}
+			out.writeInt(texts.size());
+			for (final Map.Entry<String, String> text : texts.entrySet())
+			{
+				writeString(out, text.getKey());
+				writeString(out, text.getValue());
+			}
+		}
+
+		/**
+		 * Creates the Documentation with the configured addressees and roles. Unknown
+		 * names are resolved like the parsers do it.
+		 */
+		Documentation toDocumentation(final Map<String, Addressee> addressees,
+				final List<ThematicRole> thematicRoles)
+		{
+			final Documentation documentation = new Documentation();
+			documentation.setSignatureElementIdentifier(signatureElementIdentifier);
+			documentation.setErrorCase(errorCase);
+			if (thematicRoleName != null)
+			{
+				documentation.setThematicRole(findThematicRole(thematicRoleName,
+						thematicRoles));
+			}
+
+			final List<Addressee> sequence = new LinkedList<Addressee>();
+			for (final String addresseeName : addresseeSequence)
+			{
+				sequence.add(findAddressee(addresseeName, addressees));
+			}
+			documentation.setAddresseeSequence(sequence);
+
+			final Map<Addressee, String> documentationTexts = new HashMap<Addressee, String>();
+			for (final Map.Entry<String, String> text : texts.entrySet())
+			{
+				documentationTexts.put(findAddressee(text.getKey(), addressees),
+						text.getValue());
+			}
+			documentation.setDocumentation(documentationTexts);
+			return documentation;
+		}
+
+		private static Addressee findAddressee(final String name,
+				final Map<String, Addressee> addressees)
+		{
+			final String key = String.valueOf(name).toLowerCase();
+			Addressee addressee = addressees.get(key);
+			if (addressee == null)
+			{
+				addressee = DescribedItemUtils.findAddressee(name);
+				addressees.put(key, addressee);
+			}
+			return addressee;
+		}
+
+		private static ThematicRole findThematicRole(final String name,
+				final List<ThematicRole> thematicRoles)
+		{
+			if (thematicRoles != null)
+			{
+				for (final ThematicRole role : thematicRoles)
+				{
+					if (name.equalsIgnoreCase(role.getName()))
+					{
+						return role;
+					}
+				}
+			}
+			return DescribedItemUtils.findThematicRole(name);
+		}
+	}
+
+	/**
+	 * The parser and the configured addressees and thematic roles with which the
+	 * comments of one parse are looked up, as returned by
+	 * {@link JavadocParseCache#configure(AbsJavadocParser, List, List)}.
+	 */
+	public static final class Configuration
+	{
+		private final AbsJavadocParser parser;
+		private final List<Addressee> addressees;
+		private final List<ThematicRole> thematicRoles;
+
+		/**
+		 * The hash of the parser, the addressees and the roles.
+		 */
+		private final byte[] digest;
+
+		private Configuration(final AbsJavadocParser parser,
+				final List<Addressee> addressees, final List<ThematicRole> thematicRoles)
+		{
+			this.parser = parser;
+			this.addressees = addressees;
+			this.thematicRoles = thematicRoles;
+			this.digest = digestOf(parser, addressees, thematicRoles);
+		}
+
+		/**
+		 * @return [OBJECT] The parser of the configured Javadoc format.
+		 * @thematicgrid Getting Operations
+		 */
+		public AbsJavadocParser getParser()
+		{
+			return parser;
+		}
+	}
+
+	/**
+	 * The cached results of one Javadoc comment, as returned by
+	 * {@link JavadocParseCache#lookup(Configuration, Javadoc, String)}. It replaces the
+	 * calls to the parser for this comment.
+	 */
+	public final class ParsedJavadoc
+	{
+		private final AbsJavadocParser parser;
+		private final Javadoc javadoc;
+		private final List<Addressee> addressees;
+		private final List<ThematicRole> thematicRoles;
+
+		/**
+		 * The entry of the comment, or <code>null</code> if there is no comment.
+		 */
+		private final Entry entry;
+
+		private ParsedJavadoc(final Configuration configuration, final Javadoc javadoc,
+				final Entry entry)
+		{
+			this.parser = configuration.parser;
+			this.javadoc = javadoc;
+			this.addressees = configuration.addressees;
+			this.thematicRoles = configuration.thematicRoles;
+			this.entry = entry;
+		}
+
+		/**
+		 * @return [OBJECT] The name of the reference grid, or <code>null</code>.
+		 * @see AbsJavadocParser#parseIDocItReferenceGrid(Javadoc)
+		 * @thematicgrid Getting Operations
+		 */
+		public String getReferenceGridName()
+		{
+			return (entry != null) ? entry.referenceGridName : null;
+		}
+
+		/**
+		 * @return [OBJECT] A new list of the additional tags of the comment.
+		 * @see AbsJavadocParser#findAdditionalTags(Javadoc, List)
+		 * @thematicgrid Getting Operations
+		 */
+		public List<TagElement> getAdditionalTags()
+		{
+			if (entry == null)
+			{
+				return parser.findAdditionalTags(javadoc, thematicRoles);
+			}
+			return toTags(javadoc, entry.additionalTags);
+		}
+
+		/**
+		 * Returns the Documentations of the comment. If they are not cached for the
+		 * parameter paths of the <code>method</code>, the comment is parsed. Like the
+		 * parser, the tags which can not be assigned to a parameter are added in front
+		 * of the additional tags of the <code>method</code>.
+		 *
+		 * @param method
+		 *            [ATTRIBUTE] The method of the comment, or <code>null</code> if the
+		 *            comment belongs to a type.
+		 * @return [OBJECT] A new modifiable list of new Documentations.
+		 * @throws SAXException
+		 * @throws IOException
+		 * @throws ParserConfigurationException
+		 * @throws ParsingException
+		 *             If the comment does not match the method. It is not cached.
+		 * @see AbsJavadocParser#parseIDocItJavadoc(Javadoc, List, List, JavaMethod)
+		 * @thematicgrid Getting Operations
+		 */
+		public List<Documentation> getDocumentations(final JavaMethod method)
+				throws SAXException, IOException, ParserConfigurationException,
+				ParsingException
+		{
+			if (entry == null)
+			{
+				return parser.parseIDocItJavadoc(javadoc, addressees, thematicRoles,
+						method);
+			}
+
+			final String signature = signatureOf(method);
+			final List<Documentation> cachedDocumentations = getCachedDocumentations(
+					entry, signature, addressees, thematicRoles);
+			if (cachedDocumentations != null)
+			{
+				if (method != null && entry.unassignedTags.length > 0)
+				{
+					addUnassignedTags(method, toTags(javadoc, entry.unassignedTags));
+				}
+				hits.increment();
+				return cachedDocumentations;
+			}
+			misses.increment();
+
+			final int additionalTagsBefore = (method != null && method
+					.getAdditionalTags() != null) ? method.getAdditionalTags().size() : 0;
+			final List<Documentation> documentations = parser.parseIDocItJavadoc(
+					javadoc, addressees, thematicRoles, method);
+
+			int[] unassignedTags = NO_TAGS;
+			if (method != null && method.getAdditionalTags() != null
+					&& method.getAdditionalTags().size() > additionalTagsBefore)
+			{
+				unassignedTags = indicesOf(javadoc, method.getAdditionalTags().subList(0,
+						method.getAdditionalTags().size() - additionalTagsBefore));
+				if (unassignedTags == null)
+				{
+					// the parser added a tag which is not part of the comment
+					return documentations;
+				}
+			}
+			putDocumentations(entry, signature, documentations, unassignedTags);
+			return documentations;
+		}
+	}
+
+	/**
+	 * The entries by hash (LRU order).
+	 */
+	private final Map<String, Entry> entries;
+
+	/**
+	 * <code>true</code> if the entries were changed since they were stored or restored.
+	 */
+	private boolean dirty = false;
+
+	private final Counter hits = Metrics.counter("java.javadocParseCache.hits");
+	private final Counter misses = Metrics.counter("java.javadocParseCache.misses");
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxEntries
+	 *            [ATTRIBUTE] The maximum number of cached comments.
+	 */
+	JavadocParseCache(final int maxEntries)
+	{
+		entries = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest)
+			{
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Hashes the <code>parser</code> and the configuration for the lookups of one parse.
+	 * The configuration must not be changed while it is used.
+	 *
+	 * @param parser
+	 *            [ATTRIBUTE] The parser of the configured Javadoc format.
+	 * @param addressees
+	 *            [ATTRIBUTE] The configured addressees.
+	 * @param thematicRoles
+	 *            [ATTRIBUTE] The configured thematic roles.
+	 * @return [OBJECT] The configuration for
+	 *         {@link #lookup(Configuration, Javadoc, String)}.
+	 * @thematicgrid Creating Operations
+	 */
+	public static Configuration configure(final AbsJavadocParser parser,
+			final List<Addressee> addressees, final List<ThematicRole> thematicRoles)
+	{
+		return new Configuration(parser, addressees, thematicRoles);
+	}
+
+	/**
+	 * Looks up the results of the configured parser for the <code>javadoc</code>. The
+	 * reference grid and the additional tags are determined at once if the comment is
+	 * not cached, the Documentations only when they are requested.
+	 *
+	 * @param configuration
+	 *            [ATTRIBUTE] The parser and the configuration of this parse.
+	 * @param javadoc
+	 *            [SOURCE] The comment, or <code>null</code>.
+	 * @param source
+	 *            [SOURCE] The document of the compilation unit of the
+	 *            <code>javadoc</code>, or <code>null</code>. If the comment is not found
+	 *            at its position in the document, the comment is hashed as it is
+	 *            printed by the AST.
+	 * @return [OBJECT] The results of the comment; they are only valid for the AST of
+	 *         the <code>javadoc</code>.
+	 * @thematicgrid Searching Operations
+	 */
+	public ParsedJavadoc lookup(final Configuration configuration, final Javadoc javadoc,
+			final String source)
+	{
+		if (javadoc == null)
+		{
+			return new ParsedJavadoc(configuration, javadoc, null);
+		}
+
+		final AbsJavadocParser parser = configuration.parser;
+		final List<ThematicRole> thematicRoles = configuration.thematicRoles;
+		final String key = keyOf(configuration, javadoc, source);
+		Entry entry;
+		synchronized (this)
+		{
+			entry = entries.get(key);
+		}
+
+		if (entry == null)
+		{
+			final int[] additionalTags = indicesOf(javadoc,
+					parser.findAdditionalTags(javadoc, thematicRoles));
+			entry = new Entry(parser.parseIDocItReferenceGrid(javadoc),
+					(additionalTags != null) ? additionalTags : NO_TAGS);
+			synchronized (this)
+			{
+				final Entry concurrentEntry = entries.get(key);
+				if (concurrentEntry != null)
+				{
+					entry = concurrentEntry;
+				}
+				else
+				{
+					entries.put(key, entry);
+					dirty = true;
+				}
+			}
+		}
+		return new ParsedJavadoc(configuration, javadoc, entry);
+	}
+
+	/**
+	 * @return The copies of the cached Documentations, or <code>null</code> if they are
+	 *         not cached for the <code>signature</code>.
+	 */
+	private synchronized List<Documentation> getCachedDocumentations(final Entry entry,
+			final String signature, final List<Addressee> addressees,
+			final List<ThematicRole> thematicRoles)
+	{
+		if (!signature.equals(entry.signature))
+		{
+			return null;
+		}
+
+		if (entry.documentations == null)
+		{
+			final Map<String, Addressee> addresseesByName = new HashMap<String, Addressee>();
+			if (addressees != null)
+			{
+				for (final Addressee addressee : addressees)
+				{
+					addresseesByName.put(addressee.getName().toLowerCase(), addressee);
+				}
+			}
+
+			entry.documentations = new ArrayList<Documentation>(
+					entry.storedDocumentations.size());
+			for (final StoredDocumentation stored : entry.storedDocumentations)
+			{
+				entry.documentations.add(stored.toDocumentation(addresseesByName,
+						thematicRoles));
+			}
+			entry.storedDocumentations = null;
+		}
+		return copy(entry.documentations);
+	}
+
+	private synchronized void putDocumentations(final Entry entry,
+			final String signature, final List<Documentation> documentations,
+			final int[] unassignedTags)
+	{
+		entry.signature = signature;
+		entry.documentations = copy(documentations);
+		entry.storedDocumentations = null;
+		entry.unassignedTags = unassignedTags;
+		dirty = true;
+	}
+
+	/**
+	 * Removes all entries.
+	 *
+	 * @thematicgrid Deleting Operations
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		dirty = true;
+	}
+
+	/**
+	 * @return [REPORT] The number of cached comments.
+	 * @thematicgrid Counting Operations
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Writes the entries to the <code>output</code>. The stream is not closed.
+	 *
+	 * @param output
+	 *            [DESTINATION]
+	 * @throws IOException
+	 *             If the stream could not be written.
+	 * @thematicgrid Putting Operations
+	 */
+	public synchronized void save(final OutputStream output) throws IOException
+	{
+		final DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(entries.size());
+		// from the least to the most recently used entry, to keep the order on load
+		for (final Map.Entry<String, Entry> keyAndEntry : entries.entrySet())
+		{
+			final Entry entry = keyAndEntry.getValue();
+			out.writeUTF(keyAndEntry.getKey());
+			writeString(out, entry.referenceGridName);
+			writeIndices(out, entry.additionalTags);
+			writeString(out, entry.signature);
+			if (entry.signature != null)
+			{
+				writeIndices(out, entry.unassignedTags);
+				if (entry.documentations != null)
+				{
+					out.writeInt(entry.documentations.size());
+					for (final Documentation documentation : entry.documentations)
+					{
+						StoredDocumentation.valueOf(documentation).write(out);
+					}
+				}
+				else
+				{
+					out.writeInt(entry.storedDocumentations.size());
+					for (final StoredDocumentation stored : entry.storedDocumentations)
+					{
+						stored.write(out);
+					}
+				}
+			}
+		}
+		out.flush();
+		dirty = false;
+	}
+
+	/**
+	 * Replaces the entries with the entries read from the <code>input</code>. The
+	 * stream is not closed.
+	 *
+	 * @param input
+	 *            [SOURCE] The stream written by {@link #save(OutputStream)}.
+	 * @throws IOException
+	 *             If the stream could not be read or has an unknown format. The cache
+	 *             is empty then.
+	 * @thematicgrid Putting Operations
+	 */
+	public synchronized void load(final InputStream input) throws IOException
+	{
+		final DataInputStream in = new DataInputStream(input);
+		entries.clear();
+		try
+		{
+			final int version = in.readInt();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException("Unknown format version of the Javadoc cache: "
+						+ version);
+			}
+
+			final int entryCount = in.readInt();
+			for (int i = 0; i < entryCount; i++)
+			{
+				final String key = in.readUTF();
+				final Entry entry = new Entry(readString(in), readIndices(in));
+				entry.signature = readString(in);
+				if (entry.signature != null)
+				{
+					entry.unassignedTags = readIndices(in);
+					final int documentationCount = in.readInt();
+					entry.storedDocumentations = new ArrayList<StoredDocumentation>(
+							documentationCount);
+					for (int j = 0; j < documentationCount; j++)
+					{
+						entry.storedDocumentations.add(StoredDocumentation.read(in));
+					}
+				}
+				entries.put(key, entry);
+			}
+			dirty = false;
+		}
+		catch (final IOException e)
+		{
+			entries.clear();
+			throw e;
+		}
+		catch (final RuntimeException e)
+		{
+			entries.clear();
+			throw new IOException("The Javadoc cache is corrupt.", e);
+		}
+	}
+
+	/**
+	 * Stores the entries in the <code>file</code>, if they were changed. Failures are
+	 * logged, because the cache is only an optimization.
+	 *
+	 * @param file
+	 *            [DESTINATION]
+	 * @thematicgrid Putting Operations
+	 */
+	public void store(final File file)
+	{
+		synchronized (this)
+		{
+			if (!dirty)
+			{
+				return;
+			}
+		}
+
+		final File parent = file.getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			logger.log(Level.WARNING, "The directory " + parent.getAbsolutePath()
+					+ " could not be created.");
+			return;
+		}
+
+		OutputStream output = null;
+		try
+		{
+			output = new BufferedOutputStream(new FileOutputStream(file));
+			save(output);
+		}
+		catch (final IOException e)
+		{
+			logger.log(Level.WARNING, "The Javadoc cache could not be stored to "
+					+ file.getAbsolutePath(), e);
+		}
+		finally
+		{
+			close(output);
+		}
+	}
+
+	/**
+	 * Restores the entries stored in the <code>file</code>, if it exists. Failures are
+	 * logged and the cache stays empty.
+	 *
+	 * @param file
+	 *            [SOURCE]
+	 * @thematicgrid Putting Operations
+	 */
+	public void restore(final File file)
+	{
+		if (!file.isFile())
+		{
+			return;
+		}
+
+		InputStream input = null;
+		try
+		{
+			input = new BufferedInputStream(new FileInputStream(file));
+			load(input);
+		}
+		catch (final IOException e)
+		{
+			logger.log(Level.WARNING, "The Javadoc cache " + file.getAbsolutePath()
+					+ " could not be restored.", e);
+		}
+		finally
+		{
+			close(input);
+		}
+	}
+
+	private static void close(final Closeable closeable)
+	{
+		if (closeable != null)
+		{
+			try
+			{
+				closeable.close();
+			}
+			catch (final IOException e)
+			{
+				logger.log(Level.FINE, "The Javadoc cache file could not be closed.", e);
+			}
+		}
+	}
+
+	private static List<Documentation> copy(final List<Documentation> documentations)
+	{
+		final List<Documentation> copies = new ArrayList<Documentation>(
+				documentations.size());
+		for (final Documentation documentation : documentations)
+		{
+			copies.add(documentation.copy());
+		}
+		return copies;
+	}
+
+	/**
+	 * Adds the <code>tags</code> in front of the additional tags of the
+	 * <code>method</code>, as {@link SimpleJavadocParser} does it.
+	 */
+	private static void addUnassignedTags(final JavaMethod method,
+			final List<TagElement> tags)
+	{
+		List<TagElement> additionalTags = method.getAdditionalTags();
+		if (additionalTags == null || additionalTags == Collections.EMPTY_LIST)
+		{
+			additionalTags = new ArrayList<TagElement>(SignatureElement.DEFAULT_ARRAY_SIZE);
+			method.setAdditionalTags(additionalTags);
+		}
+		additionalTags.addAll(0, tags);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<TagElement> toTags(final Javadoc javadoc, final int[] indices)
+	{
+		final List<TagElement> allTags = (List<TagElement>) javadoc.tags();
+		final List<TagElement> tags = new ArrayList<TagElement>(indices.length);
+		for (final int index : indices)
+		{
+			tags.add(allTags.get(index));
+		}
+		return tags;
+	}
+
+	/**
+	 * @return The indices of the <code>tags</code> in {@link Javadoc#tags()}, or
+	 *         <code>null</code> if a tag is not part of the <code>javadoc</code>.
+	 */
+	private static int[] indicesOf(final Javadoc javadoc, final List<TagElement> tags)
+	{
+		if (tags.isEmpty())
+		{
+			return NO_TAGS;
+		}
+		final int[] indices = new int[tags.size()];
+		for (int i = 0; i < indices.length; i++)
+		{
+			indices[i] = javadoc.tags().indexOf(tags.get(i));
+			if (indices[i] < 0)
+			{
+				return null;
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * @return The hex encoded hash of the configuration and the source of the comment.
+	 *         The source is taken from the range of the comment in the
+	 *         <code>source</code>, if the range holds a Javadoc comment.
+	 */
+	private static String keyOf(final Configuration configuration,
+			final Javadoc javadoc, final String source)
+	{
+		final MessageDigest digest = createDigest();
+		digest.update(configuration.digest);
+
+		final int start = javadoc.getStartPosition();
+		final int end = start + javadoc.getLength();
+		if (source != null && start >= 0 && end - start >= 5 && end <= source.length()
+				&& source.startsWith("/**", start) && source.startsWith("*/", end - 2))
+		{
+			update(digest, "source");
+			update(digest, source.substring(start, end));
+		}
+		else
+		{
+			update(digest, "ast");
+			update(digest, javadoc.toString());
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return The hash of the parser, the addressees and the roles.
+	 */
+	private static byte[] digestOf(final AbsJavadocParser parser,
+			final List<Addressee> addressees, final List<ThematicRole> thematicRoles)
+	{
+		final MessageDigest digest = createDigest();
+		update(digest, parser.getClass().getName());
+
+		update(digest, String.valueOf(addressees != null ? addressees.size() : -1));
+		if (addressees != null)
+		{
+			for (final Addressee addressee : addressees)
+			{
+				update(digest, addressee.getName());
+				update(digest, addressee.getDescription());
+				update(digest, String.valueOf(addressee.isDefault()));
+			}
+		}
+		update(digest, String.valueOf(thematicRoles != null ? thematicRoles.size() : -1));
+		if (thematicRoles != null)
+		{
+			for (final ThematicRole role : thematicRoles)
+			{
+				update(digest, role.getName());
+				update(digest, role.getDescription());
+				update(digest, String.valueOf(role.getRoleScope()));
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * @return The hex encoded hash of the paths and data types of all parameters of the
+	 *         <code>method</code>, or an empty string if it is <code>null</code>. The
+	 *         inner structure of a parameter whose data type is not reflected yet is not
+	 *         visited, so that the reflection is not forced.
+	 */
+	private static String signatureOf(final JavaMethod method)
+	{
+		if (method == null)
+		{
+			return "";
+		}
+
+		final MessageDigest digest = createDigest();
+		update(digest, "in");
+		updateParameters(digest, method.getInputParameters());
+		update(digest, "out");
+		updateParameters(digest, method.getOutputParameters());
+		update(digest, "throws");
+		if (method.getExceptions() != null)
+		{
+			for (final Parameters exceptions : method.getExceptions())
+			{
+				updateParameters(digest, exceptions);
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	private static void updateParameters(final MessageDigest digest,
+			final Parameters parameters)
+	{
+		if (parameters != null && parameters.getParameters() != null)
+		{
+			for (final Parameter parameter : parameters.getParameters())
+			{
+				updateParameter(digest, parameter);
+			}
+		}
+		update(digest, null);
+	}
+
+	private static void updateParameter(final MessageDigest digest,
+			final Parameter parameter)
+	{
+		update(digest, parameter.getSignatureElementPath());
+		update(digest, parameter.getQualifiedDataTypeName());
+		if (parameter instanceof JavaParameter
+				&& !((JavaParameter) parameter).isReflected())
+		{
+			update(digest, "deferred");
+		}
+		else if (parameter.getComplexType() != null)
+		{
+			for (final Parameter child : parameter.getComplexType())
+			{
+				updateParameter(digest, child);
+			}
+		}
+		update(digest, null);
+	}
+
+	private static MessageDigest createDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Adds the length and the bytes of the <code>value</code>, so that the hashed values
+	 * can not be confused.
+	 */
+	private static void update(final MessageDigest digest, final String value)
+	{
+		final byte[] bytes = (value != null) ? value.getBytes(CHARSET) : null;
+		final int length = (bytes != null) ? bytes.length : -1;
+		digest.update((byte) (length >>> 24));
+		digest.update((byte) (length >>> 16));
+		digest.update((byte) (length >>> 8));
+		digest.update((byte) length);
+		if (bytes != null)
+		{
+			digest.update(bytes);
+		}
+	}
+
+	private static String toHex(final byte[] bytes)
+	{
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes)
+		{
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+			hex.append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Writes the UTF-8 bytes of the <code>value</code>, which may be longer than
+	 * {@link DataOutputStream#writeUTF(String)} allows.
+	 */
+	private static void writeString(final DataOutputStream out, final String value)
+			throws IOException
+	{
+		if (value == null)
+		{
+			out.writeInt(-1);
+		}
+		else
+		{
+			final byte[] bytes = value.getBytes(CHARSET);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(final DataInputStream in) throws IOException
+	{
+		final int length = in.readInt();
+		if (length < 0)
+		{
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	private static void writeIndices(final DataOutputStream out, final int[] indices)
+			throws IOException
+	{
+		out.writeInt(indices.length);
+		for (final int index : indices)
+		{
+			out.writeInt(index);
+		}
+	}
+
+	private static int[] readIndices(final DataInputStream in) throws IOException
+	{
+		final int length = in.readInt();
+		if (length == 0)
+		{
+			return NO_TAGS;
+		}
+		final int[] indices = new int[length];
+		for (int i = 0; i < length; i++)
+		{
+			indices[i] = in.readInt();
+		}
+		return indices;
+	}
+}
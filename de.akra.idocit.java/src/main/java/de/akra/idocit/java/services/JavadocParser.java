@@ -23,7 +23,6 @@ import java.util.logging.Logger;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.eclipse.jdt.core.dom.Javadoc;
-import org.eclipse.jdt.core.dom.TagElement;
 import org.xml.sax.SAXException;
 
 import de.akra.idocit.common.structure.Addressee;
@@ -48,12 +47,7 @@ public final class JavadocParser extends AbsJavadocParser
 	 */
 	static Logger log = Logger.getLogger(JavadocParser.class.getName());
 
-	static final String JAVADOC_TAG_PARAM = TagElement.TAG_PARAM + "\\s*";
-	static final String JAVADOC_TAG_RETURN = TagElement.TAG_RETURN + "\\s*";
-	static final String JAVADOC_TAG_THROWS = TagElement.TAG_THROWS + "\\s*";
 	public static final String JAVADOC_TAG_THEMATICGRID = CustomTaglets.THEMATIC_GRID.getTagName();
-	static final String JAVADOC_TAG_THEMATICGRID_PATTERN = JAVADOC_TAG_THEMATICGRID
-			+ "\\s*";
 
 	public static final AbsJavadocParser INSTANCE;
 
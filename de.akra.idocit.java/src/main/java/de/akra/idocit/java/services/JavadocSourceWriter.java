@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.text.edits.MalformedTreeException;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+import de.akra.idocit.java.structure.JavaInterfaceArtifact;
+
+/**
+ * Writes the changed Javadoc comments of a {@link JavaInterfaceArtifact} into the
+ * buffer of its {@link ICompilationUnit} by replacing only the changed text ranges.
+ * <p>
+ * The {@link CompilationUnit} records all modifications since it was parsed, so
+ * {@link CompilationUnit#rewrite(IDocument, java.util.Map)} always creates the edits
+ * against the original source. The result of the last write is kept in the
+ * {@link JavaInterfaceArtifact}. The next write only replaces the ranges in which the
+ * new result differs from the last one.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.2
+ */
+final class JavadocSourceWriter
+{
+	/**
+	 * A range changed by a rewrite, in the coordinates of the original source and of
+	 * the rewritten source.
+	 */
+	static final class ChangedRange
+	{
+		final int originalOffset;
+		final int originalLength;
+		final int newLength;
+
+		ChangedRange(final int originalOffset, final int originalLength,
+				final int newLength)
+		{
+			this.originalOffset = originalOffset;
+			this.originalLength = originalLength;
+			this.newLength = newLength;
+		}
+
+		int getOriginalEnd()
+		{
+			return originalOffset + originalLength;
+		}
+
+		int getDelta()
+		{
+			return newLength - originalLength;
+		}
+	}
+
+	/**
+	 * The source as it was written the last time and the ranges in which it differs
+	 * from the original source.
+	 */
+	private static final class WrittenState
+	{
+		final String source;
+		final List<ChangedRange> changedRanges;
+
+		WrittenState(final String source, final List<ChangedRange> changedRanges)
+		{
+			this.source = source;
+			this.changedRanges = changedRanges;
+		}
+	}
+
+	private static final Comparator<ChangedRange> BY_ORIGINAL_OFFSET = new Comparator<ChangedRange>() {
+		@Override
+		public int compare(final ChangedRange r1, final ChangedRange r2)
+		{
+			return r1.originalOffset < r2.originalOffset ? -1
+					: (r1.originalOffset == r2.originalOffset ? 0 : 1);
+		}
+	};
+
+	/**
+	 * Private constructor, only static methods.
+	 */
+	private JavadocSourceWriter()
+	{}
+
+	/**
+	 * Writes the changes in the {@link JavaInterfaceArtifact} to the underlying file.
+	 * If the buffer of the file still contains what was written (or parsed) the last
+	 * time, only the changed ranges are replaced. Otherwise the whole buffer is
+	 * replaced.
+	 *
+	 * @param artifact
+	 *            [DESTINATION] The {@link JavaInterfaceArtifact} which changes should be
+	 *            written to the file.
+	 * @param unit
+	 *            [SOURCE] The {@link CompilationUnit} of the original source with the
+	 *            recorded modifications.
+	 * @throws MalformedTreeException
+	 * @throws BadLocationException
+	 * @throws CoreException
+	 * @thematicgrid Putting Operations
+	 */
+	static void write(final JavaInterfaceArtifact artifact, final CompilationUnit unit)
+			throws MalformedTreeException, BadLocationException, CoreException
+	{
+		final ICompilationUnit iCompUnit = artifact.getWorkingCopy();
+
+		final String originalSource = artifact.getOriginalDocument();
+		final IDocument document = new Document(originalSource);
+		final List<ChangedRange> changedRanges = applyEdit(unit.rewrite(document,
+				iCompUnit.getJavaProject().getOptions(true)), document);
+		final String newSource = document.get();
+
+		final Object writtenState = artifact.getWrittenState();
+		final WrittenState lastState = writtenState instanceof WrittenState ? (WrittenState) writtenState
+				: null;
+		final String lastSource = lastState != null ? lastState.source : originalSource;
+		final List<ChangedRange> lastChangedRanges = lastState != null ? lastState.changedRanges
+				: Collections.<ChangedRange> emptyList();
+
+		final IBuffer buffer = iCompUnit.getBuffer();
+		if (lastSource.equals(buffer.getContents()))
+		{
+			final List<ReplaceEdit> edits = computeEdits(lastSource, lastChangedRanges,
+					newSource, changedRanges);
+
+			// replace from the end, so that the offsets of the other edits stay valid
+			for (int i = edits.size() - 1; i >= 0; i--)
+			{
+				final ReplaceEdit edit = edits.get(i);
+				buffer.replace(edit.getOffset(), edit.getLength(), edit.getText());
+			}
+			artifact.setWrittenState(new WrittenState(newSource, changedRanges));
+			iCompUnit.commitWorkingCopy(true, null);
+		}
+		else
+		{
+			// The buffer was changed by someone else. Write everything.
+			buffer.setContents(newSource);
+			artifact.setWrittenState(new WrittenState(newSource, changedRanges));
+			iCompUnit.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			iCompUnit.commitWorkingCopy(true, null);
+			iCompUnit.makeConsistent(null);
+		}
+	}
+
+	/**
+	 * Applies the <code>edit</code> to the <code>document</code> and returns the ranges
+	 * which are changed by its top-level edits.
+	 *
+	 * @param edit
+	 *            [OBJECT] The edit to apply, e.g. the result of a rewrite.
+	 * @param document
+	 *            [DESTINATION] The document to change.
+	 * @return [OBJECT] The changed ranges, sorted by their original offset.
+	 * @throws MalformedTreeException
+	 * @throws BadLocationException
+	 * @thematicgrid Putting Operations
+	 */
+	static List<ChangedRange> applyEdit(final TextEdit edit, final IDocument document)
+			throws MalformedTreeException, BadLocationException
+	{
+		final TextEdit[] topLevelEdits = edit.hasChildren() ? edit.getChildren()
+				: new TextEdit[] { edit };
+		final int[] originalOffsets = new int[topLevelEdits.length];
+		final int[] originalLengths = new int[topLevelEdits.length];
+		for (int i = 0; i < topLevelEdits.length; i++)
+		{
+			originalOffsets[i] = topLevelEdits[i].getOffset();
+			originalLengths[i] = topLevelEdits[i].getLength();
+		}
+
+		edit.apply(document, TextEdit.UPDATE_REGIONS);
+
+		final List<ChangedRange> ranges = new ArrayList<ChangedRange>(
+				topLevelEdits.length);
+		for (int i = 0; i < topLevelEdits.length; i++)
+		{
+			ranges.add(new ChangedRange(originalOffsets[i], originalLengths[i],
+					topLevelEdits[i].getLength()));
+		}
+		Collections.sort(ranges, BY_ORIGINAL_OFFSET);
+		return ranges;
+	}
+
+	/**
+	 * Computes the minimal {@link ReplaceEdit}s to turn <code>lastSource</code> into
+	 * <code>newSource</code>. Both sources are derived from the same original source;
+	 * outside of their changed ranges they contain the original text. So only the
+	 * merged changed ranges have to be compared.
+	 *
+	 * @param lastSource
+	 *            [SOURCE] The source to change.
+	 * @param lastChangedRanges
+	 *            [SOURCE] The ranges in which <code>lastSource</code> differs from the
+	 *            original source, sorted by their original offset.
+	 * @param newSource
+	 *            [OBJECT] The source to create.
+	 * @param newChangedRanges
+	 *            [OBJECT] The ranges in which <code>newSource</code> differs from the
+	 *            original source, sorted by their original offset.
+	 * @return [OBJECT] The edits in the coordinates of <code>lastSource</code>, sorted
+	 *         by their offset and not overlapping.
+	 * @thematicgrid Creating Operations
+	 */
+	static List<ReplaceEdit> computeEdits(final String lastSource,
+			final List<ChangedRange> lastChangedRanges, final String newSource,
+			final List<ChangedRange> newChangedRanges)
+	{
+		final List<ChangedRange> allRanges = new ArrayList<ChangedRange>(
+				lastChangedRanges.size() + newChangedRanges.size());
+		allRanges.addAll(lastChangedRanges);
+		allRanges.addAll(newChangedRanges);
+		Collections.sort(allRanges, BY_ORIGINAL_OFFSET);
+
+		final List<ReplaceEdit> edits = new ArrayList<ReplaceEdit>();
+		int lastIndex = 0;
+		int newIndex = 0;
+		int lastDelta = 0;
+		int newDelta = 0;
+
+		int i = 0;
+		while (i < allRanges.size())
+		{
+			// merge all overlapping or adjacent ranges
+			final int start = allRanges.get(i).originalOffset;
+			int end = allRanges.get(i).getOriginalEnd();
+			i++;
+			while (i < allRanges.size() && allRanges.get(i).originalOffset <= end)
+			{
+				end = Math.max(end, allRanges.get(i).getOriginalEnd());
+				i++;
+			}
+
+			// all ranges before the merged range are already consumed
+			int lastDeltaInside = 0;
+			while (lastIndex < lastChangedRanges.size()
+					&& lastChangedRanges.get(lastIndex).originalOffset <= end)
+			{
+				lastDeltaInside += lastChangedRanges.get(lastIndex++).getDelta();
+			}
+			int newDeltaInside = 0;
+			while (newIndex < newChangedRanges.size()
+					&& newChangedRanges.get(newIndex).originalOffset <= end)
+			{
+				newDeltaInside += newChangedRanges.get(newIndex++).getDelta();
+			}
+
+			addEdit(edits, lastSource, start + lastDelta, end - start + lastDeltaInside,
+					newSource, start + newDelta, end - start + newDeltaInside);
+
+			lastDelta += lastDeltaInside;
+			newDelta += newDeltaInside;
+		}
+
+		return edits;
+	}
+
+	/**
+	 * Adds a {@link ReplaceEdit} for the given ranges to <code>edits</code>, if they
+	 * differ. The common prefix and suffix of the ranges are not replaced.
+	 */
+	private static void addEdit(final List<ReplaceEdit> edits, final String lastSource,
+			final int lastOffset, final int lastLength, final String newSource,
+			final int newOffset, final int newLength)
+	{
+		int prefix = 0;
+		final int minLength = Math.min(lastLength, newLength);
+		while (prefix < minLength
+				&& lastSource.charAt(lastOffset + prefix) == newSource.charAt(newOffset
+						+ prefix))
+		{
+			prefix++;
+		}
+
+		int suffix = 0;
+		while (suffix < minLength - prefix
+				&& lastSource.charAt(lastOffset + lastLength - 1 - suffix) == newSource
+						.charAt(newOffset + newLength - 1 - suffix))
+		{
+			suffix++;
+		}
+
+		final int replacedLength = lastLength - prefix - suffix;
+		final int insertedLength = newLength - prefix - suffix;
+		if (replacedLength > 0 || insertedLength > 0)
+		{
+			edits.add(new ReplaceEdit(lastOffset + prefix, replacedLength, newSource
+					.substring(newOffset + prefix, newOffset + prefix + insertedLength)));
+		}
+	}
+}
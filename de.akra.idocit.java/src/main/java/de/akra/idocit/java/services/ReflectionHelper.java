@@ -50,7 +50,7 @@ import de.akra.idocit.java.structure.JavaParameter;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public class ReflectionHelper
@@ -117,6 +117,39 @@ public class ReflectionHelper
 		return doReflectParameter(parent, typeBinding, identifier, qualifiedIdentifier);
 	}
 
+	/**
+	 * Reflects the given <code>typeBinding</code> into an existing {@link JavaParameter}
+	 * , which was created without bindings. Its numerus and the flag for public
+	 * accessible attributes are set. The attributes are added to the parameter, if
+	 * <code>withAttributes</code> is <code>true</code>.
+	 * 
+	 * @param parameter
+	 *            [DESTINATION] The parameter with its data type names already set.
+	 * 
+	 * @param typeBinding
+	 *            [SOURCE] The {@link ITypeBinding} of the parameter's data type.
+	 * 
+	 * @param withAttributes
+	 *            [ATTRIBUTE] If <code>false</code>, no inner structure is added.
+	 * 
+	 * @since 0.0.3
+	 * @thematicgrid Putting Operations
+	 */
+	public void reflectInto(final JavaParameter parameter,
+			final ITypeBinding typeBinding, final boolean withAttributes)
+	{
+		parameter.setNumerus(deriveNumerus(typeBinding));
+		parameter.setHasPublicAccessibleAttributes(hasPublicAccessableAttributes(typeBinding));
+
+		if (withAttributes)
+		{
+			resetReflectedTypes();
+			final String qTypeName = parameter.getQualifiedDataTypeName();
+			reflectedTypes.add(qTypeName);
+			reflectAttributes(parameter, typeBinding, qTypeName);
+		}
+	}
+
 	/**
 	 * Rule: Returns <code>true</code> with the Java Type represented by the given binding
 	 * implements the interface "java.util.Collection".
@@ -205,29 +238,7 @@ public class ReflectionHelper
 		if (!reflectedTypes.contains(qTypeName))
 		{
 			reflectedTypes.add(qTypeName);
-			final List<JavaAttribute> accessableAttributes = findAttributesWithPublicGetterOrSetter(typeBinding
-					.getDeclaredMethods());
-
-			for (final JavaAttribute attribute : accessableAttributes)
-			{
-				newParameter.addParameter(doReflectParameter(newParameter,
-						attribute.getType(), attribute.getName(), qTypeName
-								+ JavaParser.delimiters.getNamespaceDelimiter()
-								+ attribute.getName()));
-			}
-
-			// check super classes for attributes with public getter or setter
-			final ITypeBinding superType = typeBinding.getSuperclass();
-
-			if (superType != null
-					&& !superType.getQualifiedName().equals(Object.class.getName()))
-			{
-				newParameter.addParameter(doReflectParameter(newParameter, superType,
-						SUPER_CLASS_IDENTIFIER, SUPER_CLASS_IDENTIFIER));
-			}
-
-			// remove type again, because reflecting this type ends
-			reflectedTypes.remove(qTypeName);
+			reflectAttributes(newParameter, typeBinding, qTypeName);
 		}
 		else
 		{
@@ -237,6 +248,39 @@ public class ReflectionHelper
 		return newParameter;
 	}
 
+	/**
+	 * Adds the attributes of the <code>typeBinding</code> and of its super classes to the
+	 * <code>parameter</code>. <code>qTypeName</code> must be in {@link #reflectedTypes}
+	 * and is removed at the end.
+	 */
+	private void reflectAttributes(final JavaParameter parameter,
+			final ITypeBinding typeBinding, final String qTypeName)
+	{
+		final List<JavaAttribute> accessableAttributes = findAttributesWithPublicGetterOrSetter(typeBinding
+				.getDeclaredMethods());
+
+		for (final JavaAttribute attribute : accessableAttributes)
+		{
+			parameter.addParameter(doReflectParameter(parameter, attribute.getType(),
+					attribute.getName(), qTypeName
+							+ JavaParser.delimiters.getNamespaceDelimiter()
+							+ attribute.getName()));
+		}
+
+		// check super classes for attributes with public getter or setter
+		final ITypeBinding superType = typeBinding.getSuperclass();
+
+		if (superType != null
+				&& !superType.getQualifiedName().equals(Object.class.getName()))
+		{
+			parameter.addParameter(doReflectParameter(parameter, superType,
+					SUPER_CLASS_IDENTIFIER, SUPER_CLASS_IDENTIFIER));
+		}
+
+		// remove type again, because reflecting this type ends
+		reflectedTypes.remove(qTypeName);
+	}
+
 	/**
 	 * Creates a {@link JavaParameter} with attributes read from the given
 	 * <code>typeBinding</code>.
@@ -19,6 +19,9 @@ import static de.akra.idocit.common.utils.ObjectUtils.notNull;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -52,6 +55,7 @@ import de.akra.idocit.java.constants.Constants;
 import de.akra.idocit.java.constants.CustomTaglets;
 import de.akra.idocit.java.exceptions.ParsingException;
 import de.akra.idocit.java.structure.JavaMethod;
+import de.akra.idocit.java.utils.JavadocTagLexer;
 import de.akra.idocit.java.utils.JavadocUtils;
 
 public class SimpleJavadocGenerator implements IJavadocGenerator
@@ -64,6 +68,70 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 
 	private static final String JAVADOC_OPTION_TAG = "-tag ";
 
+	private static final Pattern HTML_BR_PATTERN = Pattern.compile(Pattern.quote(HTML_BR));
+
+	private static final int MAX_ESCAPED_TEXTS = 512;
+
+	/**
+	 * The escaped texts by their unescaped texts (least recently used are evicted first).
+	 */
+	private static final Map<String, String> ESCAPED_TEXTS = new LinkedHashMap<String, String>(
+			64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, String> eldest)
+		{
+			return size() > MAX_ESCAPED_TEXTS;
+		}
+	};
+
+	/**
+	 * The additional tags of a Javadoc by tag name and identifier. The caller creates it
+	 * once per Javadoc, because the same tags are passed for each tag appended to the
+	 * Javadoc.
+	 */
+	static final class AdditionalTagIndex
+	{
+		private final Map<String, Set<String>> identifiersByTagName = new HashMap<String, Set<String>>();
+
+		AdditionalTagIndex(final List<TagElement> tagElements)
+		{
+			for (final TagElement element : tagElements)
+			{
+				final String tagName = element.getTagName();
+				if (tagName != null)
+				{
+					String identifier = JavadocUtils.readIdentifier(element);
+					if (identifier == null)
+					{
+						@SuppressWarnings("unchecked")
+						final String text = JavadocUtils.readFragments(element.fragments(),
+								0);
+						identifier = JavadocTagLexer.firstWord(text.trim());
+					}
+
+					if (identifier != null)
+					{
+						Set<String> identifiers = identifiersByTagName.get(tagName);
+						if (identifiers == null)
+						{
+							identifiers = new HashSet<String>();
+							identifiersByTagName.put(tagName, identifiers);
+						}
+						identifiers.add(identifier);
+					}
+				}
+			}
+		}
+
+		boolean contains(final String tagName, final String identifier)
+		{
+			final Set<String> identifiers = identifiersByTagName.get(tagName);
+			return (identifiers != null) && identifiers.contains(identifier);
+		}
+	}
+
 	/**
 	 * Logger
 	 */
@@ -172,7 +240,7 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 	 */
 	private String getDocText(final Documentation documentation)
 	{
-		if (documentation.getDocumentation() != null)
+		if (documentation.getDocumentationView() != null)
 		{
 
 			final StringBuffer docText = new StringBuffer();
@@ -183,7 +251,7 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 
 			docText.append(findDocTextByAddresseeName(
 					AddresseeConstants.MOST_IMPORTANT_ADDRESSEE,
-					documentation.getDocumentation()));
+					documentation.getDocumentationView()));
 
 			return StringUtils.toString(docText.toString()).trim();
 		}
@@ -435,41 +503,65 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 		return new String[] { signatureElementPath };
 	}
 
-	private String extractIdentifier(final Documentation documentation)
+	/**
+	 * Extracts the identifier of the documented element from the path of the
+	 * documentation, e.g. <code>customer.firstName</code> for a sub-parameter.
+	 * 
+	 * @param documentation
+	 *            [SOURCE]
+	 * @param identifiers
+	 *            The identifiers which were already extracted, by path.
+	 * @return [OBJECT] If the documentation has no path, an empty string is returned.
+	 * 
+	 * @thematicgrid Getting Operations
+	 */
+	private String extractIdentifier(final Documentation documentation,
+			final Map<String, String> identifiers)
 	{
-		final Delimiters delimiters = JavaParser.delimiters;
 		final String signatureElementPath = documentation.getSignatureElementIdentifier();
 
 		if (signatureElementPath != null)
 		{
-			final String[] path = extractLastPath(signatureElementPath, delimiters);
-			final StringBuffer buffer = new StringBuffer();
-
-			if (path.length > 2)
+			String identifier = identifiers.get(signatureElementPath);
+			if (identifier == null)
 			{
-				for (int i = 1; i < path.length; i++)
-				{
-					final String pathEntry = path[i];
-					final String identifer = extractLastIdentifier(delimiters, pathEntry);
-
-					buffer.append(identifer);
-					buffer.append('.');
-				}
+				identifier = extractIdentifier(signatureElementPath);
+				identifiers.put(signatureElementPath, identifier);
 			}
-			else
+			return identifier;
+		}
+
+		return StringUtils.EMPTY;
+	}
+
+	private String extractIdentifier(final String signatureElementPath)
+	{
+		final Delimiters delimiters = JavaParser.delimiters;
+		final String[] path = extractLastPath(signatureElementPath, delimiters);
+		final StringBuffer buffer = new StringBuffer();
+
+		if (path.length > 2)
+		{
+			for (int i = 1; i < path.length; i++)
 			{
-				final String identifer = extractLastIdentifier(delimiters,
-						path[path.length - 1]);
+				final String pathEntry = path[i];
+				final String identifer = extractLastIdentifier(delimiters, pathEntry);
 
 				buffer.append(identifer);
 				buffer.append('.');
 			}
+		}
+		else
+		{
+			final String identifer = extractLastIdentifier(delimiters,
+					path[path.length - 1]);
 
-			// jakr: omit the last character ('.')
-			return buffer.substring(0, buffer.toString().length() - 1).trim();
+			buffer.append(identifer);
+			buffer.append('.');
 		}
 
-		return StringUtils.EMPTY;
+		// jakr: omit the last character ('.')
+		return buffer.substring(0, buffer.toString().length() - 1).trim();
 	}
 
 	private String extractLastIdentifier(final Delimiters delimiters,
@@ -486,9 +578,7 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 
 	private String deriveTagElementName(final String tagElementName, final int docNumber)
 	{
-		if (TagElement.TAG_RETURN.equals(tagElementName)
-				|| TagElement.TAG_PARAM.equals(tagElementName)
-				|| TagElement.TAG_THROWS.equals(tagElementName))
+		if (JavadocTagLexer.classify(tagElementName).isJavadocStandard())
 		{
 			if (docNumber == 0)
 			{
@@ -531,6 +621,8 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 
 		if ((documentations != null) && !documentations.isEmpty())
 		{
+			final Map<String, String> identifiers = new HashMap<String, String>();
+
 			for (int i = 0; i < documentations.size(); i++)
 			{
 				final Documentation documentation = documentations.get(i);
@@ -544,7 +636,8 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 
 				if (!TagElement.TAG_RETURN.equals(tagElementName))
 				{
-					final String paramIdentifier = extractIdentifier(documentation);
+					final String paramIdentifier = extractIdentifier(documentation,
+							identifiers);
 					docText.append(StringUtils.toString(paramIdentifier).trim());
 					docText.append(StringUtils.SPACE);
 				}
@@ -584,37 +677,10 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 	}
 
 	private boolean containsTagElementWithIdentifier(final String tagName,
-			final String identifier, final List<TagElement> additionalTagElements)
+			final String identifier, final AdditionalTagIndex additionalTagIndex)
 	{
-		if (additionalTagElements != null)
-		{
-			for (final TagElement element : additionalTagElements)
-			{
-				final String currentTagName = element.getTagName();
-				String currentIdentifier = JavadocUtils.readIdentifier(element);
-
-				if ((currentTagName != null) && (currentTagName.equals(tagName)))
-				{
-					if (currentIdentifier == null)
-					{
-						@SuppressWarnings("unchecked")
-						final String[] splittedDocText = JavadocUtils
-								.readFragments(element.fragments(), 0).trim()
-								.split(StringUtils.SPACE);
-
-						currentIdentifier = splittedDocText[0];
-					}
-
-					if ((currentIdentifier != null)
-							&& (currentIdentifier.equals(identifier)))
-					{
-						return true;
-					}
-				}
-			}
-		}
-
-		return false;
+		return (additionalTagIndex != null)
+				&& additionalTagIndex.contains(tagName, identifier);
 	}
 
 	/**
@@ -633,9 +699,9 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 	 */
 	private void appendJavadoc(final List<Documentation> documentations,
 			final String tagName, final Javadoc javadoc, final String identifier,
-			final List<TagElement> additionalTagElements)
+			final AdditionalTagIndex additionalTagIndex)
 	{
-		if (!containsTagElementWithIdentifier(tagName, identifier, additionalTagElements))
+		if (!containsTagElementWithIdentifier(tagName, identifier, additionalTagIndex))
 		{
 			createParamJavadoc(documentations, javadoc, tagName, identifier);
 		}
@@ -666,62 +732,11 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 	{
 		final boolean introductionSentence = (first.getTagName() == null)
 				&& (second.getTagName() != null);
-		final boolean beforeParam = TagElement.TAG_PARAM.equals(second.getTagName());
-		final boolean beforeReturn = TagElement.TAG_RETURN.equals(second.getTagName());
-		final boolean beforeThrows = TagElement.TAG_THROWS.equals(second.getTagName());
+		final boolean beforeStandardTag = JavadocTagLexer.classify(second.getTagName())
+				.isJavadocStandard();
 
 		return !isEmptyRow(first) && !isEmptyRow(second)
-				&& (introductionSentence || beforeParam || beforeReturn || beforeThrows);
-	}
-
-	private List<TagElement> insertEmptyRows(final List<TagElement> tags,
-			final Javadoc javadoc)
-	{
-		if (tags != null)
-		{
-			final List<TagElement> resultTags = new ArrayList<TagElement>();
-
-			if (!tags.isEmpty())
-			{
-				if (tags.size() > 1)
-				{
-					final int lastIndex = tags.size() - 1;
-
-					// We start with i=1, because an empty row should never be added
-					// before the first sentence (at index 0). Its the same with the last
-					// tagElement. This is why our terminate-condition is "i < lastIndex"
-					// and not "i <= lastIndex".
-					for (int i = 0; i < lastIndex; i++)
-					{
-						final TagElement current = tags.get(i);
-						final TagElement next = tags.get(i + 1);
-						final TagElement emptyRow = createaEmptyJavadocRow(javadoc);
-
-						resultTags.add(current);
-
-						if (shouldInsertEmptyRow(current, next, i == 0))
-						{
-							resultTags.add(emptyRow);
-						}
-					}
-
-					resultTags.add(tags.get(lastIndex));
-				}
-				else if (!isEmptyRow(tags.get(0)))
-				{
-					resultTags.add(tags.get(0));
-					resultTags.add(createaEmptyJavadocRow(javadoc));
-				}
-				else
-				{
-					resultTags.add(tags.get(0));
-				}
-			}
-
-			return resultTags;
-		}
-
-		return null;
+				&& (introductionSentence || beforeStandardTag);
 	}
 
 	private boolean isEmptyElement(final TagElement tagElement)
@@ -740,90 +755,198 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 	{
 		@SuppressWarnings("unchecked")
 		final String text = JavadocUtils.readFragments(element.fragments(), 0);
-		return text.replaceAll(Pattern.quote(HTML_BR), JavadocUtils.NEW_LINE);
+		return text.replace(HTML_BR, JavadocUtils.NEW_LINE);
 	}
 
-	@SuppressWarnings("unchecked")
-	private List<TagElement> mergeTagElements(final List<TagElement> unmergedTagElements)
+	private static boolean endsWith(final StringBuilder text, final String suffix)
 	{
-		final List<TagElement> mergedTagElements = new ArrayList<TagElement>();
+		final int offset = text.length() - suffix.length();
+		return (offset >= 0) && (text.indexOf(suffix, offset) == offset);
+	}
+
+	/**
+	 * Merges each tag element without tag name into the preceding tag element and passes
+	 * the merged tag elements to the <code>emitter</code> in the order of the
+	 * Javadoc. Empty tag elements are dropped, and nothing is kept if the first tag
+	 * element is empty.
+	 * 
+	 * @param unmergedTagElements
+	 *            [SOURCE]
+	 * @param emitter
+	 *            [DESTINATION]
+	 * 
+	 * @thematicgrid Putting Operations
+	 */
+	private void mergeTagElements(final List<TagElement> unmergedTagElements,
+			final TagEmitter emitter) throws ParserConfigurationException, SAXException,
+			IOException
+	{
+		if (unmergedTagElements.isEmpty() || isEmptyElement(unmergedTagElements.get(0)))
+		{
+			return;
+		}
+
+		TagElement lastElement = unmergedTagElements.get(0);
+		final StringBuilder lastElementText = new StringBuilder();
+		lastElementText.append(readFragments(lastElement).trim());
 
-		if ((unmergedTagElements != null) && !unmergedTagElements.isEmpty())
+		for (int i = 1; i < unmergedTagElements.size(); i++)
 		{
-			int elementIndex = 0;
-			TagElement currentElement = unmergedTagElements.get(elementIndex);
+			final TagElement currentElement = unmergedTagElements.get(i);
 
-			// Look for the first "not empty"-element.
-			while (isEmptyElement(currentElement)
-					&& (elementIndex < unmergedTagElements.size()))
+			if (!isEmptyElement(currentElement))
 			{
-				elementIndex++;
+				if (currentElement.getTagName() == null)
+				{
+					if (!endsWith(lastElementText, JavadocUtils.NEW_LINE))
+					{
+						lastElementText.append(JavadocUtils.NEW_LINE);
+					}
+
+					if (!endsWith(lastElementText, StringUtils.SPACE))
+					{
+						lastElementText.append(StringUtils.SPACE);
+					}
+					lastElementText.append(readFragments(currentElement).trim());
+				}
+				else
+				{
+					emitter.emit(lastElement, lastElementText.toString().trim());
+
+					lastElement = currentElement;
+					lastElementText.setLength(0);
+					lastElementText.append(readFragments(lastElement).trim());
+				}
 			}
+		}
 
-			// Was our search for a "not empty" element successful?
-			if (!isEmptyElement(currentElement))
+		emitter.emit(lastElement, lastElementText.toString().trim());
+	}
+
+	/**
+	 * Emits merged tag elements as rows of the Javadoc in one ordered walk: the text of
+	 * each tag element is escaped and split into rows at its line breaks, and empty rows
+	 * are inserted before the sections.
+	 */
+	private final class TagEmitter
+	{
+		private final Javadoc javadoc;
+		private final AST ast;
+		private final List<TagElement> rows = new ArrayList<TagElement>();
+		private TagElement lastRow = null;
+		private int rowCount = 0;
+
+		TagEmitter(final Javadoc javadoc)
+		{
+			this.javadoc = javadoc;
+			this.ast = javadoc.getAST();
+		}
+
+		/**
+		 * Emits the rows of a merged tag element.
+		 * 
+		 * @param tagElement
+		 *            [SOURCE] Its fragments are replaced by the <code>text</code>.
+		 * @param text
+		 *            [OBJECT] The merged and trimmed text of the tag element.
+		 */
+		@SuppressWarnings("unchecked")
+		void emit(final TagElement tagElement, final String text)
+				throws ParserConfigurationException, SAXException, IOException
+		{
+			tagElement.fragments().clear();
+			final TextElement mergedFragment = ast.newTextElement();
+			mergedFragment.setText(text);
+			tagElement.fragments().add(mergedFragment);
+
+			if (!text.isEmpty())
 			{
-				TagElement lastElement = currentElement;
-				StringBuffer lastElementText = new StringBuffer();
-				lastElementText.append(readFragments(lastElement).trim());
+				final String escapedDocText = escapeHtml4(text);
 
-				for (int i = elementIndex + 1; i < unmergedTagElements.size(); i++)
+				TagElement newTagElement = ast.newTagElement();
+				newTagElement.setTagName(tagElement.getTagName());
+				TextElement identifierElement = ast.newTextElement();
+
+				if (escapedDocText.lastIndexOf(HTML_BR) > -1)
 				{
-					currentElement = unmergedTagElements.get(i);
+					final String[] splittedText = appendBRTag(HTML_BR_PATTERN
+							.split(escapedDocText));
 
-					if (!isEmptyElement(currentElement))
-					{
-						if (currentElement.getTagName() == null)
-						{
-							if (!lastElementText.toString().endsWith(
-									JavadocUtils.NEW_LINE))
-							{
-								lastElementText.append(JavadocUtils.NEW_LINE);
-							}
-
-							if (!lastElementText.toString().endsWith(StringUtils.SPACE))
-							{
-								lastElementText.append(StringUtils.SPACE);
-							}
-							final String curElemText = readFragments(currentElement)
-									.trim();
-							lastElementText.append(curElemText);
-						}
-						else
-						{
-							lastElement.fragments().clear();
-							final TextElement newFragment = lastElement.getAST()
-									.newTextElement();
-							newFragment.setText(lastElementText.toString().trim());
-							lastElement.fragments().add(newFragment);
+					identifierElement.setText(splittedText[0]);
+					newTagElement.fragments().add(identifierElement);
+					addRow(newTagElement);
 
-							mergedTagElements.add(lastElement);
+					for (int i = 1; i < splittedText.length; i++)
+					{
+						newTagElement = ast.newTagElement();
+						identifierElement = ast.newTextElement();
+						identifierElement.setText(splittedText[i]);
+						newTagElement.fragments().add(identifierElement);
 
-							lastElement = currentElement;
-							lastElementText = new StringBuffer();
-							lastElementText.append(readFragments(lastElement).trim());
-						}
+						addRow(newTagElement);
 					}
 				}
+				else
+				{
+					identifierElement.setText(escapedDocText);
+					newTagElement.fragments().add(identifierElement);
+
+					addRow(newTagElement);
+				}
+			}
+			else
+			{
+				addRow(tagElement);
+			}
+		}
 
-				lastElement.fragments().clear();
-				final TextElement newFragment = lastElement.getAST().newTextElement();
-				newFragment.setText(lastElementText.toString().trim());
-				lastElement.fragments().add(newFragment);
-				mergedTagElements.add(lastElement);
+		private void addRow(final TagElement row)
+		{
+			if ((lastRow != null) && shouldInsertEmptyRow(lastRow, row, rowCount == 1))
+			{
+				rows.add(createaEmptyJavadocRow(javadoc));
 			}
+			rows.add(row);
+			lastRow = row;
+			rowCount++;
 		}
 
-		return mergedTagElements;
+		/**
+		 * @return [OBJECT] All emitted rows. A single row is followed by an empty row.
+		 */
+		List<TagElement> finish()
+		{
+			if ((rows.size() == 1) && !isEmptyRow(lastRow))
+			{
+				rows.add(createaEmptyJavadocRow(javadoc));
+			}
+			return rows;
+		}
 	}
 
-	private void insertEmptyRows(final Javadoc javadoc)
+	/**
+	 * Escapes the <code>text</code> with {@link JavadocUtils#escapeHtml4(String)}. The
+	 * results are cached, because the texts of a Javadoc are escaped again each time a
+	 * tag is appended to it.
+	 */
+	private static String escapeHtml4(final String text)
+			throws ParserConfigurationException, SAXException, IOException
 	{
-		@SuppressWarnings("unchecked")
-		final List<TagElement> tags = javadoc.tags();
-		final List<TagElement> tagsWithEmptyRows = insertEmptyRows(tags, javadoc);
-		tags.clear();
-		tags.addAll(tagsWithEmptyRows);
+		String escapedText;
+		synchronized (ESCAPED_TEXTS)
+		{
+			escapedText = ESCAPED_TEXTS.get(text);
+		}
+
+		if (escapedText == null)
+		{
+			escapedText = JavadocUtils.escapeHtml4(text);
+			synchronized (ESCAPED_TEXTS)
+			{
+				ESCAPED_TEXTS.put(text, escapedText);
+			}
+		}
+		return escapedText;
 	}
 
 	/**
@@ -870,6 +993,36 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 			final String tagName, final String paramName, final String thematicGridName,
 			final Javadoc javadoc, final List<TagElement> additionalTagElements,
 			final JavaMethod method) throws ParsingException
+	{
+		AdditionalTagIndex additionalTagIndex = null;
+		if ((tagName != null) && (additionalTagElements != null))
+		{
+			additionalTagIndex = new AdditionalTagIndex(additionalTagElements);
+		}
+		appendDocsToJavadoc(documentations, tagName, paramName, thematicGridName,
+				javadoc, additionalTagElements, additionalTagIndex, method);
+	}
+
+	/**
+	 * Like
+	 * {@link #appendDocsToJavadoc(List, String, String, String, Javadoc, List, JavaMethod)}
+	 * , but with the index of the <code>additionalTagElements</code>, which is created
+	 * once for all tags of the Javadoc.
+	 * 
+	 * @param additionalTagIndex
+	 *            [ATTRIBUTE] The index of the <code>additionalTagElements</code>, or
+	 *            <code>null</code> if there are none.
+	 * 
+	 * @throws ParsingException
+	 *             [NONE]
+	 * @thematicgrid Putting Operations
+	 * @since 0.0.11
+	 */
+	void appendDocsToJavadoc(final List<Documentation> documentations,
+			final String tagName, final String paramName, final String thematicGridName,
+			final Javadoc javadoc, final List<TagElement> additionalTagElements,
+			final AdditionalTagIndex additionalTagIndex, final JavaMethod method)
+			throws ParsingException
 	{
 		checkInvariant(documentations);
 
@@ -880,20 +1033,19 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 		else
 		{
 			appendJavadoc(documentations, tagName, javadoc, paramName,
-					additionalTagElements);
+					additionalTagIndex);
 		}
 
 		@SuppressWarnings("unchecked")
 		final List<TagElement> tags = javadoc.tags();
-		final List<TagElement> copiedTags = new ArrayList<TagElement>();
-		copiedTags.addAll(tags);
+		final List<TagElement> copiedTags = new ArrayList<TagElement>(tags);
 		tags.clear();
 
-		List<TagElement> mergedTags = mergeTagElements(copiedTags);
 		try
 		{
-			tags.addAll(splitTextInToFragments(mergedTags, javadoc.getAST()));
-			insertEmptyRows(javadoc);
+			final TagEmitter emitter = new TagEmitter(javadoc);
+			mergeTagElements(copiedTags, emitter);
+			tags.addAll(emitter.finish());
 		}
 		catch (ParserConfigurationException e)
 		{
@@ -954,68 +1106,6 @@ public class SimpleJavadocGenerator implements IJavadocGenerator
 		return lines;
 	}
 
-	@SuppressWarnings("unchecked")
-	private List<TagElement> splitTextInToFragments(final List<TagElement> tagElements,
-			final AST ast) throws ParserConfigurationException, SAXException, IOException
-	{
-		final List<TagElement> result = new ArrayList<TagElement>();
-
-		for (final TagElement tagElement : tagElements)
-		{
-			final String unescapedDocText = JavadocUtils.readFragments(
-					tagElement.fragments(), 0);
-			final String tagIdentifier = tagElement.getTagName();
-
-			if ((unescapedDocText != null) && !unescapedDocText.isEmpty())
-			{
-				final String escapedDocText = JavadocUtils.escapeHtml4(unescapedDocText);
-
-				TagElement newTagElement = ast.newTagElement();
-				newTagElement.setTagName(tagIdentifier);
-				List<ASTNode> fragments = newTagElement.fragments();
-
-				TextElement identifierElement = ast.newTextElement();
-
-				if (escapedDocText.lastIndexOf(HTML_BR) > -1)
-				{
-					String[] splittedText = escapedDocText.split(Pattern.quote(HTML_BR));
-					splittedText = appendBRTag(splittedText);
-
-					identifierElement.setText(splittedText[0]);
-					fragments.add(identifierElement);
-					result.add(newTagElement);
-
-					if (splittedText.length > 1)
-					{
-						for (int i = 1; i < splittedText.length; i++)
-						{
-							newTagElement = ast.newTagElement();
-							fragments = newTagElement.fragments();
-							identifierElement = ast.newTextElement();
-							identifierElement.setText(splittedText[i]);
-							fragments.add(identifierElement);
-
-							result.add(newTagElement);
-						}
-					}
-				}
-				else
-				{
-					identifierElement.setText(escapedDocText);
-					fragments.add(identifierElement);
-
-					result.add(newTagElement);
-				}
-			}
-			else
-			{
-				result.add(tagElement);
-			}
-		}
-
-		return result;
-	}
-
 	/**
 	 * Generate the command line options for the Javadoc Generator from the given
 	 * <code>roles</code> and from all {@link CustomTaglets}.
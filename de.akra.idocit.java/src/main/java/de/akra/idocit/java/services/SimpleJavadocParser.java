@@ -44,21 +44,16 @@ import de.akra.idocit.common.utils.StringUtils;
 import de.akra.idocit.common.utils.ThematicRoleUtils;
 import de.akra.idocit.core.constants.AddresseeConstants;
 import de.akra.idocit.java.constants.Constants;
-import de.akra.idocit.java.constants.CustomTaglets;
 import de.akra.idocit.java.exceptions.ParsingException;
 import de.akra.idocit.java.structure.JavaMethod;
 import de.akra.idocit.java.structure.JavaParameter;
+import de.akra.idocit.java.utils.JavadocTagLexer;
+import de.akra.idocit.java.utils.JavadocTagLexer.TagKind;
 import de.akra.idocit.java.utils.JavadocUtils;
 
 public final class SimpleJavadocParser extends AbsJavadocParser
 {
 	private static final String ERR_MSG_NOT_EXISTING_RETURN_TYPE_IS_DOCUMENTED = "For method '%s' there is documented a return type although it does not exist. Please delete the '@return ...' tag from Javadoc comment and open the file again.";
-	private static final String SUB_RETURN_PATTERN = CustomTaglets.SUB_RETURN
-			.getTagName() + "\\s*";
-	private static final String SUB_PARAM_PATTERN = CustomTaglets.SUB_PARAM.getTagName()
-			+ "\\s*";
-	private static final String THEMATIC_GRID_PATTERN = CustomTaglets.THEMATIC_GRID
-			.getTagName() + "\\s*";
 
 	private class StructuredJavaDoc
 	{
@@ -444,24 +439,20 @@ public final class SimpleJavadocParser extends AbsJavadocParser
 				while (prev >= 0)
 				{
 					final TagElement parentParamTag = (TagElement) tags.get(prev);
+					final TagKind parentKind = JavadocTagLexer.classify(parentParamTag
+							.getTagName());
 
 					// In a @return-tag no identifier is mentioned. So must not test
 					// against @return here.
-					if (TagElement.TAG_PARAM.equals(parentParamTag.getTagName())
-							|| TagElement.TAG_THROWS.equals(parentParamTag.getTagName()))
+					if (parentKind == TagKind.PARAM || parentKind == TagKind.THROWS)
 					{
 						@SuppressWarnings("unchecked")
 						final String parentText = JavadocUtils.readFragments(
 								parentParamTag.fragments(), 0);
 
-						if (parentText.contains(StringUtils.SPACE))
-						{
-							return parentText.split(StringUtils.SPACE)[0];
-						}
-
-						return parentText;
+						return JavadocTagLexer.firstWord(parentText);
 					}
-					else if (TagElement.TAG_RETURN.equals(parentParamTag.getTagName()))
+					else if (parentKind == TagKind.RETURN)
 					{
 						final JavaParameter returnType = (JavaParameter) method
 								.getOutputParameters().getParameters().get(0);
@@ -494,30 +485,6 @@ public final class SimpleJavadocParser extends AbsJavadocParser
 		return null;
 	}
 
-	private String[] extractIdentifierChain(String subParamText)
-	{
-		if (subParamText.contains("."))
-		{
-			String[] chain = subParamText.split("\\.");
-
-			for (int i = 0; i < chain.length; i++)
-			{
-				chain[i] = chain[i].trim();
-			}
-
-			return chain;
-		}
-		else if (subParamText.contains(StringUtils.SPACE))
-		{
-			// It could be that there is only the identifier and a description, e.g.
-			// "@param identifier description". In this case the result should only
-			// contain "identifier".
-			return new String[] { subParamText.split(StringUtils.SPACE)[0].trim() };
-		}
-
-		return new String[] { subParamText.trim() };
-	}
-
 	private String extractParentIdentifierPath(String identifier, TagElement tagElement,
 			List<? extends Parameter> parameters, JavaMethod method)
 	{
@@ -553,7 +520,7 @@ public final class SimpleJavadocParser extends AbsJavadocParser
 			List<? extends Parameter> parameters, JavaMethod method)
 			throws ParsingException
 	{
-		String[] parameterNames = extractIdentifierChain(identifier);
+		String[] parameterNames = JavadocTagLexer.extractIdentifierChain(identifier);
 		Javadoc javadoc = (Javadoc) tagElement.getParent();
 		String parentParamIdentifier = readParentParamterName(javadoc, tagElement, method);
 
@@ -893,7 +860,7 @@ public final class SimpleJavadocParser extends AbsJavadocParser
 			// Parse Rule (Checking Operations) or Action (else)
 			for (final TagElement tag : tags)
 			{
-				if (!CustomTaglets.THEMATIC_GRID.getTagName().equals(tag.getTagName())
+				if (JavadocTagLexer.classify(tag.getTagName()) != TagKind.THEMATIC_GRID
 						&& !isAdditionalTag(tag.getTagName(), thematicRoles))
 				{
 					final Documentation documentation = createDocumentation(tag,
@@ -931,19 +898,24 @@ public final class SimpleJavadocParser extends AbsJavadocParser
 			return false;
 		}
 
-		final boolean isParam = tagName.matches(JAVADOC_TAG_PARAM);
-		final boolean isSubParam = tagName.matches(SUB_PARAM_PATTERN);
-		final boolean isThrows = tagName.matches(JAVADOC_TAG_THROWS);
-		final boolean isReturn = tagName.matches(JAVADOC_TAG_RETURN);
-		final boolean isSubReturn = tagName.matches(SUB_RETURN_PATTERN);
-		final boolean isThematicGrid = tagName.matches(THEMATIC_GRID_PATTERN);
-		// When passing the rolename, remove the '@' at the beginning of the tagname!
-		final boolean isKnownThematicRole = isKnownThematicRole(tagName.substring(1),
-				knownThematicRoles);
-		final boolean isInfoParam = JavadocUtils.isIdocItInfoTag(tagName);
-
-		return !(isParam || isSubParam || isThrows || isReturn || isSubReturn
-				|| isThematicGrid || isKnownThematicRole || isInfoParam);
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		switch (kind)
+		{
+		case PARAM:
+		case SUB_PARAM:
+		case THROWS:
+		case RETURN:
+		case SUB_RETURN:
+		case THEMATIC_GRID:
+		case PARAM_INFO:
+		case RETURN_INFO:
+		case THROWS_INFO:
+			return false;
+		default:
+			// When passing the rolename, remove the '@' at the beginning of the
+			// tagname!
+			return !isKnownThematicRole(tagName.substring(1), knownThematicRoles);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
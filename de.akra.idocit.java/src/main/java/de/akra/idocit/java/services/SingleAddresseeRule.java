@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.core.extensions.ValidationFinding;
+import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
+import de.akra.idocit.core.extensions.ValidationRule;
+
+/**
+ * Reports an error for each element which is documented for other addressees than the
+ * given one (see {@link AddresseeUtils#checkDocumentations(List, String)}).
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+final class SingleAddresseeRule implements ValidationRule
+{
+	private final String addresseeName;
+
+	private final String message;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param addresseeName
+	 *            [ATTRIBUTE] The name of the only allowed addressee.
+	 * @param message
+	 *            [ATTRIBUTE] The message of the findings.
+	 */
+	SingleAddresseeRule(final String addresseeName, final String message)
+	{
+		this.addresseeName = addresseeName;
+		this.message = message;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<ValidationFinding> validate(final SignatureElement element)
+	{
+		if (AddresseeUtils.checkDocumentations(element.getDocumentations(), addresseeName))
+		{
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(new ValidationFinding(ValidationCode.ERROR,
+				message, element));
+	}
+}
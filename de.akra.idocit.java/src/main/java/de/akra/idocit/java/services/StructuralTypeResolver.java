@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ArrayType;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.WildcardType;
+
+import de.akra.idocit.common.structure.Delimiters;
+import de.akra.idocit.common.structure.Numerus;
+import de.akra.idocit.common.structure.Parameter;
+import de.akra.idocit.common.structure.SignatureElement;
+import de.akra.idocit.common.utils.SignatureElementUtils;
+import de.akra.idocit.java.structure.IDeferredTypeReflection;
+import de.akra.idocit.java.structure.JavaParameter;
+
+/**
+ * Creates {@link JavaParameter}s from an AST without bindings.
+ * <p>
+ * The qualified names of the data types are resolved with the Java model in the
+ * context of the declaring type, so they are the same as the names of the bindings.
+ * The reflection of the data types, which needs bindings, is deferred until the
+ * parameter's numerus, attributes or inner structure are read (see
+ * {@link IDeferredTypeReflection}). Then only the binding of the parameter's type is
+ * created. Type arguments are not considered by the deferred reflection, the
+ * attributes of a generic type keep their type variables.
+ * </p>
+ * <p>
+ * The resolver is thread-safe, the methods of a type may be processed in parallel.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+final class StructuralTypeResolver
+{
+	private static final Logger logger = Logger.getLogger(StructuralTypeResolver.class
+			.getName());
+
+	/**
+	 * Reflects the type with the qualified name {@link #typeName} on first access.
+	 */
+	private static final class DeferredReflection implements IDeferredTypeReflection
+	{
+		private final IJavaProject project;
+		private final String typeName;
+		private final Delimiters delimiters;
+		private final boolean withAttributes;
+
+		DeferredReflection(final IJavaProject project, final String typeName,
+				final Delimiters delimiters, final boolean withAttributes)
+		{
+			this.project = project;
+			this.typeName = typeName;
+			this.delimiters = delimiters;
+			this.withAttributes = withAttributes;
+		}
+
+		@Override
+		public void reflect(final JavaParameter parameter)
+		{
+			final ITypeBinding typeBinding = createTypeBinding();
+			if (typeBinding != null)
+			{
+				new ReflectionHelper().reflectInto(parameter, typeBinding, withAttributes);
+				for (final Parameter attribute : parameter.getComplexType())
+				{
+					SignatureElementUtils.setParametersPaths(delimiters,
+							parameter.getSignatureElementPath(), attribute);
+				}
+			}
+		}
+
+		private ITypeBinding createTypeBinding()
+		{
+			try
+			{
+				final IType type = project.findType(typeName);
+				if (type != null)
+				{
+					final ASTParser parser = ASTParser.newParser(AST.JLS3);
+					parser.setProject(project);
+					final IBinding[] bindings = parser.createBindings(
+							new IJavaElement[] { type }, null);
+					if (bindings.length == 1 && bindings[0] instanceof ITypeBinding)
+					{
+						return (ITypeBinding) bindings[0];
+					}
+				}
+			}
+			catch (final JavaModelException e)
+			{
+				logger.log(Level.WARNING, "Could not reflect the type " + typeName, e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The type in which context the names are resolved, may be <code>null</code>.
+	 */
+	private final IType declaringType;
+
+	private final Delimiters delimiters;
+
+	/**
+	 * The resolved qualified names by the names as they are written in the source.
+	 */
+	private final Map<String, String> qualifiedNames = Collections
+			.synchronizedMap(new HashMap<String, String>());
+
+	/**
+	 * The names which could not be resolved, e.g. type variables.
+	 */
+	private final Set<String> unresolvedNames = Collections
+			.synchronizedSet(new HashSet<String>());
+
+	/**
+	 * Constructor.
+	 *
+	 * @param declaringType
+	 *            The type in which context the names are resolved. If it is
+	 *            <code>null</code> the names are taken as they are written.
+	 * @param delimiters
+	 *            The {@link Delimiters} for creating paths.
+	 */
+	StructuralTypeResolver(final IType declaringType, final Delimiters delimiters)
+	{
+		this.declaringType = declaringType;
+		this.delimiters = delimiters;
+	}
+
+	/**
+	 * Creates a {@link JavaParameter} for a parameter, return type or thrown exception
+	 * with a deferred reflection of its data type. Arrays, primitive types and type
+	 * variables are not reflected, like with bindings they have no attributes.
+	 *
+	 * @param parent
+	 *            [DESTINATION] Parent of the new parameter.
+	 * @param parentPath
+	 *            [ATTRIBUTE] The path of the parent, see
+	 *            {@link SignatureElementUtils#setParametersPaths(Delimiters, String, Parameter)}
+	 *            .
+	 * @param type
+	 *            [SOURCE] The declared type.
+	 * @param dimensions
+	 *            [ATTRIBUTE] The number of extra dimensions, e.g. of varargs.
+	 * @param identifier
+	 *            [ATTRIBUTE] The identifier, or <code>null</code> to use the name of
+	 *            the data type.
+	 * @param withAttributes
+	 *            [ATTRIBUTE] If <code>false</code>, the inner structure is not
+	 *            reflected (e.g. for thrown exceptions).
+	 * @return [OBJECT] Never <code>null</code>.
+	 * @thematicgrid Creating Operations
+	 */
+	JavaParameter createParameter(final SignatureElement parent,
+			final String parentPath, final Type type, final int dimensions,
+			final String identifier, final boolean withAttributes)
+	{
+		final StringBuilder arrayDimensions = new StringBuilder();
+		for (int i = 0; i < dimensions; i++)
+		{
+			arrayDimensions.append("[]");
+		}
+
+		final Type erasure = type.isParameterizedType() ? ((ParameterizedType) type)
+				.getType() : type;
+		final boolean reflectable = dimensions == 0
+				&& (erasure.isSimpleType() || erasure.isQualifiedType());
+		return createParameter(parent, parentPath, nameOf(type) + arrayDimensions,
+				qualifiedNameOf(type) + arrayDimensions,
+				reflectable ? nameAsWritten(erasure) : null, identifier, withAttributes);
+	}
+
+	/**
+	 * Creates a {@link JavaParameter} for a thrown exception. Its inner structure is not
+	 * reflected.
+	 *
+	 * @param parent
+	 *            [DESTINATION] Parent of the new parameter.
+	 * @param parentPath
+	 *            [ATTRIBUTE] The path of the parent.
+	 * @param name
+	 *            [SOURCE] The name of the exception's type.
+	 * @return [OBJECT] Never <code>null</code>.
+	 * @see #createParameter(SignatureElement, String, Type, int, String, boolean)
+	 * @thematicgrid Creating Operations
+	 */
+	JavaParameter createParameter(final SignatureElement parent,
+			final String parentPath, final Name name)
+	{
+		final String qualifiedName = resolve(name.getFullyQualifiedName());
+		return createParameter(parent, parentPath,
+				qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1),
+				qualifiedName, name.getFullyQualifiedName(), null, false);
+	}
+
+	private JavaParameter createParameter(final SignatureElement parent,
+			final String parentPath, final String dataTypeName,
+			final String qualifiedDataTypeName,
+			final String erasureAsWritten, final String identifier,
+			final boolean withAttributes)
+	{
+		final JavaParameter parameter = new JavaParameter(parent, Numerus.SINGULAR,
+				false);
+		parameter.setIdentifier(identifier != null ? identifier : dataTypeName);
+		parameter.setQualifiedIdentifier(identifier != null ? identifier
+				: qualifiedDataTypeName);
+		parameter.setDataTypeName(dataTypeName);
+		parameter.setQualifiedDataTypeName(qualifiedDataTypeName);
+		// the path is set before the reflection is deferred, because setting the paths
+		// of the inner structure would reflect it
+		SignatureElementUtils.setParametersPaths(delimiters, parentPath, parameter);
+
+		if (erasureAsWritten != null && declaringType != null
+				&& !unresolvedNames.contains(erasureAsWritten))
+		{
+			parameter.setDeferredReflection(new DeferredReflection(declaringType
+					.getJavaProject(), resolve(erasureAsWritten), delimiters,
+					withAttributes));
+		}
+		return parameter;
+	}
+
+	/**
+	 * @return The name of the type like {@link ITypeBinding#getName()}, e.g.
+	 *         <code>"List&lt;String&gt;"</code>.
+	 */
+	String nameOf(final Type type)
+	{
+		return toString(type, false);
+	}
+
+	/**
+	 * @return The qualified name of the type like
+	 *         {@link ITypeBinding#getQualifiedName()}, e.g.
+	 *         <code>"java.util.List&lt;java.lang.String&gt;"</code>.
+	 */
+	String qualifiedNameOf(final Type type)
+	{
+		return toString(type, true);
+	}
+
+	private String toString(final Type type, final boolean qualified)
+	{
+		switch (type.getNodeType())
+		{
+		case ASTNode.PRIMITIVE_TYPE:
+			return ((PrimitiveType) type).getPrimitiveTypeCode().toString();
+		case ASTNode.ARRAY_TYPE:
+		{
+			final ArrayType arrayType = (ArrayType) type;
+			final StringBuilder name = new StringBuilder(toString(
+					arrayType.getElementType(), qualified));
+			for (int i = 0; i < arrayType.getDimensions(); i++)
+			{
+				name.append("[]");
+			}
+			return name.toString();
+		}
+		case ASTNode.SIMPLE_TYPE:
+		case ASTNode.QUALIFIED_TYPE:
+		{
+			final String qualifiedName = resolve(nameAsWritten(type));
+			return qualified ? qualifiedName : qualifiedName.substring(qualifiedName
+					.lastIndexOf('.') + 1);
+		}
+		case ASTNode.PARAMETERIZED_TYPE:
+		{
+			final ParameterizedType paramType = (ParameterizedType) type;
+			final StringBuilder name = new StringBuilder(toString(paramType.getType(),
+					qualified));
+			name.append('<');
+			@SuppressWarnings("unchecked")
+			final Iterator<Type> iterTypeArgs = ((List<Type>) paramType.typeArguments())
+					.iterator();
+			while (iterTypeArgs.hasNext())
+			{
+				name.append(toString(iterTypeArgs.next(), qualified));
+				if (iterTypeArgs.hasNext())
+				{
+					name.append(',');
+				}
+			}
+			name.append('>');
+			return name.toString();
+		}
+		case ASTNode.WILDCARD_TYPE:
+		{
+			final WildcardType wildcard = (WildcardType) type;
+			if (wildcard.getBound() == null)
+			{
+				return "?";
+			}
+			return (wildcard.isUpperBound() ? "? extends " : "? super ")
+					+ toString(wildcard.getBound(), qualified);
+		}
+		default:
+			return ReflectionHelper.extractIdentifierFrom(type);
+		}
+	}
+
+	/**
+	 * @return The name of a simple or qualified type as it is written in the source.
+	 */
+	private static String nameAsWritten(final Type type)
+	{
+		if (type.isSimpleType())
+		{
+			return ((SimpleType) type).getName().getFullyQualifiedName();
+		}
+		else if (type.isQualifiedType())
+		{
+			final QualifiedType qType = (QualifiedType) type;
+			final Type qualifier = qType.getQualifier();
+			final Type erasure = qualifier.isParameterizedType() ? ((ParameterizedType) qualifier)
+					.getType() : qualifier;
+			return nameAsWritten(erasure) + "." + qType.getName().getIdentifier();
+		}
+		return ReflectionHelper.extractIdentifierFrom(type);
+	}
+
+	/**
+	 * Resolves the <code>name</code> with the imports and the type hierarchy of
+	 * {@link #declaringType}.
+	 *
+	 * @return The dot-separated qualified name, or <code>name</code> if it can not be
+	 *         resolved (e.g. a type variable).
+	 */
+	private String resolve(final String name)
+	{
+		if (declaringType == null)
+		{
+			return name;
+		}
+
+		String qualifiedName = qualifiedNames.get(name);
+		if (qualifiedName == null)
+		{
+			String[][] resolved = null;
+			try
+			{
+				resolved = declaringType.resolveType(name);
+			}
+			catch (final JavaModelException e)
+			{
+				logger.log(Level.FINE, "Could not resolve type " + name, e);
+			}
+
+			if (resolved != null && resolved.length > 0)
+			{
+				qualifiedName = resolved[0][0].length() > 0 ? resolved[0][0] + "."
+						+ resolved[0][1] : resolved[0][1];
+			}
+			else
+			{
+				qualifiedName = name;
+				unresolvedNames.add(name);
+			}
+			qualifiedNames.put(name, qualifiedName);
+		}
+		return qualifiedName;
+	}
+}
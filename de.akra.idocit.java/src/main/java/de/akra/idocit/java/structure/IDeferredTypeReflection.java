@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.structure;
+
+/**
+ * The reflection of the data type of a {@link JavaParameter}, which is done when the
+ * parameter's numerus, attributes or inner structure are needed the first time.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see JavaParameter#setDeferredReflection(IDeferredTypeReflection)
+ */
+public interface IDeferredTypeReflection
+{
+	/**
+	 * Reflects the data type of the <code>parameter</code> and sets its numerus, the
+	 * flag for public accessible attributes and its inner structure.
+	 *
+	 * @param parameter
+	 *            [DESTINATION] The parameter, which data type names are already set.
+	 * @thematicgrid Putting Operations
+	 */
+	void reflect(JavaParameter parameter);
+}
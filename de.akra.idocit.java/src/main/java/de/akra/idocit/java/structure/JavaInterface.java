@@ -31,7 +31,7 @@ import de.akra.idocit.common.structure.SignatureElement;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public class JavaInterface extends Interface
@@ -49,6 +49,19 @@ public class JavaInterface extends Interface
 	 */
 	private List<TagElement> additionalTags = Collections.emptyList();
 
+	/**
+	 * Start position of the name of the declaration in the original source. It is used
+	 * to find the declaration again after the AST was released (see
+	 * {@link JavaInterfaceArtifact#isDetached()}). <code>-1</code> if unknown.
+	 */
+	private int nameStartPosition = -1;
+
+	/**
+	 * Key of the declaration to verify that the declaration found at
+	 * {@link #nameStartPosition} is the right one.
+	 */
+	private String nodeKey;
+
 	/**
 	 * Constructor
 	 * 
@@ -86,6 +99,8 @@ public class JavaInterface extends Interface
 		JavaInterface ji = (JavaInterface) signatureElement;
 		ji.setRefToASTNode(refToASTNode);
 		ji.setAdditionalTags(additionalTags);
+		ji.setNameStartPosition(nameStartPosition);
+		ji.setNodeKey(nodeKey);
 	}
 
 	/**
@@ -115,6 +130,42 @@ public class JavaInterface extends Interface
 		return additionalTags;
 	}
 
+	/**
+	 * @return the start position of the name of the declaration in the original source,
+	 *         or <code>-1</code> if unknown.
+	 */
+	public int getNameStartPosition()
+	{
+		return nameStartPosition;
+	}
+
+	/**
+	 * @param nameStartPosition
+	 *            the start position of the name of the declaration in the original
+	 *            source.
+	 */
+	public void setNameStartPosition(int nameStartPosition)
+	{
+		this.nameStartPosition = nameStartPosition;
+	}
+
+	/**
+	 * @return the key of the declaration.
+	 */
+	public String getNodeKey()
+	{
+		return nodeKey;
+	}
+
+	/**
+	 * @param nodeKey
+	 *            the key of the declaration.
+	 */
+	public void setNodeKey(String nodeKey)
+	{
+		this.nodeKey = nodeKey;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package de.akra.idocit.java.structure;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import de.akra.idocit.common.structure.InterfaceArtifact;
@@ -26,18 +27,30 @@ import de.akra.idocit.common.structure.SignatureElement;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class JavaInterfaceArtifact extends InterfaceArtifact
 {
 	/**
-	 * The {@link CompilationUnit} of the Java source.
+	 * The {@link CompilationUnit} of the Java source. It is <code>null</code> if this
+	 * artifact is detached.
 	 */
 	private CompilationUnit compilationUnit;
 
+	/**
+	 * The {@link ICompilationUnit} to which the changes are written. It is only set for
+	 * detached artifacts, otherwise it is the Java element of {@link #compilationUnit}.
+	 */
+	private ICompilationUnit workingCopy;
+
 	private String originalDocument;
 
+	/**
+	 * The state of the last write of this artifact. It is only used by the writer.
+	 */
+	private Object writtenState;
+
 	/**
 	 * Constructor
 	 * 
@@ -80,7 +93,11 @@ public class JavaInterfaceArtifact extends InterfaceArtifact
 	@Override
 	protected void doCopyTo(SignatureElement signatureElement)
 	{
-		// do nothing, as the CompilationUnit was set via the constructor
+		// the CompilationUnit was set via the constructor
+		final JavaInterfaceArtifact artifact = (JavaInterfaceArtifact) signatureElement;
+		artifact.setWorkingCopy(workingCopy);
+		artifact.setOriginalDocument(originalDocument);
+		artifact.setWrittenState(writtenState);
 	}
 
 	/**
@@ -91,6 +108,64 @@ public class JavaInterfaceArtifact extends InterfaceArtifact
 		return compilationUnit;
 	}
 
+	/**
+	 * @param compilationUnit
+	 *            the compilationUnit to set, <code>null</code> to release it
+	 */
+	public void setCompilationUnit(CompilationUnit compilationUnit)
+	{
+		this.compilationUnit = compilationUnit;
+	}
+
+	/**
+	 * A detached artifact does not reference the AST of the Java source. Its
+	 * {@link JavaInterface}s and {@link JavaMethod}s only know their positions in the
+	 * {@link #getOriginalDocument()}. To write it, a new AST has to be created.
+	 * 
+	 * @return <code>true</code> if this artifact is detached.
+	 */
+	public boolean isDetached()
+	{
+		return compilationUnit == null && workingCopy != null;
+	}
+
+	/**
+	 * @return the {@link ICompilationUnit} to which the changes are written. For
+	 *         attached artifacts it is the Java element of the
+	 *         {@link #getCompilationUnit()}.
+	 */
+	public ICompilationUnit getWorkingCopy()
+	{
+		return workingCopy != null || compilationUnit == null ? workingCopy
+				: (ICompilationUnit) compilationUnit.getJavaElement();
+	}
+
+	/**
+	 * @param workingCopy
+	 *            the {@link ICompilationUnit} to which the changes are written
+	 */
+	public void setWorkingCopy(ICompilationUnit workingCopy)
+	{
+		this.workingCopy = workingCopy;
+	}
+
+	/**
+	 * @return the state of the last write
+	 */
+	public Object getWrittenState()
+	{
+		return writtenState;
+	}
+
+	/**
+	 * @param writtenState
+	 *            the state of the last write
+	 */
+	public void setWrittenState(Object writtenState)
+	{
+		this.writtenState = writtenState;
+	}
+
 	/**
 	 * @return the originalDocument
 	 */
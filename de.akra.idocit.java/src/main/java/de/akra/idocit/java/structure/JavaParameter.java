@@ -15,6 +15,10 @@
  *******************************************************************************/
 package de.akra.idocit.java.structure;
 
+import java.util.List;
+
+import de.akra.idocit.common.structure.Delimiters;
+import de.akra.idocit.common.structure.Documentation;
 import de.akra.idocit.common.structure.Numerus;
 import de.akra.idocit.common.structure.Parameter;
 import de.akra.idocit.common.structure.SignatureElement;
@@ -25,14 +29,24 @@ import de.akra.idocit.common.utils.StringUtils;
  * If it is a parameter or return type and has further internal structures, e.g. is an
  * object and not a simple type, this parameter describes the whole structure. If it is a
  * thrown exception only the <code>identifier</code> is used.
+ * <p>
+ * If the parameter was parsed without bindings, the reflection of its data type is
+ * deferred until its numerus, attributes or inner structure are read the first time.
+ * Until then {@link #size()} does not count the inner structure.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class JavaParameter extends Parameter
 {
+	/**
+	 * The pending reflection of the data type, or <code>null</code> if it is done.
+	 */
+	private IDeferredTypeReflection deferredReflection;
+
 	/**
 	 * Constructor
 	 * 
@@ -53,7 +67,9 @@ public class JavaParameter extends Parameter
 	@Override
 	protected SignatureElement createSignatureElement(SignatureElement parent)
 	{
-		return new JavaParameter(parent,getNumerus(), hasPublicAccessibleAttributes());
+		// the copy reflects the data type itself, if it is still pending
+		return new JavaParameter(parent, super.getNumerus(),
+				super.hasPublicAccessibleAttributes());
 	}
 
 	/**
@@ -65,6 +81,85 @@ public class JavaParameter extends Parameter
 	@Override
 	protected void doCopyTo(SignatureElement signatureElement)
 	{
-		// do nothing
+		synchronized (this)
+		{
+			((JavaParameter) signatureElement).deferredReflection = deferredReflection;
+		}
+	}
+
+	/**
+	 * Sets the pending reflection of the data type.
+	 * 
+	 * @param deferredReflection
+	 *            [OBJECT] The reflection to do on first access, or <code>null</code>.
+	 * @thematicgrid Setting Operation / Setter
+	 */
+	public synchronized void setDeferredReflection(
+			IDeferredTypeReflection deferredReflection)
+	{
+		this.deferredReflection = deferredReflection;
+	}
+
+	/**
+	 * @return [REPORT] <code>true</code> if the data type is reflected.
+	 * @thematicgrid Checking Operations
+	 */
+	public synchronized boolean isReflected()
+	{
+		return deferredReflection == null;
+	}
+
+	/**
+	 * Does the pending reflection of the data type, if any.
+	 */
+	private synchronized void reflectIfDeferred()
+	{
+		if (deferredReflection != null)
+		{
+			final IDeferredTypeReflection reflection = deferredReflection;
+			deferredReflection = null;
+			reflection.reflect(this);
+		}
+	}
+
+	@Override
+	public Numerus getNumerus()
+	{
+		reflectIfDeferred();
+		return super.getNumerus();
+	}
+
+	@Override
+	public boolean hasPublicAccessibleAttributes()
+	{
+		reflectIfDeferred();
+		return super.hasPublicAccessibleAttributes();
+	}
+
+	@Override
+	public List<Parameter> getComplexType()
+	{
+		reflectIfDeferred();
+		return super.getComplexType();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The data type is only reflected if the <code>documentation</code> belongs to its
+	 * inner structure.
+	 */
+	@Override
+	public boolean addMatchingDocumentation(Delimiters delimiters,
+			Documentation documentation, String parameterPath)
+	{
+		final String identifier = documentation.getSignatureElementIdentifier();
+		if (!isReflected() && identifier != null && getSignatureElementPath() != null
+				&& identifier.startsWith(getSignatureElementPath()
+						+ delimiters.getPathDelimiter()))
+		{
+			reflectIfDeferred();
+		}
+		return super.addMatchingDocumentation(delimiters, documentation, parameterPath);
 	}
 }
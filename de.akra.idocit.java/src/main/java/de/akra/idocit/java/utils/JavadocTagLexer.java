@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.java.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.TagElement;
+
+import de.akra.idocit.java.constants.CustomTaglets;
+
+/**
+ * Lexer for Javadoc tag names and tag texts. It replaces the formerly used regular
+ * expressions (e.g. <code>tagName.matches("@param\\s*")</code>), which were compiled
+ * again on every call, by a single lookup of the tag name and a single scan of the
+ * tag text.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class JavadocTagLexer
+{
+	/**
+	 * The kinds of Javadoc tags known by iDocIt!.
+	 */
+	public enum TagKind
+	{
+		/**
+		 * The general description of a Javadoc (tag name is <code>null</code>).
+		 */
+		DESCRIPTION,
+		PARAM,
+		RETURN,
+		THROWS,
+		PARAM_INFO,
+		RETURN_INFO,
+		THROWS_INFO,
+		SUB_PARAM,
+		SUB_PARAM_INFO,
+		SUB_RETURN,
+		SUB_RETURN_INFO,
+		SUB_THROWS_INFO,
+		THEMATIC_GRID,
+		/**
+		 * Any other tag, e.g. a thematic role or a tag unknown to iDocIt!.
+		 */
+		OTHER;
+
+		/**
+		 * @return <code>true</code> if this is <code>@param</code>, <code>@return</code>
+		 *         or <code>@throws</code>.
+		 */
+		public boolean isJavadocStandard()
+		{
+			return this == PARAM || this == RETURN || this == THROWS;
+		}
+
+		/**
+		 * @return <code>true</code> if this is <code>@paraminfo</code>,
+		 *         <code>@returninfo</code> or <code>@throwsinfo</code>.
+		 */
+		public boolean isInfo()
+		{
+			return this == PARAM_INFO || this == RETURN_INFO || this == THROWS_INFO;
+		}
+
+		/**
+		 * @return <code>true</code> if this is one of the info tags including the ones
+		 *         for sub-elements.
+		 */
+		public boolean isAnyInfo()
+		{
+			return isInfo() || this == SUB_PARAM_INFO || this == SUB_RETURN_INFO
+					|| this == SUB_THROWS_INFO;
+		}
+	}
+
+	/**
+	 * Tag names (with leading '@') mapped to their kind.
+	 */
+	private static final Map<String, TagKind> KINDS_BY_TAG_NAME;
+
+	static
+	{
+		final Map<String, TagKind> kinds = new HashMap<String, TagKind>(32);
+		kinds.put(TagElement.TAG_PARAM, TagKind.PARAM);
+		kinds.put(TagElement.TAG_RETURN, TagKind.RETURN);
+		kinds.put(TagElement.TAG_THROWS, TagKind.THROWS);
+		kinds.put(CustomTaglets.PARAM_INFO.getTagName(), TagKind.PARAM_INFO);
+		kinds.put(CustomTaglets.RETURN_INFO.getTagName(), TagKind.RETURN_INFO);
+		kinds.put(CustomTaglets.THROWS_INFO.getTagName(), TagKind.THROWS_INFO);
+		kinds.put(CustomTaglets.SUB_PARAM.getTagName(), TagKind.SUB_PARAM);
+		kinds.put(CustomTaglets.SUB_PARAM_INFO.getTagName(), TagKind.SUB_PARAM_INFO);
+		kinds.put(CustomTaglets.SUB_RETURN.getTagName(), TagKind.SUB_RETURN);
+		kinds.put(CustomTaglets.SUB_RETURN_INFO.getTagName(), TagKind.SUB_RETURN_INFO);
+		kinds.put(CustomTaglets.SUB_THROWS_INFO.getTagName(), TagKind.SUB_THROWS_INFO);
+		kinds.put(CustomTaglets.THEMATIC_GRID.getTagName(), TagKind.THEMATIC_GRID);
+		KINDS_BY_TAG_NAME = kinds;
+	}
+
+	private static final String[] EMPTY_CHAIN = new String[0];
+
+	/**
+	 * Private constructor, only static methods.
+	 */
+	private JavadocTagLexer()
+	{}
+
+	/**
+	 * Classifies the Javadoc tag with the name <code>tagName</code>. Trailing
+	 * whitespaces are ignored, like it was done by the former patterns
+	 * <code>"@param\\s*"</code>.
+	 *
+	 * @param tagName
+	 *            [OBJECT] The name of the tag including the leading '@', or
+	 *            <code>null</code> for the general description.
+	 * @return [OBJECT] The kind of the tag. Never <code>null</code>.
+	 */
+	public static TagKind classify(final String tagName)
+	{
+		if (tagName == null)
+		{
+			return TagKind.DESCRIPTION;
+		}
+
+		int end = tagName.length();
+		while (end > 0 && Character.isWhitespace(tagName.charAt(end - 1)))
+		{
+			end--;
+		}
+
+		// only allocate a new string if there is trailing whitespace, which is rare
+		final String name = end == tagName.length() ? tagName : tagName.substring(0,
+				end);
+		final TagKind kind = KINDS_BY_TAG_NAME.get(name);
+		return kind != null ? kind : TagKind.OTHER;
+	}
+
+	/**
+	 * Extracts the chain of identifiers out of a tag text like
+	 * <code>"person.address.street"</code> in a single scan. Each identifier is
+	 * trimmed. Trailing empty identifiers are dropped (like {@link String#split(String)}
+	 * does). If the text contains no '.', only the first word is returned, e.g. for
+	 * <code>"identifier description"</code> the result is <code>["identifier"]</code>.
+	 *
+	 * @param text
+	 *            [OBJECT] The text to scan.
+	 * @return [OBJECT] The chain of identifiers.
+	 */
+	public static String[] extractIdentifierChain(final String text)
+	{
+		final int length = text.length();
+		List<String> chain = null;
+		int firstSpace = -1;
+		int start = 0;
+		int trailingEmpty = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			final char c = text.charAt(i);
+			if (c == '.')
+			{
+				if (chain == null)
+				{
+					chain = new ArrayList<String>(4);
+				}
+				chain.add(text.substring(start, i).trim());
+				trailingEmpty = (start == i) ? trailingEmpty + 1 : 0;
+				start = i + 1;
+			}
+			else if (c == ' ' && firstSpace < 0)
+			{
+				firstSpace = i;
+			}
+		}
+
+		if (chain != null)
+		{
+			chain.add(text.substring(start).trim());
+			trailingEmpty = (start == length) ? trailingEmpty + 1 : 0;
+
+			final int size = chain.size() - trailingEmpty;
+			return size == 0 ? EMPTY_CHAIN : chain.subList(0, size).toArray(
+					new String[size]);
+		}
+		else if (firstSpace >= 0)
+		{
+			// It could be that there is only the identifier and a description, e.g.
+			// "@param identifier description". In this case the result should only
+			// contain "identifier".
+			return new String[] { text.substring(0, firstSpace).trim() };
+		}
+
+		return new String[] { text.trim() };
+	}
+
+	/**
+	 * Returns the text up to the first space, e.g. the parameter name out of the text
+	 * <code>"identifier description"</code> of a <code>@param</code> tag.
+	 *
+	 * @param text
+	 *            [OBJECT] The text to read.
+	 * @return [OBJECT] The first word, or the whole <code>text</code> if it contains no
+	 *         space.
+	 */
+	public static String firstWord(final String text)
+	{
+		final int space = text.indexOf(' ');
+		return space < 0 ? text : text.substring(0, space);
+	}
+}
@@ -44,10 +44,10 @@ import org.xml.sax.ext.DefaultHandler2;
 
 import de.akra.idocit.common.constants.Misc;
 import de.akra.idocit.java.constants.Constants;
-import de.akra.idocit.java.constants.CustomTaglets;
 import de.akra.idocit.java.services.HTMLTableParser;
 import de.akra.idocit.java.services.ReflectionHelper;
 import de.akra.idocit.java.structure.StringReplacement;
+import de.akra.idocit.java.utils.JavadocTagLexer.TagKind;
 
 public class JavadocUtils
 {
@@ -107,71 +107,63 @@ public class JavadocUtils
 
 	public static boolean isParamInfo(final String tagName)
 	{
-		return CustomTaglets.PARAM_INFO.getTagName().equals(tagName);
+		return JavadocTagLexer.classify(tagName) == TagKind.PARAM_INFO;
 	}
 
 	public static boolean isThrowsInfo(final String tagName)
 	{
-		return CustomTaglets.THROWS_INFO.getTagName().equals(tagName);
+		return JavadocTagLexer.classify(tagName) == TagKind.THROWS_INFO;
 	}
 
 	public static boolean isReturnInfo(final String tagName)
 	{
-		return CustomTaglets.RETURN_INFO.getTagName().equals(tagName);
+		return JavadocTagLexer.classify(tagName) == TagKind.RETURN_INFO;
 	}
 
 	public static boolean isSubParam(final String tagName)
 	{
-		return CustomTaglets.SUB_PARAM.getTagName().equals(tagName);
+		return JavadocTagLexer.classify(tagName) == TagKind.SUB_PARAM;
 	}
 
 	public static boolean isParam(final String tagName)
 	{
-		return TagElement.TAG_PARAM.equals(tagName)
-				|| CustomTaglets.PARAM_INFO.getTagName().equals(tagName);
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		return kind == TagKind.PARAM || kind == TagKind.PARAM_INFO;
 	}
 
 	public static boolean isThrows(final String tagName)
 	{
-		return TagElement.TAG_THROWS.equals(tagName)
-				|| CustomTaglets.THROWS_INFO.getTagName().equals(tagName);
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		return kind == TagKind.THROWS || kind == TagKind.THROWS_INFO;
 	}
 
 	public static boolean isReturn(final String tagName)
 	{
-		return TagElement.TAG_RETURN.equals(tagName)
-				|| CustomTaglets.RETURN_INFO.getTagName().equals(tagName);
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		return kind == TagKind.RETURN || kind == TagKind.RETURN_INFO;
 	}
 
 	public static boolean isStandardJavadocTaglet(final String tagName)
 	{
-		boolean isReturn = isReturn(tagName);
-		boolean isThrows = TagElement.TAG_THROWS.equals(tagName);
-
-		return isParam(tagName) || isReturn || isThrows;
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		return kind.isJavadocStandard() || kind == TagKind.PARAM_INFO
+				|| kind == TagKind.RETURN_INFO;
 	}
 
 	public static boolean isSubReturn(final String tagName)
 	{
-		return CustomTaglets.SUB_RETURN.getTagName().equals(tagName);
+		return JavadocTagLexer.classify(tagName) == TagKind.SUB_RETURN;
 	}
 
 	public static boolean isIdocitJavadocTaglet(final String tagName)
 	{
-		boolean isSubParam = isSubParam(tagName);
-		boolean isSubReturn = isSubReturn(tagName);
-		boolean isInfoTag = isIdocItInfoTag(tagName);
-
-		return isSubParam || isSubReturn || isInfoTag;
+		final TagKind kind = JavadocTagLexer.classify(tagName);
+		return kind == TagKind.SUB_PARAM || kind == TagKind.SUB_RETURN || kind.isInfo();
 	}
 
 	public static boolean isIdocItInfoTag(final String tagName)
 	{
-		boolean paramInfo = CustomTaglets.PARAM_INFO.getTagName().equals(tagName);
-		boolean returnInfo = CustomTaglets.RETURN_INFO.getTagName().equals(tagName);
-		boolean throwsInfo = CustomTaglets.THROWS_INFO.getTagName().equals(tagName);
-
-		return paramInfo || returnInfo || throwsInfo;
+		return JavadocTagLexer.classify(tagName).isInfo();
 	}
 
 	public static String readIdentifier(final TagElement tag)
@@ -394,12 +386,7 @@ public class JavadocUtils
 
 	public static boolean isInfoTagElement(String tagElementName)
 	{
-		return CustomTaglets.PARAM_INFO.getTagName().equals(tagElementName)
-				|| CustomTaglets.SUB_PARAM_INFO.getTagName().equals(tagElementName)
-				|| CustomTaglets.RETURN_INFO.getTagName().equals(tagElementName)
-				|| CustomTaglets.SUB_RETURN_INFO.getTagName().equals(tagElementName)
-				|| CustomTaglets.THROWS_INFO.getTagName().equals(tagElementName)
-				|| CustomTaglets.SUB_THROWS_INFO.getTagName().equals(tagElementName);
+		return JavadocTagLexer.classify(tagElementName).isAnyInfo();
 	}
 
 	private static String quoteFormatChars(String unquotedString)
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.ui.actions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.DirectoryDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.IActionDelegate;
+import org.eclipse.ui.IObjectActionDelegate;
+import org.eclipse.ui.IWorkbenchPart;
+
+import de.akra.idocit.common.utils.StringUtils;
+import de.akra.idocit.core.exceptions.UnitializedIDocItException;
+import de.akra.idocit.core.services.impl.HTMLSiteExporter;
+import de.akra.idocit.core.services.impl.HTMLSiteExporter.ExportResult;
+import de.akra.idocit.core.services.impl.ParsingService;
+import de.akra.idocit.core.services.impl.ServiceManager;
+import de.akra.idocit.ui.Activator;
+import de.akra.idocit.ui.UIGlobals;
+import de.akra.idocit.ui.utils.MessageBoxUtils;
+
+/**
+ * PopupMenu action to export the documentation of all supported files in the selected
+ * projects, packages or folders as HTML site. The export runs as background
+ * {@link Job}.
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see HTMLSiteExporter
+ */
+public class HTMLSiteExport implements IObjectActionDelegate
+{
+	/**
+	 * Logger.
+	 */
+	private static Logger logger = Logger.getLogger(HTMLSiteExport.class.getName());
+
+	private Shell shell;
+
+	private IStructuredSelection selection;
+
+	/**
+	 * @see IObjectActionDelegate#setActivePart(IAction, IWorkbenchPart)
+	 */
+	public void setActivePart(IAction action, IWorkbenchPart targetPart)
+	{
+		shell = targetPart.getSite().getShell();
+	}
+
+	/**
+	 * @see IActionDelegate#run(IAction)
+	 */
+	public void run(final IAction action)
+	{
+		if (selection == null || selection.isEmpty())
+		{
+			return;
+		}
+
+		final List<IFile> files;
+		try
+		{
+			files = collectSupportedFiles(selection);
+		}
+		catch (final CoreException e)
+		{
+			final String msg = "Could not collect the files to export.";
+			logger.log(Level.SEVERE, msg, e);
+			MessageBoxUtils.openErrorBox(shell, msg + StringUtils.NEW_LINE
+					+ StringUtils.NEW_LINE + e.getMessage(), e);
+			return;
+		}
+
+		if (files.isEmpty())
+		{
+			MessageBoxUtils.openErrorBox(shell,
+					"The selection contains no files supported by iDocIt!.");
+			return;
+		}
+
+		final DirectoryDialog dirDialog = new DirectoryDialog(shell, SWT.NONE);
+		dirDialog.setText("Export Documentation as HTML-site");
+		dirDialog.setMessage("Select the destination directory of the HTML-site.");
+		dirDialog.setFilterPath(UIGlobals.getLastSelectedPathInFileDialog());
+		final String selectedDir = dirDialog.open();
+
+		if (selectedDir != null)
+		{
+			UIGlobals.setLastSelectedPathInFileDialog(selectedDir);
+			scheduleExport(files, new File(selectedDir));
+		}
+	}
+
+	/**
+	 * Runs the export of the <code>files</code> into <code>destinationDir</code> as
+	 * user {@link Job}.
+	 */
+	private void scheduleExport(final List<IFile> files, final File destinationDir)
+	{
+		final Job job = new Job("Export iDocIt! documentation") {
+			@Override
+			protected IStatus run(final IProgressMonitor monitor)
+			{
+				try
+				{
+					final ExportResult result = new HTMLSiteExporter(destinationDir)
+							.export(files, monitor);
+
+					logger.log(Level.INFO, "Exported " + result.getExported().size()
+							+ ", unchanged " + result.getSkipped().size() + ", failed "
+							+ result.getFailed().size() + " files to "
+							+ destinationDir.getAbsolutePath());
+
+					if (!result.getFailed().isEmpty())
+					{
+						return new Status(IStatus.WARNING, Activator.PLUGIN_ID,
+								"Could not export documentation for "
+										+ result.getFailed());
+					}
+					return Status.OK_STATUS;
+				}
+				catch (final OperationCanceledException e)
+				{
+					return Status.CANCEL_STATUS;
+				}
+				catch (final InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					return Status.CANCEL_STATUS;
+				}
+				catch (final Exception e)
+				{
+					final String msg = "Could not export documentation to "
+							+ destinationDir.getAbsolutePath();
+					logger.log(Level.SEVERE, msg, e);
+					return new Status(IStatus.ERROR, Activator.PLUGIN_ID, msg, e);
+				}
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+
+	/**
+	 * Collects all files within the selected resources which are supported by a
+	 * registered parser.
+	 *
+	 * @param structuredSelection
+	 *            The selected files, folders, projects or (adaptable) Java elements.
+	 * @return The supported files.
+	 * @throws CoreException
+	 *             If a resource could not be visited.
+	 */
+	private static List<IFile> collectSupportedFiles(
+			final IStructuredSelection structuredSelection) throws CoreException
+	{
+		final ParsingService parsingService = ServiceManager.getInstance()
+				.getParsingService();
+		final List<IFile> files = new ArrayList<IFile>();
+		final IResourceVisitor visitor = new IResourceVisitor() {
+			@Override
+			public boolean visit(final IResource resource) throws CoreException
+			{
+				if (resource.getType() == IResource.FILE)
+				{
+					final String type = resource.getFileExtension();
+					try
+					{
+						if (type != null && parsingService.isSupported(type))
+						{
+							files.add((IFile) resource);
+						}
+					}
+					catch (final UnitializedIDocItException e)
+					{
+						logger.log(Level.WARNING, "The ParsingService is not initialized.",
+								e);
+					}
+					return false;
+				}
+				return !resource.isDerived() && !resource.isTeamPrivateMember();
+			}
+		};
+
+		for (final Object element : structuredSelection.toList())
+		{
+			IResource resource = null;
+			if (element instanceof IResource)
+			{
+				resource = (IResource) element;
+			}
+			else if (element instanceof IAdaptable)
+			{
+				resource = (IResource) ((IAdaptable) element).getAdapter(IResource.class);
+			}
+
+			if (resource instanceof IContainer || resource instanceof IFile)
+			{
+				resource.accept(visitor);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @see IActionDelegate#selectionChanged(IAction, ISelection)
+	 */
+	public void selectionChanged(IAction action, ISelection selection)
+	{
+		this.selection = (selection instanceof IStructuredSelection) ? (IStructuredSelection) selection
+				: null;
+	}
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +51,8 @@ import org.pocui.core.composites.ISelectionListener;
 import org.pocui.core.composites.PocUIComposite;
 import org.pocui.swt.containers.workbench.AbsEditorPart;
 
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.SignatureElement;
@@ -73,7 +76,7 @@ import de.akra.idocit.ui.utils.MessageBoxUtils;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.3
  * 
  */
 public class DocumentationEditor
@@ -128,7 +131,14 @@ public class DocumentationEditor
 						{
 							editorParentLayout.topControl = rootComposite;
 
-							init(getEditorSite(), getEditorInput());
+							// Only load the artifact again if it was not loaded with
+							// the configuration of this initialization (e.g. the
+							// editor was opened after the initialization finished).
+							if (loadedWithInitialization != IDocItActivator
+									.getInitialization())
+							{
+								init(getEditorSite(), getEditorInput());
+							}
 
 							rootComposite.getParent().layout();
 						}
@@ -158,6 +168,12 @@ public class DocumentationEditor
 
 	private DocumentationEditorConfigListener listener = new DocumentationEditorConfigListener();
 
+	/**
+	 * The finished initialization of iDocIt! with whose configuration the artifact was
+	 * loaded, or <code>null</code> if it is not loaded yet.
+	 */
+	private Future<Boolean> loadedWithInitialization = null;
+
 	private Font initializationFont = null;
 
 	// Listeners
@@ -241,8 +257,13 @@ public class DocumentationEditor
 		setSite(site);
 		setInput(input);
 
-		if (IDocItActivator.isInitializedAtStartup())
+		// If the initialization is still running, the artifact is loaded when the
+		// listener is informed that it has finished.
+		final Future<Boolean> initialization = IDocItActivator.getInitialization();
+		if (initialization.isDone())
 		{
+			loadedWithInitialization = initialization;
+
 			setupConfigChangeListener();
 
 			List<Addressee> addressees = ServiceManager.getInstance()
@@ -289,20 +310,20 @@ public class DocumentationEditor
 					// ... and load it.
 					try
 					{
-						logger.log(Level.INFO, "Start parsing");
+						// The parsing is measured by the persistence service.
 						InterfaceArtifact interfaceArtifact = ServiceManager
 								.getInstance().getPersistenceService()
 								.loadInterface(interfaceIFile);
 						selection.setInterfaceArtifact(interfaceArtifact);
 						selection.setArtifactFile(interfaceIFile);
-						logger.log(Level.INFO, "End parsing");
-						logger.log(Level.INFO, "InterfaceArtifact.size="
-								+ interfaceArtifact.size());
+						Metrics.histogram("ui.editor.artifactSize").update(
+								interfaceArtifact.size());
 
-						logger.log(Level.INFO, "Start copy");
+						final Timer copyTimer = Metrics.timer("ui.editor.copy");
+						final long copyStart = copyTimer.start();
 						initialInterfaceArtifact = (InterfaceArtifact) interfaceArtifact
 								.copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
-						logger.log(Level.INFO, "End copy");
+						copyTimer.stop(copyStart);
 
 						setPartName(interfaceIFile.getName() + " - "
 								+ DialogConstants.DIALOG_TITLE);
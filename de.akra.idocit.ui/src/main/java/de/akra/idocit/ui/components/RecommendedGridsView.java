@@ -19,10 +19,13 @@ import java.util.HashSet;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.part.ViewPart;
 
 import de.akra.idocit.common.structure.ThematicGrid;
 import de.akra.idocit.common.structure.ThematicRole;
+import de.akra.idocit.core.IDocItActivator;
+import de.akra.idocit.core.listeners.IDocItInitializationListener;
 import de.akra.idocit.ui.composites.RecommendRolesComposite;
 import de.akra.idocit.ui.composites.RecommendRolesCompositeRC;
 import de.akra.idocit.ui.composites.RecommendRolesCompositeSelection;
@@ -50,6 +53,38 @@ public class RecommendedGridsView extends ViewPart
 	 */
 	private RecommendedGridsViewSelection selection;
 
+	/**
+	 * Shows the recommendations again when an initialization of iDocIt! has finished,
+	 * because they may have been derived with the configuration before it.
+	 */
+	private final IDocItInitializationListener initializationListener = new IDocItInitializationListener() {
+
+		@Override
+		public void initializationStarted()
+		{
+			// nothing to do
+		}
+
+		@Override
+		public void initializationFinished()
+		{
+			Display.getDefault().asyncExec(new Runnable() {
+				@Override
+				public void run()
+				{
+					if (recommendRolesComposite != null
+							&& !recommendRolesComposite.isDisposed()
+							&& selection != null)
+					{
+						final RecommendedGridsViewSelection current = selection;
+						setSelection(null);
+						setSelection(current);
+					}
+				}
+			});
+		}
+	};
+
 	/**
 	 * The constructor.
 	 */
@@ -105,6 +140,18 @@ public class RecommendedGridsView extends ViewPart
 		this.recommendRolesComposite = new RecommendRolesComposite(parent, SWT.NONE,
 				resConf);
 		this.recommendRolesComposite.setSelection(new RecommendRolesCompositeSelection());
+
+		IDocItActivator.addConfigurationListener(initializationListener);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void dispose()
+	{
+		IDocItActivator.removeConfigurationListener(initializationListener);
+		super.dispose();
 	}
 
 	/**
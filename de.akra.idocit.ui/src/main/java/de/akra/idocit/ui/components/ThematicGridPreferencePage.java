@@ -19,6 +19,8 @@ import java.util.List;
 
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
 import org.pocui.core.actions.EmptyActionConfiguration;
@@ -33,6 +35,7 @@ import de.akra.idocit.core.IDocItActivator;
 import de.akra.idocit.core.constants.PreferenceStoreConstants;
 import de.akra.idocit.core.exceptions.UnitializedIDocItException;
 import de.akra.idocit.core.listeners.IConfigurationChangeListener;
+import de.akra.idocit.core.listeners.IDocItInitializationListener;
 import de.akra.idocit.core.services.impl.ServiceManager;
 import de.akra.idocit.ui.composites.ManageThematicGridsComposite;
 import de.akra.idocit.ui.composites.ManageThematicGridsCompositeSelection;
@@ -43,14 +46,71 @@ import de.akra.idocit.ui.utils.MessageBoxUtils;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  */
 public class ThematicGridPreferencePage
 		extends
 		AbsPreferencePage<EmptyActionConfiguration, EmptyResourceConfiguration, ManageThematicGridsCompositeSelection>
 {
+	private static final String MSG_INITIALIZING = "iDocIt! is being initialized. The thematic grids are loaded when it has finished.";
+
 	private IConfigurationChangeListener thematicRoleConfigChangeListener;
 
+	/**
+	 * Shows whether iDocIt! is being initialized. If the page was opened while the
+	 * initialization was running, the thematic grids are loaded when it has finished.
+	 */
+	private final IDocItInitializationListener initializationListener = new IDocItInitializationListener() {
+
+		@Override
+		public void initializationStarted()
+		{
+			updateInitializationState();
+		}
+
+		@Override
+		public void initializationFinished()
+		{
+			updateInitializationState();
+		}
+	};
+
+	/**
+	 * Updates this page according to the state of the current initialization of
+	 * iDocIt!. It may be called from any thread.
+	 */
+	private void updateInitializationState()
+	{
+		Display.getDefault().asyncExec(new Runnable() {
+			@Override
+			public void run()
+			{
+				final Control control = getControl();
+				if (control != null && control.isDisposed())
+				{
+					return;
+				}
+
+				if (!IDocItActivator.getInitialization().isDone())
+				{
+					if (getSelection() == null)
+					{
+						setErrorMessage(MSG_INITIALIZING);
+					}
+				}
+				else if (getSelection() == null)
+				{
+					setErrorMessage(null);
+					loadPreferences();
+				}
+				else if (MSG_INITIALIZING.equals(getErrorMessage()))
+				{
+					setErrorMessage(null);
+				}
+			}
+		});
+	}
+
 	@Override
 	protected void initListener() throws CompositeInitializationException
 	{
@@ -92,6 +152,7 @@ public class ThematicGridPreferencePage
 	public void dispose()
 	{
 		super.dispose();
+		IDocItActivator.removeConfigurationListener(initializationListener);
 		ServiceManager.getInstance().getPersistenceService()
 				.removeThematicRoleChangeListener(thematicRoleConfigChangeListener);
 	}
@@ -112,7 +173,13 @@ public class ThematicGridPreferencePage
 		{
 			setPreferenceStore(PlatformUI.getPreferenceStore());
 		}
-		loadPreferences();
+		// The thematic grids can only be loaded after the initialization. If it is
+		// still running, they are loaded by the initializationListener.
+		if (IDocItActivator.getInitialization().isDone())
+		{
+			loadPreferences();
+		}
+		IDocItActivator.addConfigurationListener(initializationListener);
 
 		setupListener();
 	}
@@ -182,6 +249,8 @@ public class ThematicGridPreferencePage
 	@Override
 	protected void performDefaults()
 	{
+		PlatformUI.getPreferenceStore().setValue(
+				PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING_SNAPSHOT, StringUtils.EMPTY);
 		PlatformUI.getPreferenceStore().setValue(
 				PreferenceStoreConstants.VERBCLASS_ROLE_MAPPING, StringUtils.EMPTY);
 
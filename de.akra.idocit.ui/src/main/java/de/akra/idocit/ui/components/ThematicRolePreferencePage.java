@@ -21,6 +21,8 @@ import java.util.List;
 
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
 import org.pocui.core.actions.EmptyActionConfiguration;
@@ -34,6 +36,7 @@ import de.akra.idocit.common.structure.ThematicRole;
 import de.akra.idocit.core.IDocItActivator;
 import de.akra.idocit.core.exceptions.UnitializedIDocItException;
 import de.akra.idocit.core.listeners.IConfigurationChangeListener;
+import de.akra.idocit.core.listeners.IDocItInitializationListener;
 import de.akra.idocit.core.services.impl.ServiceManager;
 import de.akra.idocit.ui.composites.ManageThematicRoleComposite;
 import de.akra.idocit.ui.composites.ManageThematicRoleCompositeSelection;
@@ -43,7 +46,7 @@ import de.akra.idocit.ui.composites.ManageThematicRoleCompositeSelection;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  */
 public class ThematicRolePreferencePage
 		extends
@@ -51,8 +54,59 @@ public class ThematicRolePreferencePage
 {
 	private static final String ERR_MSG_UNINITIALIZED = "iDocIt! has not been initialized completly yet. Please close this preference page and try again in a few seconds.";
 
+	private static final String MSG_INITIALIZING = "iDocIt! is being initialized. The changes can be applied when it has finished.";
+
 	private IConfigurationChangeListener thematicRoleConfigChangeListener;
 
+	/**
+	 * Shows whether iDocIt! is being initialized. The changes can only be applied
+	 * after the initialization, because they are also applied to the thematic grids.
+	 */
+	private final IDocItInitializationListener initializationListener = new IDocItInitializationListener() {
+
+		@Override
+		public void initializationStarted()
+		{
+			updateInitializationState();
+		}
+
+		@Override
+		public void initializationFinished()
+		{
+			updateInitializationState();
+		}
+	};
+
+	/**
+	 * Updates this page according to the state of the current initialization of
+	 * iDocIt!. It may be called from any thread.
+	 */
+	private void updateInitializationState()
+	{
+		Display.getDefault().asyncExec(new Runnable() {
+			@Override
+			public void run()
+			{
+				final Control control = getControl();
+				if (control != null && control.isDisposed())
+				{
+					return;
+				}
+
+				final boolean initialized = IDocItActivator.getInitialization().isDone();
+				setValid(initialized);
+				if (!initialized)
+				{
+					setErrorMessage(MSG_INITIALIZING);
+				}
+				else if (MSG_INITIALIZING.equals(getErrorMessage()))
+				{
+					setErrorMessage(null);
+				}
+			}
+		});
+	}
+
 	private void initConfigListener() throws CompositeInitializationException
 	{
 		this.thematicRoleConfigChangeListener = new IConfigurationChangeListener() {
@@ -87,6 +141,7 @@ public class ThematicRolePreferencePage
 	public void dispose()
 	{
 		super.dispose();
+		IDocItActivator.removeConfigurationListener(initializationListener);
 		removeConfigListener();
 	}
 
@@ -108,12 +163,6 @@ public class ThematicRolePreferencePage
 		// nothing to do
 	}
 
-	@Override
-	public boolean isValid()
-	{
-		return true;
-	}
-
 	/**
 	 * {@inheritDoc}
 	 */
@@ -130,6 +179,8 @@ public class ThematicRolePreferencePage
 
 		initConfigListener();
 		addConfigListener();
+
+		IDocItActivator.addConfigurationListener(initializationListener);
 	}
 
 	private void loadPreferences(List<ThematicRole> roles)
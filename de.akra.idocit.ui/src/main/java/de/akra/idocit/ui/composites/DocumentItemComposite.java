@@ -15,6 +15,7 @@
  *******************************************************************************/
 package de.akra.idocit.ui.composites;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -62,10 +63,15 @@ import de.akra.idocit.ui.utils.MessageBoxUtils;
 
 /**
  * Composite that displays a {@link Documentation} for editing.
+ * <p>
+ * The composite can be reused for another {@link Documentation} by setting a new
+ * selection. The addressee tabs and the role menu are then rebound to the new data;
+ * only missing tabs are created and tabs which are not needed anymore are disposed.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public class DocumentItemComposite
@@ -567,24 +573,26 @@ public class DocumentItemComposite
 	protected void doSetSelection(DocumentItemCompositeSelection oldInSelection,
 			DocumentItemCompositeSelection newInSelection, Object sourceControl)
 	{
-		// create tabs if addressee list changed, in general by first use
-		if (oldInSelection == null
-				|| !newInSelection.getAddresseeList().equals(
-						oldInSelection.getAddresseeList()))
+		Documentation doc = newInSelection.getDocumentation();
+
+		// collect the addressees to display: the default ones by first use and all
+		// documented ones
+		List<Addressee> displayedAddressees = newInSelection.getDisplayedAddressees();
+		if (displayedAddressees.isEmpty())
 		{
-			if (newInSelection.getDisplayedAddressees().isEmpty())
-			{
-				initDefaultAddresseeTabs(newInSelection.getDisplayedAddressees(),
-						newInSelection.getAddresseeList());
-			}
-			else
+			initDefaultAddressees(displayedAddressees, newInSelection.getAddresseeList());
+		}
+		if (doc != null)
+		{
+			for (Addressee addressee : doc.getAddresseeSequenceView())
 			{
-				initDisplayedAddressees(newInSelection.getDisplayedAddressees(),
-						newInSelection.getDisplayedAddressees());
+				if (!displayedAddressees.contains(addressee))
+				{
+					displayedAddressees.add(addressee);
+				}
 			}
-			appendAddAddresseeTab();
-			appendRemoveAddresseeTab();
 		}
+		updateAddresseeTabs(displayedAddressees);
 
 		// create combobox items if thematic role list changed, in general by
 		// first use
@@ -595,8 +603,6 @@ public class DocumentItemComposite
 			initThematicRolesCtrl(newInSelection.getRolesRecommendations());
 		}
 
-		Documentation doc = newInSelection.getDocumentation();
-
 		if (doc != null)
 		{
 			if (doc.getThematicRole() != null)
@@ -614,24 +620,15 @@ public class DocumentItemComposite
 			checkBoxErrorCase.setSelection(isRoleFailable && doc.isErrorCase());
 
 			/*
-			 * set the documentation text for addressees
+			 * set the documentation text for addressees, also clear the texts of a
+			 * previous documentation
 			 */
-			Map<Addressee, String> docMap = doc.getDocumentation();
+			Map<Addressee, String> docMap = doc.getDocumentationView();
 
-			// use always the same sequence
-			for (Addressee addressee : doc.getAddresseeSequence())
+			for (Entry<Addressee, Text> entry : addresseeDocTextField.entrySet())
 			{
-				Text text = addresseeDocTextField.get(addressee);
-
-				if (text == null)
-				{
-					// if addressee-tab not existing, append it
-					text = addAddresseeTab(newInSelection.getDisplayedAddressees(),
-							addressee);
-				}
-
-				// set documentation to text field
-				text.setText(docMap.get(addressee));
+				String text = docMap.get(entry.getKey());
+				entry.getValue().setText(text != null ? text : "");
 			}
 
 			int selectionIndex = newInSelection.getActiveAddressee();
@@ -660,42 +657,69 @@ public class DocumentItemComposite
 	}
 
 	/**
-	 * Creates the tabs for all addressees from the list whose attribute
-	 * <code>isDefault</code> is <code>true</code>.
+	 * Adds all addressees from the list whose attribute <code>isDefault</code> is
+	 * <code>true</code> to the displayed addressees.
 	 * 
 	 * @param displayedAddressees
-	 *            The list of all displayed Addressees. The new <code>addressees</code>
-	 *            are added also to this list.
+	 *            The list of all displayed Addressees.
 	 * @param addressees
 	 *            The {@link Addressee}s to add.
 	 */
-	private void initDefaultAddresseeTabs(List<Addressee> displayedAddressees,
+	private void initDefaultAddressees(List<Addressee> displayedAddressees,
 			List<Addressee> addressees)
 	{
 		for (Addressee addressee : addressees)
 		{
-			if (addressee.isDefault())
+			if (addressee.isDefault() && !displayedAddressees.contains(addressee))
 			{
-				addAddresseeTab(displayedAddressees, addressee);
+				displayedAddressees.add(addressee);
 			}
 		}
 	}
 
 	/**
-	 * Creates the tabs for all addressees from the list.
+	 * Makes the addressee tabs show <code>addressees</code> in this sequence. The
+	 * existing tabs and their {@link Text} fields are reused in place, only the missing
+	 * tabs are created and the surplus tabs are disposed. The tabs to add and remove
+	 * addressees are appended by first use.
 	 * 
-	 * @param displayedAddressees
-	 *            The list of all displayed Addressees. The new <code>addressees</code>
-	 *            are added also to this list.
 	 * @param addressees
-	 *            The {@link Addressee}s to add.
+	 *            The {@link Addressee}s to display.
 	 */
-	private void initDisplayedAddressees(List<Addressee> displayedAddressees,
-			List<Addressee> addressees)
+	private void updateAddresseeTabs(List<Addressee> addressees)
 	{
-		for (Addressee addressee : addressees)
+		if (!addressees.equals(new ArrayList<Addressee>(addresseeDocTextField.keySet())))
 		{
-			addAddresseeTab(displayedAddressees, addressee);
+			List<Text> textFields = new ArrayList<Text>(addresseeDocTextField.values());
+			int reusedTabs = Math.min(textFields.size(), addressees.size());
+			addresseeDocTextField.clear();
+
+			for (int i = 0; i < reusedTabs; i++)
+			{
+				Addressee addressee = addressees.get(i);
+				TabItem item = addresseeTabFolder.getItem(i);
+				item.setText(addressee.getName());
+				item.setToolTipText(addressee.getDescription());
+				item.setData(ITEM_DATA_KEY, addressee);
+				addresseeDocTextField.put(addressee, textFields.get(i));
+			}
+
+			for (int i = textFields.size() - 1; i >= reusedTabs; i--)
+			{
+				addresseeTabFolder.getItem(i).dispose();
+				textFields.get(i).dispose();
+			}
+
+			for (int i = reusedTabs; i < addressees.size(); i++)
+			{
+				addAddresseeTab(addressees, addressees.get(i));
+			}
+		}
+
+		if (addAddresseeTab == null)
+		{
+			appendAddAddresseeTab();
+			appendRemoveAddresseeTab();
 		}
 	}
 
@@ -779,6 +803,16 @@ public class DocumentItemComposite
 	 */
 	private void initThematicRolesCtrl(RolesRecommendations rolesRecommendations)
 	{
+		// dispose the items of a previous selection
+		for (MenuItem item : rolePopUpMenu.getItems())
+		{
+			if (item.getMenu() != null)
+			{
+				item.getMenu().dispose();
+			}
+			item.dispose();
+		}
+
 		roleFirstLevelItems = new MenuItem[rolesRecommendations
 				.getFirstLevelRecommendations().size()];
 		roleSecondLevelItems = new MenuItem[rolesRecommendations
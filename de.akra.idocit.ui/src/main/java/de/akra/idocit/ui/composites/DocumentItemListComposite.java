@@ -17,7 +17,6 @@ package de.akra.idocit.ui.composites;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,6 +33,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.pocui.core.actions.EmptyActionConfiguration;
@@ -52,10 +52,15 @@ import de.akra.idocit.common.utils.Preconditions;
 /**
  * Composite that manages a list of {@link Documentation}s in
  * {@link DocumentItemComposite}s.
+ * <p>
+ * The rows are recycled: on a new selection the existing {@link DocumentItemComposite}s
+ * are rebound to the new {@link Documentation}s, only missing rows are created, surplus
+ * rows are disposed and only the changed rows are laid out again.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class DocumentItemListComposite
@@ -132,8 +137,8 @@ public class DocumentItemListComposite
 	{
 		super(pvParent, pvStyle, EmptyActionConfiguration.getInstance(),
 				EmptyResourceConfiguration.getInstance());
-		docItemCompList = Collections.emptyList();
-		docItemCompDeleteBtnList = Collections.emptyList();
+		docItemCompList = new ArrayList<DocumentItemComposite>();
+		docItemCompDeleteBtnList = new ArrayList<Button>();
 	}
 
 	/**
@@ -171,6 +176,25 @@ public class DocumentItemListComposite
 	 */
 	private void computeLayout()
 	{
+		computeLayout(null);
+	}
+
+	/**
+	 * Computes the layout.
+	 * 
+	 * @param changedRows
+	 *            The controls of the rows which were created or rebound. Only their
+	 *            sizes are computed again. If it is <code>null</code>, the whole layout
+	 *            is computed again.
+	 */
+	private void computeLayout(Control[] changedRows)
+	{
+		if ((changedRows != null) && (changedRows.length > 0))
+		{
+			// flushes the cached sizes of the changed rows
+			scrolledRoot.layout(changedRows);
+		}
+
 		final Rectangle clientArea = scrolledComposite.getClientArea();
 		int minHeight = 0;
 
@@ -181,12 +205,13 @@ public class DocumentItemListComposite
 
 		final Point prefferedSize = scrolledRoot.computeSize(
 				(clientArea.width >= MIN_WIDTH) ? clientArea.width : MIN_WIDTH,
-				(clientArea.height >= minHeight) ? clientArea.height : minHeight);
+				(clientArea.height >= minHeight) ? clientArea.height : minHeight,
+				changedRows == null);
 		scrolledRoot.setSize(prefferedSize);
 		scrolledComposite.setMinHeight(prefferedSize.y);
 		scrolledComposite.setMinWidth(MIN_WIDTH);
 
-		scrolledRoot.layout();
+		scrolledRoot.layout(changedRows == null);
 		scrolledComposite.layout();
 		layout();
 
@@ -364,14 +389,8 @@ public class DocumentItemListComposite
 							documentations.size());
 				}
 
-				disposeAllComposites();
-
 				List<Integer> activeAddressees = newInSelection.getActiveAddressees();
 
-				docItemCompList = new ArrayList<DocumentItemComposite>(
-						documentations.size());
-				docItemCompDeleteBtnList = new ArrayList<Button>(documentations.size());
-
 				// collect associated roles and used addressees
 				Set<ThematicRole> associatedThematicRoles = new HashSet<ThematicRole>();
 				Set<Addressee> usedAddressees = new HashSet<Addressee>();
@@ -381,7 +400,7 @@ public class DocumentItemListComposite
 					{
 						associatedThematicRoles.add(doc.getThematicRole());
 					}
-					usedAddressees.addAll(doc.getDocumentation().keySet());
+					usedAddressees.addAll(doc.getDocumentationView().keySet());
 				}
 
 				List<Addressee> allAvailableAddressees = mergeCollections(
@@ -398,6 +417,7 @@ public class DocumentItemListComposite
 
 				newInSelection.setRolesRecommendations(recommendedRoles);
 
+				List<Control> changedRows = new ArrayList<Control>();
 				for (int i = 0; i < documentations.size(); i++)
 				{
 					List<Addressee> displayedAddressees;
@@ -412,15 +432,39 @@ public class DocumentItemListComposite
 						displayedAddressees = newInSelection
 								.getDisplayedAddresseesForDocumentations().get(i);
 					}
-					addNewDocumentItemComposite(documentations.get(i),
-							activeAddressees.get(i), allAvailableAddressees,
-							displayedAddressees, newInSelection.getRolesRecommendations());
+					DocumentItemCompositeSelection itemSelection = createDocumentItemSelection(
+							documentations.get(i), activeAddressees.get(i),
+							allAvailableAddressees, displayedAddressees,
+							newInSelection.getRolesRecommendations());
 
-					addNewDeleteButton();
+					if (i < docItemCompList.size())
+					{
+						// rebind the existing row, if it shows something else
+						DocumentItemComposite docItemComp = docItemCompList.get(i);
+						DocumentItemCompositeSelection oldItemSelection = docItemComp
+								.getSelection();
+						if (oldItemSelection == null
+								|| oldItemSelection.getDocumentation() != documentations
+										.get(i) || !oldItemSelection.equals(itemSelection))
+						{
+							docItemComp.setSelection(itemSelection);
+							changedRows.add(docItemComp);
+						}
+					}
+					else
+					{
+						changedRows.add(addNewDocumentItemComposite(itemSelection));
+						changedRows.add(addNewDeleteButton());
+					}
 				}
-			}
 
-			computeLayout();
+				disposeCompositesFrom(documentations.size());
+				computeLayout(changedRows.toArray(new Control[changedRows.size()]));
+			}
+			else
+			{
+				computeLayout();
+			}
 		}
 	}
 
@@ -494,60 +538,81 @@ public class DocumentItemListComposite
 	}
 
 	/**
-	 * Dispose all composites in <code>docItemCompList</code> and
-	 * <code>docItemCompDeleteBtnList</code>.
+	 * Dispose the composites in <code>docItemCompList</code> and
+	 * <code>docItemCompDeleteBtnList</code> from the row <code>firstRow</code> on.
+	 * 
+	 * @param firstRow
+	 *            The index of the first row to dispose.
 	 */
-	private void disposeAllComposites()
+	private void disposeCompositesFrom(int firstRow)
 	{
-		for (DocumentItemComposite docItemComp : docItemCompList)
+		for (int i = docItemCompList.size() - 1; i >= firstRow; i--)
 		{
+			DocumentItemComposite docItemComp = docItemCompList.remove(i);
+			docItemComp.cleanUp();
 			docItemComp.dispose();
-		}
-		for (Button delBtn : docItemCompDeleteBtnList)
-		{
-			delBtn.dispose();
+			docItemCompDeleteBtnList.remove(i).dispose();
 		}
 	}
 
 	/**
-	 * Creates a {@link DocumentItemComposite}, sets the
-	 * {@link DocumentItemCompositeSelection} with the given values, adds the
-	 * <code>docItemSelectionListener</code> and appends the new composite to
-	 * <code>docItemCompList</code>.
+	 * Creates the {@link DocumentItemCompositeSelection} for a row.
 	 * 
 	 * @param documentation
 	 * @param activeAddressee
 	 * @param addresseeList
-	 * @param thematicRoleList
+	 * @param displayedAddressees
+	 * @param rolesRecommendations
+	 * @return the new selection.
 	 */
-	private void addNewDocumentItemComposite(Documentation documentation,
-			int activeAddressee, List<Addressee> addresseeList,
-			List<Addressee> displayedAddressees, RolesRecommendations rolesRecommendations)
+	private DocumentItemCompositeSelection createDocumentItemSelection(
+			Documentation documentation, int activeAddressee,
+			List<Addressee> addresseeList, List<Addressee> displayedAddressees,
+			RolesRecommendations rolesRecommendations)
 	{
-		DocumentItemComposite docItemComp = new DocumentItemComposite(scrolledRoot,
-				SWT.NONE);
-
 		DocumentItemCompositeSelection selection = new DocumentItemCompositeSelection();
 		selection.setDocumentation(documentation);
 		selection.setActiveAddressee(activeAddressee);
 		selection.setAddresseeList(addresseeList);
 		selection.setDisplayedAddressees(displayedAddressees);
 		selection.setRolesRecommendations(rolesRecommendations);
+		return selection;
+	}
 
+	/**
+	 * Creates a {@link DocumentItemComposite}, sets the
+	 * {@link DocumentItemCompositeSelection} and appends the new composite to
+	 * <code>docItemCompList</code>. The <code>docItemSelectionListener</code> is added
+	 * by {@link #addAllListener()}.
+	 * 
+	 * @param selection
+	 *            The selection of the new composite.
+	 * @return the new composite.
+	 */
+	private DocumentItemComposite addNewDocumentItemComposite(
+			DocumentItemCompositeSelection selection)
+	{
+		DocumentItemComposite docItemComp = new DocumentItemComposite(scrolledRoot,
+				SWT.NONE);
 		docItemComp.setSelection(selection);
 		docItemCompList.add(docItemComp);
+		return docItemComp;
 	}
 
 	/**
-	 * Create a new delete {@link Button}, append it to
-	 * <code>docItemCompDeleteBtnList</code> and add the
-	 * <code>docItemCompDeleteBtnSelectionListener</code>.
+	 * Create a new delete {@link Button} and append it to
+	 * <code>docItemCompDeleteBtnList</code>. The
+	 * <code>docItemCompDeleteBtnSelectionListener</code> is added by
+	 * {@link #addAllListener()}.
+	 * 
+	 * @return the new button.
 	 */
-	private void addNewDeleteButton()
+	private Button addNewDeleteButton()
 	{
 		Button delBtn = new Button(scrolledRoot, SWT.PUSH);
 		delBtn.setText(BTN_DELETE_TEXT);
 		docItemCompDeleteBtnList.add(delBtn);
+		return delBtn;
 	}
 
 	/**
@@ -25,12 +25,17 @@ import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
 import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Group;
 import org.pocui.core.actions.EmptyActionConfiguration;
 import org.pocui.core.composites.CompositeInitializationException;
@@ -39,10 +44,12 @@ import org.pocui.core.composites.PocUIComposite;
 import org.pocui.swt.composites.AbsComposite;
 
 import de.akra.idocit.common.constants.ThematicGridConstants;
+import de.akra.idocit.common.metrics.Metrics;
+import de.akra.idocit.common.metrics.Timer;
 import de.akra.idocit.common.services.RuleService;
-import de.akra.idocit.common.services.ThematicGridService;
 import de.akra.idocit.common.structure.Addressee;
 import de.akra.idocit.common.structure.Documentation;
+import de.akra.idocit.common.structure.ElementRecommendations;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.Operation;
 import de.akra.idocit.common.structure.Parameter;
@@ -59,10 +66,18 @@ import de.akra.idocit.ui.utils.MessageBoxUtils;
 /**
  * Composite that manages the Composites to edit the {@link Documentation}s of
  * {@link SignatureElement}s.
+ * <p>
+ * When an artifact is set, the {@link ElementRecommendations} of all its signature
+ * elements are derived by a background {@link Job}. A selected element uses them if
+ * they are available, otherwise its recommendations are derived on demand. If a
+ * documentation or the reference grid of an operation changes, the recommendations of
+ * the operation are dropped and all are derived again after
+ * {@link #RECOMMENDATIONS_UPDATE_DELAY} milliseconds.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  * 
  */
 public class EditArtifactDocumentationComposite
@@ -77,6 +92,12 @@ public class EditArtifactDocumentationComposite
 
 	private static final int MIN_HEIGHT = 450;
 
+	/**
+	 * Milliseconds to wait for further changes of the documentations before the
+	 * recommendations are derived again.
+	 */
+	private static final long RECOMMENDATIONS_UPDATE_DELAY = 1000;
+
 	private static final int MIN_WIDTH = 450;
 
 	private static final int MIN_HEIGHT_SCROLLED_COMPOSITE = 350;
@@ -108,6 +129,98 @@ public class EditArtifactDocumentationComposite
 	private ISelectionListener<DocumentItemListCompositeSelection> documentItemListCompositeSelectionListener;
 	private ISelectionListener<DisplayRecommendedRolesCompositeSelection> displayRecommendedRolesCompositeSelectionListener;
 
+	/**
+	 * The recommendations by the ids of the signature elements. The map is replaced
+	 * instead of modified, because it is passed to the
+	 * {@link SelectSignatureElementComposite}. Only used in the UI thread.
+	 */
+	private Map<Integer, ElementRecommendations> recommendations = Collections
+			.emptyMap();
+
+	/**
+	 * Incremented whenever the recommendations become invalid, so that outdated
+	 * results of the {@link #recommendationsJob} are discarded. Only used in the UI
+	 * thread.
+	 */
+	private int recommendationsGeneration = 0;
+
+	private final RecommendationsJob recommendationsJob = new RecommendationsJob();
+
+	/**
+	 * Derives the recommendations of the last requested artifact and publishes them in
+	 * the UI thread. The artifact must be a copy which is not changed while the job
+	 * runs, because the documentations of the edited artifact are changed in the UI
+	 * thread.
+	 */
+	private final class RecommendationsJob extends Job
+	{
+		private InterfaceArtifact artifact;
+		private List<ThematicGrid> grids;
+		private List<ThematicRole> definedRoles;
+		private int generation;
+
+		RecommendationsJob()
+		{
+			super("Derive iDocIt! recommendations");
+			setSystem(true);
+		}
+
+		synchronized void request(final InterfaceArtifact artifact,
+				final List<ThematicGrid> grids, final List<ThematicRole> definedRoles,
+				final int generation)
+		{
+			this.artifact = artifact;
+			this.grids = grids;
+			this.definedRoles = definedRoles;
+			this.generation = generation;
+		}
+
+		@Override
+		protected IStatus run(final IProgressMonitor monitor)
+		{
+			final InterfaceArtifact artifact;
+			final List<ThematicGrid> grids;
+			final List<ThematicRole> definedRoles;
+			final int generation;
+			synchronized (this)
+			{
+				artifact = this.artifact;
+				grids = this.grids;
+				definedRoles = this.definedRoles;
+				generation = this.generation;
+			}
+
+			final Map<Integer, ElementRecommendations> derivedRecommendations;
+			try
+			{
+				derivedRecommendations = RuleService.deriveRecommendations(artifact,
+						grids, definedRoles);
+			}
+			catch (final RuntimeException e)
+			{
+				logger.log(Level.WARNING, "Failed to derive the recommendations.", e);
+				return Status.OK_STATUS;
+			}
+
+			if (monitor.isCanceled())
+			{
+				return Status.CANCEL_STATUS;
+			}
+
+			Display.getDefault().asyncExec(new Runnable() {
+				@Override
+				public void run()
+				{
+					if (!isDisposed() && getSelection() != null)
+					{
+						publishRecommendations(derivedRecommendations, generation);
+					}
+				}
+			});
+			return Status.OK_STATUS;
+		}
+	}
+
 	/**
 	 * Constructor.
 	 * 
@@ -270,6 +383,7 @@ public class EditArtifactDocumentationComposite
 				// End changes due to Issue #62
 
 				selectedSigElem.setDocumentations(newDocs);
+				invalidateRecommendations(selectedSigElem);
 				// Changes due to Issue #21
 				editArtSelection.setCurrentDocumentations(newDocs);
 				// End changes due to Issue #21
@@ -317,6 +431,10 @@ public class EditArtifactDocumentationComposite
 					currentOperation.setThematicGridName(selection
 							.getReferenceThematicGridName());
 					currentOperation.setDocumentationChanged(thematicGridNameChanged);
+					if (thematicGridNameChanged)
+					{
+						invalidateRecommendations(currentOperation);
+					}
 
 					// no setSelection() needed, because the state does not
 					// affect other composites.
@@ -338,6 +456,9 @@ public class EditArtifactDocumentationComposite
 	{
 		if (newInSelection != null && !newInSelection.equals(oldInSelection))
 		{
+			final Timer recommendationTimer = Metrics.timer("ui.recommendations");
+			final long recommendationStart = recommendationTimer.start();
+
 			final SignatureElement selectedSigElem = newInSelection
 					.getSelectedSignatureElement();
 			final SignatureElement sigElemOperation = SignatureElementUtils
@@ -347,15 +468,13 @@ public class EditArtifactDocumentationComposite
 			// Changes due to Issue #23
 			try
 			{
-				List<ThematicGrid> allThematicGrids = ServiceManager.getInstance()
-						.getPersistenceService().loadThematicGrids();
-				matchingGrids = ThematicGridService.deriveThematicGrid(
-						sigElemOperation.getIdentifier(), allThematicGrids);
-				matchingGrids = reduceGrids(matchingGrids.keySet(), allThematicGrids,
-						selectedSigElem);
+				final ElementRecommendations elementRecommendations = getRecommendations(
+						oldInSelection, newInSelection);
+				matchingGrids = elementRecommendations.getReducedGrids();
 				newInSelection.setRefreshRecommendations(false);
 
-				updateDocumentItemListComposite(newInSelection, matchingGrids);
+				updateDocumentItemListComposite(newInSelection,
+						elementRecommendations.getRolesRecommendations());
 			}
 			catch (UnitializedIDocItException unEx)
 			{
@@ -371,24 +490,161 @@ public class EditArtifactDocumentationComposite
 			updateSelectSignatureElementComposite(newInSelection);
 			updateDisplayRecommendedRolesComposite(newInSelection, matchingGrids,
 					sigElemOperation, selectedSigElem);
+
+			recommendationTimer.stop(recommendationStart);
 		}
 	}
 
-	private List<ThematicGrid> convertToList(Set<String> thematicGridNames)
+	/**
+	 * Returns the recommendations for the selected signature element. All
+	 * recommendations are derived again in the background if the artifact, the
+	 * thematic roles or the thematic grids changed. The recommendations of the selected
+	 * element are derived at once if they are not available.
+	 * 
+	 * @param oldInSelection
+	 *            the former {@link EditArtifactDocumentationCompositeSelection}.
+	 * @param newInSelection
+	 *            the new {@link EditArtifactDocumentationCompositeSelection}.
+	 * @return the recommendations for the selected signature element.
+	 * @throws UnitializedIDocItException
+	 */
+	private ElementRecommendations getRecommendations(
+			EditArtifactDocumentationCompositeSelection oldInSelection,
+			EditArtifactDocumentationCompositeSelection newInSelection)
 			throws UnitializedIDocItException
 	{
-		List<ThematicGrid> grids = ServiceManager.getInstance().getPersistenceService()
-				.loadThematicGrids();
-		List<ThematicGrid> foundGrids = new ArrayList<ThematicGrid>();
+		final List<ThematicGrid> grids = ServiceManager.getInstance()
+				.getPersistenceService().loadThematicGrids();
+
+		if (oldInSelection == null
+				|| newInSelection.getInterfaceArtifact() != oldInSelection
+						.getInterfaceArtifact()
+				|| newInSelection.getThematicRoleList() != oldInSelection
+						.getThematicRoleList() || newInSelection.isRefreshRecommendations())
+		{
+			recommendationsGeneration++;
+			recommendations = Collections.emptyMap();
+			scheduleRecommendations(newInSelection, grids, 0);
+		}
+
+		final SignatureElement selectedSigElem = newInSelection
+				.getSelectedSignatureElement();
+		ElementRecommendations elementRecommendations = recommendations.get(Integer
+				.valueOf(selectedSigElem.getId()));
+		if (elementRecommendations == null)
+		{
+			final SignatureElement operation = SignatureElementUtils
+					.findOperationForParameter(selectedSigElem);
+			if (operation != SignatureElement.EMPTY_SIGNATURE_ELEMENT)
+			{
+				// an attribute of a data type reflected after the derivation shares the
+				// recommendations of its operation
+				elementRecommendations = recommendations.get(Integer.valueOf(operation
+						.getId()));
+			}
+			if (elementRecommendations == null)
+			{
+				elementRecommendations = RuleService.deriveRecommendations(
+						selectedSigElem, grids, newInSelection.getThematicRoleList());
+			}
+
+			final Map<Integer, ElementRecommendations> newRecommendations = new HashMap<Integer, ElementRecommendations>(
+					recommendations);
+			newRecommendations.put(Integer.valueOf(selectedSigElem.getId()),
+					elementRecommendations);
+			if (operation != SignatureElement.EMPTY_SIGNATURE_ELEMENT)
+			{
+				newRecommendations.put(Integer.valueOf(operation.getId()),
+						elementRecommendations);
+			}
+			recommendations = newRecommendations;
+		}
+
+		return elementRecommendations;
+	}
+
+	/**
+	 * Drops the recommendations which depend on the documentations of the
+	 * <code>changedSigElem</code> and derives all recommendations again after
+	 * {@link #RECOMMENDATIONS_UPDATE_DELAY}. On interface level all recommendations are
+	 * dropped, because the documentations of an interface are part of the context of
+	 * all its operations.
+	 * 
+	 * @param changedSigElem
+	 *            the {@link SignatureElement} whose documentations changed.
+	 */
+	private void invalidateRecommendations(SignatureElement changedSigElem)
+	{
+		recommendationsGeneration++;
 
-		for (String gridName : thematicGridNames)
+		final SignatureElement operation = SignatureElementUtils
+				.findOperationForParameter(changedSigElem);
+		if (operation == SignatureElement.EMPTY_SIGNATURE_ELEMENT)
 		{
-			ThematicGrid grid = ThematicGridService.findThematicGridByName(gridName,
-					grids);
-			foundGrids.add(grid);
+			recommendations = Collections.emptyMap();
+		}
+		else
+		{
+			final ElementRecommendations outdated = recommendations.get(Integer
+					.valueOf(operation.getId()));
+			if (outdated != null)
+			{
+				// all elements of the operation share the same recommendations
+				final Map<Integer, ElementRecommendations> newRecommendations = new HashMap<Integer, ElementRecommendations>(
+						recommendations);
+				newRecommendations.values().removeAll(Collections.singleton(outdated));
+				recommendations = newRecommendations;
+			}
 		}
 
-		return foundGrids;
+		try
+		{
+			scheduleRecommendations(getSelection(), ServiceManager.getInstance()
+					.getPersistenceService().loadThematicGrids(),
+					RECOMMENDATIONS_UPDATE_DELAY);
+		}
+		catch (UnitializedIDocItException unEx)
+		{
+			logger.log(Level.WARNING, "iDocIt! is not initialized.", unEx);
+		}
+	}
+
+	/**
+	 * Schedules the {@link #recommendationsJob} for a copy of the artifact of the
+	 * <code>selection</code>. The copy keeps the ids of the signature elements, so the
+	 * derived recommendations can be looked up for the edited artifact.
+	 */
+	private void scheduleRecommendations(
+			EditArtifactDocumentationCompositeSelection selection,
+			List<ThematicGrid> grids, long delay)
+	{
+		recommendationsJob.cancel();
+		final InterfaceArtifact snapshot = (InterfaceArtifact) selection
+				.getInterfaceArtifact().copy(SignatureElement.EMPTY_SIGNATURE_ELEMENT);
+		recommendationsJob.request(snapshot, grids, selection.getThematicRoleList(),
+				recommendationsGeneration);
+		recommendationsJob.schedule(delay);
+	}
+
+	/**
+	 * Replaces the recommendations with the <code>derivedRecommendations</code> if they
+	 * are not outdated and passes them to the
+	 * {@link SelectSignatureElementComposite}. Outdated recommendations are dropped,
+	 * because the {@link #recommendationsJob} is already scheduled again.
+	 * 
+	 * @param derivedRecommendations
+	 *            the result of the {@link #recommendationsJob}.
+	 * @param generation
+	 *            the {@link #recommendationsGeneration} when the job was requested.
+	 */
+	private void publishRecommendations(
+			Map<Integer, ElementRecommendations> derivedRecommendations, int generation)
+	{
+		if (generation == recommendationsGeneration)
+		{
+			recommendations = derivedRecommendations;
+			updateSelectSignatureElementComposite(getSelection());
+		}
 	}
 
 	/**
@@ -396,19 +652,15 @@ public class EditArtifactDocumentationComposite
 	 * 
 	 * @param newInSelection
 	 *            the new {@link EditArtifactDocumentationCompositeSelection}.
-	 * @throws UnitializedIDocItException
+	 * @param rolesRecommendations
+	 *            the recommendations for the selected signature element.
 	 */
 	private void updateDocumentItemListComposite(
 			EditArtifactDocumentationCompositeSelection newInSelection,
-			Map<String, ThematicGrid> thematicGrids) throws UnitializedIDocItException
+			RolesRecommendations rolesRecommendations)
 	{
 		final SignatureElement selectedSigElem = newInSelection
 				.getSelectedSignatureElement();
-		final List<ThematicGrid> grids = convertToList(thematicGrids.keySet());
-
-		final RolesRecommendations rolesRecommendations = RuleService
-				.deriveRolesRecommendation(grids, newInSelection.getThematicRoleList(),
-						selectedSigElem);
 
 		final DocumentItemListCompositeSelection docItemListSelection = new DocumentItemListCompositeSelection();
 		docItemListSelection.setAddresseeList(newInSelection.getAddresseeList());
@@ -475,6 +727,7 @@ public class EditArtifactDocumentationComposite
 		sigElemSelection.setInterfaceArtifact(newInSelection.getInterfaceArtifact());
 		sigElemSelection.setSelectedSignatureElement(newInSelection
 				.getSelectedSignatureElement());
+		sigElemSelection.setRecommendations(recommendations);
 
 		selectSignatureElementComposite.setSelection(sigElemSelection);
 	}
@@ -545,33 +798,6 @@ public class EditArtifactDocumentationComposite
 		displayRecommendedRolesComposite.setSelection(recRolesCompSelection);
 	}
 
-	private Map<String, ThematicGrid> reduceGrids(Set<String> thematicGridNames,
-			List<ThematicGrid> grids, SignatureElement selectedSigElem)
-	{
-		final Map<String, ThematicGrid> reducedGrids = new HashMap<String, ThematicGrid>();
-
-		for (final String thematicGridName : thematicGridNames)
-		{
-			final ThematicGrid thematicGrid = ThematicGridService.findThematicGridByName(
-					thematicGridName, grids);
-
-			if (thematicGrid != null)
-			{
-				final ThematicGrid reducedGrid = RuleService.reduceGrid(thematicGrid,
-						selectedSigElem);
-				reducedGrids.put(thematicGridName, reducedGrid);
-			}
-			else
-			{
-				throw new RuntimeException("Invariant violated: the grid "
-						+ thematicGridName
-						+ " does not exist in the given list of grids.");
-			}
-		}
-
-		return reducedGrids;
-	}
-
 	/**
 	 * {@inheritDoc}
 	 */
@@ -609,6 +835,7 @@ public class EditArtifactDocumentationComposite
 	@Override
 	public void doCleanUp()
 	{
+		recommendationsJob.cancel();
 		documentItemListComposite.cleanUp();
 		selectSignatureElementComposite.cleanUp();
 	}
@@ -30,6 +30,8 @@ import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.events.FocusListener;
 import org.eclipse.swt.events.KeyEvent;
 import org.eclipse.swt.events.KeyListener;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Color;
@@ -45,17 +47,26 @@ import org.pocui.core.actions.EmptyActionConfiguration;
 import org.pocui.core.composites.CompositeInitializationException;
 import org.pocui.swt.composites.AbsComposite;
 
-import de.akra.idocit.common.services.ThematicGridService;
+import de.akra.idocit.common.services.VerbRecognizer;
 import de.akra.idocit.common.structure.ThematicGrid;
 import de.akra.idocit.common.structure.ThematicRole;
 import de.akra.idocit.common.utils.StringUtils;
 import de.akra.idocit.core.exceptions.UnitializedIDocItException;
+import de.akra.idocit.core.listeners.IConfigurationChangeListener;
+import de.akra.idocit.core.services.PersistenceService;
 import de.akra.idocit.core.services.impl.ServiceManager;
 import de.akra.idocit.ui.components.RecommendedGridsView;
 
 /**
  * Composite for {@link RecommendedGridsView} to show the recommendet thematic grids with
  * its' thematic roles.
+ * <p>
+ * While the identifier is typed, the grids of all verbs starting with it are shown. The
+ * search runs {@link #LIVE_SEARCH_DELAY} ms after the last keystroke, so a burst of
+ * keystrokes renders only the result of the latest one. The verbs are looked up in a
+ * {@link VerbRecognizer}, which is built once and again only if the thematic grids
+ * change.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * 
@@ -70,6 +81,11 @@ public class RecommendRolesComposite
 	private static final Map<String, ThematicGrid> NO_RECOMMANDATIONS_FOUND;
 	private static final String TXT_LABEL_TEXT = "Enter Identifier";
 
+	/**
+	 * The delay in ms between the last keystroke and the search for candidate grids.
+	 */
+	private static final int LIVE_SEARCH_DELAY = 100;
+
 	static
 	{
 		NO_RECOMMANDATIONS_FOUND = new HashMap<String, ThematicGrid>();
@@ -83,6 +99,13 @@ public class RecommendRolesComposite
 	private Color grayedForeground;
 	private Font initializationFont = null;
 
+	/**
+	 * The index of the verbs of all thematic grids. It is <code>null</code> until it is
+	 * needed and after the thematic grids have changed.
+	 */
+	private volatile VerbRecognizer verbRecognizer = null;
+	private boolean thematicGridChangeListenerAdded = false;
+
 	/*
 	 * Widgets
 	 */
@@ -102,6 +125,9 @@ public class RecommendRolesComposite
 	private SelectionListener findThematicGridButtonListener;
 	private FocusListener txtOperationIdentifierListener;
 	private KeyListener txtOperationIdentifierKeyListener;
+	private ModifyListener txtOperationIdentifierModifyListener;
+	private IConfigurationChangeListener thematicGridChangeListener;
+	private Runnable liveSearch;
 
 	public RecommendRolesComposite(Composite pvParent, int pvStyle,
 			RecommendRolesCompositeRC resConf) throws CompositeInitializationException
@@ -194,6 +220,9 @@ public class RecommendRolesComposite
 	{
 		if (newInSelection != null && !newInSelection.equals(oldInSelection))
 		{
+			// the new selection replaces the result of a pending live search
+			getDisplay().timerExec(-1, liveSearch);
+
 			DisplayRecommendedRolesCompositeSelection dispRolesCompSelection = displayRecommendedRolesComposite
 					.getSelection();
 			if (dispRolesCompSelection == null)
@@ -219,18 +248,11 @@ public class RecommendRolesComposite
 				}
 				try
 				{
-					if (ServiceManager.getInstance().getPersistenceService() != null)
+					final VerbRecognizer recognizer = getVerbRecognizer();
+					if (recognizer != null)
 					{
-						final List<ThematicGrid> allThematicGrids = ServiceManager
-								.getInstance().getPersistenceService()
-								.loadThematicGrids();
-						Map<String, ThematicGrid> deriveThematicGrid = ThematicGridService
-								.deriveThematicGrid(identifier, allThematicGrids);
-
-						if (deriveThematicGrid.isEmpty())
-						{
-							deriveThematicGrid = NO_RECOMMANDATIONS_FOUND;
-						}
+						final Map<String, ThematicGrid> deriveThematicGrid = toRecommendations(recognizer
+								.findGrids(identifier));
 						dispRolesCompSelection = new DisplayRecommendedRolesCompositeSelection(
 								deriveThematicGrid,
 								newInSelection.getAssignedThematicRoles(),
@@ -254,6 +276,106 @@ public class RecommendRolesComposite
 		}
 	}
 
+	/**
+	 * Shows the candidate grids of the identifier which is typed at the moment.
+	 */
+	private void searchAsYouType()
+	{
+		if (isDisposed())
+		{
+			return;
+		}
+
+		final String identifier = txtOperationIdentifier.getText();
+		if (StringUtils.isBlank(identifier) || TXT_LABEL_TEXT.equals(identifier))
+		{
+			return;
+		}
+
+		try
+		{
+			final VerbRecognizer recognizer = getVerbRecognizer();
+			if (recognizer != null)
+			{
+				DisplayRecommendedRolesCompositeSelection dispRolesCompSelection = displayRecommendedRolesComposite
+						.getSelection();
+				if (dispRolesCompSelection == null)
+				{
+					dispRolesCompSelection = new DisplayRecommendedRolesCompositeSelection();
+				}
+				displayRecommendedRolesComposite.setSelection(dispRolesCompSelection
+						.setRecommendedThematicGrids(toRecommendations(recognizer
+								.findCandidateGrids(identifier))));
+
+				if (contentCompositeLayout.topControl != displayRecommendedRolesComposite)
+				{
+					contentCompositeLayout.topControl = displayRecommendedRolesComposite;
+					displayRecommendedRolesComposite.getParent().layout();
+				}
+			}
+		}
+		catch (UnitializedIDocItException e)
+		{
+			logger.log(Level.SEVERE, e.toString());
+			contentCompositeLayout.topControl = intializationMessageComposite;
+			intializationMessageComposite.getParent().layout();
+		}
+	}
+
+	/**
+	 * Returns the index of the verbs of all thematic grids. It is built when it is needed
+	 * for the first time and after the thematic grids have changed.
+	 * 
+	 * @return The recognizer, or <code>null</code> if there is no persistence service.
+	 * @throws UnitializedIDocItException
+	 *             If iDocIt! is not initialized yet.
+	 */
+	private VerbRecognizer getVerbRecognizer() throws UnitializedIDocItException
+	{
+		final PersistenceService persistenceService = ServiceManager.getInstance()
+				.getPersistenceService();
+		if (persistenceService == null)
+		{
+			return null;
+		}
+
+		if (!thematicGridChangeListenerAdded)
+		{
+			persistenceService.addThematicGridChangeListener(thematicGridChangeListener);
+			thematicGridChangeListenerAdded = true;
+		}
+
+		VerbRecognizer recognizer = verbRecognizer;
+		if (recognizer == null)
+		{
+			final List<ThematicGrid> allThematicGrids = persistenceService
+					.loadThematicGrids();
+			recognizer = new VerbRecognizer(allThematicGrids);
+			verbRecognizer = recognizer;
+		}
+		return recognizer;
+	}
+
+	/**
+	 * @return The <code>grids</code> by name, or {@link #NO_RECOMMANDATIONS_FOUND} if
+	 *         there are none.
+	 */
+	private static Map<String, ThematicGrid> toRecommendations(
+			final List<ThematicGrid> grids)
+	{
+		if (grids.isEmpty())
+		{
+			return NO_RECOMMANDATIONS_FOUND;
+		}
+
+		final Map<String, ThematicGrid> recommendations = new HashMap<String, ThematicGrid>();
+		for (final ThematicGrid grid : grids)
+		{
+			recommendations.put(grid.getName(), grid);
+		}
+		return recommendations;
+	}
+
 	@Override
 	protected void initListener() throws CompositeInitializationException
 	{
@@ -309,6 +431,34 @@ public class RecommendRolesComposite
 				// nothing to do
 			}
 		};
+
+		this.liveSearch = new Runnable() {
+
+			@Override
+			public void run()
+			{
+				searchAsYouType();
+			}
+		};
+
+		this.txtOperationIdentifierModifyListener = new ModifyListener() {
+
+			@Override
+			public void modifyText(final ModifyEvent e)
+			{
+				// rescheduling coalesces the keystrokes, only the latest one is searched
+				getDisplay().timerExec(LIVE_SEARCH_DELAY, liveSearch);
+			}
+		};
+
+		this.thematicGridChangeListener = new IConfigurationChangeListener() {
+
+			@Override
+			public void configurationChange()
+			{
+				verbRecognizer = null;
+			}
+		};
 	}
 
 	private void onFocusLost(final Text txt)
@@ -330,6 +480,8 @@ public class RecommendRolesComposite
 		this.btnFindThematicGrid.removeSelectionListener(findThematicGridButtonListener);
 		this.txtOperationIdentifier.removeFocusListener(txtOperationIdentifierListener);
 		this.txtOperationIdentifier.removeKeyListener(txtOperationIdentifierKeyListener);
+		this.txtOperationIdentifier
+				.removeModifyListener(txtOperationIdentifierModifyListener);
 	}
 
 	@Override
@@ -338,11 +490,27 @@ public class RecommendRolesComposite
 		this.btnFindThematicGrid.addSelectionListener(findThematicGridButtonListener);
 		this.txtOperationIdentifier.addFocusListener(txtOperationIdentifierListener);
 		this.txtOperationIdentifier.addKeyListener(txtOperationIdentifierKeyListener);
+		this.txtOperationIdentifier.addModifyListener(txtOperationIdentifierModifyListener);
 	}
 
 	@Override
 	protected void doCleanUp()
 	{
+		if (!isDisposed())
+		{
+			getDisplay().timerExec(-1, liveSearch);
+		}
+		if (thematicGridChangeListenerAdded)
+		{
+			final PersistenceService persistenceService = ServiceManager.getInstance()
+					.getPersistenceService();
+			if (persistenceService != null)
+			{
+				persistenceService
+						.removeThematicGridChangeListener(thematicGridChangeListener);
+			}
+			thematicGridChangeListenerAdded = false;
+		}
 		if (initializationFont != null)
 		{
 			initializationFont.dispose();
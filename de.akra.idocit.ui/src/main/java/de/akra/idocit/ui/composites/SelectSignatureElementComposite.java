@@ -16,7 +16,11 @@
 package de.akra.idocit.ui.composites;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +46,7 @@ import org.pocui.core.actions.EmptyActionConfiguration;
 import org.pocui.core.composites.CompositeInitializationException;
 import org.pocui.swt.composites.AbsComposite;
 
+import de.akra.idocit.common.structure.ElementRecommendations;
 import de.akra.idocit.common.structure.Interface;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.Operation;
@@ -51,11 +56,13 @@ import de.akra.idocit.common.structure.SignatureElement;
 
 /**
  * The composite with a {@link TreeViewer} in which the {@link SignatureElement} can be
- * selected, which the user want to document.
+ * selected, which the user want to document. Operations with missing mandatory roles
+ * are decorated with a warning, as far as their
+ * {@link SelectSignatureElementCompositeSelection#getRecommendations()} are known.
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class SelectSignatureElementComposite
@@ -78,6 +85,11 @@ public class SelectSignatureElementComposite
 	private SelectionListener menuItemExpandTreeSelectionListener;
 	private SelectionListener menuItemCollapseTreeSelectionListener;
 
+	/**
+	 * The ids of the {@link SignatureElement}s with missing mandatory roles.
+	 */
+	private Set<Integer> idsWithMissingRoles = new HashSet<Integer>();
+
 	/**
 	 * @param pvParent
 	 * @param pvStyle
@@ -201,9 +213,41 @@ public class SelectSignatureElementComposite
 							.getInterfaceArtifact())
 			{
 				log.log(Level.FINE, "Build tree of SignatureElements.");
+				idsWithMissingRoles = collectIdsWithMissingRoles(newInSelection
+						.getRecommendations());
 				selectionTreeViewer.setInput(newInSelection.getInterfaceArtifact());
 			}
+			else if (newInSelection.getRecommendations() != oldInSelection
+					.getRecommendations())
+			{
+				// update the decorations only if they changed
+				final Set<Integer> newIdsWithMissingRoles = collectIdsWithMissingRoles(newInSelection
+						.getRecommendations());
+				if (!newIdsWithMissingRoles.equals(idsWithMissingRoles))
+				{
+					idsWithMissingRoles = newIdsWithMissingRoles;
+					selectionTreeViewer.refresh();
+				}
+			}
+		}
+	}
+
+	private static Set<Integer> collectIdsWithMissingRoles(
+			Map<Integer, ElementRecommendations> recommendations)
+	{
+		final Set<Integer> ids = new HashSet<Integer>();
+		if (recommendations != null)
+		{
+			for (final Entry<Integer, ElementRecommendations> entry : recommendations
+					.entrySet())
+			{
+				if (entry.getValue().hasMissingRoles())
+				{
+					ids.add(entry.getKey());
+				}
+			}
 		}
+		return ids;
 	}
 
 	@Override
@@ -401,7 +445,14 @@ public class SelectSignatureElementComposite
 		public Image getImage(Object element)
 		{
 			Image img = null;
-			if (element instanceof SignatureElement)
+			if ((element instanceof Operation)
+					&& idsWithMissingRoles.contains(Integer
+							.valueOf(((Operation) element).getId())))
+			{
+				img = getResourceConfiguration().getWarningImageForSignatureElement(
+						(SignatureElement) element);
+			}
+			else if (element instanceof SignatureElement)
 			{
 				img = getResourceConfiguration().getImageForSignatureElement(
 						(SignatureElement) element);
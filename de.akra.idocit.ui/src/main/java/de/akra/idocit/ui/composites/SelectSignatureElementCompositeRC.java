@@ -26,7 +26,10 @@ import java.util.logging.Logger;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.DecorationOverlayIcon;
+import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.pocui.core.resources.IResourceConfiguration;
 
@@ -45,7 +48,7 @@ import de.akra.idocit.ui.Activator;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.2
+ * @version 0.0.3
  */
 public class SelectSignatureElementCompositeRC implements IResourceConfiguration
 {
@@ -62,6 +65,11 @@ public class SelectSignatureElementCompositeRC implements IResourceConfiguration
 	 */
 	private Map<String, Image> imageCache = new HashMap<String, Image>();
 
+	/**
+	 * Cache for the icons with a warning decoration, by their undecorated icons.
+	 */
+	private Map<Image, Image> warningImageCache = new HashMap<Image, Image>();
+
 	@Override
 	public boolean isComplete()
 	{
@@ -132,6 +140,36 @@ public class SelectSignatureElementCompositeRC implements IResourceConfiguration
 		}
 	}
 
+	/**
+	 * Get the icon for the <code>sigElement</code> with a warning decoration in the
+	 * lower left corner.
+	 * 
+	 * @param sigElement
+	 *            The {@link SignatureElement} for which the icon should be get.
+	 * @return The decorated {@link Image}.
+	 * @see #getImageForSignatureElement(SignatureElement)
+	 */
+	public Image getWarningImageForSignatureElement(SignatureElement sigElement)
+	{
+		final Image image = getImageForSignatureElement(sigElement);
+		if (image == null)
+		{
+			return null;
+		}
+
+		Image warningImage = warningImageCache.get(image);
+		if (warningImage == null)
+		{
+			final ImageDescriptor warningDescriptor = PlatformUI.getWorkbench()
+					.getSharedImages()
+					.getImageDescriptor(ISharedImages.IMG_DEC_FIELD_WARNING);
+			warningImage = new DecorationOverlayIcon(image, warningDescriptor,
+					IDecoration.BOTTOM_LEFT).createImage();
+			warningImageCache.put(image, warningImage);
+		}
+		return warningImage;
+	}
+
 	/**
 	 * Return the {@link Image} from the image cache. If it does not exist, it is created
 	 * and returned.
@@ -184,6 +222,10 @@ public class SelectSignatureElementCompositeRC implements IResourceConfiguration
 	 */
 	public void disposeImageCache()
 	{
+		for (Entry<Image, Image> entry : warningImageCache.entrySet())
+		{
+			entry.getValue().dispose();
+		}
 		for (Entry<String, Image> entry : imageCache.entrySet())
 		{
 			entry.getValue().dispose();
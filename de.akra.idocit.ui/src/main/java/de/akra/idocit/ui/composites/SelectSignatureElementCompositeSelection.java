@@ -15,9 +15,13 @@
  *******************************************************************************/
 package de.akra.idocit.ui.composites;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.eclipse.swt.widgets.Tree;
 import org.pocui.core.composites.ISelection;
 
+import de.akra.idocit.common.structure.ElementRecommendations;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.common.structure.SignatureElement;
 
@@ -26,7 +30,7 @@ import de.akra.idocit.common.structure.SignatureElement;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class SelectSignatureElementCompositeSelection implements ISelection
@@ -41,6 +45,13 @@ public class SelectSignatureElementCompositeSelection implements ISelection
 	 */
 	private SignatureElement selectedSignatureElement;
 
+	/**
+	 * The recommendations by the ids of the {@link SignatureElement}s. They are used to
+	 * decorate the operations with missing roles.
+	 */
+	private Map<Integer, ElementRecommendations> recommendations = Collections
+			.emptyMap();
+
 	/**
 	 * @param interfaceArtifact
 	 *            the interfaceArtifact to set
@@ -75,5 +86,22 @@ public class SelectSignatureElementCompositeSelection implements ISelection
 		return selectedSignatureElement;
 	}
 
+	/**
+	 * @param recommendations
+	 *            the recommendations to set
+	 */
+	public void setRecommendations(Map<Integer, ElementRecommendations> recommendations)
+	{
+		this.recommendations = recommendations;
+	}
+
+	/**
+	 * @return the recommendations
+	 */
+	public Map<Integer, ElementRecommendations> getRecommendations()
+	{
+		return recommendations;
+	}
+
 		
 }
@@ -23,7 +23,7 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ WSDLParserTest.class, WSDLParsingServiceTest.class,
-		WSDLGeneratorTest.class })
+		WSDLGeneratorTest.class, ImportedDocumentCacheTest.class })
 public class AllIDocItWsdlTests
 {
 	public static Test suite()
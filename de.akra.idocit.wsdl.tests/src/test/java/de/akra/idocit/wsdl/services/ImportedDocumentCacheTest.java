@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.wsdl.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.wsdl.Definition;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaImport;
+
+import org.junit.Test;
+
+import com.ibm.wsdl.util.xml.DOM2Writer;
+
+import de.akra.idocit.wsdl.Constants;
+
+/**
+ * Tests for {@link ImportedDocumentCache} and {@link CachingWSDLReader}.
+ */
+public class ImportedDocumentCacheTest
+{
+	private static final String WSDL_FILE = Constants.FOLDER_SOURCE
+			+ "CustomerService.wsdl";
+
+	private static final String SCHEMA_NS = "http://www.w3.org/2001/XMLSchema";
+
+	/**
+	 * The imported schema is read once and copied for the next WSDL files until its file
+	 * changes. No WSDL file gets the schema or the DOM nodes of another one.
+	 */
+	@Test
+	public void testReadImportedSchemaOnce() throws Exception
+	{
+		final ImportedDocumentCache cache = new ImportedDocumentCache(1024 * 1024);
+
+		final Schema first = readImportedSchema(cache, WSDL_FILE);
+		assertEquals(1, cache.size());
+		final Schema second = readImportedSchema(cache, WSDL_FILE);
+		assertEquals(1, cache.size());
+		assertNotSame(first, second);
+		assertNotSame(first.getElement().getOwnerDocument(), second.getElement()
+				.getOwnerDocument());
+		assertEquals(first.getDocumentBaseURI(), second.getDocumentBaseURI());
+		assertEquals(DOM2Writer.nodeToString(first.getElement()),
+				DOM2Writer.nodeToString(second.getElement()));
+
+		final File schemaFile = new File(Constants.FOLDER_SOURCE + "CompanySchema.xsd");
+		final long lastModified = schemaFile.lastModified();
+		try
+		{
+			schemaFile.setLastModified(lastModified - 2000);
+			assertEquals(DOM2Writer.nodeToString(first.getElement()),
+					DOM2Writer.nodeToString(readImportedSchema(cache, WSDL_FILE)
+							.getElement()));
+			assertEquals(1, cache.size());
+		}
+		finally
+		{
+			schemaFile.setLastModified(lastModified);
+		}
+	}
+
+	/**
+	 * A cached schema is read with the current version of the schema it imports.
+	 */
+	@Test
+	public void testReadChangedTransitiveImport() throws Exception
+	{
+		final File folder = createTempFolder();
+		try
+		{
+			final File wsdlFile = new File(folder, "Service.wsdl");
+			write(wsdlFile, "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\""
+					+ " targetNamespace=\"urn:service\"><types><schema xmlns=\""
+					+ SCHEMA_NS + "\" targetNamespace=\"urn:service\"><import"
+					+ " namespace=\"urn:a\" schemaLocation=\"A.xsd\"/></schema></types>"
+					+ "</definitions>");
+			write(new File(folder, "A.xsd"), "<schema xmlns=\"" + SCHEMA_NS
+					+ "\" targetNamespace=\"urn:a\"><import namespace=\"urn:b\""
+					+ " schemaLocation=\"B.xsd\"/></schema>");
+			final File schemaFile = new File(folder, "B.xsd");
+			write(schemaFile, "<schema xmlns=\"" + SCHEMA_NS
+					+ "\" targetNamespace=\"urn:b\"><complexType name=\"Old\"/></schema>");
+
+			final ImportedDocumentCache cache = new ImportedDocumentCache(1024 * 1024);
+			final String wsdlPath = wsdlFile.getAbsolutePath();
+			assertTrue(serialize(readTransitiveSchema(cache, wsdlPath)).contains("Old"));
+			assertEquals(2, cache.size());
+
+			final long lastModified = schemaFile.lastModified();
+			write(schemaFile, "<schema xmlns=\"" + SCHEMA_NS
+					+ "\" targetNamespace=\"urn:b\"><complexType name=\"New\"/></schema>");
+			schemaFile.setLastModified(lastModified - 2000);
+
+			final String schema = serialize(readTransitiveSchema(cache, wsdlPath));
+			assertTrue(schema.contains("New"));
+			assertFalse(schema.contains("Old"));
+		}
+		finally
+		{
+			for (final File file : folder.listFiles())
+			{
+				file.delete();
+			}
+			folder.delete();
+		}
+	}
+
+	/**
+	 * WSDL files importing the same cached schema are read in parallel.
+	 */
+	@Test
+	public void testReadInParallel() throws Exception
+	{
+		final ImportedDocumentCache cache = new ImportedDocumentCache(1024 * 1024);
+		final String expected = serialize(readImportedSchema(cache, WSDL_FILE));
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			final List<Future<String>> schemata = new ArrayList<Future<String>>();
+			for (int i = 0; i < 32; i++)
+			{
+				schemata.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception
+					{
+						return serialize(readImportedSchema(cache, WSDL_FILE));
+					}
+				}));
+			}
+			for (final Future<String> schema : schemata)
+			{
+				assertEquals(expected, schema.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * The least recently used documents are evicted if the files are too large.
+	 */
+	@Test
+	public void testEvictLargeFiles() throws Exception
+	{
+		final ImportedDocumentCache cache = new ImportedDocumentCache(1);
+
+		final Schema first = readImportedSchema(cache, WSDL_FILE);
+		assertEquals(1, cache.size());
+		final String uri = first.getDocumentBaseURI();
+		final String otherUri = new File(Constants.FOLDER_SOURCE + "wsdl_46001.wsdl")
+				.toURI().toURL().toExternalForm();
+		cache.put(otherUri, first.getElement().getOwnerDocument());
+		assertEquals(1, cache.size());
+		assertNull(cache.getDocumentElement(uri));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Schema readImportedSchema(final ImportedDocumentCache cache,
+			final String wsdlFile) throws Exception
+	{
+		final CachingWSDLReader reader = new CachingWSDLReader(cache);
+		reader.setFeature("javax.wsdl.verbose", false);
+		final Definition definition = reader.readWSDL(wsdlFile);
+
+		final Schema schema = (Schema) definition.getTypes().getExtensibilityElements()
+				.get(0);
+		final List<SchemaImport> imports = (List<SchemaImport>) schema.getImports()
+				.values().iterator().next();
+		return imports.get(0).getReferencedSchema();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Schema readTransitiveSchema(final ImportedDocumentCache cache,
+			final String wsdlFile) throws Exception
+	{
+		final Schema schema = readImportedSchema(cache, wsdlFile);
+		final List<SchemaImport> imports = (List<SchemaImport>) schema.getImports()
+				.values().iterator().next();
+		return imports.get(0).getReferencedSchema();
+	}
+
+	private static String serialize(final Schema schema)
+	{
+		return DOM2Writer.nodeToString(schema.getElement());
+	}
+
+	private static File createTempFolder() throws Exception
+	{
+		final File folder = File.createTempFile("idocit", "imports");
+		folder.delete();
+		folder.mkdir();
+		return folder;
+	}
+
+	private static void write(final File file, final String content) throws Exception
+	{
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try
+		{
+			writer.write(content);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+}
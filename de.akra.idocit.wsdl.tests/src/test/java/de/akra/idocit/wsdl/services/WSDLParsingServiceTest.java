@@ -18,7 +18,12 @@ package de.akra.idocit.wsdl.services;
 import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -128,6 +133,102 @@ public class WSDLParsingServiceTest {
 		}
 	}
 
+	/**
+	 * Tests that only the types of the XML Schema namespace are simple types, not user
+	 * types or elements with the name of a built-in type.
+	 * 
+	 * @throws WSDLException
+	 */
+	@Test
+	public void testExtractRolesWithUserTypes() throws WSDLException {
+		WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+		Definition def = reader.readWSDL(Constants.FOLDER_SOURCE
+				+ "wsdl_user_types.wsdl");
+
+		Delimiters delimiters = new Delimiters();
+		delimiters.setNamespaceDelimiter(":");
+		delimiters.setPathDelimiter(".");
+		delimiters.setTypeDelimiter(".");
+
+		// Test case #1: tns:string is resolved like any other type.
+		{
+			Message message = def.getMessage(new QName("http://tempuri.org/",
+					"UserTypeIn"));
+			assertEquals(
+					Arrays.asList("UserTypeIn.parameters.Text.Text.string.value.int"),
+					WSDLParsingService.extractRoles(message, def.getTypes(),
+							delimiters));
+		}
+		{
+			Message message = def.getMessage(new QName("http://tempuri.org/",
+					"UserTypePartIn"));
+			assertEquals(Arrays.asList("UserTypePartIn.text.string.value.int"),
+					WSDLParsingService.extractRoles(message, def.getTypes(),
+							delimiters));
+		}
+
+		// Test case #2: the element tns:Name is not the built-in type s:Name.
+		{
+			Message message = def.getMessage(new QName("http://tempuri.org/",
+					"BuiltInTypeIn"));
+			assertEquals(Arrays.asList("BuiltInTypeIn.parameters.Name.Name.string"),
+					WSDLParsingService.extractRoles(message, def.getTypes(),
+							delimiters));
+		}
+		{
+			Message message = def.getMessage(new QName("http://tempuri.org/",
+					"BuiltInTypePartIn"));
+			assertEquals(Arrays.asList("BuiltInTypePartIn.text.string"),
+					WSDLParsingService.extractRoles(message, def.getTypes(),
+							delimiters));
+		}
+	}
+
+	/**
+	 * Tests that the roles extracted in parallel with an indexed
+	 * {@link SchemaTypeClassifier} are the same as the sequentially extracted roles.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testExtractRolesIndexed() throws Exception {
+		WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+		Definition def = reader.readWSDL(Constants.FOLDER_SOURCE
+				+ "CustomerService.wsdl");
+
+		final Delimiters delimiters = new Delimiters();
+		delimiters.setNamespaceDelimiter(":");
+		delimiters.setPathDelimiter(".");
+		delimiters.setTypeDelimiter(".");
+
+		final SchemaTypeClassifier classifier = new SchemaTypeClassifier(
+				def.getTypes());
+		classifier.indexAll();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<String>>> pendingRoles = new ArrayList<Future<List<String>>>();
+			for (Object messageObj : def.getMessages().values()) {
+				final Message message = (Message) messageObj;
+				pendingRoles.add(executor.submit(new Callable<List<String>>() {
+					@Override
+					public List<String> call() {
+						return WSDLParsingService.extractMessageRoles(message,
+								classifier, delimiters);
+					}
+				}));
+			}
+
+			int i = 0;
+			for (Object messageObj : def.getMessages().values()) {
+				assertEquals(WSDLParsingService.extractRoles((Message) messageObj,
+						def.getTypes(), delimiters), pendingRoles.get(i++).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testExtractRolesFromNullMessage() {
 		assertEquals(WSDLParsingService.extractRoles(null, null, null),
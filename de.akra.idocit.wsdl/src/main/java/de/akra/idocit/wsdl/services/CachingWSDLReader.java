@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.wsdl.services;
+
+import java.util.Hashtable;
+import java.util.Map;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Types;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.schema.Schema;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Element;
+
+import com.ibm.wsdl.Constants;
+import com.ibm.wsdl.extensions.schema.SchemaConstants;
+import com.ibm.wsdl.util.xml.QNameUtils;
+import com.ibm.wsdl.xml.WSDLReaderImpl;
+
+/**
+ * A {@link WSDLReaderImpl} which takes the DOM documents of the imported XML schemata
+ * and WSDL files from an {@link ImportedDocumentCache}.
+ * <p>
+ * The reader looks up the already read documents by their resolved URIs before it
+ * fetches and parses them. These lookups are backed by the cache: the reader creates
+ * new {@link Schema}s and {@link Definition}s from the copies of the cached documents,
+ * so the read objects and their DOM nodes belong to the read WSDL file only. The
+ * documents read by the reader are added to the cache after the WSDL file is read
+ * completely. The read WSDL file itself and the schemata in its types section are not
+ * cached.
+ * </p>
+ * <p>
+ * A reader is not thread-safe. It should be used for one WSDL file.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.2
+ */
+final class CachingWSDLReader extends WSDLReaderImpl
+{
+	private final ImportedDocumentCache cache;
+
+	/**
+	 * The elements of the imported documents fetched and parsed by this reader, by
+	 * their URIs.
+	 */
+	private final Map<String, Element> readDocuments = new Hashtable<String, Element>();
+
+	/**
+	 * The schemata by the URIs of their documents, backed by the {@link #cache}.
+	 */
+	@SuppressWarnings("serial")
+	private final class CachedSchemas extends Hashtable<Object, Object>
+	{
+		@Override
+		public synchronized Object get(final Object uri)
+		{
+			Object schema = super.get(uri);
+			if (schema == null && uri instanceof String)
+			{
+				schema = readCachedSchema((String) uri);
+			}
+			return schema;
+		}
+
+		@Override
+		public synchronized Object put(final Object uri, final Object schema)
+		{
+			// only schema files, the schemata of the types sections have the URI of
+			// their WSDL file
+			if (uri instanceof String && schema instanceof Schema
+					&& isDocumentElement(((Schema) schema).getElement()))
+			{
+				readDocuments.put((String) uri, ((Schema) schema).getElement());
+			}
+			return super.put(uri, schema);
+		}
+	}
+
+	/**
+	 * The imported definitions by their URIs, backed by the {@link #cache}.
+	 */
+	@SuppressWarnings("serial")
+	private final class CachedDefinitions extends Hashtable<Object, Object>
+	{
+		@Override
+		public synchronized Object get(final Object uri)
+		{
+			Object definition = super.get(uri);
+			if (definition == null && uri instanceof String)
+			{
+				definition = readCachedDefinition((String) uri, this);
+			}
+			return definition;
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param cache
+	 *            [DESTINATION] The cache of the imported documents.
+	 */
+	CachingWSDLReader(final ImportedDocumentCache cache)
+	{
+		this.cache = cache;
+		this.allSchemas = new CachedSchemas();
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	protected Definition parseDefinitions(final String documentBaseURI,
+			final Element defEl, final Map importedDefs) throws WSDLException
+	{
+		if (importedDefs != null)
+		{
+			// an imported WSDL file
+			if (documentBaseURI != null && isDocumentElement(defEl))
+			{
+				readDocuments.put(documentBaseURI, defEl);
+			}
+			return super.parseDefinitions(documentBaseURI, defEl, importedDefs);
+		}
+
+		readDocuments.clear();
+		final Definition definition = super.parseDefinitions(documentBaseURI, defEl,
+				new CachedDefinitions());
+
+		// the imported documents are complete now
+		try
+		{
+			for (final Map.Entry<String, Element> document : readDocuments.entrySet())
+			{
+				cache.put(document.getKey(), document.getValue().getOwnerDocument());
+			}
+		}
+		catch (final ParserConfigurationException e)
+		{
+			throw new WSDLException(WSDLException.CONFIGURATION_ERROR,
+					"Unable to cache the imported documents.", e);
+		}
+		finally
+		{
+			readDocuments.clear();
+		}
+
+		return definition;
+	}
+
+	/**
+	 * Creates the {@link Schema} from a copy of the cached document like
+	 * {@link WSDLReaderImpl} creates an imported schema. The schemata imported by it are
+	 * looked up in {@link #allSchemas} again.
+	 *
+	 * @return The new {@link Schema}, or <code>null</code> if the document is not
+	 *         cached or is not a schema.
+	 */
+	private Schema readCachedSchema(final String uri)
+	{
+		try
+		{
+			final Element documentElement = cache.getDocumentElement(uri);
+			if (documentElement == null
+					|| !SchemaConstants.XSD_QNAME_LIST.contains(QNameUtils
+							.newQName(documentElement)))
+			{
+				return null;
+			}
+
+			// the schema deserializer takes the document base URI from the definition
+			final Definition dummyDef = getWSDLFactory().newDefinition();
+			if (extReg != null)
+			{
+				dummyDef.setExtensionRegistry(extReg);
+			}
+			dummyDef.setDocumentBaseURI(uri);
+			final Object schema = parseSchema(Types.class, documentElement, dummyDef);
+
+			// it is already cached
+			readDocuments.remove(uri);
+			return (schema instanceof Schema) ? (Schema) schema : null;
+		}
+		catch (final ParserConfigurationException e)
+		{
+			return null;
+		}
+		catch (final WSDLException e)
+		{
+			// read the file again
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the {@link Definition} from a copy of the cached document like
+	 * {@link WSDLReaderImpl} creates an imported WSDL file. The documents imported by it
+	 * are looked up in the <code>importedDefs</code> and {@link #allSchemas} again.
+	 *
+	 * @return The new {@link Definition}, or <code>null</code> if the document is not
+	 *         cached or is not a WSDL file.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Definition readCachedDefinition(final String uri, final Map importedDefs)
+	{
+		try
+		{
+			final Element documentElement = cache.getDocumentElement(uri);
+			if (documentElement == null
+					|| !QNameUtils.matches(Constants.Q_ELEM_DEFINITIONS, documentElement))
+			{
+				return null;
+			}
+
+			final Definition definition = readWSDL(uri, documentElement, importedDefs);
+
+			// it is already cached
+			readDocuments.remove(uri);
+			return definition;
+		}
+		catch (final ParserConfigurationException e)
+		{
+			return null;
+		}
+		catch (final WSDLException e)
+		{
+			// read the file again
+			importedDefs.remove(uri);
+			return null;
+		}
+	}
+
+	private static boolean isDocumentElement(final Element element)
+	{
+		return element != null && element.getOwnerDocument() != null
+				&& element.getOwnerDocument().getDocumentElement() == element;
+	}
+}
@@ -172,8 +172,8 @@ public class DocumentationGenerator
 			}
 
 			// insert addressee elements
-			Map<Addressee, String> addresseeDocs = documentation.getDocumentation();
-			List<Addressee> addresseeSequence = documentation.getAddresseeSequence();
+			Map<Addressee, String> addresseeDocs = documentation.getDocumentationView();
+			List<Addressee> addresseeSequence = documentation.getAddresseeSequenceView();
 			for (Addressee addressee : addresseeSequence)
 			{
 				Element addrElem = domDocument.createElement(ADDRESSEE_ELEMENT_NAME);
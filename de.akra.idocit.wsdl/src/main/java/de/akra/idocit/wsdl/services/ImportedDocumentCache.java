@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.wsdl.services;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import de.akra.idocit.common.metrics.Counter;
+import de.akra.idocit.common.metrics.Metrics;
+
+/**
+ * Caches the DOM documents of the imported XML schemata and WSDL files across the
+ * parsing of WSDL files, so that common schemata are fetched and parsed only once (see
+ * {@link CachingWSDLReader}).
+ * <p>
+ * A document is cached by its resolved URI and is valid as long as the modification
+ * stamp of its file does not change. Only local files are cached. The least recently
+ * used documents are evicted if the sum of the sizes of their files exceeds the limit,
+ * and the garbage collector may release any cached document if the memory gets low.
+ * </p>
+ * <p>
+ * The cache keeps its own copy of each document and returns a new copy on every
+ * lookup, so no DOM node is shared by two parsed WSDL files. The copies are made while
+ * holding the lock of the cached document, because reading a DOM, e.g. a deferred
+ * Xerces DOM which expands its nodes on first access, is not thread-safe. The
+ * documents imported by a cached document are looked up on their own, so a changed
+ * file is read again even if only a document importing it is cached. The cache is
+ * thread-safe.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ */
+public final class ImportedDocumentCache
+{
+	/**
+	 * The maximum sum of the sizes of the files of the cached documents, in bytes.
+	 */
+	private static final long MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+	private static final String FILE_PROTOCOL = "file";
+
+	/**
+	 * The cache shared by all parsers.
+	 */
+	public static final ImportedDocumentCache INSTANCE = new ImportedDocumentCache(
+			MAX_FILE_BYTES);
+
+	private static final Counter HITS = Metrics.counter("wsdl.importCache.hits");
+
+	private static final Counter MISSES = Metrics.counter("wsdl.importCache.misses");
+
+	/**
+	 * A cached document and the stamp of its file.
+	 */
+	private static final class Entry
+	{
+		final long modificationStamp;
+		final long fileBytes;
+		final SoftReference<Document> document;
+
+		Entry(final long modificationStamp, final long fileBytes, final Document document)
+		{
+			this.modificationStamp = modificationStamp;
+			this.fileBytes = fileBytes;
+			this.document = new SoftReference<Document>(document);
+		}
+	}
+
+	private final long maxFileBytes;
+
+	/**
+	 * The entries by URI, in the order of their last access. Guarded by this cache.
+	 */
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(64,
+			0.75f, true);
+
+	private long cachedFileBytes = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxFileBytes
+	 *            [ATTRIBUTE] The maximum sum of the sizes of the files of the cached
+	 *            documents.
+	 */
+	ImportedDocumentCache(final long maxFileBytes)
+	{
+		this.maxFileBytes = maxFileBytes;
+	}
+
+	/**
+	 * @param uri
+	 *            [PRIMARY_KEY] The resolved URI of the document.
+	 * @return [OBJECT] The document element of a new copy of the cached document, or
+	 *         <code>null</code> if it is not cached or its file has changed.
+	 * @throws ParserConfigurationException
+	 *             If no document could be created for the copy.
+	 * @thematicgrid Searching Operations
+	 */
+	Element getDocumentElement(final String uri) throws ParserConfigurationException
+	{
+		final Document document = get(uri);
+		return (document != null) ? copy(document).getDocumentElement() : null;
+	}
+
+	private synchronized Document get(final String uri)
+	{
+		final Entry entry = entries.get(uri);
+		if (entry != null)
+		{
+			final File file = toFile(uri);
+			final Document document = entry.document.get();
+			if (document != null && file != null
+					&& file.lastModified() == entry.modificationStamp)
+			{
+				HITS.increment();
+				return document;
+			}
+			remove(uri);
+		}
+		MISSES.increment();
+		return null;
+	}
+
+	/**
+	 * Caches a copy of the completely read <code>document</code>. It is ignored if it
+	 * is not a local file. The <code>document</code> must not be read by another thread
+	 * while it is copied.
+	 *
+	 * @param uri
+	 *            [PRIMARY_KEY] The resolved URI of the document.
+	 * @param document
+	 *            [OBJECT] The DOM document of the XML schema or WSDL file.
+	 * @throws ParserConfigurationException
+	 *             If no document could be created for the copy.
+	 * @thematicgrid Putting Operations
+	 */
+	void put(final String uri, final Document document)
+			throws ParserConfigurationException
+	{
+		final File file = toFile(uri);
+		if (file == null || !file.isFile())
+		{
+			return;
+		}
+
+		final long modificationStamp = file.lastModified();
+		final long fileBytes = file.length();
+		final Document copy = copy(document);
+		synchronized (this)
+		{
+			put(uri, new Entry(modificationStamp, fileBytes, copy));
+		}
+	}
+
+	private void put(final String uri, final Entry entry)
+	{
+		remove(uri);
+		entries.put(uri, entry);
+		cachedFileBytes += entry.fileBytes;
+
+		// evict the least recently used documents, but keep the new one
+		final Iterator<Entry> eldest = entries.values().iterator();
+		while (cachedFileBytes > maxFileBytes && entries.size() > 1)
+		{
+			cachedFileBytes -= eldest.next().fileBytes;
+			eldest.remove();
+		}
+	}
+
+	private void remove(final String uri)
+	{
+		final Entry entry = entries.remove(uri);
+		if (entry != null)
+		{
+			cachedFileBytes -= entry.fileBytes;
+		}
+	}
+
+	/**
+	 * Removes all cached documents.
+	 *
+	 * @thematicgrid Deleting Operations
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		cachedFileBytes = 0;
+	}
+
+	/**
+	 * @return [REPORT] The number of cached documents, including the released ones.
+	 * @thematicgrid Counting Operations
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * @return A new document with a deep copy of the nodes of the <code>document</code>.
+	 *         The <code>document</code> is locked while it is read.
+	 */
+	private static Document copy(final Document document)
+			throws ParserConfigurationException
+	{
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		final Document copy = factory.newDocumentBuilder().newDocument();
+		synchronized (document)
+		{
+			copy.appendChild(copy.importNode(document.getDocumentElement(), true));
+		}
+		return copy;
+	}
+
+	/**
+	 * @return The local file of the <code>uri</code>, or <code>null</code> if it is not
+	 *         a local file.
+	 */
+	private static File toFile(final String uri)
+	{
+		if (uri == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			final URL url = new URL(uri);
+			if (!FILE_PROTOCOL.equals(url.getProtocol()))
+			{
+				return null;
+			}
+			try
+			{
+				return new File(url.toURI());
+			}
+			catch (final URISyntaxException e)
+			{
+				// wsdl4j does not escape the paths of files, e.g. blanks
+				return new File(url.getPath());
+			}
+			catch (final IllegalArgumentException e)
+			{
+				return new File(url.getPath());
+			}
+		}
+		catch (final MalformedURLException e)
+		{
+			return null;
+		}
+	}
+}
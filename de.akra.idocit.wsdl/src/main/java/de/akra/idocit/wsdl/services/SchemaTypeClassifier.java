@@ -0,0 +1,397 @@
+/*******************************************************************************
+ * Copyright 2012 AKRA GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package de.akra.idocit.wsdl.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.wsdl.Types;
+import javax.wsdl.extensions.schema.Schema;
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Classifies the nodes of the XML schemata in the {@link Types} of a WSDL file.
+ * <p>
+ * Type references are resolved with the namespace declarations of the schema, so only
+ * types of the XML Schema namespace are built-in types: <code>xsd:string</code> is a
+ * simple type, a user defined <code>tns:string</code> is not. The declarations of all
+ * schemata are indexed once by their names, and the classification of a node is
+ * computed only once.
+ * </p>
+ * <p>
+ * A classifier is not thread-safe, it has to be used for one {@link Types} by one
+ * thread. After {@link #indexAll()} it does not read the DOM anymore, which is not
+ * thread-safe for reading either, and may be shared by several threads.
+ * </p>
+ *
+ * @since 0.0.11
+ * @version 0.0.1
+ * @see WSDLParsingService
+ */
+final class SchemaTypeClassifier
+{
+	static final String TYPE_NAME_ANONYMOUS = "anonymous";
+
+	static final String XSD_NAMESPACE = "http://www.w3.org/2001/XMLSchema";
+
+	private static final String XML_NS_DELIMITER = ":";
+	private static final String XML_ATTRIBUTE_TYPE = "type";
+	private static final String XML_ATTRIBUTE_NAME = "name";
+	private static final String XML_SIMPLETYPE = "simpletype";
+	private static final String XML_COMPLEXTYPE = "complextype";
+	private static final String XML_ELEMENT = "element";
+
+	/**
+	 * The namespaces of the XML Schema recommendation and its drafts.
+	 */
+	private static final String[] XSD_NAMESPACES = { XSD_NAMESPACE,
+			"http://www.w3.org/2000/10/XMLSchema", "http://www.w3.org/1999/XMLSchema" };
+
+	private static final String[] SIMPLE_XML_TYPES = { "string", "normalizedString",
+			"token", "base64Binary", "hexBinary", "integer", "positiveInteger",
+			"negativeInteger", "nonNegativeInteger", "nonPositiveInteger", "long",
+			"unsignedLong", "int", "unsignedInt", "short", "unsignedShort", "byte",
+			"unsignedByte", "decimal", "float", "double", "boolean", "duration",
+			"dateTime", "date", "time", "gYear", "gYearMonth", "gMonth", "gMonthDay",
+			"gDay", "Name", "QName", "NCName", "anyURI", "language", "ID", "IDREF",
+			"IDREFS", "ENTITY", "ENTITIES", "NOTATION", "NMTOKEN", "NMTOKENS", "anyType" };
+
+	/**
+	 * The built-in simple types in all {@link #XSD_NAMESPACES}.
+	 */
+	private static final Set<QName> BUILT_IN_TYPES;
+
+	static
+	{
+		final Set<QName> builtInTypes = new HashSet<QName>();
+		for (final String namespace : XSD_NAMESPACES)
+		{
+			for (final String simpleType : SIMPLE_XML_TYPES)
+			{
+				builtInTypes.add(new QName(namespace, simpleType));
+			}
+		}
+		BUILT_IN_TYPES = Collections.unmodifiableSet(builtInTypes);
+	}
+
+	/**
+	 * The classification of a {@link Node}.
+	 */
+	static final class NodeInfo
+	{
+		private final String name;
+		private final String typeName;
+		private final boolean element;
+		private final boolean complexType;
+		private final boolean simpleTypeDeclaration;
+		private final boolean builtInType;
+
+		private NodeInfo(final String name, final String typeName,
+				final boolean element, final boolean complexType,
+				final boolean simpleTypeDeclaration, final boolean builtInType)
+		{
+			this.name = name;
+			this.typeName = typeName;
+			this.element = element;
+			this.complexType = complexType;
+			this.simpleTypeDeclaration = simpleTypeDeclaration;
+			this.builtInType = builtInType;
+		}
+
+		/**
+		 * @return The value of the attribute "name", or "anonymous".
+		 */
+		String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * @return The local name of the referenced type, or "anonymous" if the node has
+		 *         no attribute "type".
+		 */
+		String getTypeName()
+		{
+			return typeName;
+		}
+
+		/**
+		 * @return <code>true</code> if the node is an element or a complex type.
+		 */
+		boolean isElementOrComplexType()
+		{
+			return element || complexType;
+		}
+
+		/**
+		 * @return <code>true</code> if the node is a complex type.
+		 */
+		boolean isComplexType()
+		{
+			return complexType;
+		}
+
+		/**
+		 * @return <code>true</code> if the node declares a simple type.
+		 */
+		boolean isSimpleTypeDeclaration()
+		{
+			return simpleTypeDeclaration;
+		}
+
+		/**
+		 * @return <code>true</code> if the attribute "type" references a built-in simple
+		 *         type of XML Schema.
+		 */
+		boolean isBuiltInType()
+		{
+			return builtInType;
+		}
+	}
+
+	private final boolean hasTypes;
+
+	private final List<Node> schemata;
+
+	/**
+	 * The first declaration in document order per name.
+	 */
+	private Map<String, Node> declarations = null;
+
+	private final Map<Node, NodeInfo> nodeInfos = new IdentityHashMap<Node, NodeInfo>();
+
+	/**
+	 * The child nodes of the visited nodes.
+	 */
+	private final Map<Node, Node[]> children = new IdentityHashMap<Node, Node[]>();
+
+	/**
+	 * <code>true</code> if all nodes of the schemata are indexed. Then the maps are not
+	 * modified anymore.
+	 */
+	private boolean indexed = false;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param types
+	 *            [SOURCE] The types of the WSDL file. May be <code>null</code>.
+	 */
+	SchemaTypeClassifier(final Types types)
+	{
+		this.hasTypes = (types != null);
+		this.schemata = new ArrayList<Node>();
+		if (types != null)
+		{
+			for (final Object schemaObj : types.getExtensibilityElements())
+			{
+				if (schemaObj instanceof Schema)
+				{
+					schemata.add(((Schema) schemaObj).getElement());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return [REPORT] <code>true</code> if the WSDL file has a types section.
+	 * @thematicgrid Checking Operations
+	 */
+	boolean hasTypes()
+	{
+		return hasTypes;
+	}
+
+	/**
+	 * @param typeName
+	 *            [OBJECT] The qualified name of a type or an element.
+	 * @return [REPORT] <code>true</code> if <code>typeName</code> is a built-in simple
+	 *         type of XML Schema: http://www.w3.org/TR/xmlschema-0/
+	 * @thematicgrid Checking Operations
+	 */
+	static boolean isBuiltInType(final QName typeName)
+	{
+		return BUILT_IN_TYPES.contains(typeName);
+	}
+
+	/**
+	 * Returns the first element, complex type or simple type which has the name
+	 * <code>localTypeName</code>. The schemata are searched in document order.
+	 *
+	 * @param localTypeName
+	 *            [PRIMARY_KEY] The local name of the declaration.
+	 * @return [OBJECT] The declaration, or <code>null</code> if it does not exist.
+	 * @thematicgrid Searching Operations
+	 */
+	Node findTypeDeclarationNode(final String localTypeName)
+	{
+		if (declarations == null)
+		{
+			declarations = new HashMap<String, Node>();
+			for (final Node schema : schemata)
+			{
+				indexDeclarations(schema);
+			}
+		}
+		return declarations.get(localTypeName);
+	}
+
+	/**
+	 * Indexes the declarations, the classifications and the child nodes of all nodes of
+	 * the schemata. Afterwards the classifier may be used by several threads, if it is
+	 * handed over safely (e.g. by an {@link java.util.concurrent.Executor}).
+	 *
+	 * @thematicgrid Putting Operations
+	 */
+	void indexAll()
+	{
+		if (!indexed)
+		{
+			// the declarations index visits all nodes
+			findTypeDeclarationNode(TYPE_NAME_ANONYMOUS);
+			indexed = true;
+		}
+	}
+
+	private void indexDeclarations(final Node tree)
+	{
+		final NodeInfo info = classify(tree);
+		if ((info.isElementOrComplexType() || info.isSimpleTypeDeclaration())
+				&& !declarations.containsKey(info.getName()))
+		{
+			declarations.put(info.getName(), tree);
+		}
+
+		for (final Node child : getChildren(tree))
+		{
+			indexDeclarations(child);
+		}
+	}
+
+	/**
+	 * @param node
+	 *            [OBJECT] A node of a schema.
+	 * @return [OBJECT] The cached child nodes of the <code>node</code>.
+	 * @thematicgrid Getting Operations
+	 */
+	Node[] getChildren(final Node node)
+	{
+		Node[] nodeChildren = children.get(node);
+		if (nodeChildren == null)
+		{
+			final NodeList childNodes = node.getChildNodes();
+			nodeChildren = new Node[childNodes.getLength()];
+			for (int i = 0; i < nodeChildren.length; i++)
+			{
+				nodeChildren[i] = childNodes.item(i);
+			}
+			if (!indexed)
+			{
+				children.put(node, nodeChildren);
+			}
+		}
+		return nodeChildren;
+	}
+
+	/**
+	 * @param node
+	 *            [OBJECT] A node of a schema.
+	 * @return [REPORT] The cached classification of the <code>node</code>.
+	 * @thematicgrid Getting Operations
+	 */
+	NodeInfo classify(final Node node)
+	{
+		NodeInfo info = nodeInfos.get(node);
+		if (info == null)
+		{
+			info = createNodeInfo(node);
+			if (!indexed)
+			{
+				nodeInfos.put(node, info);
+			}
+		}
+		return info;
+	}
+
+	private static NodeInfo createNodeInfo(final Node node)
+	{
+		final String localName = node.getLocalName();
+		final boolean element = XML_ELEMENT.equalsIgnoreCase(localName);
+		final boolean complexType = XML_COMPLEXTYPE.equalsIgnoreCase(localName);
+		final boolean simpleTypeDeclaration = XML_SIMPLETYPE.equalsIgnoreCase(localName);
+
+		String name = TYPE_NAME_ANONYMOUS;
+		String typeName = TYPE_NAME_ANONYMOUS;
+		boolean builtInType = false;
+
+		final NamedNodeMap attributes = node.getAttributes();
+		if (attributes != null)
+		{
+			final Node nameAttr = attributes.getNamedItem(XML_ATTRIBUTE_NAME);
+			if (nameAttr != null)
+			{
+				name = nameAttr.getNodeValue();
+			}
+
+			final Node typeAttr = attributes.getNamedItem(XML_ATTRIBUTE_TYPE);
+			if (typeAttr != null)
+			{
+				final QName type = resolveTypeReference(node, typeAttr.getNodeValue());
+				typeName = type.getLocalPart();
+				builtInType = isBuiltInType(type);
+			}
+		}
+
+		return new NodeInfo(name, typeName, element, complexType,
+				simpleTypeDeclaration, builtInType);
+	}
+
+	/**
+	 * Resolves the prefix of <code>reference</code> with the namespace declarations in
+	 * scope of <code>node</code>. If the prefix is not declared, the reference is
+	 * assumed to be a type of XML Schema, because many WSDL files in the wild do not
+	 * declare it.
+	 */
+	private static QName resolveTypeReference(final Node node, final String reference)
+	{
+		final int delimiter = reference.indexOf(XML_NS_DELIMITER);
+		final String prefix = (delimiter > -1) ? reference.substring(0, delimiter) : null;
+		final String localName = (delimiter > -1) ? reference.substring(delimiter + 1)
+				: reference;
+
+		String namespace = null;
+		try
+		{
+			namespace = node.lookupNamespaceURI(prefix);
+		}
+		catch (final UnsupportedOperationException e)
+		{
+			// DOM level 2 implementation; fall back to XML Schema below.
+		}
+
+		return new QName((namespace != null) ? namespace : XSD_NAMESPACE, localName);
+	}
+}
@@ -19,6 +19,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,10 +58,16 @@ import de.akra.idocit.wsdl.structure.WSDLParameter;
  * The WSDL interface parser. It extracts the {@link PortType}s with its
  * {@link javax.wsdl.Operation}s and {@link Message}s and creates a
  * {@link WSDLInterfaceArtifact} which holds the structure.
+ * <p>
+ * If an executor is set, the messages of port types with many operations are built in
+ * parallel from the indexed schemata (see {@link SchemaTypeClassifier#indexAll()}).
+ * The documentation elements are read in the calling thread, because the DOM is not
+ * thread-safe. The artifact is the same as if it is parsed sequentially.
+ * </p>
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class WSDLInterfaceParser
@@ -78,6 +88,12 @@ public class WSDLInterfaceParser
 
 	private static final String CATEGORY_FAULT_MESSAGE = "FaultMessage";
 
+	/**
+	 * The minimum number of operations of a port type to build their messages in
+	 * parallel.
+	 */
+	private static final int MIN_PARALLEL_OPERATIONS = 8;
+
 	/**
 	 * Logger.
 	 */
@@ -98,6 +114,27 @@ public class WSDLInterfaceParser
 	 */
 	private Delimiters delimiters;
 
+	/**
+	 * The classification of the schema nodes, shared by all messages of one parse run.
+	 */
+	private SchemaTypeClassifier typeClassifier;
+
+	/**
+	 * The executor which builds the messages in parallel, or <code>null</code> to build
+	 * them in the calling thread.
+	 */
+	private ExecutorService operationExecutor = null;
+
+	/**
+	 * The built messages of a {@link javax.wsdl.Operation}.
+	 */
+	private static final class OperationMessages
+	{
+		private WSDLMessage input;
+		private WSDLMessage output;
+		private List<Parameters> faults;
+	}
+
 	/**
 	 * Constructor.
 	 * 
@@ -116,6 +153,21 @@ public class WSDLInterfaceParser
 		this.delimiters = delimiters;
 	}
 
+	/**
+	 * Sets the executor which builds the messages of the port types with many
+	 * operations in parallel. The {@link Definition} must not be changed while it is
+	 * parsed.
+	 * 
+	 * @param operationExecutor
+	 *            [OBJECT] The executor, or <code>null</code> to build all messages in the
+	 *            calling thread (default).
+	 * @thematicgrid Setting Operation / Setter
+	 */
+	public void setOperationExecutor(final ExecutorService operationExecutor)
+	{
+		this.operationExecutor = operationExecutor;
+	}
+
 	/**
 	 * Parses the WSDL file and extracts all needed information.
 	 * 
@@ -126,11 +178,51 @@ public class WSDLInterfaceParser
 		WSDLInterfaceArtifact ifaceArtifact = new WSDLInterfaceArtifact(
 				SignatureElement.EMPTY_SIGNATURE_ELEMENT, CATEGORY_ARTIFACT,
 				wsdlDefinition, artifactName, Numerus.SINGULAR);
-		ifaceArtifact.setInterfaces(readPortTypes(ifaceArtifact));
+		typeClassifier = new SchemaTypeClassifier(wsdlDefinition.getTypes());
+		if (isParallel())
+		{
+			// the workers must not read the DOM
+			typeClassifier.indexAll();
+		}
+		try
+		{
+			ifaceArtifact.setInterfaces(readPortTypes(ifaceArtifact));
+		}
+		finally
+		{
+			typeClassifier = null;
+		}
 
 		return ifaceArtifact;
 	}
 
+	/**
+	 * @return <code>true</code> if an executor is set and a port type has enough
+	 *         operations to build their messages in parallel.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean isParallel()
+	{
+		if (operationExecutor != null)
+		{
+			for (final PortType portType : ((Map<QName, PortType>) wsdlDefinition
+					.getPortTypes()).values())
+			{
+				if (isParallel(portType.getOperations()))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isParallel(final List<?> operations)
+	{
+		return operationExecutor != null
+				&& operations.size() >= MIN_PARALLEL_OPERATIONS;
+	}
+
 	/**
 	 * Extracts the {@link PortType}s from the WSDL {@link Definition}
 	 * <code>wsdlDefinition</code>.
@@ -181,86 +273,205 @@ public class WSDLInterfaceParser
 	 * @return A {@link List} with the {@link WSDLOperation}s parsed from
 	 *         <code>operations</code>.
 	 */
-	@SuppressWarnings("unchecked")
 	private List<WSDLOperation> readOperations(SignatureElement parent,
 			List<javax.wsdl.Operation> operations)
 	{
 		List<WSDLOperation> opList = new ArrayList<WSDLOperation>(operations.size());
 
-		for (javax.wsdl.Operation o : operations)
+		// the messages built by the executor, in the order of the operations
+		final List<Future<OperationMessages>> pendingMessages = isParallel(operations) ? new ArrayList<Future<OperationMessages>>(
+				operations.size()) : null;
+		try
 		{
-			Element thematicGridElement = DocumentationParser
-					.findDocElemWithThematicGrid(o.getDocumentationElements());
-			String thematicGridName = null;
-
-			if (thematicGridElement != null)
+			for (javax.wsdl.Operation o : operations)
 			{
-				thematicGridName = DocumentationParser
-						.readThematicGridName(thematicGridElement);
-			}
+				Element thematicGridElement = DocumentationParser
+						.findDocElemWithThematicGrid(o.getDocumentationElements());
+				String thematicGridName = null;
 
-			WSDLOperation newOp = createWsdlOperation(parent, thematicGridName);
-			newOp.setIdentifier(o.getName());
-			newOp.setOperation(o);
-			newOp.setDocumentations(DocumentationParser.parseDocElements(o
-					.getDocumentationElements()));
+				if (thematicGridElement != null)
+				{
+					thematicGridName = DocumentationParser
+							.readThematicGridName(thematicGridElement);
+				}
 
-			WSDLMessage wsdlMessage;
+				WSDLOperation newOp = createWsdlOperation(parent, thematicGridName);
+				newOp.setIdentifier(o.getName());
+				newOp.setOperation(o);
+				newOp.setDocumentations(DocumentationParser.parseDocElements(o
+						.getDocumentationElements()));
 
-			// create object structure for the input message
-			wsdlMessage = buildWSDLMessageStructure(newOp, o.getInput().getMessage(),
-					CATEGORY_INPUT_MESSAGE);
-			if (wsdlMessage != null)
+				if (pendingMessages != null)
+				{
+					pendingMessages.add(submitOperationMessages(newOp, o));
+				}
+				else
+				{
+					setMessages(newOp, buildOperationMessages(newOp, o));
+				}
+				opList.add(newOp);
+			}
+
+			if (pendingMessages != null)
 			{
-				wsdlMessage.setMessageRef(o.getInput());
-				newOp.setInputParameters(wsdlMessage);
+				for (int i = 0; i < opList.size(); i++)
+				{
+					setMessages(opList.get(i), awaitMessages(pendingMessages.get(i)));
+				}
 			}
-			else
+		}
+		finally
+		{
+			if (pendingMessages != null)
 			{
-				logger.log(Level.SEVERE, "Input message could not be built.");
+				for (final Future<OperationMessages> pending : pendingMessages)
+				{
+					pending.cancel(false);
+				}
 			}
+		}
 
-			// create object structure for the output message
-			wsdlMessage = buildWSDLMessageStructure(newOp, o.getOutput().getMessage(),
-					CATEGORY_OUTPUT_MESSAGE);
-			if (wsdlMessage != null)
+		return opList;
+	}
+
+	/**
+	 * Submits the building of the messages of the <code>operation</code> to the
+	 * {@link #operationExecutor}.
+	 * 
+	 * @see #buildOperationMessages(WSDLOperation, javax.wsdl.Operation)
+	 */
+	private Future<OperationMessages> submitOperationMessages(
+			final WSDLOperation wsdlOperation, final javax.wsdl.Operation operation)
+	{
+		return operationExecutor.submit(new Callable<OperationMessages>() {
+			@Override
+			public OperationMessages call()
 			{
-				wsdlMessage.setMessageRef(o.getOutput());
-				newOp.setOutputParameters(wsdlMessage);
+				return buildOperationMessages(wsdlOperation, operation);
 			}
-			else
+		});
+	}
+
+	/**
+	 * Waits for the messages built by the {@link #operationExecutor}.
+	 * 
+	 * @throws IllegalStateException
+	 *             If the thread was interrupted while waiting.
+	 */
+	private static OperationMessages awaitMessages(
+			final Future<OperationMessages> pendingMessages)
+	{
+		try
+		{
+			return pendingMessages.get();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while waiting for the built messages.", e);
+		}
+		catch (final ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
 			{
-				logger.log(Level.SEVERE, "Output message could not be built.");
+				throw (RuntimeException) cause;
 			}
-
-			// create object structure for the fault messages
-			List<Parameters> faultMessages = new ArrayList<Parameters>(o.getFaults()
-					.size());
-			for (Fault fault : ((Map<String, Fault>) o.getFaults()).values())
+			else if (cause instanceof Error)
 			{
-				wsdlMessage = buildWSDLMessageStructure(newOp, fault.getMessage(),
-						CATEGORY_FAULT_MESSAGE);
-
-				if (wsdlMessage != null)
-				{
-					wsdlMessage.setMessageRef(fault);
-					faultMessages.add(wsdlMessage);
-				}
-				else
-				{
-					logger.log(Level.SEVERE, "Fault message could not be built.");
-				}
+				throw (Error) cause;
 			}
-			newOp.setExceptions(faultMessages);
+			throw new IllegalStateException(cause);
+		}
+	}
 
-			// match documentations (docpart elements) to embedded Messages
-			attachDocumentation(newOp);
+	/**
+	 * Sets the built <code>messages</code> to the <code>wsdlOperation</code> and
+	 * attaches their documentations. It reads the DOM, so it must be called by the
+	 * parsing thread.
+	 */
+	private void setMessages(final WSDLOperation wsdlOperation,
+			final OperationMessages messages)
+	{
+		if (messages.input != null)
+		{
+			wsdlOperation.setInputParameters(messages.input);
+		}
+		if (messages.output != null)
+		{
+			wsdlOperation.setOutputParameters(messages.output);
+		}
+		wsdlOperation.setExceptions(messages.faults);
+
+		// match documentations (docpart elements) to embedded Messages
+		attachDocumentation(wsdlOperation);
+	}
 
-			opList.add(newOp);
+	/**
+	 * Builds the input, output and fault messages of the <code>operation</code>. It
+	 * does not read the DOM, so it may be called in parallel for different operations,
+	 * if the schemata are indexed.
+	 * 
+	 * @param newOp
+	 *            The parent for the new {@link WSDLMessage}s.
+	 * @param o
+	 *            The {@link javax.wsdl.Operation} with the messages.
+	 * @return The built messages.
+	 */
+	@SuppressWarnings("unchecked")
+	private OperationMessages buildOperationMessages(final WSDLOperation newOp,
+			final javax.wsdl.Operation o)
+	{
+		final OperationMessages messages = new OperationMessages();
+		WSDLMessage wsdlMessage;
 
+		// create object structure for the input message
+		wsdlMessage = buildWSDLMessageStructure(newOp, o.getInput().getMessage(),
+				CATEGORY_INPUT_MESSAGE);
+		if (wsdlMessage != null)
+		{
+			wsdlMessage.setMessageRef(o.getInput());
+			messages.input = wsdlMessage;
+		}
+		else
+		{
+			logger.log(Level.SEVERE, "Input message could not be built.");
 		}
 
-		return opList;
+		// create object structure for the output message
+		wsdlMessage = buildWSDLMessageStructure(newOp, o.getOutput().getMessage(),
+				CATEGORY_OUTPUT_MESSAGE);
+		if (wsdlMessage != null)
+		{
+			wsdlMessage.setMessageRef(o.getOutput());
+			messages.output = wsdlMessage;
+		}
+		else
+		{
+			logger.log(Level.SEVERE, "Output message could not be built.");
+		}
+
+		// create object structure for the fault messages
+		List<Parameters> faultMessages = new ArrayList<Parameters>(o.getFaults().size());
+		for (Fault fault : ((Map<String, Fault>) o.getFaults()).values())
+		{
+			wsdlMessage = buildWSDLMessageStructure(newOp, fault.getMessage(),
+					CATEGORY_FAULT_MESSAGE);
+
+			if (wsdlMessage != null)
+			{
+				wsdlMessage.setMessageRef(fault);
+				faultMessages.add(wsdlMessage);
+			}
+			else
+			{
+				logger.log(Level.SEVERE, "Fault message could not be built.");
+			}
+		}
+		messages.faults = faultMessages;
+
+		return messages;
 	}
 
 	/**
@@ -318,8 +529,8 @@ public class WSDLInterfaceParser
 
 		WSDLMessage wsdlMessage = null;
 
-		List<String> rolePaths = WSDLParsingService.extractRoles(message,
-				wsdlDefinition.getTypes(), delimiters);
+		List<String> rolePaths = WSDLParsingService.extractMessageRoles(message,
+				typeClassifier, delimiters);
 
 		if (!rolePaths.isEmpty())
 		{
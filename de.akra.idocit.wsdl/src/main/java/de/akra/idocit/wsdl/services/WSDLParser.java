@@ -20,6 +20,13 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,8 +42,9 @@ import de.akra.idocit.common.constants.Misc;
 import de.akra.idocit.common.structure.Delimiters;
 import de.akra.idocit.common.structure.InterfaceArtifact;
 import de.akra.idocit.core.extensions.Parser;
+import de.akra.idocit.core.extensions.ValidationEngine;
 import de.akra.idocit.core.extensions.ValidationReport;
-import de.akra.idocit.core.extensions.ValidationReport.ValidationCode;
+import de.akra.idocit.core.extensions.ValidationRule;
 import de.akra.idocit.wsdl.structure.WSDLInterfaceArtifact;
 
 /**
@@ -44,7 +52,7 @@ import de.akra.idocit.wsdl.structure.WSDLInterfaceArtifact;
  * 
  * @author Dirk Meier-Eickhoff
  * @since 0.0.1
- * @version 0.0.1
+ * @version 0.0.2
  * 
  */
 public class WSDLParser implements Parser
@@ -76,6 +84,23 @@ public class WSDLParser implements Parser
 		delimiters.setTypeDelimiter("+");
 	}
 
+	/**
+	 * Seconds until an idle thread of the {@link #operationExecutor} terminates.
+	 */
+	private static final long OPERATION_THREAD_KEEP_ALIVE = 30;
+
+	/**
+	 * The executor for the messages of port types with many operations. Created on
+	 * first use.
+	 */
+	private static ExecutorService operationExecutor = null;
+
+	/**
+	 * Validates the artifacts. There are no rules for WSDL yet.
+	 */
+	private static final ValidationEngine VALIDATION = new ValidationEngine(
+			Collections.<ValidationRule> emptyList());
+
 	/**
 	 * Factory for WSDL parser.
 	 */
@@ -92,11 +117,8 @@ public class WSDLParser implements Parser
 	@Override
 	public InterfaceArtifact parse(IFile iFile) throws WSDLException
 	{
-		if (wsdlFactory == null)
-		{
-			wsdlFactory = WSDLFactory.newInstance();
-		}
-		WSDLReader reader = wsdlFactory.newWSDLReader();
+		// the imported schemata and WSDL files are parsed once for all parsed files
+		WSDLReader reader = new CachingWSDLReader(ImportedDocumentCache.INSTANCE);
 
 		logger.log(Level.FINE, "reader implementation = " + reader.toString());
 
@@ -104,10 +126,41 @@ public class WSDLParser implements Parser
 				.getAbsolutePath());
 		WSDLInterfaceParser iParser = new WSDLInterfaceParser(wsdlDefinition,
 				iFile.getName(), delimiters);
+		iParser.setOperationExecutor(getOperationExecutor());
 		InterfaceArtifact artifact = iParser.parse();
 		return artifact;
 	}
 
+	/**
+	 * Returns the executor for the messages and creates it if necessary. It has one
+	 * daemon thread per processor; idle threads terminate.
+	 */
+	private static synchronized ExecutorService getOperationExecutor()
+	{
+		if (operationExecutor == null)
+		{
+			final int threads = Runtime.getRuntime().availableProcessors();
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+					OPERATION_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+						@Override
+						public Thread newThread(final Runnable runnable)
+						{
+							final Thread thread = new Thread(runnable,
+									"iDocIt! WSDL Parser-"
+											+ threadNumber.getAndIncrement());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			operationExecutor = executor;
+		}
+		return operationExecutor;
+	}
+
 	/**
 	 * @throws WSDLException
 	 *             If the instance creation fails.
@@ -174,10 +227,6 @@ public class WSDLParser implements Parser
 	@Override
 	public ValidationReport validateArtifact(InterfaceArtifact artifact)
 	{
-		ValidationReport report = new ValidationReport();
-		report.setMessage("");
-		report.setReturnCode(ValidationCode.OK);
-
-		return report;
+		return VALIDATION.validate(artifact);
 	}
 }
@@ -24,13 +24,12 @@ import java.util.Set;
 import javax.wsdl.Message;
 import javax.wsdl.Part;
 import javax.wsdl.Types;
-import javax.wsdl.extensions.schema.Schema;
 import javax.xml.namespace.QName;
 
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import de.akra.idocit.common.structure.Delimiters;
+import de.akra.idocit.wsdl.services.SchemaTypeClassifier.NodeInfo;
 
 /**
  * Provides operations for the extraction of information from WSDL-files.
@@ -43,22 +42,7 @@ public final class WSDLParsingService
 	// Constants
 	private static final String TYPE_NAME_NO_DEFINITION = "no_definition";
 	private static final String TYPE_NAME_RECURSION = "[recursion]";
-	private static final String TYPE_NAME_ANONYMOUS = "anonymous";
-
-	private static final String XML_NS_DELIMITER = ":";
-	private static final String XML_ATTRIBUTE_TYPE = "type";
-	private static final String XML_SIMPLETYPE = "simpletype";
-	private static final String XML_COMPLEXTYPE = "complextype";
-	private static final String XML_ELEMENT = "element";
-	private static final String XML_ATTRIBUTE_NAME = "name";
-	private static final String[] SIMPLE_XML_TYPES = { "string", "normalizedString",
-			"token", "base64Binary", "hexBinary", "integer", "positiveInteger",
-			"negativeInteger", "nonNegativeInteger", "nonPositiveInteger", "long",
-			"unsignedLong", "int", "unsignedInt", "short", "unsignedShort", "byte",
-			"unsignedByte", "decimal", "float", "double", "boolean", "duration",
-			"dateTime", "date", "time", "gYear", "gYearMonth", "gMonth", "gMonthDay",
-			"gDay", "Name", "QName", "NCName", "anyURI", "language", "ID", "IDREF",
-			"IDREFS", "ENTITY", "ENTITIES", "NOTATION", "NMTOKEN", "NMTOKENS", "anyType" };
+	private static final String TYPE_NAME_ANONYMOUS = SchemaTypeClassifier.TYPE_NAME_ANONYMOUS;
 
 	/**
 	 * Extracts all the referenced type structure from the given {@link Message}
@@ -108,6 +92,9 @@ public final class WSDLParsingService
 	 * "anonymous" (like an anonymous type).</li>
 	 * <li>If a complex type contains no elements, it is labeled with the type
 	 * "no_definition"</li>
+	 * <li>Only types of the XML Schema namespace are simple types. A user defined type
+	 * with the name of a built-in type, e.g. <code>tns:string</code>, is resolved like
+	 * any other type.</li>
 	 * </ul>
 	 * </p>
 	 * 
@@ -120,6 +107,17 @@ public final class WSDLParsingService
 	 */
 	public static List<String> extractRoles(Message wsdlMessage, Types types,
 			Delimiters delimiters)
+	{
+		return extractMessageRoles(wsdlMessage, new SchemaTypeClassifier(types),
+				delimiters);
+	}
+
+	/**
+	 * Same as {@link #extractRoles(Message, Types, Delimiters)}, but reuses the
+	 * classification of the schema nodes of previous calls.
+	 */
+	static List<String> extractMessageRoles(Message wsdlMessage,
+			SchemaTypeClassifier classifier, Delimiters delimiters)
 	{
 		List<String> result = new ArrayList<String>();
 
@@ -143,39 +141,19 @@ public final class WSDLParsingService
 						+ delimiters.getTypeDelimiter() + localPartName;
 
 				// ... and append a dot, if the Part has a simple type as type.
-				if (!isSimpleType(localPartName) && (types != null))
+				if (!isSimpleType(part) && classifier.hasTypes())
 				{
 					path += delimiters.getPathDelimiter();
-					List<Node> schemata = new ArrayList<Node>();
-
-					// 2. Collect all schema-nodes in one list, ...
-					for (Object schemaObj : types.getExtensibilityElements())
-					{
-						if (schemaObj instanceof Schema)
-						{
-							Schema schema = (Schema) schemaObj;
-
-							schemata.add(schema.getElement());
-						}
-					}
-
-					int i = 0;
-					Node typeNode = null;
 
-					// ... get the node which declares the type of the current
-					// Part
+					// 2. Get the node which declares the type of the current Part
 					// ...
-					while ((i < schemata.size()) && (typeNode == null))
-					{
-						typeNode = findTypeDeclarationNode(schemata.get(i), localPartName);
-						i++;
-					}
+					Node typeNode = classifier.findTypeDeclarationNode(localPartName);
 
 					// ... and extract its flat structure.
 					if (typeNode != null)
 					{
 						List<String> childPaths = extractFlatMessageStructure(typeNode,
-								schemata, new HashSet<String>(), delimiters);
+								classifier, new HashSet<String>(), delimiters);
 
 						for (String childPpath : childPaths)
 						{
@@ -199,112 +177,34 @@ public final class WSDLParsingService
 	}
 
 	/**
-	 * Returns the {@link Node} with localname == element and attribute name ==
-	 * <code>localTypeName</code>. It searches for this {@link Node} in the given
-	 * <code>tree</code>.
-	 * 
-	 * @param tree
-	 *            The tree where to look for the {@link Node}
-	 * @param localTypeName
-	 *            The type-name of the {@link Node} to look for
-	 * @return The {@link Node} with name <code>localTypeName</code>
-	 */
-	private static Node findTypeDeclarationNode(Node tree, String localTypeName)
-	{
-		// 1. Case: we have an element and have to look for the name.
-		if ((isElementOrComplexType(tree) || isSimpleType(tree.getLocalName()))
-				&& getNameAttribute(tree).equals(localTypeName))
-		{
-			return tree;
-			// 2. Case: we have a one-node-tree
-		}
-		else if (!tree.hasChildNodes())
-		{
-			return null;
-			// 3. Case: the current node is not the right one, but maybe one of
-			// its
-			// children.
-		}
-		else
-		{
-			NodeList children = tree.getChildNodes();
-
-			Node typeNode = null;
-			int i = 0;
-
-			while ((i < children.getLength()) && (typeNode == null))
-			{
-				typeNode = findTypeDeclarationNode(children.item(i), localTypeName);
-				i++;
-			}
-
-			return typeNode;
-		}
-	}
-
-	private static String getNameAttribute(Node tree)
-	{
-		if (tree.getAttributes() != null)
-		{
-			Node name = tree.getAttributes().getNamedItem(XML_ATTRIBUTE_NAME);
-
-			return (name != null) ? name.getNodeValue() : TYPE_NAME_ANONYMOUS;
-		}
-		else
-		{
-			return TYPE_NAME_ANONYMOUS;
-		}
-	}
-
-	private static boolean isElementOrComplexType(Node tree)
-	{
-		return XML_ELEMENT.equalsIgnoreCase(String.valueOf(tree.getLocalName()))
-				|| isNamedComplexType(tree);
-	}
-
-	private static boolean isNamedComplexType(Node tree)
-	{
-		return XML_COMPLEXTYPE.equalsIgnoreCase(String.valueOf(tree.getLocalName()))
-				&& (tree.getAttributes() != null) && (getNameAttribute(tree) != null);
-	}
-
-	/**
-	 * Returns <code>true</code> if <code>typeName</code> is a simple type according to
-	 * the XML-Schema specification: http://www.w3.org/TR/xmlschema-0/
+	 * Returns <code>true</code> if the element or the type of the <code>part</code> is a
+	 * simple type according to the XML-Schema specification:
+	 * http://www.w3.org/TR/xmlschema-0/
 	 * 
-	 * @param typeName
-	 *            The type-name to check
+	 * @param part
+	 *            The {@link Part} to check
 	 * 
-	 * @return <code>true</code> if <code>typeName</code> is a simple type, else
+	 * @return <code>true</code> if <code>part</code> has a simple type, else
 	 *         <code>false</code>
 	 */
-	private static boolean isSimpleType(String typeName)
+	private static boolean isSimpleType(Part part)
 	{
-		String lcTypeName = String.valueOf(typeName);
-
-		if (XML_SIMPLETYPE.equalsIgnoreCase(lcTypeName))
+		if (part.getElementName() != null)
 		{
-			return true;
+			return SchemaTypeClassifier.isBuiltInType(part.getElementName());
+		}
+		else if (part.getTypeName() != null)
+		{
+			return SchemaTypeClassifier.isBuiltInType(part.getTypeName());
 		}
 		else
 		{
-			for (String simpleType : SIMPLE_XML_TYPES)
-			{
-				if (simpleType.equalsIgnoreCase(lcTypeName))
-				{
-					return true;
-				}
-			}
-
-			return false;
+			// a Part without a type is assumed to be declared in XML Schema
+			return SchemaTypeClassifier.isBuiltInType(new QName(
+					SchemaTypeClassifier.XSD_NAMESPACE, part.getName()));
 		}
 	}
 
-	private static boolean isSimpleType(Node node)
-	{
-		return (node != null) && isSimpleType(node.getLocalName());
-	}
-
 	/**
 	 * Extracts the flat-message structure as specified in the documentation of {@link
 	 * this#extractRoles(Message, Types)}.
@@ -315,21 +215,22 @@ public final class WSDLParsingService
 	 * @return The flat-message structure
 	 */
 	private static List<String> extractFlatMessageStructure(Node node,
-			List<Node> schemata, Set<String> visitedTypes, Delimiters delimiters)
+			SchemaTypeClassifier classifier, Set<String> visitedTypes,
+			Delimiters delimiters)
 	{
 		List<String> result = new ArrayList<String>();
+		NodeInfo nodeInfo = classifier.classify(node);
 		// At first derive the type name ...
-		String typeName = deriveTypeName(node, delimiters);
-		boolean isSimpleType = isSimpleType(typeName);
+		String typeName = nodeInfo.getTypeName();
 		boolean isVisitedType = visitedTypes.contains(typeName);
 
 		visitedTypes.add(typeName);
 
 		// ... and check if we have a simple type. (1st case)
-		if (isSimpleType)
+		if (nodeInfo.isBuiltInType())
 		{
 			// Ok, we have to add this element to our result.
-			String elementName = getNameAttribute(node);
+			String elementName = nodeInfo.getName();
 
 			result.add(elementName + delimiters.getTypeDelimiter() + typeName);
 			// 2nd case: do we have a recursive type definition?
@@ -337,7 +238,7 @@ public final class WSDLParsingService
 		else if (isVisitedType && !TYPE_NAME_ANONYMOUS.equals(typeName))
 		{
 			// Ok, we have to add this element to our result and stop recursion.
-			String elementName = getNameAttribute(node);
+			String elementName = nodeInfo.getName();
 
 			result.add(elementName + delimiters.getTypeDelimiter() + typeName
 					+ TYPE_NAME_RECURSION);
@@ -350,40 +251,29 @@ public final class WSDLParsingService
 
 			if (TYPE_NAME_ANONYMOUS.equals(typeName))
 			{
-				NodeList childNodes = node.getChildNodes();
-
 				// Get the paths of the child-nodes ...
-				for (int i = 0; i < childNodes.getLength(); i++)
+				for (Node childNode : classifier.getChildren(node))
 				{
-					Node childNode = childNodes.item(i);
-
-					allChildPaths.addAll(extractFlatMessageStructure(childNode, schemata,
-							visitedTypes, delimiters));
+					allChildPaths.addAll(extractFlatMessageStructure(childNode,
+							classifier, visitedTypes, delimiters));
 				}
 			}
 			else
 			{
-				int i = 0;
-
-				while ((i < schemata.size()) && (typeDeclarationNode == null))
-				{
-					typeDeclarationNode = findTypeDeclarationNode(schemata.get(i),
-							typeName);
-					i++;
-				}
+				typeDeclarationNode = classifier.findTypeDeclarationNode(typeName);
 
 				if (typeDeclarationNode != null)
 				{
 					allChildPaths.addAll(extractFlatMessageStructure(typeDeclarationNode,
-							schemata, visitedTypes, delimiters));
+							classifier, visitedTypes, delimiters));
 				}
 			}
 
 			// This node has to be added to the result only if it is an element.
-			if (isElementOrComplexType(node))
+			if (nodeInfo.isElementOrComplexType())
 			{
 				// Parse only valid elements with a name.
-				String elementName = getNameAttribute(node);
+				String elementName = nodeInfo.getName();
 
 				// ... and concat them with the current element- and
 				// typename.
@@ -391,7 +281,7 @@ public final class WSDLParsingService
 				{
 					for (String childPath : allChildPaths)
 					{
-						if (isNamedComplexType(node))
+						if (nodeInfo.isComplexType())
 						{
 							result.add(childPath);
 						}
@@ -402,10 +292,12 @@ public final class WSDLParsingService
 						}
 					}
 				}
-				else if (isSimpleType(typeDeclarationNode))
+				else if ((typeDeclarationNode != null)
+						&& classifier.classify(typeDeclarationNode)
+								.isSimpleTypeDeclaration())
 				{
 					result.add(elementName + delimiters.getTypeDelimiter()
-							+ getNameAttribute(typeDeclarationNode));
+							+ classifier.classify(typeDeclarationNode).getName());
 				}
 				else
 				{
@@ -421,45 +313,4 @@ public final class WSDLParsingService
 
 		return result;
 	}
-
-	/**
-	 * Returns the value of attribute "type" of the given {@link Node} <code>node</code>.
-	 * If this attribute is not declared, the type will be "anonymous". The result will
-	 * always be a local name without namespace.
-	 * 
-	 * @param node
-	 *            The {@link Node} to get the type of
-	 * 
-	 * @return The type of the given node.
-	 */
-	private static String deriveTypeName(Node node, Delimiters delimiters)
-	{
-		String typeName = null;
-		String nodeName = String.valueOf(node.getLocalName());
-
-		if ((node.getAttributes() == null)
-				|| (node.getAttributes().getNamedItem(XML_ATTRIBUTE_TYPE) == null))
-		{
-			typeName = TYPE_NAME_ANONYMOUS;
-		}
-		else if (XML_SIMPLETYPE.equalsIgnoreCase(nodeName))
-		{
-			return nodeName;
-		}
-		else
-		{
-			typeName = node.getAttributes().getNamedItem(XML_ATTRIBUTE_TYPE)
-					.getNodeValue();
-		}
-
-		if (typeName.indexOf(XML_NS_DELIMITER) > -1)
-		{
-			return typeName.split(XML_NS_DELIMITER)[1];
-		}
-		else
-		{
-			return typeName;
-		}
-	}
-
 }